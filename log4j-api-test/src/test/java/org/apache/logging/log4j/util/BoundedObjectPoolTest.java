@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class BoundedObjectPoolTest {
+
+    @Test
+    public void testReusesReleasedObjects() {
+        final AtomicInteger created = new AtomicInteger();
+        final BoundedObjectPool<Object> pool = new BoundedObjectPool<>(4, () -> {
+            created.incrementAndGet();
+            return new Object();
+        });
+        final Object first = pool.acquire();
+        final Object second = pool.acquire();
+        assertNotSame(first, second);
+        assertEquals(2, created.get());
+
+        pool.release(first);
+        assertSame(first, pool.acquire());
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    public void testDropsObjectsWhenFull() {
+        final AtomicInteger created = new AtomicInteger();
+        final BoundedObjectPool<Object> pool = new BoundedObjectPool<>(2, () -> {
+            created.incrementAndGet();
+            return new Object();
+        });
+        for (int i = 0; i < 10; i++) {
+            pool.release(new Object());
+        }
+        for (int i = 0; i < 10; i++) {
+            pool.acquire();
+        }
+        // only two idle objects were kept
+        assertEquals(8, created.get());
+    }
+
+    @Test
+    public void testPlatformThreadsAreNotVirtual() {
+        assertFalse(VirtualThreads.isVirtual(Thread.currentThread()));
+        assertFalse(VirtualThreads.isCurrentThreadVirtual());
+    }
+}
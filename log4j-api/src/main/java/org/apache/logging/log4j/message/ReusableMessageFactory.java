@@ -18,7 +18,9 @@ package org.apache.logging.log4j.message;
 
 import java.io.Serializable;
 
+import org.apache.logging.log4j.util.BoundedObjectPool;
 import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.VirtualThreads;
 
 /**
  * Implementation of the {@link MessageFactory} interface that avoids allocating temporary objects where possible.
@@ -41,6 +43,9 @@ public final class ReusableMessageFactory implements MessageFactory2, Serializab
     private static ThreadLocal<ReusableParameterizedMessage> threadLocalParameterized = new ThreadLocal<>();
     private static ThreadLocal<ReusableSimpleMessage> threadLocalSimpleMessage = new ThreadLocal<>();
     private static ThreadLocal<ReusableObjectMessage> threadLocalObjectMessage = new ThreadLocal<>();
+    // shared by virtual threads, which would each keep their own message in the ThreadLocal
+    private static final BoundedObjectPool<ReusableParameterizedMessage> parameterizedPool =
+            new BoundedObjectPool<>(ReusableParameterizedMessage::new);
 
     /**
      * Constructs a message factory.
@@ -49,6 +54,9 @@ public final class ReusableMessageFactory implements MessageFactory2, Serializab
     }
 
     private static ReusableParameterizedMessage getParameterized() {
+        if (VirtualThreads.isCurrentThreadVirtual()) {
+            return parameterizedPool.acquire().reserve();
+        }
         ReusableParameterizedMessage result = threadLocalParameterized.get();
         if (result == null) {
             result = new ReusableParameterizedMessage();
@@ -58,6 +66,9 @@ public final class ReusableMessageFactory implements MessageFactory2, Serializab
     }
 
     private static ReusableSimpleMessage getSimple() {
+        if (VirtualThreads.isCurrentThreadVirtual()) {
+            return new ReusableSimpleMessage();
+        }
         ReusableSimpleMessage result = threadLocalSimpleMessage.get();
         if (result == null) {
             result = new ReusableSimpleMessage();
@@ -67,6 +78,9 @@ public final class ReusableMessageFactory implements MessageFactory2, Serializab
     }
 
     private static ReusableObjectMessage getObject() {
+        if (VirtualThreads.isCurrentThreadVirtual()) {
+            return new ReusableObjectMessage();
+        }
         ReusableObjectMessage result = threadLocalObjectMessage.get();
         if (result == null) {
             result = new ReusableObjectMessage();
@@ -84,7 +98,12 @@ public final class ReusableMessageFactory implements MessageFactory2, Serializab
      */
     public static void release(final Message message) { // LOG4J2-1583
         if (message instanceof Clearable) {
+            final boolean pooled = message instanceof ReusableParameterizedMessage
+                    && ((ReusableParameterizedMessage) message).reserved && VirtualThreads.isCurrentThreadVirtual();
             ((Clearable) message).clear();
+            if (pooled) {
+                parameterizedPool.release((ReusableParameterizedMessage) message);
+            }
         }
     }
 
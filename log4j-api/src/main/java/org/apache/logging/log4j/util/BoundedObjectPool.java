@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <em>Consider this class private.</em>
+ * <p>
+ * A lock-free pool holding at most a fixed number of idle objects, shared by all threads. It replaces
+ * {@link ThreadLocal} caches on {@link VirtualThreads virtual threads}: only as many objects as there are threads
+ * logging at the same time are needed, however many threads exist.
+ * </p>
+ * <p>
+ * The pool is an array of slots. A thread starts looking for an idle object, or for an empty slot to return an object
+ * to, at a slot derived from its ID, so that concurrent threads rarely compete for the same slot. If it finds none
+ * within a few slots, it creates a new object or drops the returned one.
+ * </p>
+ *
+ * @param <T> the type of the pooled objects.
+ * @since 2.21.0
+ */
+@PerformanceSensitive("allocation")
+public final class BoundedObjectPool<T> {
+
+    private static final int MAX_PROBES = 8;
+
+    private final AtomicReferenceArray<T> slots;
+
+    private final int mask;
+
+    private final int probes;
+
+    private final Supplier<T> factory;
+
+    /**
+     * Creates a pool for twice as many objects as there are processors.
+     *
+     * @param factory creates objects when the pool is empty.
+     */
+    public BoundedObjectPool(final Supplier<T> factory) {
+        this(2 * Runtime.getRuntime().availableProcessors(), factory);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param capacity the maximum number of idle objects, rounded up to a power of two.
+     * @param factory creates objects when the pool is empty.
+     */
+    public BoundedObjectPool(final int capacity, final Supplier<T> factory) {
+        final int size = Integer.highestOneBit(Math.max(1, capacity) * 2 - 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.probes = Math.min(size, MAX_PROBES);
+        this.factory = factory;
+    }
+
+    /**
+     * Takes an idle object from the pool, or creates one if none is found.
+     *
+     * @return an object that the caller owns until it {@linkplain #release(Object) releases} it.
+     */
+    public T acquire() {
+        final int start = stripe();
+        for (int i = 0; i < probes; i++) {
+            final int index = (start + i) & mask;
+            final T result = slots.get(index);
+            if (result != null && slots.compareAndSet(index, result, null)) {
+                return result;
+            }
+        }
+        return factory.get();
+    }
+
+    /**
+     * Returns an object to the pool. The caller must not use it any more. The object is dropped if the pool is full.
+     *
+     * @param object an object to reuse.
+     */
+    public void release(final T object) {
+        final int start = stripe();
+        for (int i = 0; i < probes; i++) {
+            final int index = (start + i) & mask;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, object)) {
+                return;
+            }
+        }
+    }
+
+    private int stripe() {
+        final long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 32)) * 0x9E3779B9 >>> 16;
+    }
+}
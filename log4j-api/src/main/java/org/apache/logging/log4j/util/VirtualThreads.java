@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * <em>Consider this class private.</em>
+ * <p>
+ * Detects virtual threads on Java 21 and later. Virtual threads are cheap and numerous, so objects cached in
+ * {@link ThreadLocal}s on a virtual thread are rarely reused and add up to a lot of memory. Log4j therefore takes
+ * these objects from a shared {@link BoundedObjectPool} on virtual threads instead.
+ * </p>
+ * <p>
+ * Enabled by default on Java 21 and later; disable by setting system property "log4j2.virtualThreadAware" to
+ * "false".
+ * </p>
+ *
+ * @since 2.21.0
+ */
+public final class VirtualThreads {
+
+    /**
+     * {@code true} if virtual threads may exist and should not get thread-local caches.
+     */
+    public static final boolean ENABLED;
+
+    private static final MethodHandle IS_VIRTUAL;
+
+    static {
+        MethodHandle isVirtual = null;
+        if (Constants.JAVA_MAJOR_VERSION >= 21) {
+            try {
+                isVirtual = MethodHandles.publicLookup()
+                        .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+            } catch (final ReflectiveOperationException | RuntimeException e) {
+                LowLevelLogUtil.logException("Virtual threads are not supported.", e);
+            }
+        }
+        IS_VIRTUAL = isVirtual;
+        ENABLED = isVirtual != null
+                && PropertiesUtil.getProperties().getBooleanProperty("log4j2.virtualThreadAware", true);
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Returns {@code true} if the current thread is a virtual thread and virtual thread support is
+     * {@link #ENABLED enabled}.
+     *
+     * @return whether the current thread should not use thread-local caches.
+     */
+    public static boolean isCurrentThreadVirtual() {
+        return ENABLED && isVirtual(Thread.currentThread());
+    }
+
+    /**
+     * Returns {@code true} if the given thread is a virtual thread.
+     *
+     * @param thread a thread.
+     * @return whether the thread is virtual; always {@code false} before Java 21.
+     */
+    public static boolean isVirtual(final Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (final Throwable e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.test.appender.BlockingAppender;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a slow appender in its own dispatch lane does not hold back the other appenders of an AsyncAppender.
+ */
+@LoggerContextSource("log4j-asynch-dispatch-lane.xml")
+public class AsyncAppenderDispatchLaneTest {
+
+    private final BlockingAppender blockingAppender;
+
+    public AsyncAppenderDispatchLaneTest(@Named("Block") final BlockingAppender blockingAppender) {
+        this.blockingAppender = blockingAppender;
+    }
+
+    @AfterEach
+    public void after() {
+        blockingAppender.running = false;
+    }
+
+    @Test
+    public void testSlowLaneDoesNotBlockOtherAppenders(
+            final LoggerContext context, @Named("List") final ListAppender listAppender,
+            @Named("Async") final AsyncAppender asyncAppender) throws Exception {
+        final Logger logger = context.getLogger(AsyncAppenderDispatchLaneTest.class);
+        for (int i = 0; i < 100; i++) {
+            logger.info("event {}", i);
+        }
+        final List<String> messages = listAppender.getMessages(100, 5, TimeUnit.SECONDS);
+        assertEquals(100, messages.size());
+        assertEquals("event 99", messages.get(99));
+        assertTrue(asyncAppender.getAppenders().contains(blockingAppender));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.BatchAppender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.AppenderControl;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that {@link AsyncAppenderEventDispatcher} passes the events of failed batches to the error appender.
+ */
+public class AsyncAppenderEventDispatcherTest {
+
+    @Test
+    public void testFailedBatchGoesToErrorAppender() throws Exception {
+        final ListAppender errorAppender = dispatch(new BatchOnlyAppender(true));
+        assertEquals(2, errorAppender.getEvents().size());
+    }
+
+    @Test
+    public void testWrittenBatchDoesNotGoToErrorAppender() throws Exception {
+        final ListAppender errorAppender = dispatch(new BatchOnlyAppender(false));
+        assertEquals(0, errorAppender.getEvents().size());
+    }
+
+    private static ListAppender dispatch(final BatchOnlyAppender appender) throws InterruptedException {
+        final ListAppender errorAppender = new ListAppender("Error");
+        errorAppender.start();
+        final BlockingQueue<LogEvent> queue = new ArrayBlockingQueue<>(16);
+        queue.add(createEvent("first"));
+        queue.add(createEvent("second"));
+        final AsyncAppenderEventDispatcher dispatcher = new AsyncAppenderEventDispatcher("Test",
+                new AppenderControl(errorAppender, null, null),
+                Collections.singletonList(new AppenderControl(appender, null, null)), queue);
+        dispatcher.start();
+        dispatcher.stop(10_000);
+        return errorAppender;
+    }
+
+    private static LogEvent createEvent(final String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName(AsyncAppenderEventDispatcherTest.class.getName())
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(message))
+                .build();
+    }
+
+    private static final class BatchOnlyAppender extends AbstractAppender implements BatchAppender {
+
+        private final boolean failing;
+
+        BatchOnlyAppender(final boolean failing) {
+            super("Batch", null, null, false, Property.EMPTY_ARRAY);
+            this.failing = failing;
+            start();
+        }
+
+        @Override
+        public void append(final LogEvent event) {
+            append(new LogEvent[] {event}, 1);
+        }
+
+        @Override
+        public void append(final LogEvent[] events, final int count) {
+            if (failing) {
+                throw new AppenderLoggingException("Batch failed");
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.async.OverflowJournal;
+import org.apache.logging.log4j.core.test.appender.BlockingAppender;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.junit.jupiter.api.Test;
+import org.junitpioneer.jupiter.SetSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a full AsyncAppender spills events to its overflow journal instead of blocking.
+ */
+@SetSystemProperty(key = "log4j2.AsyncQueueFullPolicy", value = "Spill")
+@SetSystemProperty(key = "log4j2.OverflowJournalDirectory", value = "target/AsyncAppenderSpillTest")
+@SetSystemProperty(key = "log4j2.OverflowJournalSize", value = "1 MB")
+public class AsyncAppenderSpillTest {
+
+    @Test
+    @LoggerContextSource("log4j-asynch-spill.xml")
+    public void testSpillsAndReplaysInOrder(final LoggerContext context, @Named("Async") final AsyncAppender async,
+            @Named("Block") final BlockingAppender block, @Named("List") final ListAppender list) throws Exception {
+        final OverflowJournal journal = async.getOverflowJournal();
+        assertNotNull(journal, "overflow journal");
+        final Logger logger = context.getLogger(AsyncAppenderSpillTest.class);
+
+        // the dispatcher blocks on the first event: the queue fills up and the rest goes to the journal
+        for (int i = 0; i < 100; i++) {
+            logger.info("event {}", i);
+        }
+        assertTrue(journal.isActive());
+        assertTrue(journal.getSpilledEventCount() >= 100 - 1 - async.getQueueCapacity());
+
+        block.running = false;
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (list.getMessages().size() < 100 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        final List<String> messages = list.getMessages();
+        assertEquals(100, messages.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("event " + i, messages.get(i));
+        }
+        assertEquals(journal.getSpilledBytes(), journal.getReplayedBytes());
+    }
+}
@@ -41,6 +41,7 @@ import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.test.junit.CleanUpFiles;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -195,6 +196,60 @@ public class FileAppenderTest {
         testMultipleLockingAppenderThreads(true, THREADS, createOnDemand);
     }
 
+    @Test
+    public void testDurableAppenderThreads() throws Exception {
+        // @formatter:off
+        final FileAppender appender = FileAppender.newBuilder()
+            .withFileName(FILE_NAME)
+            .setName("test")
+            .withImmediateFlush(false)
+            .setIgnoreExceptions(false)
+            .withDurable(true)
+            .setLayout(createPatternLayout())
+            .build();
+        // @formatter:on
+        final int logEventCount = 100;
+        final int threadCount = 4;
+        final ExecutorService threadPool = Executors.newFixedThreadPool(threadCount);
+        final AtomicReference<Throwable> throwableRef = new AtomicReference<>();
+        try {
+            appender.start();
+            assertTrue(appender.getImmediateFlush(), "durable implies immediate flush");
+            assertTrue(appender.getManager().isDurable());
+            for (int i = 0; i < threadCount; ++i) {
+                threadPool.execute(() -> {
+                    try {
+                        for (int j = 0; j < logEventCount; ++j) {
+                            appender.append(Log4jLogEvent.newBuilder()
+                                    .setLoggerName("TestLogger")
+                                    .setLoggerFqcn(FileAppenderTest.class.getName())
+                                    .setLevel(Level.INFO)
+                                    .setMessage(new SimpleMessage("Test"))
+                                    .setThreadName(Thread.currentThread().getName())
+                                    .setTimeMillis(System.currentTimeMillis())
+                                    .build());
+                        }
+                    } catch (final Throwable e) {
+                        throwableRef.set(e);
+                    }
+                });
+            }
+            threadPool.shutdown();
+            assertTrue(threadPool.awaitTermination(20, TimeUnit.SECONDS), "The thread pool has not shutdown");
+            if (throwableRef.get() != null) {
+                Throwables.rethrow(throwableRef.get());
+            }
+            final GroupCommit groupCommit = appender.getManager().getGroupCommit();
+            assertEquals(threadCount * logEventCount, groupCommit.getCommitCount());
+            assertTrue(groupCommit.getGroupCount() > 0);
+            assertTrue(groupCommit.getGroupCount() <= groupCommit.getCommitCount());
+            // every append returned after its event was written
+            verifyFile(threadCount * logEventCount);
+        } finally {
+            appender.stop();
+        }
+    }
+
     @ParameterizedTest
     @ValueSource(booleans = { false, true })
     @Disabled
@@ -16,12 +16,19 @@
  */
 package org.apache.logging.log4j.core.appender;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Serializable;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import org.apache.commons.lang3.SystemUtils;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.Appender;
@@ -29,12 +36,14 @@ import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.layout.JsonLayout;
+import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.apache.logging.log4j.core.lookup.JavaLookup;
 import org.apache.logging.log4j.core.net.ssl.KeyStoreConfiguration;
 import org.apache.logging.log4j.core.net.ssl.SslConfiguration;
 import org.apache.logging.log4j.core.net.ssl.TestConstants;
 import org.apache.logging.log4j.core.net.ssl.TrustStoreConfiguration;
 import org.apache.logging.log4j.core.test.junit.LoggerContextRule;
+import org.apache.logging.log4j.core.util.IOUtils;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.status.StatusData;
 import org.apache.logging.log4j.status.StatusListener;
@@ -47,6 +56,7 @@ import org.junit.Test;
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.containing;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.exactly;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.put;
@@ -55,6 +65,7 @@ import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /* Fails often on Windows, for example:
 [ERROR] Failed to execute goal org.apache.maven.plugins:maven-surefire-plugin:2.20.1:test (default-test) on project log4j-core: There are test failures.
@@ -305,4 +316,125 @@ public class HttpAppenderTest {
         appender.append(createLogEvent());
     }
 
+    @Test
+    public void testAppendBatched() throws Exception {
+        wireMockRule.stubFor(post(urlEqualTo("/test/log4j/"))
+            .willReturn(SUCCESS_RESPONSE));
+
+        final HttpAppender appender = HttpAppender.newBuilder().setName("Http")
+            .setLayout(PatternLayout.newBuilder().withPattern("%m").build())
+            .setConfiguration(ctx.getConfiguration())
+            .setUrl(new URL("http://localhost:" + wireMockRule.port() + "/test/log4j/"))
+            .setBatchSize(3)
+            .setBatchLingerMillis(60_000)
+            .build();
+        appender.start();
+        for (int i = 0; i < 7; i++) {
+            appender.append(createLogEvent());
+        }
+        appender.stop(10, TimeUnit.SECONDS);
+
+        wireMockRule.verify(exactly(3), postRequestedFor(urlEqualTo("/test/log4j/")));
+        final HttpBatchingManager manager = (HttpBatchingManager) appender.getManager();
+        assertEquals(3, manager.getBatchCount());
+        assertEquals(7, manager.getEventCount());
+        assertEquals(0, manager.getFailedBatchCount());
+        int lines = 0;
+        for (final LoggedRequest request : wireMockRule.findAll(postRequestedFor(urlEqualTo("/test/log4j/")))) {
+            for (final String line : request.getBodyAsString().split("\n")) {
+                assertEquals(LOG_MESSAGE, line);
+                lines++;
+            }
+        }
+        assertEquals(7, lines);
+    }
+
+    @Test
+    public void testAppendBatchedEmptyEvents() throws Exception {
+        wireMockRule.stubFor(post(urlEqualTo("/test/log4j/"))
+            .willReturn(SUCCESS_RESPONSE));
+
+        final HttpAppender appender = HttpAppender.newBuilder().setName("Http")
+            .setLayout(PatternLayout.newBuilder().withPattern("%X{missing}").build())
+            .setConfiguration(ctx.getConfiguration()).setIgnoreExceptions(false)
+            .setUrl(new URL("http://localhost:" + wireMockRule.port() + "/test/log4j/"))
+            .setBatchSize(2)
+            .setBatchLingerMillis(60_000)
+            .build();
+        appender.start();
+        appender.append(createLogEvent());
+        appender.append(createLogEvent());
+        appender.stop(10, TimeUnit.SECONDS);
+
+        final HttpBatchingManager manager = (HttpBatchingManager) appender.getManager();
+        assertEquals(2, manager.getEventCount());
+        assertEquals(0, manager.getFailedBatchCount());
+    }
+
+    @Test
+    public void testAppendBatchedLinger() throws Exception {
+        wireMockRule.stubFor(post(urlEqualTo("/test/log4j/"))
+            .willReturn(SUCCESS_RESPONSE));
+
+        final HttpAppender appender = HttpAppender.newBuilder().setName("Http")
+            .setLayout(PatternLayout.newBuilder().withPattern("%m").build())
+            .setConfiguration(ctx.getConfiguration())
+            .setUrl(new URL("http://localhost:" + wireMockRule.port() + "/test/log4j/"))
+            .setBatchSize(100)
+            .setBatchLingerMillis(50)
+            .build();
+        appender.start();
+        try {
+            appender.append(createLogEvent());
+            final HttpBatchingManager manager = (HttpBatchingManager) appender.getManager();
+            final long deadline = System.currentTimeMillis() + 10_000;
+            while (manager.getBatchCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, manager.getEventCount());
+        } finally {
+            appender.stop(10, TimeUnit.SECONDS);
+        }
+        wireMockRule.verify(exactly(1), postRequestedFor(urlEqualTo("/test/log4j/")));
+    }
+
+    @Test
+    public void testAppendBatchedJsonArrayCompressed() throws Exception {
+        wireMockRule.stubFor(post(urlEqualTo("/test/log4j/"))
+            .willReturn(SUCCESS_RESPONSE));
+
+        final HttpAppender appender = HttpAppender.newBuilder().setName("Http")
+            .setLayout(JsonLayout.newBuilder().setCompact(true).build())
+            .setConfiguration(ctx.getConfiguration())
+            .setUrl(new URL("http://localhost:" + wireMockRule.port() + "/test/log4j/"))
+            .setBatchSize(2)
+            .setBatchFormat(HttpBatchingManager.BatchFormat.JSON_ARRAY)
+            .setCompress(true)
+            .build();
+        appender.start();
+        appender.append(createLogEvent());
+        appender.append(createLogEvent());
+        appender.stop(10, TimeUnit.SECONDS);
+
+        wireMockRule.verify(exactly(1), postRequestedFor(urlEqualTo("/test/log4j/"))
+            .withHeader("Content-Type", containing("application/json"))
+            .withHeader("Content-Encoding", equalTo("gzip")));
+        final List<LoggedRequest> requests = wireMockRule.findAll(postRequestedFor(urlEqualTo("/test/log4j/")));
+        final String body = ungzip(requests.get(0).getBody()).trim();
+        assertTrue(body, body.startsWith("[{"));
+        assertTrue(body, body.endsWith("}]"));
+        assertTrue(body, body.contains("},{"));
+        assertTrue(body, body.contains("\"message\":\"" + LOG_MESSAGE + "\""));
+    }
+
+    private static String ungzip(final byte[] body) throws IOException {
+        if (body.length < 2 || body[0] != (byte) 0x1f || body[1] != (byte) 0x8b) {
+            // already decompressed by the server
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return IOUtils.toString(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
 }
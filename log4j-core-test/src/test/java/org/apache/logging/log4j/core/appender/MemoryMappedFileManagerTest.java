@@ -64,6 +64,54 @@ public class MemoryMappedFileManagerTest {
         }
     }
 
+    @Test
+    public void testConcurrentWritesAcrossRegions() throws Exception {
+        final int mapSize = 256; // very small, on purpose
+        final int threads = 4;
+        final int messages = 2000;
+        final File file = new File(tempDir, "memory-mapped-file.bin");
+
+        long expectedLength = 0;
+        try (final MemoryMappedFileManager manager = MemoryMappedFileManager.getFileManager(file.getAbsolutePath(),
+                false, false, mapSize, null, null, true)) {
+            assertTrue(manager.isConcurrentWrites());
+            final Thread[] writers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                writers[t] = new Thread(() -> {
+                    for (int i = 0; i < messages; i++) {
+                        final byte[] msg = ("Thread " + thread + " message " + i + "\n").getBytes();
+                        manager.write(msg, 0, msg.length, false);
+                    }
+                });
+                writers[t].start();
+            }
+            for (final Thread writer : writers) {
+                writer.join();
+            }
+            for (int t = 0; t < threads; t++) {
+                for (int i = 0; i < messages; i++) {
+                    expectedLength += ("Thread " + t + " message " + i + "\n").length();
+                }
+            }
+        }
+
+        assertEquals(expectedLength, file.length(), "truncated after the last message");
+        final int[] next = new int[threads];
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] parts = line.split(" ");
+                assertEquals(4, parts.length, line);
+                final int thread = Integer.parseInt(parts[1]);
+                assertEquals(next[thread]++, Integer.parseInt(parts[3]), "messages of a thread in order");
+            }
+        }
+        for (int t = 0; t < threads; t++) {
+            assertEquals(messages, next[t]);
+        }
+    }
+
     @Test
     public void testAppendDoesNotOverwriteExistingFile() throws IOException {
         final File file = new File(tempDir, "memory-mapped-file.bin");
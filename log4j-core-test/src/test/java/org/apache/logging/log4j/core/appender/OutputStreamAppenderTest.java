@@ -19,15 +19,22 @@ package org.apache.logging.log4j.core.appender;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.filter.NoMarkerFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.AbstractStringLayout;
 import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -73,6 +80,43 @@ public class OutputStreamAppenderTest {
         Assert.assertEquals(filter, appender.getFilter());
     }
 
+    @Test
+    public void testBatchIsWrittenPastFailedEvent() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Layout<String> layout = new AbstractStringLayout(StandardCharsets.UTF_8) {
+            @Override
+            public String toSerializable(final LogEvent event) {
+                final String message = event.getMessage().getFormattedMessage();
+                if ("fail".equals(message)) {
+                    throw new IllegalStateException(message);
+                }
+                return message + "\n";
+            }
+        };
+        final OutputStreamAppender appender = OutputStreamAppender.createAppender(layout, null, out, getName(out),
+                false, true);
+        appender.start();
+        final LogEvent[] events = {createEvent("first", false), createEvent("fail", false), createEvent("last", true)};
+        try {
+            appender.append(events, events.length);
+            Assert.fail("the failure of the second event was not rethrown");
+        } catch (final IllegalStateException expected) {
+            Assert.assertEquals("fail", expected.getMessage());
+        } finally {
+            appender.stop();
+        }
+        Assert.assertEquals("first\nlast\n", out.toString());
+    }
+
+    private static LogEvent createEvent(final String message, final boolean endOfBatch) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName(OutputStreamAppenderTest.class.getName())
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(message))
+                .setEndOfBatch(endOfBatch)
+                .build();
+    }
+
     @Test
     public void testOutputStreamAppenderToBufferedOutputStream() throws SQLException {
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
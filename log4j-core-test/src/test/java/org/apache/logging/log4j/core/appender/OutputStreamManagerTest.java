@@ -16,17 +16,25 @@
  */
 package org.apache.logging.log4j.core.appender;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.util.CloseShieldOutputStream;
 import org.apache.logging.log4j.status.StatusData;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -77,4 +85,48 @@ public class OutputStreamManagerTest {
 
         assertEquals(outputStreamManager.getByteBuffer().limit(), outputStreamManager.getByteBuffer().capacity());
     }
+
+    @Test
+    public void testDirectBufferIsWrittenToFileChannel(@TempDir final File tempDir) throws IOException {
+        final File file = new File(tempDir, "channel.log");
+        try (final FileOutputStream fos = new FileOutputStream(file)) {
+            final OutputStreamManager manager = createChannelOutputManager(new CloseShieldOutputStream(fos));
+            final String expected = writeDirect(manager);
+            assertEquals(expected, new String(Files.readAllBytes(file.toPath()), StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    public void testDirectBufferIsCopiedToOtherStreams() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final OutputStreamManager manager = createChannelOutputManager(out);
+        final String expected = writeDirect(manager);
+        assertEquals(expected, new String(out.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+    private static OutputStreamManager createChannelOutputManager(final OutputStream os) {
+        return new OutputStreamManager(null, os, "test", false, null, false, ByteBuffer.allocateDirect(16)) {
+            @Override
+            protected boolean isChannelOutput() {
+                return true;
+            }
+        };
+    }
+
+    private static String writeDirect(final OutputStreamManager manager) {
+        final StringBuilder expected = new StringBuilder();
+        // buffered, then written with the buffer in one gathering write
+        for (final String text : new String[] {"small ", "a message longer than the buffer ", "tiny "}) {
+            final byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            manager.writeBytes(bytes, 0, bytes.length);
+            expected.append(text);
+        }
+        for (final String text : new String[] {"again ", "a byte buffer longer than the buffer ", "end"}) {
+            manager.writeBytes(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)));
+            expected.append(text);
+        }
+        manager.flush();
+        assertEquals(0, manager.getByteBuffer().position());
+        return expected.toString();
+    }
 }
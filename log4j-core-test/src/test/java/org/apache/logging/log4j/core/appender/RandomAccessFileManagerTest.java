@@ -117,6 +117,35 @@ public class RandomAccessFileManagerTest {
         }
     }
 
+    @Test
+    public void testDurableWritesAreCommittedInGroups() throws Exception {
+        final File file = new File(tempDir, "testDurableWritesAreCommittedInGroups.bin");
+        try (final RandomAccessFileManager manager = RandomAccessFileManager.getFileManager(file.getAbsolutePath(),
+                false, true, RandomAccessFileManager.DEFAULT_BUFFER_SIZE, null, null, true, null)) {
+            assertTrue(manager.isDurable());
+            final byte[] bytes = new byte[100];
+            final int writes = 200;
+            final Thread[] threads = new Thread[4];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = new Thread(() -> {
+                    for (int j = 0; j < writes; j++) {
+                        manager.write(bytes, 0, bytes.length, true);
+                    }
+                });
+                threads[i].start();
+            }
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+            // the bytes of every returned write are in the file, without a further flush
+            assertEquals((long) threads.length * writes * bytes.length, file.length());
+            final GroupCommit groupCommit = manager.getGroupCommit();
+            assertEquals(threads.length * writes, groupCommit.getCommitCount());
+            assertTrue(groupCommit.getGroupCount() > 0);
+            assertTrue(groupCommit.getGroupCount() <= groupCommit.getCommitCount());
+        }
+    }
+
     @Test
     public void testAppendDoesNotOverwriteExistingFile() throws IOException {
         final boolean isAppend = true;
@@ -24,6 +24,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.BDDMockito.then;
@@ -115,6 +116,46 @@ public class AbstractDatabaseManagerTest {
         reset(manager);
     }
 
+    @Test
+    public void testBatchWithoutBuffering() throws Exception {
+        setUp("name", 0);
+
+        final LogEvent event1 = mock(LogEvent.class);
+        final LogEvent event2 = mock(LogEvent.class);
+        final LogEvent[] events = {event1, event2, null};
+        final Serializable[] serializables = new Serializable[3];
+
+        manager.startup();
+        reset(manager);
+
+        manager.write(events, serializables, 2);
+        then(manager).should().isBuffered();
+        then(manager).should().writeThrough(same(events), same(serializables), eq(2));
+        then(manager).should().connectAndStart();
+        then(manager).should().writeInternal(same(event1), (Serializable) isNull());
+        then(manager).should().writeInternal(same(event2), (Serializable) isNull());
+        then(manager).should().commitAndClose();
+        then(manager).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    public void testBatchWithBuffering() throws Exception {
+        setUp("name", 3);
+
+        final LogEvent event1 = mock(LogEvent.class);
+        final LogEvent event2 = mock(LogEvent.class);
+        when(event1.toImmutable()).thenReturn(event1);
+        when(event2.toImmutable()).thenReturn(event2);
+        when(event2.isEndOfBatch()).thenReturn(true);
+
+        manager.startup();
+        manager.write(new LogEvent[] {event1, event2}, new Serializable[2], 2);
+        then(manager).should().connectAndStart();
+        then(manager).should().writeInternal(same(event1), (Serializable) isNull());
+        then(manager).should().writeInternal(same(event2), (Serializable) isNull());
+        then(manager).should().commitAndClose();
+    }
+
     @Test
     public void testBuffering02() throws Exception {
         setUp("name", 4);
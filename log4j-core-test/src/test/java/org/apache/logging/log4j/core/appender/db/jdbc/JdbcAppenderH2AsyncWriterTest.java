@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.db.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
+import org.apache.logging.log4j.core.test.appender.db.jdbc.JdbcH2TestHelper;
+import org.apache.logging.log4j.core.test.junit.JdbcRule;
+import org.apache.logging.log4j.core.test.junit.LoggerContextRule;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the background writer of {@link JdbcAppender}, enabled with {@code asyncQueueSize}.
+ */
+public class JdbcAppenderH2AsyncWriterTest {
+
+    private static final int THREADS = 4;
+    private static final int EVENTS_PER_THREAD = 500;
+
+    private static volatile boolean databaseAvailable = true;
+
+    public static Connection getConnection() throws SQLException {
+        if (!databaseAvailable) {
+            throw new SQLException("Database unavailable");
+        }
+        return JdbcH2TestHelper.getConnectionInMemory();
+    }
+
+    private final JdbcRule jdbcRule = new JdbcRule(JdbcH2TestHelper.TEST_CONFIGURATION_SOURCE_MEM,
+            "CREATE TABLE asyncLogEntry (eventDate DATETIME, level VARCHAR(10), "
+                    + "message VARCHAR(1024))",
+            "DROP TABLE IF EXISTS asyncLogEntry");
+
+    private final LoggerContextRule loggerContextRule = new LoggerContextRule(
+            "org/apache/logging/log4j/core/appender/db/jdbc/log4j2-h2-async-writer.xml");
+
+    @Rule
+    public final RuleChain rules = RuleChain.emptyRuleChain().around(jdbcRule).around(loggerContextRule);
+
+    @After
+    public void restoreDatabase() {
+        databaseAvailable = true;
+    }
+
+    @Test
+    public void testConcurrentLoggingIsWrittenInBatches() throws Exception {
+        final JdbcAppender appender = loggerContextRule.getAppender("databaseAppender", JdbcAppender.class);
+        assertTrue(appender.getManager().isAsync());
+        final Logger logger = loggerContextRule.getLogger(JdbcAppenderH2AsyncWriterTest.class);
+        final Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            final int thread = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < EVENTS_PER_THREAD; j++) {
+                    logger.info("thread {} event {}", thread, j);
+                }
+            });
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        appender.getManager().flush();
+
+        assertEquals(THREADS * EVENTS_PER_THREAD, countRows());
+    }
+
+    @Test
+    public void testEventsAreWrittenAfterTheDatabaseComesBack() throws Exception {
+        final JdbcAppender appender = loggerContextRule.getAppender("databaseAppender", JdbcAppender.class);
+        final Logger logger = loggerContextRule.getLogger(JdbcAppenderH2AsyncWriterTest.class);
+        appender.getManager().flush();
+        databaseAvailable = false;
+        // the writer keeps the statement it prepared, make it reconnect
+        appender.getManager().closeResources(false);
+        for (int i = 0; i < 10; i++) {
+            logger.info("event {}", i);
+        }
+        // logging does not fail nor block while the database is unavailable
+        Thread.sleep(300);
+        assertEquals(0, countRows());
+
+        databaseAvailable = true;
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (countRows() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(10, countRows());
+    }
+
+    @Test
+    public void testLoggingFailsInsteadOfBlockingWhenTheQueueStaysFull() throws Exception {
+        final JdbcAppender appender = loggerContextRule.getAppender("databaseAppender", JdbcAppender.class);
+        final Logger logger = loggerContextRule.getLogger(JdbcAppenderH2AsyncWriterTest.class);
+        appender.getManager().flush();
+        databaseAvailable = false;
+        appender.getManager().closeResources(false);
+        AppenderLoggingException failure = null;
+        // the queue holds 1000 events, and the writer at most one batch more
+        for (int i = 0; i < 2000 && failure == null; i++) {
+            try {
+                logger.info("event {}", i);
+            } catch (final AppenderLoggingException e) {
+                failure = e;
+            }
+        }
+        assertNotNull(failure);
+        assertTrue(failure.getMessage(), failure.getMessage().contains("is full"));
+    }
+
+    private int countRows() throws SQLException {
+        try (final Connection connection = jdbcRule.getConnection();
+                final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM asyncLogEntry")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.mom.kafka;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.test.categories.Appenders;
+import org.apache.logging.log4j.core.test.junit.LoggerContextRule;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.status.StatusData;
+import org.apache.logging.log4j.status.StatusListener;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the bounded in-flight sends of {@link KafkaAppender}.
+ */
+@Category(Appenders.Kafka.class)
+public class KafkaAppenderInFlightTest {
+
+    private static final Serializer<byte[]> SERIALIZER = new ByteArraySerializer();
+
+    private static final MockProducer<byte[], byte[]> kafka = new MockProducer<byte[], byte[]>(false, SERIALIZER,
+            SERIALIZER) {
+
+        // @Override in version 1.1.1
+        public void close(final long timeout, final TimeUnit timeUnit) {
+            // Intentionally do not close in order to reuse
+        }
+
+        // @Override in version 3.3.1
+        public void close(final Duration timeout) {
+            // Intentionally do no close in order to reuse
+        }
+    };
+
+    private static Log4jLogEvent createLogEvent(final String message) {
+        return Log4jLogEvent.newBuilder()
+            .setLoggerName(KafkaAppenderInFlightTest.class.getName())
+            .setLoggerFqcn(KafkaAppenderInFlightTest.class.getName())
+            .setLevel(Level.INFO)
+            .setMessage(new SimpleMessage(message))
+            .build();
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        KafkaManager.producerFactory = config -> kafka;
+    }
+
+    @Rule
+    public LoggerContextRule ctx = new LoggerContextRule("KafkaAppenderInFlightTest.xml");
+
+    private KafkaAppender appender;
+
+    @Before
+    public void setUp() throws Exception {
+        kafka.clear();
+        appender = ctx.getRequiredAppender("KafkaAppenderInFlight", KafkaAppender.class);
+    }
+
+    @Test
+    public void testWaitsOnlyWhenWindowIsFull() throws Exception {
+        appender.append(createLogEvent("1"));
+        appender.append(createLogEvent("2"));
+        assertEquals(2, kafka.history().size());
+
+        final Thread third = new Thread(() -> appender.append(createLogEvent("3")));
+        third.start();
+        third.join(200);
+        assertTrue("third send should wait for an in-flight send", third.isAlive());
+        assertEquals(2, kafka.history().size());
+
+        assertTrue(kafka.completeNext());
+        third.join(5000);
+        assertFalse(third.isAlive());
+        assertEquals(3, kafka.history().size());
+    }
+
+    @Test
+    public void testFailuresAreReportedToErrorHandler() throws Exception {
+        final List<StatusData> errors = new CopyOnWriteArrayList<>();
+        final StatusListener listener = new StatusListener() {
+            @Override
+            public void log(final StatusData data) {
+                errors.add(data);
+            }
+
+            @Override
+            public Level getStatusLevel() {
+                return Level.ERROR;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        StatusLogger.getLogger().registerListener(listener);
+        try {
+            appender.append(createLogEvent("1"));
+            appender.append(createLogEvent("2"));
+            assertTrue(errors.isEmpty());
+
+            final RuntimeException failure = new RuntimeException("broker unavailable");
+            assertTrue(kafka.errorNext(failure));
+            assertTrue(kafka.completeNext());
+            assertEquals(1, errors.size());
+            assertEquals("Unable to write to Kafka in appender [KafkaAppenderInFlight]",
+                    errors.get(0).getMessage().getFormattedMessage());
+            assertSame(failure, errors.get(0).getThrowable());
+        } finally {
+            StatusLogger.getLogger().removeListener(listener);
+        }
+
+        // the window is free again
+        appender.append(createLogEvent("3"));
+        appender.append(createLogEvent("4"));
+        assertEquals(4, kafka.history().size());
+    }
+
+    @Test
+    public void testStopFlushesInFlightSends() throws Exception {
+        appender.append(createLogEvent("1"));
+        appender.append(createLogEvent("2"));
+        appender.stop(10, TimeUnit.SECONDS);
+        assertFalse("all sends should have completed", kafka.completeNext());
+        assertEquals(2, kafka.history().size());
+    }
+}
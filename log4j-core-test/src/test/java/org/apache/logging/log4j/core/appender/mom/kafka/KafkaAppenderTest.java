@@ -36,6 +36,7 @@ import org.apache.kafka.common.serialization.Serializer;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.BatchAppender;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.test.categories.Appenders;
@@ -68,7 +69,9 @@ public class KafkaAppenderTest {
             Future<RecordMetadata> retVal = super.send(record);
 
             boolean isRetryTest = "true".equals(ThreadContext.get("KafkaAppenderWithRetryCount"));
-            if (isRetryTest) {
+            final String failedMessage = ThreadContext.get("KafkaAppenderFailedMessage");
+            if (isRetryTest
+                    || failedMessage != null && failedMessage.equals(new String(record.value(), StandardCharsets.UTF_8))) {
                 try {
                     throw new TimeoutException();
                 } catch (TimeoutException e) {
@@ -96,11 +99,15 @@ public class KafkaAppenderTest {
     private static final int RETRY_COUNT = 3;
 
     private static Log4jLogEvent createLogEvent() {
+        return createLogEvent(LOG_MESSAGE);
+    }
+
+    private static Log4jLogEvent createLogEvent(final String message) {
         return Log4jLogEvent.newBuilder()
             .setLoggerName(KafkaAppenderTest.class.getName())
             .setLoggerFqcn(KafkaAppenderTest.class.getName())
             .setLevel(Level.INFO)
-            .setMessage(new SimpleMessage(LOG_MESSAGE))
+            .setMessage(new SimpleMessage(message))
             .build();
     }
 
@@ -130,6 +137,19 @@ public class KafkaAppenderTest {
         assertEquals("[" + LOG_MESSAGE + "]", new String(item.value(), StandardCharsets.UTF_8));
     }
 
+    @Test
+    public void testAppendBatch() throws Exception {
+        final BatchAppender appender = (BatchAppender) ctx.getRequiredAppender("KafkaAppenderWithLayout");
+        final LogEvent[] events = {createLogEvent(), createLogEvent(), createLogEvent()};
+        appender.append(events, 2);
+        final List<ProducerRecord<byte[], byte[]>> history = kafka.history();
+        assertEquals(2, history.size());
+        for (final ProducerRecord<byte[], byte[]> item : history) {
+            assertEquals(TOPIC_NAME, item.topic());
+            assertEquals("[" + LOG_MESSAGE + "]", new String(item.value(), StandardCharsets.UTF_8));
+        }
+    }
+
     @Test
     public void testAppendWithSerializedLayout() throws Exception {
         final Appender appender = ctx.getRequiredAppender("KafkaAppenderWithSerializedLayout");
@@ -209,6 +229,28 @@ public class KafkaAppenderTest {
 
     }
 
+    @Test
+    public void testAppendBatchRetriesOnlyFailedEvents() {
+        try {
+            ThreadContext.put("KafkaAppenderFailedMessage", "failed");
+            final BatchAppender appender = (BatchAppender) ctx.getRequiredAppender("KafkaAppenderWithRetryCount");
+            final LogEvent[] events = {createLogEvent("sent"), createLogEvent("failed")};
+            appender.append(events, 2);
+
+            final List<ProducerRecord<byte[], byte[]>> history = kafka.history();
+            assertEquals(2 + RETRY_COUNT, history.size());
+            int sent = 0;
+            for (final ProducerRecord<byte[], byte[]> item : history) {
+                if ("sent".equals(new String(item.value(), StandardCharsets.UTF_8))) {
+                    sent++;
+                }
+            }
+            assertEquals(1, sent);
+        } finally {
+            ThreadContext.clearMap();
+        }
+    }
+
     @Test
     public void testAppenderNoEventTimestamp() throws Exception {
         final Appender appender = ctx.getRequiredAppender("KafkaAppenderNoEventTimestamp");
@@ -75,6 +75,7 @@ public class RollingAppenderSizeTest {
                 // @formatter:off
                {"log4j-rolling-gz-lazy.xml", ".gz", true},
                {"log4j-rolling-gz.xml", ".gz", false},
+               {"log4j-rolling-gz-parallel.xml", ".gz", false},
                {"log4j-rolling-numbered-gz.xml", ".gz", false},
                {"log4j-rolling-zip-lazy.xml", ".zip", true},
                {"log4j-rolling-zip.xml", ".zip", false},
@@ -87,6 +88,8 @@ public class RollingAppenderSizeTest {
                {"log4j-rolling-pack200.xml", ".pack200", false},
                {"log4j-rolling-xz-lazy.xml", ".xz", true},
                {"log4j-rolling-xz.xml", ".xz", false},
+               {"log4j-rolling-zstd.xml", ".zst", false},
+               {"log4j-rolling-lz4.xml", ".lz4", false},
                 });
                 // @formatter:on
     }
@@ -148,7 +151,10 @@ public class RollingAppenderSizeTest {
                 CompressorInputStream in = null;
                 try (FileInputStream fis = new FileInputStream(file)) {
                     try {
-                        in = new CompressorStreamFactory().createCompressorInputStream(ext.name().toLowerCase(), fis);
+                        final String name = ext == FileExtension.LZ4 ? CompressorStreamFactory.LZ4_FRAMED
+                                : ext.name().toLowerCase();
+                        // parallel gz compression writes one gzip member per block
+                        in = new CompressorStreamFactory(true).createCompressorInputStream(name, fis);
                     } catch (final CompressorException ce) {
                         ce.printStackTrace();
                         fail("Error creating input stream from " + file.toString() + ": " + ce.getMessage());
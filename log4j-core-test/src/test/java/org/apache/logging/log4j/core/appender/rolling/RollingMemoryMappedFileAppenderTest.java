@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.RollingMemoryMappedFileAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.apache.logging.log4j.test.junit.CleanUpDirectories;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link RollingMemoryMappedFileAppender}.
+ */
+@CleanUpDirectories(RollingMemoryMappedFileAppenderTest.DIR)
+public class RollingMemoryMappedFileAppenderTest {
+
+    static final String DIR = "target/rolling-memory-mapped";
+
+    private static final int THREADS = 8;
+    private static final int EVENTS_PER_THREAD = 5_000;
+
+    @Test
+    @LoggerContextSource(value = "log4j-rolling-memory-mapped.xml", timeout = 30)
+    public void testNoEventIsLostOrTornAcrossRegionsAndRollovers(final LoggerContext context,
+            @Named("RollingFile") final RollingMemoryMappedFileAppender appender) throws Exception {
+        assertEquals(4096, appender.getRegionLength());
+        final Logger logger = context.getLogger(RollingMemoryMappedFileAppenderTest.class);
+        final Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < EVENTS_PER_THREAD; j++) {
+                    logger.info("event {}", j);
+                }
+            }, "producer-" + i);
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        // truncates the current file after its last event
+        context.stop();
+
+        final File[] files = new File(DIR).listFiles();
+        assertNotNull(files);
+        assertTrue(files.length > 1, "no rollover happened");
+        final Set<String> lines = new HashSet<>();
+        int count = 0;
+        for (final File file : files) {
+            final List<String> fileLines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            for (final String line : fileLines) {
+                assertTrue(line.matches("producer-\\d event \\d+"), () -> "Unexpected line: " + line);
+                lines.add(line);
+                count++;
+            }
+        }
+        assertEquals(THREADS * EVENTS_PER_THREAD, count);
+        assertEquals(THREADS * EVENTS_PER_THREAD, lines.size());
+    }
+}
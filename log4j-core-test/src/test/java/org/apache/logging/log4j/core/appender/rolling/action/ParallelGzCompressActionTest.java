@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link ParallelGzCompressAction}.
+ */
+public class ParallelGzCompressActionTest {
+
+    @Test
+    public void testConstructorDisallowsNullSource() {
+        assertThrows(NullPointerException.class,
+                () -> new ParallelGzCompressAction(null, new File("any"), true, Deflater.DEFAULT_COMPRESSION, 2, 0));
+    }
+
+    @Test
+    public void testExecuteReturnsFalseIfSourceDoesNotExist(@TempDir final File tempDir) throws IOException {
+        final boolean actual = ParallelGzCompressAction.execute(new File(tempDir, "missing"),
+                new File(tempDir, "missing.gz"), true, Deflater.DEFAULT_COMPRESSION, 2, 0);
+        assertFalse(actual, "Cannot compress non-existing file");
+    }
+
+    @Test
+    public void testExecuteCompressesBlocksInOrder(@TempDir final File tempDir) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            sb.append("Here is line ").append(i).append(". Random text: ").append(Math.random()).append('\n');
+        }
+        final byte[] content = sb.toString().getBytes(StandardCharsets.UTF_8);
+        final File source = new File(tempDir, "compressme");
+        Files.write(source.toPath(), content);
+        final File destination = new File(tempDir, "compressme.gz");
+
+        final boolean actual = ParallelGzCompressAction.execute(source, destination, true,
+                Deflater.DEFAULT_COMPRESSION, 4, 16 * 1024);
+        assertTrue(actual, "ParallelGzCompressAction should have succeeded");
+        assertTrue(destination.exists(), "Destination should exist after ParallelGzCompressAction");
+        assertFalse(source.exists(), "Source should have been deleted");
+        assertTrue(destination.length() < content.length, "Destination should be smaller than the source");
+        assertArrayEquals(content, decompress(destination));
+    }
+
+    @Test
+    public void testExecuteCompressesEmptyFile(@TempDir final File tempDir) throws IOException {
+        final File source = new File(tempDir, "empty");
+        assertTrue(source.createNewFile());
+        final File destination = new File(tempDir, "empty.gz");
+
+        assertTrue(new ParallelGzCompressAction(source, destination, false, Deflater.BEST_SPEED, 2, 1024).execute());
+        assertTrue(source.exists(), "Source should not have been deleted");
+        assertEquals(0, decompress(destination).length);
+    }
+
+    private static byte[] decompress(final File file) throws IOException {
+        try (final InputStream in = new GZIPInputStream(new FileInputStream(file))) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+}
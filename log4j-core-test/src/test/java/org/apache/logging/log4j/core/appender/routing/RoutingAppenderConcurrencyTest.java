@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.routing;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.AppenderControl;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.apache.logging.log4j.test.junit.UsingThreadContextMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that routes are created exactly once when many threads route to new keys at the same time.
+ */
+@UsingThreadContextMap
+public class RoutingAppenderConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int TENANTS = 200;
+    private static final int EVENTS_PER_TENANT = 5;
+
+    @Test
+    @LoggerContextSource(value = "log4j-routing-concurrent.xml", timeout = 30)
+    public void testRoutesAreCreatedOnce(final LoggerContext context, @Named("Routing") final RoutingAppender routing)
+            throws Exception {
+        final Logger logger = context.getLogger(RoutingAppenderConcurrencyTest.class);
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException e) {
+                    return;
+                }
+                for (int tenant = 0; tenant < TENANTS; tenant++) {
+                    ThreadContext.put("tenant", "tenant-" + tenant);
+                    for (int j = 0; j < EVENTS_PER_TENANT; j++) {
+                        logger.info("event {}", j);
+                    }
+                }
+                ThreadContext.remove("tenant");
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        final Map<String, AppenderControl> appenders = routing.getAppenders();
+        assertEquals(TENANTS, appenders.size());
+        for (final Map.Entry<String, AppenderControl> entry : appenders.entrySet()) {
+            final ListAppender list = (ListAppender) entry.getValue().getAppender();
+            assertEquals(THREADS * EVENTS_PER_TENANT, list.getEvents().size(), entry.getKey());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.TimeoutException;
+import org.apache.logging.log4j.core.async.AdaptiveWaitStrategy.Phase;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveWaitStrategyTest {
+
+    private final Sequence cursor = new Sequence();
+
+    private final StubBarrier barrier = new StubBarrier();
+
+    @Test
+    public void testChoosesPhaseFromAverageWait() {
+        final AdaptiveWaitStrategy strategy = new AdaptiveWaitStrategy(1_000, 10_000, 10, TimeUnit.MILLISECONDS);
+        assertEquals(Phase.SPIN, strategy.choosePhase(500));
+        assertEquals(Phase.YIELD, strategy.choosePhase(5_000));
+        assertEquals(Phase.PARK, strategy.choosePhase(50_000));
+        // an idle consumer starts by blocking
+        assertEquals(Phase.PARK, strategy.getPhase());
+    }
+
+    @Test
+    public void testReturnsAvailableSequenceWithoutWaiting() throws Exception {
+        final AdaptiveWaitStrategy strategy = new AdaptiveWaitStrategy(1_000, 10_000, 10, TimeUnit.MILLISECONDS);
+        cursor.set(5);
+        assertEquals(5, strategy.waitFor(3, cursor, cursor, barrier));
+    }
+
+    @Test
+    public void testBlockedConsumerIsSignalled() throws Exception {
+        final AdaptiveWaitStrategy strategy = new AdaptiveWaitStrategy(0, 0, 10, TimeUnit.SECONDS);
+        final CompletableFuture<Long> result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return strategy.waitFor(0, cursor, cursor, barrier);
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(result.isDone());
+        cursor.set(0);
+        strategy.signalAllWhenBlocking();
+        assertEquals(0L, result.get(5, TimeUnit.SECONDS).longValue());
+        assertTrue(strategy.getWakeupLatencyNanos() > 0);
+    }
+
+    @Test
+    public void testTimesOut() {
+        final AdaptiveWaitStrategy strategy = new AdaptiveWaitStrategy(1_000, 10_000, 1, TimeUnit.MILLISECONDS);
+        assertThrows(TimeoutException.class, () -> strategy.waitFor(0, cursor, cursor, barrier));
+    }
+
+    @Test
+    public void testAdaptsToShortWaits() throws Exception {
+        final AdaptiveWaitStrategy strategy =
+                new AdaptiveWaitStrategy(TimeUnit.MILLISECONDS.toNanos(50), TimeUnit.MILLISECONDS.toNanos(100), 1,
+                        TimeUnit.SECONDS);
+        // events that are ready after a short wait make the consumer spin
+        for (int i = 0; i < 64; i++) {
+            final long sequence = i;
+            final Thread producer = new Thread(() -> {
+                cursor.set(sequence);
+                strategy.signalAllWhenBlocking();
+            });
+            producer.start();
+            assertEquals(sequence, strategy.waitFor(sequence, cursor, cursor, barrier));
+            producer.join();
+        }
+        assertTrue(strategy.getAverageWaitNanos() < TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(Phase.SPIN, strategy.getPhase());
+    }
+
+    private static final class StubBarrier implements SequenceBarrier {
+
+        private volatile boolean alerted;
+
+        @Override
+        public long waitFor(final long sequence) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getCursor() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isAlerted() {
+            return alerted;
+        }
+
+        @Override
+        public void alert() {
+            alerted = true;
+        }
+
+        @Override
+        public void clearAlert() {
+            alerted = false;
+        }
+
+        @Override
+        public void checkAlert() throws AlertException {
+            if (alerted) {
+                throw AlertException.INSTANCE;
+            }
+        }
+    }
+}
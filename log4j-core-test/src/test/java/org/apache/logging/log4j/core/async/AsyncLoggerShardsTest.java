@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.categories.AsyncLoggers;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that sharded ring buffers keep the events of each application thread in order.
+ */
+@Category(AsyncLoggers.class)
+public class AsyncLoggerShardsTest {
+
+    private static final int THREADS = 6;
+
+    private static final int EVENTS_PER_THREAD = 500;
+
+    @BeforeClass
+    public static void beforeClass() {
+        System.setProperty("AsyncLogger.Shards", "4");
+        System.setProperty("AsyncLoggerConfig.Shards", "3");
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        System.clearProperty("AsyncLogger.Shards");
+        System.clearProperty("AsyncLoggerConfig.Shards");
+    }
+
+    @Test
+    public void testPerThreadOrderIsPreserved() throws Exception {
+        final AsyncLoggerContext context = new AsyncLoggerContext("AsyncLoggerShardsTest", null,
+                getClass().getClassLoader().getResource("AsyncLoggerShardsTest.xml").toURI());
+        context.start();
+        final ListAppender appender = context.getConfiguration().getAppender("List");
+        final AsyncLogger asyncLogger = (AsyncLogger) context.getLogger("async");
+        final Logger configLogger = context.getLogger("config");
+        assertEquals(4, asyncLogger.getAsyncLoggerDisruptor().getShardCount());
+        assertEquals(3, ((AsyncLoggerConfigDisruptor) context.getConfiguration().getAsyncLoggerConfigDelegate())
+                .getShardCount());
+
+        final Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < EVENTS_PER_THREAD; j++) {
+                    asyncLogger.info("{}", j);
+                    configLogger.info("{}", j);
+                }
+            }, "producer-" + i);
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        context.stop(1, TimeUnit.MINUTES);
+
+        final List<String> messages = appender.getMessages();
+        assertEquals(2 * THREADS * EVENTS_PER_THREAD, messages.size());
+        final Map<String, Integer> lastByLoggerAndThread = new HashMap<>();
+        for (final String message : messages) {
+            final int separator = message.lastIndexOf(' ');
+            final String key = message.substring(0, separator);
+            final int sequence = Integer.parseInt(message.substring(separator + 1));
+            final Integer last = lastByLoggerAndThread.put(key, sequence);
+            assertEquals("Out of order for " + key, last == null ? 0 : last + 1, sequence);
+        }
+        assertEquals(2 * THREADS, lastByLoggerAndThread.size());
+        for (final Integer last : lastByLoggerAndThread.values()) {
+            assertEquals(EVENTS_PER_THREAD - 1, (int) last);
+        }
+    }
+}
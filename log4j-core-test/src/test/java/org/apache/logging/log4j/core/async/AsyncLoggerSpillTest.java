@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.test.appender.BlockingAppender;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.categories.AsyncLoggers;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that full AsyncLogger and AsyncLoggerConfig ring buffers spill events to their overflow journals and replay
+ * them in order.
+ */
+@Category(AsyncLoggers.class)
+public class AsyncLoggerSpillTest {
+
+    private static final int EVENTS = 1000;
+
+    @BeforeClass
+    public static void beforeClass() {
+        System.setProperty("log4j2.AsyncQueueFullPolicy", "Spill");
+        System.setProperty("log4j2.OverflowJournalDirectory", "target/AsyncLoggerSpillTest");
+        System.setProperty("AsyncLogger.RingBufferSize", "128");
+        System.setProperty("AsyncLoggerConfig.RingBufferSize", "128");
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        System.clearProperty("log4j2.AsyncQueueFullPolicy");
+        System.clearProperty("log4j2.OverflowJournalDirectory");
+        System.clearProperty("AsyncLogger.RingBufferSize");
+        System.clearProperty("AsyncLoggerConfig.RingBufferSize");
+    }
+
+    @Test
+    public void testAsyncLoggerSpillsAndReplaysInOrder() throws Exception {
+        final LoggerContext context = new AsyncLoggerContext("AsyncLoggerSpillTest", null, getConfigLocation());
+        context.start();
+        final OverflowJournal journal =
+                ((AsyncLogger) context.getLogger("async")).getAsyncLoggerDisruptor().getOverflowJournal();
+        assertSpillsAndReplaysInOrder(context, "async", journal);
+    }
+
+    @Test
+    public void testAsyncLoggerConfigSpillsAndReplaysInOrder() throws Exception {
+        final LoggerContext context = new LoggerContext("AsyncLoggerSpillTest", null, getConfigLocation());
+        context.start();
+        final OverflowJournal journal =
+                ((AsyncLoggerConfigDisruptor) context.getConfiguration().getAsyncLoggerConfigDelegate())
+                        .getOverflowJournal();
+        assertSpillsAndReplaysInOrder(context, "config", journal);
+    }
+
+    private URI getConfigLocation() throws URISyntaxException {
+        return getClass().getClassLoader().getResource("AsyncLoggerSpillTest.xml").toURI();
+    }
+
+    private static void assertSpillsAndReplaysInOrder(final LoggerContext context, final String loggerName,
+            final OverflowJournal journal) {
+        final BlockingAppender block = context.getConfiguration().getAppender("Block");
+        final ListAppender list = context.getConfiguration().getAppender("List");
+        final Logger logger = context.getLogger(loggerName);
+        assertNotNull(journal);
+
+        ThreadContext.put("key", "value");
+        try {
+            for (int i = 0; i < EVENTS; i++) {
+                logger.info("{}", i);
+            }
+        } finally {
+            ThreadContext.remove("key");
+        }
+        assertTrue(journal.getSpilledEventCount() > 0);
+
+        block.running = false;
+        context.stop(1, TimeUnit.MINUTES);
+
+        final List<String> messages = list.getMessages();
+        assertEquals(EVENTS, messages.size());
+        for (int i = 0; i < EVENTS; i++) {
+            assertEquals(loggerName + " value " + i, messages.get(i));
+        }
+        assertEquals(journal.getSpilledBytes(), journal.getReplayedBytes());
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.async;
 
+import java.nio.file.Paths;
 import java.util.Locale;
 
 import org.apache.logging.log4j.Level;
@@ -39,6 +40,12 @@ public class AsyncQueueFullPolicyFactoryTest {
     public void resetProperties() throws Exception {
         System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_ASYNC_EVENT_ROUTER);
         System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_DISCARDING_THRESHOLD_LEVEL);
+        System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_OVERFLOW_JOURNAL_DIRECTORY);
+        System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_OVERFLOW_JOURNAL_SIZE);
+        System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_PRIORITY_LEVEL);
+        System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_PRIORITY_MARKERS);
+        System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_RESERVED_CAPACITY);
+        System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_SAMPLING_THRESHOLD);
         PropertiesUtil.getProperties().reload();
     }
 
@@ -92,6 +99,44 @@ public class AsyncQueueFullPolicyFactoryTest {
         }
     }
 
+    @Test
+    public void testCreateReturnsSpillingRouterIfSpecified() throws Exception {
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_ASYNC_EVENT_ROUTER,
+                AsyncQueueFullPolicyFactory.PROPERTY_VALUE_SPILLING_ASYNC_EVENT_ROUTER);
+        final SpillingAsyncQueueFullPolicy defaults = (SpillingAsyncQueueFullPolicy) AsyncQueueFullPolicyFactory.create();
+        assertEquals(Paths.get(System.getProperty("java.io.tmpdir")), defaults.getDirectory());
+        assertEquals(64 * 1024 * 1024, defaults.getJournalSize());
+
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_OVERFLOW_JOURNAL_DIRECTORY, "target/journals");
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_OVERFLOW_JOURNAL_SIZE, "2 MB");
+        final SpillingAsyncQueueFullPolicy custom = (SpillingAsyncQueueFullPolicy) AsyncQueueFullPolicyFactory.create();
+        assertEquals(Paths.get("target/journals"), custom.getDirectory());
+        assertEquals(2 * 1024 * 1024, custom.getJournalSize());
+        assertEquals(EventRoute.SPILL, custom.getRoute(-1, Level.INFO));
+        assertEquals(EventRoute.SYNCHRONOUS, custom.getRoute(Thread.currentThread().getId(), Level.INFO));
+    }
+
+    @Test
+    public void testCreateReturnsPriorityRouterIfSpecified() throws Exception {
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_ASYNC_EVENT_ROUTER,
+                AsyncQueueFullPolicyFactory.PROPERTY_VALUE_PRIORITY_ASYNC_EVENT_ROUTER);
+        final PriorityAsyncQueueFullPolicy defaults = (PriorityAsyncQueueFullPolicy) AsyncQueueFullPolicyFactory.create();
+        assertEquals(Level.WARN, defaults.getPriorityLevel());
+        assertArrayEquals(new String[0], defaults.getPriorityMarkers());
+        assertEquals(10, defaults.getReservedPercent());
+        assertEquals(50, defaults.getSamplingPercent());
+
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_PRIORITY_LEVEL, "ERROR");
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_PRIORITY_MARKERS, "AUDIT, SECURITY");
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_RESERVED_CAPACITY, "20");
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_SAMPLING_THRESHOLD, "60");
+        final PriorityAsyncQueueFullPolicy custom = (PriorityAsyncQueueFullPolicy) AsyncQueueFullPolicyFactory.create();
+        assertEquals(Level.ERROR, custom.getPriorityLevel());
+        assertArrayEquals(new String[] {"AUDIT", "SECURITY"}, custom.getPriorityMarkers());
+        assertEquals(20, custom.getReservedPercent());
+        assertEquals(60, custom.getSamplingPercent());
+    }
+
     static class CustomRouterDefaultConstructor implements AsyncQueueFullPolicy {
         public CustomRouterDefaultConstructor() {
         }
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link OverflowJournal} class.
+ */
+public class OverflowJournalTest {
+
+    @TempDir
+    File tempDir;
+
+    private final List<String> replayed = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testReplaysInOrderOnceQueueHasRoom() throws Exception {
+        final AtomicBoolean queueFull = new AtomicBoolean(true);
+        final OverflowJournal journal = OverflowJournal.open("test", tempDir.toPath(), 1024 * 1024,
+                (key, event) -> !queueFull.get() && replayed.add(key + ' ' + event.getMessage().getFormattedMessage()));
+        try {
+            for (int i = 0; i < 100; i++) {
+                assertTrue(journal.append("logger", createEvent(i)));
+            }
+            assertTrue(journal.isActive());
+            assertEquals(100, journal.getSpilledEventCount());
+            assertTrue(replayed.isEmpty());
+
+            queueFull.set(false);
+            awaitDrained(journal);
+            assertEquals(100, replayed.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals("logger message " + i, replayed.get(i));
+            }
+            assertEquals(100, journal.getReplayedEventCount());
+            assertEquals(journal.getSpilledBytes(), journal.getReplayedBytes());
+            assertEquals(0, journal.getUsedBytes());
+        } finally {
+            assertTrue(journal.stop(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testWaitsForRoomWhenFull() throws Exception {
+        final AtomicInteger accepted = new AtomicInteger();
+        // the journal only holds a few dozen events, so appending wraps around and waits for the replay
+        final OverflowJournal journal = OverflowJournal.open("small", tempDir.toPath(), 4096, (key, event) -> {
+            if (accepted.incrementAndGet() % 3 != 0) {
+                return false;
+            }
+            return replayed.add(event.getMessage().getFormattedMessage());
+        });
+        try {
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(journal.append(null, createEvent(i)));
+                assertTrue(journal.getUsedBytes() <= journal.getCapacity());
+            }
+            awaitDrained(journal);
+            assertEquals(1000, replayed.size());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals("message " + i, replayed.get(i));
+            }
+        } finally {
+            journal.stop(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testStopDeletesJournal() throws IOException {
+        final OverflowJournal journal = OverflowJournal.open("stopped", tempDir.toPath(), 4096, (key, event) -> false);
+        assertTrue(journal.append(null, createEvent(1)));
+
+        assertFalse(journal.stop(100, TimeUnit.MILLISECONDS), "the event could not be replayed");
+        assertFalse(journal.append(null, createEvent(2)));
+        assertEquals(0, tempDir.listFiles().length);
+    }
+
+    private static void awaitDrained(final OverflowJournal journal) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (journal.isActive() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertFalse(journal.isActive(), "journal not drained");
+    }
+
+    private static LogEvent createEvent(final int i) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("logger")
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("message " + i))
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.async;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.test.categories.AsyncLoggers;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the PriorityAsyncQueueFullPolicy class.
+ */
+@Category(AsyncLoggers.class)
+public class PriorityAsyncQueueFullPolicyTest {
+
+    private static final int CAPACITY = 1000;
+
+    private static PriorityAsyncQueueFullPolicy createPolicy() {
+        return new PriorityAsyncQueueFullPolicy(Level.WARN, new String[] {"AUDIT"}, 10, 50);
+    }
+
+    @Test
+    public void testHighPriorityEventsAreAlwaysAdmitted() {
+        final PriorityAsyncQueueFullPolicy policy = createPolicy();
+        for (final Level level : new Level[] {Level.FATAL, Level.ERROR, Level.WARN}) {
+            assertTrue(level.name(), policy.isAdmitted(level, null, 0, CAPACITY));
+        }
+        final Marker audit = MarkerManager.getMarker("AUDIT");
+        final Marker login = MarkerManager.getMarker("LOGIN").addParents(audit);
+        assertTrue(policy.isAdmitted(Level.DEBUG, audit, 0, CAPACITY));
+        assertTrue(policy.isAdmitted(Level.DEBUG, login, 0, CAPACITY));
+        assertEquals(0, PriorityAsyncQueueFullPolicy.getDiscardCount(policy));
+    }
+
+    @Test
+    public void testLowPriorityEventsAreAdmittedBelowSamplingThreshold() {
+        final PriorityAsyncQueueFullPolicy policy = createPolicy();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.isAdmitted(Level.INFO, null, CAPACITY - 499, CAPACITY));
+            assertTrue(policy.isAdmitted(Level.DEBUG, MarkerManager.getMarker("OTHER"), CAPACITY, CAPACITY));
+        }
+        assertEquals(0, PriorityAsyncQueueFullPolicy.getDiscardCount(policy));
+    }
+
+    @Test
+    public void testLowPriorityEventsAreDiscardedInReservedCapacity() {
+        final PriorityAsyncQueueFullPolicy policy = createPolicy();
+        for (int i = 0; i < 100; i++) {
+            assertFalse(policy.isAdmitted(Level.INFO, null, 100, CAPACITY));
+            assertFalse(policy.isAdmitted(Level.TRACE, null, 0, CAPACITY));
+        }
+        assertEquals(200, PriorityAsyncQueueFullPolicy.getDiscardCount(policy));
+    }
+
+    @Test
+    public void testSamplingRateFallsAsOccupancyRises() {
+        final PriorityAsyncQueueFullPolicy policy = createPolicy();
+        final int lowOccupancy = countAdmitted(policy, CAPACITY - 550);
+        final int highOccupancy = countAdmitted(policy, CAPACITY - 850);
+        // expected admission rates are 87.5% and 12.5%
+        assertTrue("low occupancy admitted " + lowOccupancy, lowOccupancy > 7_500);
+        assertTrue("high occupancy admitted " + highOccupancy, highOccupancy < 2_500);
+        assertEquals(20_000 - lowOccupancy - highOccupancy, PriorityAsyncQueueFullPolicy.getDiscardCount(policy));
+    }
+
+    @Test
+    public void testGetDiscardCountOfOtherRouterIsZero() {
+        assertEquals(0, PriorityAsyncQueueFullPolicy.getDiscardCount(new DefaultAsyncQueueFullPolicy()));
+    }
+
+    @Test
+    public void testPercentagesAreClamped() {
+        final PriorityAsyncQueueFullPolicy policy = new PriorityAsyncQueueFullPolicy(Level.ERROR, null, 150, 80);
+        assertEquals(100, policy.getReservedPercent());
+        assertEquals(0, policy.getSamplingPercent());
+        assertFalse(policy.isAdmitted(Level.INFO, null, CAPACITY, CAPACITY));
+        assertTrue(policy.isAdmitted(Level.ERROR, null, CAPACITY, CAPACITY));
+    }
+
+    private static int countAdmitted(final PriorityAsyncQueueFullPolicy policy, final long remainingCapacity) {
+        int admitted = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (policy.isAdmitted(Level.INFO, null, remainingCapacity, CAPACITY)) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+}
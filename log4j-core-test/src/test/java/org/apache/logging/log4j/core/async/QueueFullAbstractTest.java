@@ -23,7 +23,6 @@ import java.util.List;
 import java.util.Stack;
 import java.util.concurrent.CountDownLatch;
 
-import com.lmax.disruptor.dsl.Disruptor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.Appender;
@@ -107,7 +106,7 @@ public abstract class QueueFullAbstractTest {
             if (loggerConfig instanceof AsyncLoggerConfig) {
                 try {
                     final Object delegate = field(AsyncLoggerConfig.class, "delegate").get(loggerConfig);
-                    return ((Disruptor) field(AsyncLoggerConfigDisruptor.class, "disruptor").get(delegate)).getRingBuffer().remainingCapacity();
+                    return ((AsyncLoggerConfigDisruptor) delegate).getDisruptor().getRingBuffer().remainingCapacity();
                 } catch (final Exception ex) {
                     throw new RuntimeException(ex);
                 }
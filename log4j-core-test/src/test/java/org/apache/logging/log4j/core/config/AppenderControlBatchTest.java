@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.BatchAppender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that {@link AppenderControl} passes the events of a batch to {@link BatchAppender}s at once.
+ */
+public class AppenderControlBatchTest {
+
+    private final RecordingBatchAppender batchAppender = new RecordingBatchAppender();
+    private final AppenderControl batchControl = new AppenderControl(batchAppender, null, null);
+
+    @AfterEach
+    public void endBatch() {
+        AppenderControl.endBatch();
+    }
+
+    @Test
+    public void testBatchedEventsAreAppendedAtOnce() {
+        final ListAppender listAppender = new ListAppender("List");
+        listAppender.start();
+        final AppenderControl listControl = new AppenderControl(listAppender, null, null);
+        final LogEvent first = createEvent("first", Level.INFO);
+        final LogEvent second = createEvent("second", Level.INFO);
+
+        for (final LogEvent event : Arrays.asList(first, second)) {
+            AppenderControl.addToBatch(event);
+            batchControl.callAppender(event);
+            listControl.callAppender(event);
+        }
+        assertEquals(0, batchAppender.batches.size());
+        assertEquals(2, listAppender.getEvents().size());
+
+        AppenderControl.endBatch();
+        assertEquals(1, batchAppender.batches.size());
+        assertEquals(Arrays.asList(first, second), batchAppender.batches.get(0));
+        assertEquals(0, batchAppender.singleEvents.size());
+    }
+
+    @Test
+    public void testFilteredEventsAreNotBatched() {
+        final AppenderControl warnControl = new AppenderControl(batchAppender, Level.WARN, null);
+        final LogEvent info = createEvent("info", Level.INFO);
+        final LogEvent error = createEvent("error", Level.ERROR);
+
+        for (final LogEvent event : Arrays.asList(info, error)) {
+            AppenderControl.addToBatch(event);
+            warnControl.callAppender(event);
+        }
+        AppenderControl.endBatch();
+        assertEquals(1, batchAppender.batches.size());
+        assertEquals(Arrays.asList(error), batchAppender.batches.get(0));
+    }
+
+    @Test
+    public void testEventsOutsideOfBatchAreAppendedImmediately() {
+        final LogEvent batched = createEvent("batched", Level.INFO);
+        final LogEvent nested = createEvent("nested", Level.INFO);
+
+        AppenderControl.addToBatch(batched);
+        // an event logged while the batched event is dispatched
+        batchControl.callAppender(nested);
+        assertEquals(Arrays.asList(nested), batchAppender.singleEvents);
+
+        batchControl.callAppender(batched);
+        AppenderControl.endBatch();
+        assertEquals(Arrays.asList(Arrays.asList(batched)), batchAppender.batches);
+
+        // no batch without addToBatch
+        batchControl.callAppender(batched);
+        assertEquals(Arrays.asList(nested, batched), batchAppender.singleEvents);
+        assertEquals(1, batchAppender.batches.size());
+    }
+
+    private static LogEvent createEvent(final String message, final Level level) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName(AppenderControlBatchTest.class.getName())
+                .setLevel(level)
+                .setMessage(new SimpleMessage(message))
+                .build();
+    }
+
+    private static final class RecordingBatchAppender extends AbstractAppender implements BatchAppender {
+
+        private final List<LogEvent> singleEvents = new ArrayList<>();
+        private final List<List<LogEvent>> batches = new ArrayList<>();
+
+        RecordingBatchAppender() {
+            super("Batch", null, null, true, Property.EMPTY_ARRAY);
+            start();
+        }
+
+        @Override
+        public void append(final LogEvent event) {
+            singleEvents.add(event);
+        }
+
+        @Override
+        public void append(final LogEvent[] events, final int count) {
+            batches.add(new ArrayList<>(Arrays.asList(events).subList(0, count)));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.util.NameUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests how {@link AbstractConfiguration#getLoggerConfig(String)} resolves Logger names.
+ */
+public class LoggerConfigResolutionTest {
+
+    private static final List<String> CONFIGURED = Arrays.asList("com", "com.foo", "com.foo.bar.Baz", "org.", "a..b",
+            ".x", "com.foobar");
+
+    private static final List<String> NAMES = Arrays.asList("", "com", "co", "comm", "com.foo", "com.foo.bar",
+            "com.foo.bar.Baz", "com.foo.bar.Baz.Inner", "com.foo.barn", "com.foob", "com.foobar.X", "org", "org.",
+            "org.x", "org..x", "a", "a.", "a..b", "a..b.c", "a.b", ".x", ".x.y", ".", "..", "x", "net.example.Main");
+
+    @Test
+    public void testResolvesLongestConfiguredAncestor() {
+        final AbstractConfiguration configuration = createConfiguration();
+        for (final String name : NAMES) {
+            assertSame(resolveBySubNames(configuration, name), configuration.getLoggerConfig(name), name);
+        }
+    }
+
+    @Test
+    public void testAddAndRemoveLogger() {
+        final AbstractConfiguration configuration = createConfiguration();
+        final LoggerConfig root = configuration.getRootLogger();
+        assertEquals("com.foo", configuration.getLoggerConfig("com.foo.bar.Other").getName());
+
+        final LoggerConfig bar = new LoggerConfig("com.foo.bar", Level.DEBUG, true);
+        configuration.addLogger("com.foo.bar", bar);
+        assertSame(bar, configuration.getLoggerConfig("com.foo.bar.Other"));
+        assertSame(bar, configuration.getLoggerConfig("com.foo.bar.Baz").getParent());
+
+        configuration.removeLogger("com.foo.bar");
+        assertEquals("com.foo", configuration.getLoggerConfig("com.foo.bar.Other").getName());
+        assertEquals("com.foo", configuration.getLoggerConfig("com.foo.bar.Baz").getParent().getName());
+
+        configuration.removeLogger("com");
+        assertSame(root, configuration.getLoggerConfig("com.Other"));
+        assertSame(root, configuration.getLoggerConfig("com.foo").getParent());
+    }
+
+    private static AbstractConfiguration createConfiguration() {
+        final AbstractConfiguration configuration = new NullConfiguration();
+        for (final String name : CONFIGURED) {
+            configuration.addLogger(name, new LoggerConfig(name, Level.INFO, true));
+        }
+        return configuration;
+    }
+
+    /**
+     * The resolution by successive substrings the trie replaces.
+     */
+    private static LoggerConfig resolveBySubNames(final AbstractConfiguration configuration, final String name) {
+        String substr = name;
+        do {
+            final LoggerConfig loggerConfig = configuration.getLogger(substr);
+            if (loggerConfig != null) {
+                return loggerConfig;
+            }
+        } while ((substr = NameUtil.getSubName(substr)) != null);
+        return configuration.getRootLogger();
+    }
+}
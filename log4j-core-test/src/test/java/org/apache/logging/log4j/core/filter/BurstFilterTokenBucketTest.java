@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.filter.BurstFilter.BucketKey;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.jmx.BurstFilterAdmin;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the token bucket mode of {@link BurstFilter}.
+ */
+@LoggerContextSource("log4j-burst-token-bucket.xml")
+public class BurstFilterTokenBucketTest {
+
+    @Test
+    public void testTokenBucket(final LoggerContext context, @Named("TokenBucket") final ListAppender app) {
+        final BurstFilter filter = (BurstFilter) app.getFilter();
+        assertTrue(filter.isTokenBucket());
+        assertEquals(10, filter.getAvailable());
+        final Logger logger = context.getLogger("TokenBucket");
+
+        for (int i = 0; i < 15; i++) {
+            logger.info("info " + i);
+        }
+        assertEquals(10, app.getMessages().size());
+        assertEquals(0, filter.getAvailable());
+        assertEquals(5, filter.getDroppedCount());
+
+        // events above the level of the filter are not counted
+        logger.warn("warn");
+        assertEquals(11, app.getMessages().size());
+        assertEquals(5, filter.getDroppedCount());
+
+        filter.clear();
+        assertEquals(10, filter.getAvailable());
+        logger.info("info after clear");
+        assertEquals(12, app.getMessages().size());
+
+        filter.resetDroppedCounts();
+        assertEquals(0, filter.getDroppedCount());
+    }
+
+    @Test
+    public void testBucketPerLoggerName(final LoggerContext context, @Named("PerLogger") final ListAppender app) {
+        final BurstFilter filter = (BurstFilter) app.getFilter();
+        assertEquals(BucketKey.LOGGER_NAME, filter.getBucketKey());
+
+        for (final String name : new String[] {"PerLogger.a", "PerLogger.b"}) {
+            final Logger logger = context.getLogger(name);
+            for (int i = 0; i < 12; i++) {
+                logger.info("info " + i);
+            }
+        }
+        assertEquals(20, app.getMessages().size());
+        assertEquals(2, filter.getBucketCount());
+        assertEquals(4, filter.getDroppedCount());
+        final Map<String, Long> dropped = filter.getDroppedCountsByKey();
+        assertEquals(2L, dropped.get("PerLogger.a"));
+        assertEquals(2L, dropped.get("PerLogger.b"));
+
+        // further Loggers share one bucket
+        for (final String name : new String[] {"PerLogger.c", "PerLogger.d"}) {
+            final Logger logger = context.getLogger(name);
+            for (int i = 0; i < 6; i++) {
+                logger.info("info " + i);
+            }
+        }
+        assertEquals(2, filter.getBucketCount());
+        assertEquals(30, app.getMessages().size());
+        assertEquals(6, filter.getDroppedCount());
+    }
+
+    @Test
+    public void testBucketPerContextValue() {
+        final BurstFilter filter = BurstFilter.newBuilder()
+                .setLevel(Level.INFO)
+                .setRate(0.5f)
+                .setMaxBurst(2)
+                .setBucketKey(BucketKey.CONTEXT_DATA)
+                .setContextKey("tenant")
+                .build();
+        assertTrue(filter.isTokenBucket());
+
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent("a")));
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent("a")));
+        assertEquals(Result.DENY, filter.filter(createEvent("a")));
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent("b")));
+        // events without the key share one bucket
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent(null)));
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent(null)));
+        assertEquals(Result.DENY, filter.filter(createEvent(null)));
+        assertEquals(2, filter.getBucketCount());
+        assertEquals(2, filter.getDroppedCount());
+    }
+
+    @Test
+    public void testTokensAreRefilled() throws InterruptedException {
+        final TokenBucket bucket = new TokenBucket(1000, 2, System.nanoTime());
+        assertTrue(bucket.tryAcquire(System.nanoTime()));
+        assertTrue(bucket.tryAcquire(System.nanoTime()));
+        Thread.sleep(50);
+        assertEquals(2, bucket.getAvailable(System.nanoTime()));
+
+        final long now = 0;
+        final TokenBucket slow = new TokenBucket(1, 3, now);
+        assertTrue(slow.tryAcquire(now));
+        assertTrue(slow.tryAcquire(now));
+        assertTrue(slow.tryAcquire(now));
+        assertFalse(slow.tryAcquire(now));
+        assertEquals(0, slow.getAvailable(now + 999_999_999L));
+        assertEquals(1, slow.getAvailable(now + 1_000_000_000L));
+        assertTrue(slow.tryAcquire(now + 1_500_000_000L));
+        assertFalse(slow.tryAcquire(now + 1_500_000_000L));
+        assertEquals(2, slow.getDroppedCount());
+    }
+
+    @Test
+    public void testDroppedCountsAreExposedThroughJmx() throws Exception {
+        final BurstFilter filter = BurstFilter.newBuilder()
+                .setLevel(Level.INFO)
+                .setMaxBurst(1)
+                .setTokenBucket(true)
+                .build();
+        filter.filter(createEvent(null));
+        filter.filter(createEvent(null));
+
+        final MBeanServer mbs = MBeanServerFactory.newMBeanServer();
+        final BurstFilterAdmin mbean = new BurstFilterAdmin("ctx", "Appender.app", filter);
+        mbs.registerMBean(mbean, mbean.getObjectName());
+        assertEquals(1L, mbs.getAttribute(mbean.getObjectName(), "DroppedCount"));
+        mbs.invoke(mbean.getObjectName(), "resetDroppedCounts", null, null);
+        assertEquals(0L, mbs.getAttribute(mbean.getObjectName(), "DroppedCount"));
+    }
+
+    private static LogEvent createEvent(final String tenant) {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        if (tenant != null) {
+            contextData.putValue("tenant", tenant);
+        }
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("BurstFilterTokenBucketTest")
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("message"))
+                .setContextData(contextData)
+                .build();
+    }
+}
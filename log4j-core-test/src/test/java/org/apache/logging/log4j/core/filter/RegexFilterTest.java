@@ -22,6 +22,8 @@ import org.apache.logging.log4j.core.Filter.Result;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableSimpleMessage;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.junit.jupiter.api.BeforeAll;
@@ -101,4 +103,29 @@ public class RegexFilterTest {
         final Result fmtResult = fmtFilter.filter(null, null, null, msg, params);
         assertThat(fmtResult, equalTo(Result.ACCEPT));
     }
+
+    @Test
+    public void testFormattableMsg() throws Exception {
+        final RegexFilter filter = RegexFilter.createFilter("user \\w+ logged in", null, false, Result.ACCEPT,
+                Result.DENY);
+        final Message matching = new ParameterizedMessage("user {} logged in", "joe");
+        final Message mismatching = new ParameterizedMessage("user {} logged out", "joe");
+        assertSame(Result.ACCEPT, filter.filter(null, null, null, matching, null));
+        assertSame(Result.DENY, filter.filter(null, null, null, mismatching, null));
+        assertSame(Result.ACCEPT, filter.filter(Log4jLogEvent.newBuilder().setMessage(matching).build()));
+        assertSame(Result.DENY, filter.filter(Log4jLogEvent.newBuilder().setMessage(mismatching).build()));
+    }
+
+    @Test
+    public void testReusableMsg() throws Exception {
+        final RegexFilter filter = RegexFilter.createFilter("user \\w+ logged in", null, false, Result.ACCEPT,
+                Result.DENY);
+        final ReusableSimpleMessage message = new ReusableSimpleMessage();
+        message.set("user joe logged in");
+        assertSame(Result.ACCEPT, filter.filter(null, null, null, message, null));
+        message.set("user joe logged out");
+        assertSame(Result.DENY, filter.filter(null, null, null, message, null));
+        message.set("user joe logged in");
+        assertSame(Result.ACCEPT, filter.filter(Log4jLogEvent.newBuilder().setMessage(message).build()));
+    }
 }
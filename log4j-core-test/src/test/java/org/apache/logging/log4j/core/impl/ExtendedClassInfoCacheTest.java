@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExtendedClassInfoCacheTest {
+
+    @BeforeEach
+    public void clearCache() {
+        ExtendedClassInfoCache.clear();
+    }
+
+    @Test
+    public void testRepeatedStackTracesAreResolvedFromCache() {
+        final Throwable throwable = new IllegalStateException("test");
+        final ThrowableProxy proxy = new ThrowableProxy(throwable);
+        ExtendedClassInfoCache.clear();
+        final ExtendedStackTraceElement[] first = toExtendedStackTrace(proxy, throwable);
+        final long misses = ExtendedClassInfoCache.getMissCount();
+        assertTrue(misses > 0);
+        assertEquals(0, ExtendedClassInfoCache.getHitCount());
+
+        final ExtendedStackTraceElement[] second = toExtendedStackTrace(proxy, throwable);
+        assertArrayEquals(first, second);
+        assertEquals(misses, ExtendedClassInfoCache.getMissCount());
+        assertTrue(ExtendedClassInfoCache.getHitCount() > 0);
+    }
+
+    @Test
+    public void testExactAndInexactLookupsShareEntries() {
+        final ThrowableProxyHelper.CacheEntry exact = ExtendedClassInfoCache.get(Test.class);
+        final ThrowableProxyHelper.CacheEntry inexact =
+                ExtendedClassInfoCache.get(Test.class.getClassLoader(), Test.class.getName());
+        assertTrue(exact.element.getExact());
+        assertFalse(inexact.element.getExact());
+        assertEquals(exact.element.getLocation(), inexact.element.getLocation());
+        assertEquals(exact.element.getVersion(), inexact.element.getVersion());
+        assertSame(exact.loader, inexact.loader);
+        assertEquals(1, ExtendedClassInfoCache.getMissCount());
+        assertEquals(1, ExtendedClassInfoCache.getHitCount());
+    }
+
+    @Test
+    public void testEntriesAreOnlyReusedForTheSameClassLoader() throws Exception {
+        final String className = Test.class.getName();
+        try (final URLClassLoader other = new URLClassLoader(new URL[0], getClass().getClassLoader())) {
+            ExtendedClassInfoCache.get(getClass().getClassLoader(), className);
+            ExtendedClassInfoCache.get(other, className);
+            assertEquals(2, ExtendedClassInfoCache.getMissCount());
+            ExtendedClassInfoCache.get(other, className);
+            assertEquals(1, ExtendedClassInfoCache.getHitCount());
+        }
+    }
+
+    @Test
+    public void testUnresolvedClassesAreCached() {
+        final String className = "org.example.DoesNotExist";
+        final ThrowableProxyHelper.CacheEntry first = ExtendedClassInfoCache.get(null, className);
+        final ThrowableProxyHelper.CacheEntry second = ExtendedClassInfoCache.get(null, className);
+        assertEquals("?", first.element.getLocation());
+        assertEquals(first.element, second.element);
+        assertNull(second.loader);
+        assertEquals(1, ExtendedClassInfoCache.getMissCount());
+        assertEquals(1, ExtendedClassInfoCache.getHitCount());
+        assertEquals(1, ExtendedClassInfoCache.size());
+    }
+
+    private static ExtendedStackTraceElement[] toExtendedStackTrace(final ThrowableProxy proxy,
+            final Throwable throwable) {
+        return ThrowableProxyHelper.toExtendedStackTrace(proxy, new ArrayDeque<>(), new HashMap<>(), null,
+                throwable.getStackTrace());
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class StackTraceDeduplicatorTest {
+
+    @Test
+    public void testOccurrencesAreCountedWithinWindow() {
+        final StackTraceDeduplicator deduplicator = new StackTraceDeduplicator(16, 1);
+        assertEquals(1, deduplicator.record(42, 0));
+        assertEquals(2, deduplicator.record(42, 500));
+        assertEquals(3, deduplicator.record(42, 999));
+        assertEquals(1, deduplicator.record(42, 1000));
+        assertEquals(1, deduplicator.record(43, 1000));
+    }
+
+    @Test
+    public void testLeastRecentlySeenSignatureIsEvicted() {
+        final StackTraceDeduplicator deduplicator = new StackTraceDeduplicator(2, 60);
+        deduplicator.record(1, 0);
+        deduplicator.record(2, 0);
+        deduplicator.record(1, 0);
+        deduplicator.record(3, 0);
+        assertEquals(3, deduplicator.record(1, 0));
+        assertEquals(1, deduplicator.record(2, 0));
+    }
+
+    @Test
+    public void testSignatureIgnoresMessages() {
+        final Throwable[] throwables = new Throwable[3];
+        for (int i = 0; i < throwables.length; i++) {
+            throwables[i] = new IllegalStateException("message " + i,
+                    i < 2 ? new IllegalArgumentException() : new NullPointerException());
+        }
+        assertEquals(StackTraceDeduplicator.signature(throwables[0]), StackTraceDeduplicator.signature(throwables[1]));
+        assertNotEquals(StackTraceDeduplicator.signature(throwables[0]),
+                StackTraceDeduplicator.signature(throwables[2]));
+        assertEquals(StackTraceDeduplicator.signature(throwables[0]),
+                StackTraceDeduplicator.signature(new ThrowableProxy(throwables[0])));
+    }
+
+    @Test
+    public void testFormatReference() {
+        final StringBuilder buffer = new StringBuilder();
+        StackTraceDeduplicator.formatReference(0x1fL, 1, buffer);
+        assertEquals("[stackHash=000000000000001f]", buffer.toString());
+        buffer.setLength(0);
+        StackTraceDeduplicator.formatReference(-1L, 5, buffer);
+        assertEquals("[stackHash=ffffffffffffffff, seen 5 times]", buffer.toString());
+    }
+}
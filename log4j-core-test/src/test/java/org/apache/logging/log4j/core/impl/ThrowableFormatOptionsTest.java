@@ -449,4 +449,18 @@ public final class ThrowableFormatOptionsTest {
         test(new String[] { "10,filters(package1,package2)" }, 10, Strings.LINE_SEPARATOR,
                 Arrays.asList("package1", "package2"));
     }
+
+    /**
+     * Test {@code %throwable{full}{dedup(30)} }
+     */
+    @Test
+    public void testDedup() {
+        assertNull(test(new String[] { "full" }, Integer.MAX_VALUE, Strings.LINE_SEPARATOR, null).getDeduplicator());
+        final ThrowableFormatOptions tfo = test(new String[] { "full", "dedup(30)" }, Integer.MAX_VALUE,
+                Strings.LINE_SEPARATOR, null);
+        assertNotNull(tfo.getDeduplicator());
+        assertEquals(30_000, tfo.getDeduplicator().getWindowMillis());
+        assertEquals(StackTraceDeduplicator.DEFAULT_WINDOW_SECONDS * 1000L, test(new String[] { "dedup" },
+                Integer.MAX_VALUE, Strings.LINE_SEPARATOR, null).getDeduplicator().getWindowMillis());
+    }
 }
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.BinaryLogEventDecoder.DecodedThrowable;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BinaryLayoutTest {
+
+    @Test
+    public void testRecordRoundtrip() throws IOException {
+        final Log4jLogEvent expected = LogEventFixtures.createLogEvent();
+        final BinaryLayout layout = BinaryLayout.newBuilder().setLocationInfo(true).build();
+
+        final LogEvent actual = BinaryLogEventDecoder.decode(layout.toByteArray(expected));
+
+        assertEqualEvents(expected, actual);
+        assertEquals(expected.getSource(), actual.getSource());
+        assertEqualThrowables(expected.getThrown(), actual.getThrown());
+    }
+
+    @Test
+    public void testLocationIsOptional() throws IOException {
+        final Log4jLogEvent expected = LogEventFixtures.createLogEvent();
+        final BinaryLayout layout = BinaryLayout.createDefaultLayout();
+
+        final LogEvent actual = BinaryLogEventDecoder.decode(layout.toByteArray(expected));
+
+        assertNull(actual.getSource());
+        assertEquals(expected.getLoggerName(), actual.getLoggerName());
+    }
+
+    @Test
+    public void testStreamUsesStringTable() throws IOException {
+        final BinaryLayout layout = BinaryLayout.createDefaultLayout();
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(64, 4096);
+        final Log4jLogEvent first = createEvent("first é€😀", 1);
+        final Log4jLogEvent second = createEvent("second", 2);
+
+        final byte[] header = layout.getHeader();
+        destination.writeBytes(header, 0, header.length);
+        layout.encode(first, destination);
+        final int firstEnd = destination.drained.position() + destination.buffer.position();
+        layout.encode(second, destination);
+        layout.encode(first, destination);
+        destination.drain(destination.buffer);
+        final int total = destination.drained.position();
+        // logger, thread, level and FQCN names are only written once
+        assertTrue(total - firstEnd < 2 * (firstEnd - header.length), "string table not used");
+
+        final byte[] stream = Arrays.copyOf(destination.drained.array(), total);
+        final BinaryLogEventDecoder decoder = new BinaryLogEventDecoder(new ByteArrayInputStream(stream));
+        assertEqualEvents(first, decoder.readEvent());
+        assertEqualEvents(second, decoder.readEvent());
+        assertEqualEvents(first, decoder.readEvent());
+        assertNull(decoder.readEvent());
+    }
+
+    @Test
+    public void testHeaderResetsStringTable() throws IOException {
+        final BinaryLayout layout = BinaryLayout.createDefaultLayout();
+        final Log4jLogEvent event = createEvent("message", 1);
+        encodeStream(layout, event);
+
+        // a new stream defines its strings again
+        final BinaryLogEventDecoder decoder = new BinaryLogEventDecoder(
+                new ByteArrayInputStream(encodeStream(layout, event)));
+        assertEqualEvents(event, decoder.readEvent());
+        assertNull(decoder.readEvent());
+    }
+
+    @Test
+    public void testRejectsCorruptInput() {
+        final BinaryLayout layout = BinaryLayout.createDefaultLayout();
+        final byte[] record = layout.toByteArray(createEvent("message", 1));
+        assertThrows(IOException.class, () -> BinaryLogEventDecoder.decode(Arrays.copyOf(record, record.length - 1)));
+        assertThrows(StreamCorruptedException.class, () -> new BinaryLogEventDecoder(
+                new ByteArrayInputStream(new byte[] {'N', 'O', 'P', 'E', 1})).readEvent());
+    }
+
+    @Test
+    public void testRejectsInvalidFields() {
+        // an out of range nanosecond of millisecond and a missing level name
+        assertThrows(StreamCorruptedException.class, () -> BinaryLogEventDecoder.decode(
+                record(0, 0, 1_000_000, 400, "INFO")));
+        assertThrows(StreamCorruptedException.class, () -> BinaryLogEventDecoder.decode(
+                record(0, 0, 0, 400, BinaryLayout.STRING_NULL)));
+    }
+
+    @Test
+    public void testDoesNotRegisterLevelsOrMarkers() throws IOException {
+        final Marker parent = MarkerManager.getMarker("BinaryLayoutTest.parent");
+        final Marker existing = MarkerManager.getMarker("BinaryLayoutTest.existing");
+        final LogEvent event = BinaryLogEventDecoder.decode(record(BinaryLayout.FLAG_MARKER, 0, 0, 350,
+                "BinaryLayoutTest.LEVEL", BinaryLayout.STRING_NULL, BinaryLayout.STRING_NULL,
+                BinaryLayout.STRING_NULL, 0, 0, BinaryLayout.STRING_NULL,
+                "BinaryLayoutTest.child", 2, "BinaryLayoutTest.parent", 0, "BinaryLayoutTest.existing", 1,
+                "BinaryLayoutTest.unknown", 0));
+
+        assertEquals(Level.WARN, event.getLevel());
+        assertNull(Level.getLevel("BinaryLayoutTest.LEVEL"));
+        assertEquals("BinaryLayoutTest.child", event.getMarker().getName());
+        assertTrue(event.getMarker().isInstanceOf(parent));
+        assertTrue(event.getMarker().isInstanceOf(existing));
+        assertFalse(MarkerManager.exists("BinaryLayoutTest.child"));
+        assertFalse(MarkerManager.exists("BinaryLayoutTest.unknown"));
+        assertFalse(existing.hasParents());
+    }
+
+    /**
+     * Builds a record from variable-length integers and inline strings.
+     */
+    private static byte[] record(final Object... fields) {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (final Object field : fields) {
+            if (field instanceof String) {
+                final byte[] bytes = ((String) field).getBytes(StandardCharsets.UTF_8);
+                writeVarInt(body, BinaryLayout.STRING_INLINE);
+                writeVarInt(body, bytes.length);
+                body.write(bytes, 0, bytes.length);
+            } else {
+                writeVarInt(body, (Integer) field);
+            }
+        }
+        final ByteArrayOutputStream record = new ByteArrayOutputStream();
+        writeVarInt(record, body.size());
+        record.write(body.toByteArray(), 0, body.size());
+        return record.toByteArray();
+    }
+
+    private static void writeVarInt(final ByteArrayOutputStream out, final int value) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.write(remaining);
+    }
+
+    private static byte[] encodeStream(final BinaryLayout layout, final LogEvent event) {
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(1024, 4096);
+        final byte[] header = layout.getHeader();
+        destination.writeBytes(header, 0, header.length);
+        layout.encode(event, destination);
+        destination.drain(destination.buffer);
+        return Arrays.copyOf(destination.drained.array(), destination.drained.position());
+    }
+
+    private static Log4jLogEvent createEvent(final String message, final long timeMillis) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("org.example.Service")
+                .setLoggerFqcn("org.apache.logging.log4j.spi.AbstractLogger")
+                .setLevel(Level.WARN)
+                .setMessage(new ParameterizedMessage("{} at {}", message, timeMillis))
+                .setThreadName("worker-1")
+                .setThreadId(42)
+                .setThreadPriority(5)
+                .setTimeMillis(timeMillis)
+                .build();
+    }
+
+    private static void assertEqualEvents(final LogEvent expected, final LogEvent actual) {
+        assertEquals(expected.getInstant(), actual.getInstant());
+        assertEquals(expected.getLevel(), actual.getLevel());
+        assertEquals(expected.getLoggerName(), actual.getLoggerName());
+        assertEquals(expected.getLoggerFqcn(), actual.getLoggerFqcn());
+        assertEquals(expected.getThreadName(), actual.getThreadName());
+        assertEquals(expected.getThreadId(), actual.getThreadId());
+        assertEquals(expected.getThreadPriority(), actual.getThreadPriority());
+        assertEquals(new SimpleMessage(expected.getMessage().getFormattedMessage()), actual.getMessage());
+        assertEquals(expected.getMarker(), actual.getMarker());
+        assertEquals(expected.getContextData(), actual.getContextData());
+        assertEquals(expected.getContextStack(), actual.getContextStack());
+        assertEquals(expected.getNanoTime(), actual.getNanoTime());
+        assertEquals(expected.isEndOfBatch(), actual.isEndOfBatch());
+        assertEquals(expected.isIncludeLocation(), actual.isIncludeLocation());
+    }
+
+    private static void assertEqualThrowables(final Throwable expected, final Throwable actual) {
+        final DecodedThrowable decoded = assertInstanceOf(DecodedThrowable.class, actual);
+        assertEquals(expected.getClass().getName(), decoded.getClassName());
+        assertEquals(expected.toString(), decoded.toString());
+        assertArrayEquals(expected.getStackTrace(), decoded.getStackTrace());
+        if (expected.getCause() == null) {
+            assertNull(decoded.getCause());
+        } else {
+            assertEqualThrowables(expected.getCause(), decoded.getCause());
+        }
+        assertEquals(expected.getSuppressed().length, decoded.getSuppressed().length);
+        for (int i = 0; i < expected.getSuppressed().length; i++) {
+            assertEqualThrowables(expected.getSuppressed()[i], decoded.getSuppressed()[i]);
+        }
+    }
+}
@@ -19,6 +19,9 @@ package org.apache.logging.log4j.core.layout;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.MarkerManager;
@@ -27,7 +30,10 @@ import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.lookup.MainMapLookup;
 import org.apache.logging.log4j.core.test.BasicConfigurationFactory;
@@ -69,7 +75,16 @@ public class PatternLayoutTest {
     Logger root = ctx.getRootLogger();
 
     private static class Destination implements ByteBufferDestination {
-        ByteBuffer byteBuffer = ByteBuffer.wrap(new byte[2048]);
+        final ByteBuffer byteBuffer;
+
+        Destination() {
+            this(2048);
+        }
+
+        Destination(final int capacity) {
+            byteBuffer = ByteBuffer.wrap(new byte[capacity]);
+        }
+
         @Override
         public ByteBuffer getByteBuffer() {
             return byteBuffer;
@@ -77,7 +92,7 @@ public class PatternLayoutTest {
 
         @Override
         public ByteBuffer drain(final ByteBuffer buf) {
-            throw new IllegalStateException("Unexpected message larger than 2048 bytes");
+            throw new IllegalStateException("Unexpected message larger than " + byteBuffer.capacity() + " bytes");
         }
 
         @Override
@@ -129,6 +144,109 @@ public class PatternLayoutTest {
         assertEncode("[org.apache.logging.log4j.core.layout.PatternLayoutTest] Hello, world!", layout, event2);
     }
 
+    @Test
+    public void testCompiledPatternMatchesInterpretedPattern() {
+        ThreadContext.put("key", "value");
+        final LogEvent event = Log4jLogEvent.newBuilder() //
+                .setLoggerName("org.apache.logging.log4j.core.layout.PatternLayoutTest") //
+                .setLoggerFqcn("org.apache.logging.log4j.core.Logger") //
+                .setLevel(Level.WARN) //
+                .setThreadName("main-thread") //
+                .setTimeMillis(1_234_567_890L) //
+                .setMarker(MarkerManager.getMarker("TestMarker")) //
+                .setMessage(new SimpleMessage("Hello, world!")) //
+                .setThrown(new IllegalStateException("failure")).build();
+        final String[] patterns = {
+                "%d %-5p [%t] %c{1.} - %m%n",
+                "%d{ISO8601} %5level %-20.20logger{1} %marker [%X{key}] %.5msg%n",
+                "[%-10t] ${java:version} %equals{%marker}{TestMarker}{x} %m %ex{short}%n",
+                "literal only%n%n",
+                "%r %highlight{%p} %maxLen{%m}{5}"
+        };
+        for (final String pattern : patterns) {
+            final PatternLayout interpreted = PatternLayout.newBuilder().withPattern(pattern)
+                    .withConfiguration(ctx.getConfiguration()).withAlwaysWriteExceptions(false).build();
+            final PatternLayout compiled = PatternLayout.newBuilder().withPattern(pattern)
+                    .withConfiguration(ctx.getConfiguration()).withAlwaysWriteExceptions(false).withCompiled(true)
+                    .build();
+            final String expected = interpreted.toSerializable(event);
+            assertEquals(expected, compiled.toSerializable(event), pattern);
+            assertEncode(expected, compiled, event);
+        }
+    }
+
+    @Test
+    public void testEncodeWithNestedLogging() {
+        // LOG4J2-2368: the throwable logs while the outer event is being encoded
+        final PatternLayout layout = PatternLayout.newBuilder()
+                .withPattern("%level %m %throwable{short.message}%n")
+                .withConfiguration(ctx.getConfiguration()).withCharset(StandardCharsets.UTF_8).build();
+        final Destination destination = new Destination();
+        final AbstractAppender appender = new AbstractAppender("Encoding", null, layout, false, Property.EMPTY_ARRAY) {
+            @Override
+            public void append(final LogEvent event) {
+                layout.encode(event, destination);
+            }
+        };
+        appender.start();
+        final LoggerConfig rootConfig = ctx.getConfiguration().getRootLogger();
+        rootConfig.addAppender(appender, null, null);
+        ctx.updateLoggers();
+        try {
+            root.error("outer", new RuntimeException() {
+                @Override
+                public String getMessage() {
+                    root.error("nested");
+                    return "message";
+                }
+            });
+        } finally {
+            rootConfig.removeAppender(appender.getName());
+            ctx.updateLoggers();
+            appender.stop();
+        }
+        final ByteBuffer byteBuffer = destination.getByteBuffer();
+        byteBuffer.flip();
+        final String output = new String(byteBuffer.array(), 0, byteBuffer.limit(), StandardCharsets.UTF_8);
+        final Set<String> lines = new HashSet<>(Arrays.asList(output.split(Strings.LINE_SEPARATOR)));
+        assertEquals(new HashSet<>(Arrays.asList("ERROR outer message", "ERROR nested ")), lines, output);
+    }
+
+    @Test
+    public void testEncodeMatchesToByteArray() {
+        final StringBuilder longMessage = new StringBuilder();
+        while (longMessage.length() < 20_000) {
+            longMessage.append("ASCII text, Gr\u00fc\u00dfe \u20ac and \ud83d\ude00 ");
+        }
+        final String[] messages = {"Hello, world!", "Gr\u00fc\u00dfe \u20ac \ud83d\ude00", longMessage.toString()};
+        final Level[] levels = {Level.TRACE, Level.INFO, Level.ERROR, Level.forName("NOTICE", 350)};
+        final String pattern = "%-5level [%p{length=1}] [%level{WARN=Warning, lowerCase=true}] %10.10logger{1} - %m%n";
+        for (final Charset charset : new Charset[] {StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1,
+                StandardCharsets.US_ASCII}) {
+            for (final boolean compiled : new boolean[] {false, true}) {
+                final PatternLayout layout = PatternLayout.newBuilder().withPattern(pattern)
+                        .withConfiguration(ctx.getConfiguration()).withCharset(charset).withCompiled(compiled)
+                        .build();
+                for (final Level level : levels) {
+                    for (final String message : messages) {
+                        final LogEvent event = Log4jLogEvent.newBuilder() //
+                                .setLoggerName(this.getClass().getName()) //
+                                .setLoggerFqcn("org.apache.logging.log4j.core.Logger") //
+                                .setLevel(level) //
+                                .setMessage(new SimpleMessage(message)).build();
+                        final Destination destination = new Destination(64 * 1024);
+                        layout.encode(event, destination);
+                        final ByteBuffer byteBuffer = destination.getByteBuffer();
+                        byteBuffer.flip();
+                        final byte[] actual = new byte[byteBuffer.remaining()];
+                        byteBuffer.get(actual);
+                        assertArrayEquals(layout.toByteArray(event), actual, charset + " " + level);
+                    }
+                }
+            }
+        }
+    }
+
     @Test
     public void testHeaderFooterJavaLookup() throws Exception {
         // % does not work here.
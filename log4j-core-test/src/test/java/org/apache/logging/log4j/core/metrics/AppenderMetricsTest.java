@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.metrics;
+
+import java.util.Set;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LoggingException;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.FileAppender;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.jmx.AppenderMetricsAdminMBean;
+import org.apache.logging.log4j.core.jmx.Server;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the metrics collected for Appenders and their OutputStreamManagers.
+ */
+public class AppenderMetricsTest {
+
+    private LoggerContext context;
+
+    @BeforeEach
+    public void setUp() {
+        MetricsRegistry.setEnabled(true);
+        context = Configurator.initialize("AppenderMetricsTest", "log4j-appender-metrics.xml");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        MetricsRegistry.setEnabled(false);
+        Configurator.shutdown(context);
+    }
+
+    @Test
+    public void testAppenderMetrics() {
+        final ListAppender list = context.getConfiguration().getAppender("List");
+        final FileAppender file = context.getConfiguration().getAppender("File");
+        final Logger logger = context.getLogger(AppenderMetricsTest.class);
+
+        logger.debug("debug");
+        logger.info("info");
+        logger.warn("warn");
+        logger.error("error");
+
+        final AppenderMetrics listMetrics = MetricsRegistry.getAppenderMetrics(list);
+        assertEquals(3, listMetrics.getAppendCount());
+        // filtered by the filter of the Appender
+        assertEquals(1, listMetrics.getFilteredCount());
+        assertEquals(0, listMetrics.getErrorCount());
+        assertTrue(listMetrics.getAppendLatency().getMaxNanos() > 0);
+
+        final AppenderMetrics fileMetrics = MetricsRegistry.getAppenderMetrics(file);
+        assertEquals(2, fileMetrics.getAppendCount());
+        // filtered by the level of the Appender reference
+        assertEquals(2, fileMetrics.getFilteredCount());
+
+        final OutputStreamMetrics managerMetrics = MetricsRegistry.getOutputStreamMetrics(file.getManager());
+        assertEquals("warn\nerror\n".length(), managerMetrics.getBytesWritten());
+        assertEquals(2, managerMetrics.getWriteCount());
+
+        final Logger failing = context.getLogger("Fail");
+        assertThrows(LoggingException.class, () -> failing.info("fail"));
+        final AppenderMetrics failMetrics = MetricsRegistry.getAppenderMetrics(
+                context.getConfiguration().getAppender("Fail"));
+        assertEquals(1, failMetrics.getAppendCount());
+        assertEquals(1, failMetrics.getErrorCount());
+
+        assertTrue(MetricsRegistry.getAppenderMetrics().contains(listMetrics));
+        listMetrics.reset();
+        assertEquals(0, listMetrics.getAppendCount());
+        assertEquals(0, listMetrics.getFilteredCount());
+    }
+
+    @Test
+    public void testMetricsAreExposedThroughJmx() throws Exception {
+        context.getLogger(AppenderMetricsTest.class).error("error");
+
+        final MBeanServer mbs = MBeanServerFactory.newMBeanServer();
+        Server.reregisterMBeansAfterReconfigure(mbs);
+        final ObjectName fileName = new ObjectName(String.format(AppenderMetricsAdminMBean.PATTERN,
+                Server.escape(context.getName()), "File"));
+        assertEquals(1L, mbs.getAttribute(fileName, "AppendCount"));
+        assertEquals((long) "error\n".length(), mbs.getAttribute(fileName, "BytesWritten"));
+        final ObjectName listName = new ObjectName(String.format(AppenderMetricsAdminMBean.PATTERN,
+                Server.escape(context.getName()), "List"));
+        assertEquals(-1L, mbs.getAttribute(listName, "BytesWritten"));
+
+        Server.unregisterLoggerContext(context.getName(), mbs);
+        final Set<ObjectName> remaining = mbs.queryNames(new ObjectName(String.format(
+                AppenderMetricsAdminMBean.PATTERN, "*", "*")), null);
+        assertTrue(remaining.isEmpty());
+    }
+
+    @Test
+    public void testDisabledMetrics() {
+        MetricsRegistry.setEnabled(false);
+        final ListAppender appender = new ListAppender("Disabled");
+        assertNull(MetricsRegistry.getAppenderMetrics(appender));
+        assertFalse(MetricsRegistry.getAppenderMetrics().stream()
+                .anyMatch(metrics -> "Disabled".equals(metrics.getName())));
+    }
+}
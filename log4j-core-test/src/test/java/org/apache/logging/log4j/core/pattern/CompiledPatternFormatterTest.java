@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import java.util.List;
+
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.Strings;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledPatternFormatterTest {
+
+    private static CompiledPatternFormatter compile(final String pattern) {
+        final List<PatternFormatter> formatters = PatternLayout.createPatternParser(null).parse(pattern);
+        return CompiledPatternFormatter.compile(formatters.toArray(PatternFormatter.EMPTY_ARRAY));
+    }
+
+    @Test
+    public void testAdjacentLiteralsAreMerged() {
+        final CompiledPatternFormatter formatter = compile("[%t] - %m%n");
+        // "[", thread name, "] - ", message, line separator
+        assertEquals(5, formatter.size());
+        final StringBuilder buffer = new StringBuilder();
+        formatter.format(Log4jLogEvent.newBuilder().setThreadName("main").setMessage(new SimpleMessage("msg")).build(),
+                buffer);
+        assertEquals("[main] - msg" + Strings.LINE_SEPARATOR, buffer.toString());
+    }
+
+    @Test
+    public void testPaddedLiteralsAreNotMerged() {
+        assertEquals(2, compile("a%5.5n").size());
+    }
+
+    @Test
+    public void testRequiresLocation() {
+        assertFalse(compile("%d %m%n").requiresLocation());
+        assertTrue(compile("%d %l %m%n").requiresLocation());
+    }
+}
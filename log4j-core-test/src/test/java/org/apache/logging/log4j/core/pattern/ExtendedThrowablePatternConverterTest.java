@@ -54,6 +54,48 @@ public class ExtendedThrowablePatternConverterTest {
         assertTrue(result.contains("test suffix"), "No suffix");
     }
 
+    @Test
+    public void testDedup() {
+        final String[] options = {"full", "dedup(10)"};
+        final ExtendedThrowablePatternConverter converter = ExtendedThrowablePatternConverter.newInstance(null, options);
+        final String[] messages = {"first", "second", "third"};
+        final long[] times = {1000, 2000, 11_000};
+        final String[] results = new String[messages.length];
+        for (int i = 0; i < messages.length; i++) {
+            // same stack trace, different messages
+            results[i] = format(converter, createThrowable(messages[i]), times[i]);
+        }
+        final String first = results[0];
+        final String second = results[1];
+        final String third = results[2];
+
+        assertTrue(first.startsWith("[stackHash="), first);
+        final String hash = first.substring(0, first.indexOf(']'));
+        assertTrue(first.contains("Caused by: java.lang.NullPointerException"), first);
+        assertEquals(hash + ", seen 2 times] java.lang.IllegalArgumentException: second" + Strings.LINE_SEPARATOR,
+                second);
+        // the window is over
+        assertTrue(third.startsWith(hash + "] java.lang.IllegalArgumentException: third"), third);
+        assertTrue(third.contains("Caused by: java.lang.NullPointerException"), third);
+    }
+
+    private static Throwable createThrowable(final String message) {
+        return new IllegalArgumentException(message, new NullPointerException("null pointer"));
+    }
+
+    private String format(final LogEventPatternConverter converter, final Throwable thrown, final long timeMillis) {
+        final LogEvent event = Log4jLogEvent.newBuilder() //
+                .setLoggerName("testLogger") //
+                .setLoggerFqcn(this.getClass().getName()) //
+                .setLevel(Level.DEBUG) //
+                .setMessage(new SimpleMessage("test exception")) //
+                .setTimeMillis(timeMillis) //
+                .setThrown(thrown).build();
+        final StringBuilder sb = new StringBuilder();
+        converter.format(event, sb);
+        return sb.toString();
+    }
+
     @Test
     public void testSuffix() {
         final String suffix = "suffix(test suffix)";
@@ -49,4 +49,25 @@ public class RegexReplacementConverterTest {
         assertEquals("org/apache/logging/log4j/core/pattern/RegexReplacementConverterTest This is a test" +
             Strings.LINE_SEPARATOR, sb.toString());
     }
+
+    @Test
+    public void testNestedThrowableDoesNotSeePrecedingText() {
+        final LogEvent event = Log4jLogEvent.newBuilder() //
+                .setLoggerName(RegexReplacementConverterTest.class.getName()) //
+                .setLevel(Level.ERROR) //
+                .setMessage(new SimpleMessage("This is a test")) //
+                .setThrown(new IllegalStateException("failure")) //
+                .build();
+        final StringBuilder sb = new StringBuilder("message:");
+        final LoggerContext ctx = LoggerContext.getContext();
+        final String[] options = new String[] {
+            "%ex{short.message}", "failure", "error"
+        };
+        final RegexReplacementConverter converter = RegexReplacementConverter.newInstance(ctx.getConfiguration(),
+            options);
+        assertNotNull(converter);
+        converter.format(event, sb);
+        // the nested pattern is formatted on its own, so the throwable converter does not prepend a space
+        assertEquals("message:error", sb.toString());
+    }
 }
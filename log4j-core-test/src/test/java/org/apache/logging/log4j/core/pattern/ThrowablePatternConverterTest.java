@@ -225,6 +225,29 @@ public class ThrowablePatternConverterTest {
                 "Each line of full stack trace should end with the specified suffix");
     }
 
+    @Test
+    public void testDedup() {
+        final String[] options = { "dedup" };
+        final ThrowablePatternConverter converter = ThrowablePatternConverter.newInstance(null, options);
+        final String[] results = new String[2];
+        for (int i = 0; i < results.length; i++) {
+            final LogEvent event = Log4jLogEvent.newBuilder() //
+                    .setLoggerName("testLogger") //
+                    .setLoggerFqcn(this.getClass().getName()) //
+                    .setLevel(Level.DEBUG) //
+                    .setMessage(new SimpleMessage("test exception")) //
+                    .setThrown(new IllegalStateException("failure " + i)).build();
+            final StringBuilder sb = new StringBuilder("message");
+            converter.format(event, sb);
+            results[i] = sb.toString();
+        }
+        final String hash = results[0].substring("message ".length(), results[0].indexOf(']'));
+        assertTrue(results[0].startsWith("message [stackHash="), results[0]);
+        assertTrue(results[0].contains("\tat " + getClass().getName()), results[0]);
+        assertEquals("message " + hash + ", seen 2 times] java.lang.IllegalStateException: failure 1"
+                + Strings.LINE_SEPARATOR, results[1]);
+    }
+
     @Test
     public void testShortOptionWithSuffix() {
         final String packageName = "org.apache.logging.log4j.core.pattern.";
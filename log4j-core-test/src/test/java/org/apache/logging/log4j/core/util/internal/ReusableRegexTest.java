@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal;
+
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReusableRegexTest {
+
+    static Stream<Arguments> replacements() {
+        return Stream.of(
+                Arguments.of("\\.", "/", "org.apache.logging"),
+                Arguments.of("(\\d{3})-(\\d{2})-(\\d{4})", "***-**-$3", "ssn 123-45-6789 and 987-65-4321"),
+                Arguments.of("(?<user>\\w+)@(\\w+)", "${user}@***", "mail joe@example or ann@example"),
+                Arguments.of("password=\\S+", "password=***", "login password=secret ok"),
+                Arguments.of("password=\\S+", "password=***", "no secret here"),
+                Arguments.of("x*", "-", "abc"),
+                Arguments.of("^a", "b", "aaa"),
+                Arguments.of("a$", "b", "aaa"),
+                Arguments.of("\\b", "|", "one two"),
+                Arguments.of("(a)(b)?", "[$1$2]", "abaa"),
+                Arguments.of("(a)", "$11", "bab"),
+                Arguments.of("a", "\\$\\\\", "bab"),
+                Arguments.of("\\d", "#", "café 42 €"),
+                Arguments.of("é", "e", "café café"),
+                Arguments.of("a", "b", ""));
+    }
+
+    @ParameterizedTest
+    @MethodSource("replacements")
+    public void testReplaceAllMatchesMatcher(final String regex, final String replacement, final String text) {
+        final Pattern pattern = Pattern.compile(regex);
+        final ReusableRegex reusableRegex = new ReusableRegex(pattern, replacement);
+        final String expected = pattern.matcher(text).replaceAll(replacement);
+
+        final StringBuilder buffer = new StringBuilder(text);
+        reusableRegex.replaceAll(buffer, 0);
+        assertEquals(expected, buffer.toString());
+
+        // the text before the start index is neither matched nor modified
+        final StringBuilder prefixed = new StringBuilder("a.1 ").append(text);
+        reusableRegex.replaceAll(prefixed, 4);
+        assertEquals("a.1 " + expected, prefixed.toString());
+
+        assertEquals(expected, reusableRegex.replaceAll(text));
+    }
+
+    @Test
+    public void testInvalidReplacementFailsLikeMatcher() {
+        final ReusableRegex reusableRegex = new ReusableRegex(Pattern.compile("a"), "$");
+        final StringBuilder noMatch = new StringBuilder("bbb");
+        reusableRegex.replaceAll(noMatch, 0);
+        assertEquals("bbb", noMatch.toString());
+        assertThrows(IllegalArgumentException.class, () -> reusableRegex.replaceAll(new StringBuilder("bab"), 0));
+    }
+
+    @Test
+    public void testMatches() {
+        final ReusableRegex reusableRegex = new ReusableRegex(Pattern.compile("abc.*"));
+        assertTrue(reusableRegex.matches(new StringBuilder("abcdef")));
+        assertTrue(reusableRegex.matches("abc"));
+        assertFalse(reusableRegex.matches(new StringBuilder("xabc")));
+        assertFalse(reusableRegex.matches("ab"));
+    }
+
+    @Test
+    public void testPrefix() {
+        assertEquals("password=", new ReusableRegex(Pattern.compile("password=\\S+")).getPrefix());
+        assertEquals("a", new ReusableRegex(Pattern.compile("ab*c")).getPrefix());
+        assertEquals("a", new ReusableRegex(Pattern.compile("a+b")).getPrefix());
+        assertEquals(".x", new ReusableRegex(Pattern.compile("\\.x")).getPrefix());
+        assertEquals("ab", new ReusableRegex(Pattern.compile("^ab(c)")).getPrefix());
+        assertEquals("a.b", new ReusableRegex(Pattern.compile("a.b", Pattern.LITERAL)).getPrefix());
+        assertNull(new ReusableRegex(Pattern.compile("\\d+")).getPrefix());
+        assertNull(new ReusableRegex(Pattern.compile("(?i)abc")).getPrefix());
+        assertNull(new ReusableRegex(Pattern.compile("abc|def")).getPrefix());
+        assertNull(new ReusableRegex(Pattern.compile("a?b")).getPrefix());
+        assertNull(new ReusableRegex(Pattern.compile("abc", Pattern.CASE_INSENSITIVE)).getPrefix());
+    }
+}
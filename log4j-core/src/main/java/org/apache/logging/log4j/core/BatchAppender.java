@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core;
+
+/**
+ * An {@link Appender} that can append several events at once, so that costs like acquiring a lock, making a system
+ * call or waiting for a network round-trip are paid once per batch instead of once per event.
+ *
+ * <p>The asynchronous loggers and the {@code AsyncAppender} hand the events they take from their queues to
+ * {@link org.apache.logging.log4j.core.config.AppenderControl} as a batch; a {@code BatchAppender} then receives those
+ * events through {@link #append(LogEvent[], int)} once the batch is complete. Everywhere else, events are passed to
+ * {@link #append(LogEvent)} one at a time, so both methods must be implemented.</p>
+ *
+ * @see org.apache.logging.log4j.core.config.AppenderControl#addToBatch(LogEvent)
+ * @since 2.21.0
+ */
+public interface BatchAppender extends Appender {
+
+    /**
+     * Appends several events in the order of the array.
+     * <p>
+     * The events may be mutable and are only valid until this method returns: implementations that keep events
+     * beyond that must use {@link LogEvent#toImmutable()}. The last event has {@link LogEvent#isEndOfBatch()} set if no
+     * other events were waiting when the batch was taken from the queue.
+     * </p>
+     *
+     * @param events The LogEvents, the array may be longer than {@code count}.
+     * @param count The number of events to append, starting at index 0.
+     */
+    void append(LogEvent[] events, int count);
+}
@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.appender;
 import java.io.Serializable;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.logging.log4j.core.BatchAppender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
@@ -31,7 +32,8 @@ import org.apache.logging.log4j.core.util.Constants;
  *
  * @param <M> The kind of {@link OutputStreamManager} under management
  */
-public abstract class AbstractOutputStreamAppender<M extends OutputStreamManager> extends AbstractAppender {
+public abstract class AbstractOutputStreamAppender<M extends OutputStreamManager> extends AbstractAppender
+        implements BatchAppender {
 
     /**
      * Subclasses can extend this abstract Builder.
@@ -203,6 +205,99 @@ public abstract class AbstractOutputStreamAppender<M extends OutputStreamManager
         }
     }
 
+    /**
+     * Writes the events while holding the lock of the manager once, and flushes the manager at most once, after the
+     * last event, if immediate flush is enabled or the last event ends a batch. An event that cannot be written is
+     * reported to the error handler and the following events are still written; the first failure is rethrown
+     * afterwards.
+     *
+     * @param events The LogEvents.
+     * @param count The number of events to append.
+     * @since 2.21.0
+     */
+    @Override
+    public void append(final LogEvent[] events, final int count) {
+        RuntimeException failure = null;
+        synchronized (manager) {
+            for (int index = 0; index < count; index++) {
+                try {
+                    writeBatchedEvent(events[index]);
+                } catch (final RuntimeException ex) {
+                    // reported like the failure of a single event, but the rest of the batch is still written
+                    failure = batchFailure(failure, events[index], ex);
+                }
+            }
+            if (this.immediateFlush || events[count - 1].isEndOfBatch()) {
+                try {
+                    manager.flush();
+                } catch (final RuntimeException ex) {
+                    failure = batchFailure(failure, events[count - 1], ex);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Appends the events one at a time with {@link #append(LogEvent)}, for appenders that write a batch without
+     * holding the lock of the manager. An event that cannot be appended does not prevent the following events from
+     * being appended; the first failure is rethrown afterwards.
+     *
+     * @param events The LogEvents.
+     * @param count The number of events to append.
+     * @since 2.21.0
+     */
+    protected void appendEach(final LogEvent[] events, final int count) {
+        RuntimeException failure = null;
+        for (int i = 0; i < count; i++) {
+            try {
+                append(events[i]);
+            } catch (final RuntimeException ex) {
+                // already reported by append(LogEvent)
+                if (failure == null) {
+                    failure = ex;
+                } else if (failure != ex) {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private RuntimeException batchFailure(final RuntimeException failure, final LogEvent event,
+            final RuntimeException ex) {
+        error("Unable to write to stream " + manager.getName() + " for appender " + getName(), event, ex);
+        if (failure == null) {
+            return ex;
+        }
+        if (failure != ex) {
+            failure.addSuppressed(ex);
+        }
+        return failure;
+    }
+
+    /**
+     * Writes one event of a batch to the manager without flushing it. Called by {@link #append(LogEvent[], int)} with
+     * the lock of the manager held; subclasses that check for a rollover before each event override this method too.
+     *
+     * @param event The LogEvent.
+     * @since 2.21.0
+     */
+    protected void writeBatchedEvent(final LogEvent event) {
+        if (Constants.ENABLE_DIRECT_ENCODERS) {
+            getLayout().encode(event, manager);
+        } else {
+            final byte[] bytes = getLayout().toByteArray(event);
+            if (bytes != null && bytes.length > 0) {
+                manager.write(bytes, false);
+            }
+        }
+    }
+
     private void tryAppend(final LogEvent event) {
         if (Constants.ENABLE_DIRECT_ENCODERS) {
             directEncodeEvent(event);
@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.core.appender;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -33,8 +34,11 @@ import org.apache.logging.log4j.core.async.AsyncQueueFullPolicy;
 import org.apache.logging.log4j.core.async.AsyncQueueFullPolicyFactory;
 import org.apache.logging.log4j.core.async.BlockingQueueFactory;
 import org.apache.logging.log4j.core.async.DiscardingAsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.PriorityAsyncQueueFullPolicy;
 import org.apache.logging.log4j.core.async.EventRoute;
 import org.apache.logging.log4j.core.async.InternalAsyncUtil;
+import org.apache.logging.log4j.core.async.OverflowJournal;
+import org.apache.logging.log4j.core.async.SpillingAsyncQueueFullPolicy;
 import org.apache.logging.log4j.core.config.AppenderControl;
 import org.apache.logging.log4j.core.config.AppenderRef;
 import org.apache.logging.log4j.core.config.Configuration;
@@ -49,6 +53,8 @@ import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.validation.constraints.Required;
 import org.apache.logging.log4j.core.filter.AbstractFilterable;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.metrics.AppenderMetrics;
+import org.apache.logging.log4j.core.metrics.MetricsRegistry;
 import org.apache.logging.log4j.spi.AbstractLogger;
 
 /**
@@ -67,16 +73,23 @@ public final class AsyncAppender extends AbstractAppender {
     private final long shutdownTimeout;
     private final Configuration config;
     private final AppenderRef[] appenderRefs;
+    private final DispatchLane[] dispatchLanes;
+    private final BlockingQueueFactory<LogEvent> blockingQueueFactory;
     private final String errorRef;
     private final boolean includeLocation;
     private AppenderControl errorAppender;
     private AsyncAppenderEventDispatcher dispatcher;
+    private List<AsyncAppenderDispatchLane> lanes = new ArrayList<>();
     private AsyncQueueFullPolicy asyncQueueFullPolicy;
+    private PriorityAsyncQueueFullPolicy priorityPolicy;
+    private AppenderMetrics metrics;
+    private volatile OverflowJournal overflowJournal;
 
     private AsyncAppender(final String name, final Filter filter, final AppenderRef[] appenderRefs,
-            final String errorRef, final int queueSize, final boolean blocking, final boolean ignoreExceptions,
-            final long shutdownTimeout, final Configuration config, final boolean includeLocation,
-            final BlockingQueueFactory<LogEvent> blockingQueueFactory, final Property[] properties) {
+            final DispatchLane[] dispatchLanes, final String errorRef, final int queueSize, final boolean blocking,
+            final boolean ignoreExceptions, final long shutdownTimeout, final Configuration config,
+            final boolean includeLocation, final BlockingQueueFactory<LogEvent> blockingQueueFactory,
+            final Property[] properties) {
         super(name, filter, null, ignoreExceptions, properties);
         this.queue = blockingQueueFactory.create(queueSize);
         this.queueSize = queueSize;
@@ -84,6 +97,8 @@ public final class AsyncAppender extends AbstractAppender {
         this.shutdownTimeout = shutdownTimeout;
         this.config = config;
         this.appenderRefs = appenderRefs;
+        this.dispatchLanes = dispatchLanes == null ? new DispatchLane[0] : dispatchLanes;
+        this.blockingQueueFactory = blockingQueueFactory;
         this.errorRef = errorRef;
         this.includeLocation = includeLocation;
     }
@@ -91,14 +106,9 @@ public final class AsyncAppender extends AbstractAppender {
     @Override
     public void start() {
         final Map<String, Appender> map = config.getAppenders();
-        final List<AppenderControl> appenders = new ArrayList<>();
-        for (final AppenderRef appenderRef : appenderRefs) {
-            final Appender appender = map.get(appenderRef.getRef());
-            if (appender != null) {
-                appenders.add(new AppenderControl(appender, appenderRef.getLevel(), appenderRef.getFilter()));
-            } else {
-                LOGGER.error("No appender named {} was configured", appenderRef);
-            }
+        final Map<String, DispatchLane> laneConfigs = new HashMap<>();
+        for (final DispatchLane lane : dispatchLanes) {
+            laneConfigs.put(lane.getRef(), lane);
         }
         if (errorRef != null) {
             final Appender appender = map.get(errorRef);
@@ -108,15 +118,45 @@ public final class AsyncAppender extends AbstractAppender {
                 LOGGER.error("Unable to set up error Appender. No appender named {} was configured", errorRef);
             }
         }
-        if (appenders.size() > 0) {
+        final List<AppenderControl> appenders = new ArrayList<>();
+        lanes = new ArrayList<>();
+        for (final AppenderRef appenderRef : appenderRefs) {
+            final Appender appender = map.get(appenderRef.getRef());
+            if (appender != null) {
+                final AppenderControl control =
+                        new AppenderControl(appender, appenderRef.getLevel(), appenderRef.getFilter());
+                final DispatchLane lane = laneConfigs.remove(appenderRef.getRef());
+                if (lane != null) {
+                    final int laneSize = lane.getBufferSize() > 0 ? lane.getBufferSize() : queueSize;
+                    lanes.add(new AsyncAppenderDispatchLane(
+                            getName(), lane, control, errorAppender, blockingQueueFactory.create(laneSize)));
+                } else {
+                    appenders.add(control);
+                }
+            } else {
+                LOGGER.error("No appender named {} was configured", appenderRef);
+            }
+        }
+        for (final String ref : laneConfigs.keySet()) {
+            LOGGER.error("No AppenderRef {} for the dispatch lane of AsyncAppender {}", ref, getName());
+        }
+        if (appenders.size() > 0 || lanes.size() > 0) {
             dispatcher = new AsyncAppenderEventDispatcher(
-                    getName(), errorAppender, appenders, queue);
+                    getName(), errorAppender, appenders, lanes, queue);
         } else if (errorRef == null) {
             throw new ConfigurationException("No appenders are available for AsyncAppender " + getName());
         }
         asyncQueueFullPolicy = AsyncQueueFullPolicyFactory.create();
+        priorityPolicy = asyncQueueFullPolicy instanceof PriorityAsyncQueueFullPolicy
+                ? (PriorityAsyncQueueFullPolicy) asyncQueueFullPolicy : null;
+        metrics = MetricsRegistry.getAppenderMetrics(this);
 
+        lanes.forEach(AsyncAppenderDispatchLane::start);
         dispatcher.start();
+        if (blocking) {
+            overflowJournal = SpillingAsyncQueueFullPolicy.createOverflowJournal(asyncQueueFullPolicy,
+                    "AsyncAppender-" + getName(), (key, event) -> transfer(event));
+        }
         super.start();
     }
 
@@ -125,9 +165,28 @@ public final class AsyncAppender extends AbstractAppender {
         setStopping();
         super.stop(timeout, timeUnit, false);
         LOGGER.trace("AsyncAppender stopping. Queue still has {} events.", queue.size());
+        final OverflowJournal journal = overflowJournal;
+        if (journal != null) {
+            // the journal must be replayed while the dispatcher still runs
+            journal.stop(shutdownTimeout, TimeUnit.MILLISECONDS);
+            overflowJournal = null;
+        }
+        boolean interrupted = false;
         try {
             dispatcher.stop(shutdownTimeout);
         } catch (final InterruptedException ignored) {
+            interrupted = true;
+        } finally {
+            // the lanes stop after the dispatcher, which may still hand events over to them
+            for (final AsyncAppenderDispatchLane lane : lanes) {
+                try {
+                    lane.stop(shutdownTimeout);
+                } catch (final InterruptedException ignored) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
             // Restore the interrupted flag cleared when the exception is caught.
             Thread.currentThread().interrupt();
             LOGGER.warn("Interrupted while stopping AsyncAppender {}", getName());
@@ -138,6 +197,16 @@ public final class AsyncAppender extends AbstractAppender {
             LOGGER.trace("AsyncAppender: {} discarded {} events.", asyncQueueFullPolicy,
                 DiscardingAsyncQueueFullPolicy.getDiscardCount(asyncQueueFullPolicy));
         }
+        if (PriorityAsyncQueueFullPolicy.getDiscardCount(asyncQueueFullPolicy) > 0) {
+            LOGGER.trace("AsyncAppender: {} sampled out {} events.", asyncQueueFullPolicy,
+                PriorityAsyncQueueFullPolicy.getDiscardCount(asyncQueueFullPolicy));
+        }
+        for (final AsyncAppenderDispatchLane lane : lanes) {
+            if (lane.getDiscardCount() > 0) {
+                LOGGER.trace("AsyncAppender: dispatch lane of {} discarded {} events.",
+                    lane.getAppender().getName(), lane.getDiscardCount());
+            }
+        }
         setStopped();
         return true;
     }
@@ -152,9 +221,22 @@ public final class AsyncAppender extends AbstractAppender {
         if (!isStarted()) {
             throw new IllegalStateException("AsyncAppender " + getName() + " is not active");
         }
+        final PriorityAsyncQueueFullPolicy policy = priorityPolicy;
+        if (policy != null
+                && !policy.isAdmitted(logEvent.getLevel(), logEvent.getMarker(), queue.remainingCapacity(), queueSize)) {
+            if (metrics != null) {
+                metrics.recordDiscarded();
+            }
+            return;
+        }
         final Log4jLogEvent memento = Log4jLogEvent.createMemento(logEvent, includeLocation);
         InternalAsyncUtil.makeMessageImmutable(logEvent.getMessage());
-        if (!transfer(memento)) {
+        // while the overflow journal is active, events are routed to it to keep their order, even if the queue has room
+        final boolean journalActive = isOverflowJournalActive();
+        if (journalActive || !transfer(memento)) {
+            if (metrics != null && !journalActive) {
+                metrics.recordQueueFull();
+            }
             if (blocking) {
                 if (AbstractLogger.getRecursionDepth() > 1) { // LOG4J2-1518, LOG4J2-2031
                     // If queue is full AND we are in a recursive call, call appender directly to prevent deadlock
@@ -163,15 +245,29 @@ public final class AsyncAppender extends AbstractAppender {
                 } else {
                     // delegate to the event router (which may discard, enqueue and block, or log in current thread)
                     final EventRoute route = asyncQueueFullPolicy.getRoute(dispatcher.getId(), memento.getLevel());
+                    if (route == EventRoute.DISCARD && metrics != null) {
+                        metrics.recordDiscarded();
+                    }
                     route.logMessage(this, memento);
                 }
             } else {
+                if (metrics != null) {
+                    metrics.recordDiscarded();
+                }
                 error("Appender " + getName() + " is unable to write primary appenders. queue is full");
                 logToErrorAppenderIfNecessary(false, memento);
             }
         }
     }
 
+    /**
+     * Returns {@code true} if older events wait in the overflow journal, so new events must not overtake them.
+     */
+    private boolean isOverflowJournalActive() {
+        final OverflowJournal journal = overflowJournal;
+        return journal != null && journal.isActive();
+    }
+
     private boolean transfer(final LogEvent memento) {
         return queue instanceof TransferQueue
             ? ((TransferQueue<LogEvent>) queue).tryTransfer(memento)
@@ -188,6 +284,19 @@ public final class AsyncAppender extends AbstractAppender {
         dispatcher.dispatch(logEvent);
     }
 
+    /**
+     * FOR INTERNAL USE ONLY.
+     *
+     * @param logEvent the event to log
+     * @since 2.21.0
+     */
+    public void logMessageToOverflowJournal(final LogEvent logEvent) {
+        final OverflowJournal journal = overflowJournal;
+        if (journal == null || !journal.append(null, logEvent)) {
+            logMessageInBackgroundThread(logEvent);
+        }
+    }
+
     /**
      * FOR INTERNAL USE ONLY.
      *
@@ -264,7 +373,7 @@ public final class AsyncAppender extends AbstractAppender {
             LOGGER.error("No appender references provided to AsyncAppender {}", name);
         }
 
-        return new AsyncAppender(name, filter, appenderRefs, errorRef, size, blocking, ignoreExceptions,
+        return new AsyncAppender(name, filter, appenderRefs, null, errorRef, size, blocking, ignoreExceptions,
             shutdownTimeout, config, includeLocation, new ArrayBlockingQueueFactory<LogEvent>(), null);
     }
 
@@ -280,6 +389,9 @@ public final class AsyncAppender extends AbstractAppender {
         @Required(message = "No appender references provided to AsyncAppender")
         private AppenderRef[] appenderRefs;
 
+        @PluginElement("DispatchLane")
+        private DispatchLane[] dispatchLanes;
+
         @PluginBuilderAttribute
         @PluginAliases("error-ref")
         private String errorRef;
@@ -314,6 +426,18 @@ public final class AsyncAppender extends AbstractAppender {
             return this;
         }
 
+        /**
+         * Sets the appender references that get a dispatch thread and queue of their own.
+         *
+         * @param dispatchLanes the dispatch lanes.
+         * @return this builder.
+         * @since 2.21.0
+         */
+        public Builder setDispatchLanes(final DispatchLane[] dispatchLanes) {
+            this.dispatchLanes = dispatchLanes;
+            return this;
+        }
+
         public Builder setErrorRef(final String errorRef) {
             this.errorRef = errorRef;
             return this;
@@ -361,8 +485,9 @@ public final class AsyncAppender extends AbstractAppender {
 
         @Override
         public AsyncAppender build() {
-            return new AsyncAppender(name, getFilter(), appenderRefs, errorRef, bufferSize, blocking, ignoreExceptions,
-                shutdownTimeout, configuration, includeLocation, blockingQueueFactory, getPropertyArray());
+            return new AsyncAppender(name, getFilter(), appenderRefs, dispatchLanes, errorRef, bufferSize, blocking,
+                ignoreExceptions, shutdownTimeout, configuration, includeLocation, blockingQueueFactory,
+                getPropertyArray());
         }
     }
 
@@ -435,4 +560,15 @@ public final class AsyncAppender extends AbstractAppender {
         return queue.size();
     }
 
+    /**
+     * Returns the journal that holds the events which did not fit into the queue, or {@code null} if the
+     * {@link AsyncQueueFullPolicy} does not spill events.
+     *
+     * @return the overflow journal or {@code null}.
+     * @since 2.21.0
+     */
+    public OverflowJournal getOverflowJournal() {
+        return overflowJournal;
+    }
+
 }
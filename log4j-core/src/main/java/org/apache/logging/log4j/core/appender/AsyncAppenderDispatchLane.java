@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.AppenderControl;
+
+/**
+ * The bounded queue and dispatch thread of a {@link DispatchLane}, fed by the {@link AsyncAppenderEventDispatcher} of
+ * the AsyncAppender.
+ */
+final class AsyncAppenderDispatchLane {
+
+    private final DispatchLane lane;
+
+    private final AppenderControl control;
+
+    private final BlockingQueue<LogEvent> queue;
+
+    private final AsyncAppenderEventDispatcher dispatcher;
+
+    private final LongAdder discardCount = new LongAdder();
+
+    AsyncAppenderDispatchLane(
+            final String name,
+            final DispatchLane lane,
+            final AppenderControl control,
+            final AppenderControl errorAppender,
+            final BlockingQueue<LogEvent> queue) {
+        this.lane = lane;
+        this.control = control;
+        this.queue = queue;
+        this.dispatcher = new AsyncAppenderEventDispatcher(
+                name + "-" + lane.getRef(), errorAppender, Collections.singletonList(control), queue);
+    }
+
+    Appender getAppender() {
+        return control.getAppender();
+    }
+
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    long getDiscardCount() {
+        return discardCount.sum();
+    }
+
+    void start() {
+        dispatcher.start();
+    }
+
+    void stop(final long timeoutMillis) throws InterruptedException {
+        dispatcher.stop(timeoutMillis);
+    }
+
+    /**
+     * Hands the event over to the dispatch thread of the lane, applying the queue-full policy of the lane if needed.
+     *
+     * @param event an event no other thread changes
+     * @return {@code false} if the event was discarded
+     */
+    boolean enqueue(final LogEvent event) {
+        if (queue.offer(event)) {
+            return true;
+        }
+        if (Thread.currentThread() == dispatcher) {
+            // the appender of this lane logs to the AsyncAppender: waiting for room would deadlock
+            dispatcher.dispatch(event);
+            return true;
+        }
+        if (lane.isDiscarded(event.getLevel())) {
+            discardCount.increment();
+            return false;
+        }
+        try {
+            queue.put(event);
+            return true;
+        } catch (final InterruptedException ignored) {
+            // Restore the interrupted flag cleared when the exception is caught.
+            Thread.currentThread().interrupt();
+            return queue.offer(event);
+        }
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.appender;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -24,6 +25,7 @@ import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.BatchAppender;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.AppenderControl;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
@@ -34,6 +36,11 @@ class AsyncAppenderEventDispatcher extends Log4jThread {
 
     private static final LogEvent STOP_EVENT = new Log4jLogEvent();
 
+    /**
+     * The maximum number of events taken from the queue and passed to batch-capable appenders at once.
+     */
+    private static final int MAX_BATCH_SIZE = 128;
+
     private static final AtomicLong THREAD_COUNTER = new AtomicLong(0);
 
     private static final Logger LOGGER = StatusLogger.getLogger();
@@ -42,30 +49,66 @@ class AsyncAppenderEventDispatcher extends Log4jThread {
 
     private final List<AppenderControl> appenders;
 
+    private final List<AsyncAppenderDispatchLane> lanes;
+
     private final BlockingQueue<LogEvent> queue;
 
     private final AtomicBoolean stoppedRef;
 
+    // The state of the current batch, only used by the dispatcher thread. An event of the batch is written if an
+    // appender or a dispatch lane accepted it, if a batch appender filtered it, or if a batch appender that collected
+    // it did not fail.
+
+    private final LogEvent[] batchEvents = new LogEvent[MAX_BATCH_SIZE];
+
+    private final boolean[] batchAccepted = new boolean[MAX_BATCH_SIZE];
+
+    /**
+     * The number of batch appenders that returned from {@code callAppender}: they either collected or filtered it.
+     */
+    private final int[] batchCalls = new int[MAX_BATCH_SIZE];
+
+    private final int[] batchCollected = new int[MAX_BATCH_SIZE];
+
+    private final int[] batchFailed = new int[MAX_BATCH_SIZE];
+
+    private final AppenderControl.BatchListener batchListener = this::batchAppended;
+
+    private int batchSize;
+
     AsyncAppenderEventDispatcher(
             final String name,
             final AppenderControl errorAppender,
             final List<AppenderControl> appenders,
             final BlockingQueue<LogEvent> queue) {
+        this(name, errorAppender, appenders, Collections.emptyList(), queue);
+    }
+
+    AsyncAppenderEventDispatcher(
+            final String name,
+            final AppenderControl errorAppender,
+            final List<AppenderControl> appenders,
+            final List<AsyncAppenderDispatchLane> lanes,
+            final BlockingQueue<LogEvent> queue) {
         super("AsyncAppenderEventDispatcher-" + THREAD_COUNTER.incrementAndGet() + "-" + name);
         this.setDaemon(true);
         this.errorAppender = errorAppender;
         this.appenders = appenders;
+        this.lanes = lanes;
         this.queue = queue;
         this.stoppedRef = new AtomicBoolean();
     }
 
     /**
-     * Gets all Appenders.
+     * Gets all Appenders, including those with their own dispatch lane.
      *
      * @return a list of Appenders.
      */
     List<Appender> getAppenders() {
-        return appenders.stream().map(AppenderControl::getAppender).collect(Collectors.toList());
+        final List<Appender> result = appenders.stream().map(AppenderControl::getAppender)
+                .collect(Collectors.toList());
+        lanes.forEach(lane -> result.add(lane.getAppender()));
+        return result;
     }
 
     @Override
@@ -76,7 +119,8 @@ class AsyncAppenderEventDispatcher extends Log4jThread {
     }
 
     private void dispatchAll() {
-        while (!stoppedRef.get()) {
+        boolean stopEventTaken = false;
+        while (!stopEventTaken && !stoppedRef.get()) {
             LogEvent event;
             try {
                 event = queue.take();
@@ -88,12 +132,73 @@ class AsyncAppenderEventDispatcher extends Log4jThread {
             if (event == STOP_EVENT) {
                 break;
             }
-            event.setEndOfBatch(queue.isEmpty());
-            dispatch(event);
+            // Dispatch the events that are already waiting as one batch.
+            try {
+                while (true) {
+                    event.setEndOfBatch(queue.isEmpty());
+                    AppenderControl.addToBatch(event);
+                    batchEvents[batchSize] = event;
+                    batchAccepted[batchSize] = dispatchToAppenders(event, true, batchSize);
+                    if (++batchSize == MAX_BATCH_SIZE || (event = queue.poll()) == null) {
+                        break;
+                    }
+                    if (event == STOP_EVENT) {
+                        stopEventTaken = true;
+                        break;
+                    }
+                }
+            } finally {
+                endBatch();
+            }
         }
         LOGGER.trace("{} has stopped.", getName());
     }
 
+    private void endBatch() {
+        try {
+            AppenderControl.endBatch(batchListener);
+        } finally {
+            for (int i = 0; i < batchSize; i++) {
+                final boolean written = batchAccepted[i]
+                        || batchCalls[i] > batchCollected[i]
+                        || batchCollected[i] > batchFailed[i];
+                if (!written) {
+                    callErrorAppender(batchEvents[i]);
+                }
+                batchEvents[i] = null;
+                batchAccepted[i] = false;
+                batchCalls[i] = 0;
+                batchCollected[i] = 0;
+                batchFailed[i] = 0;
+            }
+            batchSize = 0;
+        }
+    }
+
+    private void batchAppended(final AppenderControl control, final LogEvent[] events, final int count,
+            final RuntimeException failure) {
+        if (failure != null) {
+            LOGGER.warn(
+                    "{} has failed to append a batch of {} event(s) to appender {}",
+                    getName(), count, control.getAppenderName(), failure);
+        }
+        // the events of an appender are in the order of the batch
+        int index = 0;
+        for (int i = 0; i < count; i++) {
+            while (index < batchSize && batchEvents[index] != events[i]) {
+                index++;
+            }
+            if (index == batchSize) {
+                break;
+            }
+            batchCollected[index]++;
+            if (failure != null) {
+                batchFailed[index]++;
+            }
+            index++;
+        }
+    }
+
     private void dispatchRemaining() {
         int eventCount = 0;
         while (true) {
@@ -107,7 +212,7 @@ class AsyncAppenderEventDispatcher extends Log4jThread {
                 continue;
             }
             event.setEndOfBatch(queue.isEmpty());
-            dispatch(event);
+            dispatch(event, true);
             eventCount++;
         }
         LOGGER.trace(
@@ -120,6 +225,31 @@ class AsyncAppenderEventDispatcher extends Log4jThread {
      * current thread</b>.
      */
     void dispatch(final LogEvent event) {
+        dispatch(event, false);
+    }
+
+    /**
+     * Dispatches the given {@code event} like {@link #dispatchToAppenders} and passes it to the error appender if
+     * nothing accepted it.
+     *
+     * @param owned whether the event was taken from the queue, so that no other thread refers to it
+     */
+    private void dispatch(final LogEvent event, final boolean owned) {
+        // Fallback to the error appender if none has succeeded.
+        if (!dispatchToAppenders(event, owned, -1)) {
+            callErrorAppender(event);
+        }
+    }
+
+    /**
+     * Dispatches the given {@code event} to the registered appenders in the current thread and to the dispatch lanes.
+     *
+     * @param owned whether the event was taken from the queue, so that no other thread refers to it
+     * @param batchIndex the index of the event in the current batch, or {@code -1} if it is not part of a batch
+     * @return whether an appender or a dispatch lane accepted the event. Batch appenders are not counted, their
+     *         outcome is known once the batch has been appended.
+     */
+    private boolean dispatchToAppenders(final LogEvent event, final boolean owned, final int batchIndex) {
 
         // Dispatch the event to all registered appenders.
         boolean succeeded = false;
@@ -128,7 +258,11 @@ class AsyncAppenderEventDispatcher extends Log4jThread {
             final AppenderControl control = appenders.get(appenderIndex);
             try {
                 control.callAppender(event);
-                succeeded = true;
+                if (batchIndex >= 0 && control.getAppender() instanceof BatchAppender) {
+                    batchCalls[batchIndex]++;
+                } else {
+                    succeeded = true;
+                }
             } catch (final Throwable error) {
                 // If no appender is successful, the error appender will get it.
                 // It is okay to simply log it here.
@@ -138,8 +272,23 @@ class AsyncAppenderEventDispatcher extends Log4jThread {
             }
         }
 
-        // Fallback to the error appender if none has succeeded so far.
-        if (!succeeded && errorAppender != null) {
+        // Hand the event over to the dispatch lanes. Each lane thread flags the end of its own batches, so a lane
+        // needs its own copy unless no other thread refers to the event any more.
+        // noinspection ForLoopReplaceableByForEach (avoid iterator instantion)
+        for (int laneIndex = 0; laneIndex < lanes.size(); laneIndex++) {
+            final boolean last = laneIndex == lanes.size() - 1;
+            final LogEvent laneEvent = owned && last && appenders.isEmpty()
+                    ? event
+                    : Log4jLogEvent.createMemento(event);
+            if (lanes.get(laneIndex).enqueue(laneEvent)) {
+                succeeded = true;
+            }
+        }
+        return succeeded;
+    }
+
+    private void callErrorAppender(final LogEvent event) {
+        if (errorAppender != null) {
             try {
                 errorAppender.callAppender(event);
             } catch (final Throwable error) {
@@ -150,7 +299,6 @@ class AsyncAppenderEventDispatcher extends Log4jThread {
                         getName(), errorAppender.getAppenderName(), error);
             }
         }
-
     }
 
     void stop(final long timeoutMillis) throws InterruptedException {
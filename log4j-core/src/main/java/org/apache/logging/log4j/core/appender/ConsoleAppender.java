@@ -39,6 +39,7 @@ import org.apache.logging.log4j.core.config.plugins.validation.constraints.Requi
 import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.apache.logging.log4j.core.util.Booleans;
 import org.apache.logging.log4j.core.util.CloseShieldOutputStream;
+import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.Loader;
 import org.apache.logging.log4j.core.util.Throwables;
 import org.apache.logging.log4j.util.Chars;
@@ -240,14 +241,14 @@ public final class ConsoleAppender extends AbstractOutputStreamAppender<OutputSt
 
         // LOG4J2-1176 DefaultConfiguration should not share OutputStreamManager instances to avoid memory leaks.
         final String managerName = target.name() + '.' + follow + '.' + direct + "-" + COUNT.get();
-        return OutputStreamManager.getManager(managerName, new FactoryData(os, managerName, layout), factory);
+        return OutputStreamManager.getManager(managerName, new FactoryData(os, managerName, layout, direct), factory);
     }
 
     private static OutputStreamManager getManager(final Target target, final boolean follow, final boolean direct,
             final Layout<? extends Serializable> layout) {
         final OutputStream os = getOutputStream(follow, direct, target);
         final String managerName = target.name() + '.' + follow + '.' + direct;
-        return OutputStreamManager.getManager(managerName, new FactoryData(os, managerName, layout), factory);
+        return OutputStreamManager.getManager(managerName, new FactoryData(os, managerName, layout, direct), factory);
     }
 
     private static OutputStream getOutputStream(final boolean follow, final boolean direct, final Target target) {
@@ -361,6 +362,7 @@ public final class ConsoleAppender extends AbstractOutputStreamAppender<OutputSt
         private final OutputStream os;
         private final String name;
         private final Layout<? extends Serializable> layout;
+        private final boolean direct;
 
         /**
          * Constructor.
@@ -368,11 +370,14 @@ public final class ConsoleAppender extends AbstractOutputStreamAppender<OutputSt
          * @param os The OutputStream.
          * @param type The name of the target.
          * @param layout A Serializable layout
+         * @param direct Whether the stream writes directly to the file descriptor.
          */
-        public FactoryData(final OutputStream os, final String type, final Layout<? extends Serializable> layout) {
+        public FactoryData(final OutputStream os, final String type, final Layout<? extends Serializable> layout,
+                final boolean direct) {
             this.os = os;
             this.name = type;
             this.layout = layout;
+            this.direct = direct;
         }
     }
 
@@ -390,10 +395,32 @@ public final class ConsoleAppender extends AbstractOutputStreamAppender<OutputSt
          */
         @Override
         public OutputStreamManager createManager(final String name, final FactoryData data) {
+            if (data.direct && Constants.ENABLE_CHANNEL_OUTPUT) {
+                // the stream writes to a file descriptor, so a direct buffer can go to its channel
+                return new ChannelOutputStreamManager(data.os, data.name, data.layout);
+            }
             return new OutputStreamManager(data.os, data.name, data.layout, true);
         }
     }
 
+    /**
+     * Manager of a direct console stream, which writes to the {@link java.nio.channels.FileChannel} of its file
+     * descriptor.
+     */
+    private static class ChannelOutputStreamManager extends OutputStreamManager {
+
+        ChannelOutputStreamManager(final OutputStream os, final String streamName,
+                final Layout<? extends Serializable> layout) {
+            super(null, os, streamName, false, layout, true,
+                    allocateByteBuffer(Constants.ENCODER_BYTE_BUFFER_SIZE));
+        }
+
+        @Override
+        protected boolean isChannelOutput() {
+            return true;
+        }
+    }
+
     public Target getTarget() {
         return target;
     }
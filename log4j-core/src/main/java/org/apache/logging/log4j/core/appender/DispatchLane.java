@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Gives one of the appenders referenced by an {@link AsyncAppender} its own bounded queue and dispatch thread, so that
+ * a slow appender only holds back the events sent to it.
+ *
+ * @since 2.21.0
+ */
+@Plugin(name = "DispatchLane", category = Node.CATEGORY, printObject = true)
+public final class DispatchLane {
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private final String ref;
+    private final int bufferSize;
+    private final boolean blocking;
+    private final Level discardThreshold;
+
+    private DispatchLane(final String ref, final int bufferSize, final boolean blocking, final Level discardThreshold) {
+        this.ref = ref;
+        this.bufferSize = bufferSize;
+        this.blocking = blocking;
+        this.discardThreshold = discardThreshold;
+    }
+
+    /**
+     * Returns the name of the referenced appender.
+     *
+     * @return the name of the appender
+     */
+    public String getRef() {
+        return ref;
+    }
+
+    /**
+     * Returns the size of the lane's queue, or {@code 0} to use the size of the {@link AsyncAppender}'s queue.
+     *
+     * @return the size of the queue
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns whether the AsyncAppender waits for room in the full queue of the lane instead of discarding events.
+     *
+     * @return whether the lane blocks when full
+     */
+    public boolean isBlocking() {
+        return blocking;
+    }
+
+    /**
+     * Returns the level at or below which events are discarded when the queue of the lane is full, or {@code null}.
+     *
+     * @return the discard threshold
+     */
+    public Level getDiscardThreshold() {
+        return discardThreshold;
+    }
+
+    /**
+     * Returns whether the given event is discarded when the queue of the lane is full.
+     *
+     * @param level the level of the event
+     * @return {@code true} to discard the event, {@code false} to wait for room in the queue
+     */
+    boolean isDiscarded(final Level level) {
+        return !blocking || (discardThreshold != null && level.isLessSpecificThan(discardThreshold));
+    }
+
+    @Override
+    public String toString() {
+        return ref;
+    }
+
+    /**
+     * Creates a dispatch lane.
+     *
+     * @param ref The name of the Appender, which must also be referenced by an AppenderRef.
+     * @param bufferSize The size of the lane's queue, by default that of the AsyncAppender's queue.
+     * @param blocking Whether to wait for room in the lane's queue when it is full. The default is true.
+     * @param discardThreshold If set, events at this level or less severe are discarded when the queue is full.
+     * @return The dispatch lane.
+     */
+    @PluginFactory
+    public static DispatchLane createDispatchLane(
+            @PluginAttribute("ref") final String ref,
+            @PluginAttribute("bufferSize") final int bufferSize,
+            @PluginAttribute(value = "blocking", defaultBoolean = true) final boolean blocking,
+            @PluginAttribute("discardThreshold") final Level discardThreshold) {
+
+        if (ref == null) {
+            LOGGER.error("Dispatch lanes must contain a reference");
+            return null;
+        }
+        return new DispatchLane(ref, Math.max(0, bufferSize), blocking, discardThreshold);
+    }
+}
@@ -80,6 +80,9 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
         @PluginBuilderAttribute
         private String fileGroup;
 
+        @PluginBuilderAttribute
+        private boolean durable;
+
         @Override
         public FileAppender build() {
             if (!isValid()) {
@@ -97,13 +100,13 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
             final Layout<? extends Serializable> layout = getOrCreateLayout();
 
             final FileManager manager = FileManager.getFileManager(fileName, append, locking, bufferedIo, createOnDemand,
-                    advertiseUri, layout, bufferSize, filePermissions, fileOwner, fileGroup, getConfiguration());
+                    advertiseUri, layout, bufferSize, filePermissions, fileOwner, fileGroup, durable, getConfiguration());
             if (manager == null) {
                 return null;
             }
 
             return new FileAppender(getName(), layout, getFilter(), manager, fileName, isIgnoreExceptions(),
-                    !bufferedIo || isImmediateFlush(), advertise ? getConfiguration().getAdvertiser() : null,
+                    durable || !bufferedIo || isImmediateFlush(), advertise ? getConfiguration().getAdvertiser() : null,
                     getPropertyArray());
         }
 
@@ -143,6 +146,13 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
             return fileGroup;
         }
 
+        /**
+         * @since 2.21.0
+         */
+        public boolean isDurable() {
+            return durable;
+        }
+
         public B withAdvertise(final boolean advertise) {
             this.advertise = advertise;
             return asBuilder();
@@ -188,6 +198,18 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
             return asBuilder();
         }
 
+        /**
+         * Makes every append return only once the event is forced to storage. Implies immediate flush.
+         *
+         * @param durable whether appended events are forced to storage
+         * @return this builder
+         * @since 2.21.0
+         */
+        public B withDurable(final boolean durable) {
+            this.durable = durable;
+            return asBuilder();
+        }
+
     }
 
     private static final int DEFAULT_BUFFER_SIZE = 8192;
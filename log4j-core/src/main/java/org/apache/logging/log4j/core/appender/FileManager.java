@@ -62,6 +62,7 @@ public class FileManager extends OutputStreamManager {
     private final String fileOwner;
     private final String fileGroup;
     private final boolean attributeViewEnabled;
+    private final GroupCommit groupCommit;
 
     /**
      * @deprecated
@@ -91,6 +92,7 @@ public class FileManager extends OutputStreamManager {
         this.fileOwner = null;
         this.fileGroup = null;
         this.attributeViewEnabled = false;
+        this.groupCommit = null;
     }
 
     /**
@@ -111,6 +113,7 @@ public class FileManager extends OutputStreamManager {
         this.fileOwner = null;
         this.fileGroup = null;
         this.attributeViewEnabled = false;
+        this.groupCommit = null;
     }
 
     /**
@@ -120,6 +123,19 @@ public class FileManager extends OutputStreamManager {
             final boolean createOnDemand, final String advertiseURI, final Layout<? extends Serializable> layout,
             final String filePermissions, final String fileOwner, final String fileGroup, final boolean writeHeader,
             final ByteBuffer buffer) {
+        this(loggerContext, fileName, os, append, locking, createOnDemand, advertiseURI, layout, filePermissions,
+                fileOwner, fileGroup, writeHeader, buffer, false);
+    }
+
+    /**
+     * @param durable if {@code true}, every flush forces the file to storage, using group commit for concurrent
+     *            flushes.
+     * @since 2.21.0
+     */
+    protected FileManager(final LoggerContext loggerContext, final String fileName, final OutputStream os, final boolean append, final boolean locking,
+            final boolean createOnDemand, final String advertiseURI, final Layout<? extends Serializable> layout,
+            final String filePermissions, final String fileOwner, final String fileGroup, final boolean writeHeader,
+            final ByteBuffer buffer, final boolean durable) {
         super(loggerContext, os, fileName, createOnDemand, layout, writeHeader, buffer);
         this.isAppend = append;
         this.createOnDemand = createOnDemand;
@@ -153,6 +169,7 @@ public class FileManager extends OutputStreamManager {
 
         // Supported and defined
         this.attributeViewEnabled = this.filePermissions != null || this.fileOwner != null || this.fileGroup != null;
+        this.groupCommit = durable ? new GroupCommit(this, super::flush, this::sync) : null;
     }
 
     /**
@@ -171,17 +188,45 @@ public class FileManager extends OutputStreamManager {
      * @param configuration The configuration.
      * @return A FileManager for the File.
      */
-    public static FileManager getFileManager(final String fileName, final boolean append, boolean locking,
+    public static FileManager getFileManager(final String fileName, final boolean append, final boolean locking,
             final boolean bufferedIo, final boolean createOnDemand, final String advertiseUri,
             final Layout<? extends Serializable> layout,
             final int bufferSize, final String filePermissions, final String fileOwner, final String fileGroup,
             final Configuration configuration) {
+        return getFileManager(fileName, append, locking, bufferedIo, createOnDemand, advertiseUri, layout, bufferSize,
+                filePermissions, fileOwner, fileGroup, false, configuration);
+    }
+
+    /**
+     * Returns the FileManager.
+     * @param fileName The name of the file to manage.
+     * @param append true if the file should be appended to, false if it should be overwritten.
+     * @param locking true if the file should be locked while writing, false otherwise.
+     * @param bufferedIo true if the contents should be buffered as they are written.
+     * @param createOnDemand true if you want to lazy-create the file (a.k.a. on-demand.)
+     * @param advertiseUri the URI to use when advertising the file
+     * @param layout The layout
+     * @param bufferSize buffer size for buffered IO
+     * @param filePermissions File permissions
+     * @param fileOwner File owner
+     * @param fileGroup File group
+     * @param durable true if every flush should force the file to storage.
+     * @param configuration The configuration.
+     * @return A FileManager for the File.
+     * @since 2.21.0
+     */
+    public static FileManager getFileManager(final String fileName, final boolean append, boolean locking,
+            final boolean bufferedIo, final boolean createOnDemand, final String advertiseUri,
+            final Layout<? extends Serializable> layout,
+            final int bufferSize, final String filePermissions, final String fileOwner, final String fileGroup,
+            final boolean durable, final Configuration configuration) {
 
         if (locking && bufferedIo) {
             locking = false;
         }
         return narrow(FileManager.class, getManager(fileName, new FactoryData(append, locking, bufferedIo, bufferSize,
-                createOnDemand, advertiseUri, layout, filePermissions, fileOwner, fileGroup, configuration), FACTORY));
+                createOnDemand, advertiseUri, layout, filePermissions, fileOwner, fileGroup, durable, configuration),
+                FACTORY));
     }
 
     @Override
@@ -221,7 +266,17 @@ public class FileManager extends OutputStreamManager {
     }
 
     @Override
-    protected synchronized void write(final byte[] bytes, final int offset, final int length,
+    protected void write(final byte[] bytes, final int offset, final int length, final boolean immediateFlush) {
+        if (groupCommit != null && immediateFlush) {
+            // write under the lock, but commit outside of it so that concurrent writers share one force
+            writeLocked(bytes, offset, length, false);
+            flush();
+        } else {
+            writeLocked(bytes, offset, length, immediateFlush);
+        }
+    }
+
+    private synchronized void writeLocked(final byte[] bytes, final int offset, final int length,
             final boolean immediateFlush) {
         if (isLocking) {
             try {
@@ -279,6 +334,73 @@ public class FileManager extends OutputStreamManager {
         }
     }
 
+    /**
+     * Returns {@code true} if {@link Constants#ENABLE_CHANNEL_OUTPUT} is set, since the file is written through a
+     * {@link FileOutputStream} whose channel this manager owns.
+     *
+     * @since 2.21.0
+     */
+    @Override
+    protected boolean isChannelOutput() {
+        return Constants.ENABLE_CHANNEL_OUTPUT;
+    }
+
+    /**
+     * Overrides {@link OutputStreamManager#writeToDestination(ByteBuffer[])} to add support for file locking.
+     *
+     * @param buffers the buffers to write
+     * @since 2.21.0
+     */
+    @Override
+    protected synchronized void writeToDestination(final ByteBuffer[] buffers) {
+        if (isLocking) {
+            try {
+                @SuppressWarnings("resource")
+                final FileChannel channel = ((FileOutputStream) getOutputStream()).getChannel();
+                // see writeToDestination(byte[], int, int)
+                try (final FileLock lock = channel.lock(0, Long.MAX_VALUE, false)) {
+                    super.writeToDestination(buffers);
+                }
+            } catch (final IOException ex) {
+                throw new AppenderLoggingException("Unable to obtain lock on " + getName(), ex);
+            }
+        } else {
+            super.writeToDestination(buffers);
+        }
+    }
+
+    /**
+     * Flushes any buffers. If this manager is {@linkplain #isDurable() durable}, also forces the file to storage before
+     * returning; concurrent callers share a single write and force.
+     */
+    @Override
+    public void flush() {
+        if (groupCommit != null && !Thread.holdsLock(this)) {
+            groupCommit.commit();
+        } else {
+            flushAndSync();
+        }
+    }
+
+    private synchronized void flushAndSync() {
+        super.flush();
+        if (groupCommit != null) {
+            try {
+                sync();
+            } catch (final IOException ex) {
+                throw new AppenderLoggingException("Unable to force " + getName() + " to storage", ex);
+            }
+        }
+    }
+
+    private void sync() throws IOException {
+        if (hasOutputStream()) {
+            @SuppressWarnings("resource")
+            final FileChannel channel = ((FileOutputStream) getOutputStream()).getChannel();
+            channel.force(false);
+        }
+    }
+
     /**
      * Returns the name of the File being managed.
      * @return The name of the File being managed.
@@ -310,6 +432,20 @@ public class FileManager extends OutputStreamManager {
         return isLocking;
     }
 
+    /**
+     * Returns whether every flush forces the file to storage.
+     * @return true if the file is forced to storage on flush.
+     * @since 2.21.0
+     */
+    public boolean isDurable() {
+        return groupCommit != null;
+    }
+
+    // package-protected for testing
+    GroupCommit getGroupCommit() {
+        return groupCommit;
+    }
+
     /**
      * Returns the buffer size to use if the appender was configured with BufferedIO=true, otherwise returns a negative
      * number.
@@ -384,6 +520,7 @@ public class FileManager extends OutputStreamManager {
         private final String filePermissions;
         private final String fileOwner;
         private final String fileGroup;
+        private final boolean durable;
 
         /**
          * Constructor.
@@ -397,11 +534,12 @@ public class FileManager extends OutputStreamManager {
          * @param filePermissions File permissions
          * @param fileOwner File owner
          * @param fileGroup File group
+         * @param durable Durability flag.
          * @param configuration the configuration
          */
         public FactoryData(final boolean append, final boolean locking, final boolean bufferedIo, final int bufferSize,
                 final boolean createOnDemand, final String advertiseURI, final Layout<? extends Serializable> layout,
-                final String filePermissions, final String fileOwner, final String fileGroup,
+                final String filePermissions, final String fileOwner, final String fileGroup, final boolean durable,
                 final Configuration configuration) {
             super(configuration);
             this.append = append;
@@ -414,6 +552,7 @@ public class FileManager extends OutputStreamManager {
             this.filePermissions = filePermissions;
             this.fileOwner = fileOwner;
             this.fileGroup = fileGroup;
+            this.durable = durable;
         }
     }
 
@@ -436,11 +575,11 @@ public class FileManager extends OutputStreamManager {
                 FileUtils.makeParentDirs(file);
                 final boolean writeHeader = !data.append || !file.exists();
                 final int actualSize = data.bufferedIo ? data.bufferSize : Constants.ENCODER_BYTE_BUFFER_SIZE;
-                final ByteBuffer byteBuffer = ByteBuffer.wrap(new byte[actualSize]);
+                final ByteBuffer byteBuffer = allocateByteBuffer(actualSize);
                 final FileOutputStream fos = data.createOnDemand ? null : new FileOutputStream(file, data.append);
                 final FileManager fm = new FileManager(data.getLoggerContext(), name, fos, data.append, data.locking,
                         data.createOnDemand, data.advertiseURI, data.layout,
-                        data.filePermissions, data.fileOwner, data.fileGroup, writeHeader, byteBuffer);
+                        data.filePermissions, data.fileOwner, data.fileGroup, writeHeader, byteBuffer, data.durable);
                 if (fos != null && fm.attributeViewEnabled) {
                     fm.defineAttributeView(file.toPath());
                 }
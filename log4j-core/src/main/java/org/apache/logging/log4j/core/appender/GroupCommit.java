@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Makes the flushes of a file manager durable with group commit.
+ * <p>
+ * Every caller of {@link #commit()} takes a ticket while holding the lock of the manager, after its bytes were written
+ * to the manager's buffer. The first caller to find no commit in progress becomes the leader: it drains the buffer of
+ * all waiting callers with one write, then forces the file to storage without holding the manager lock, so that other
+ * threads keep writing the next group meanwhile. Callers return once a force that covers their ticket has completed.
+ * </p><p>
+ * A failed force does not complete any ticket; the leader reports the error and a waiting caller leads the next
+ * attempt.
+ * </p>
+ */
+final class GroupCommit {
+
+    /**
+     * Forces the file to storage.
+     */
+    interface SyncAction {
+        void sync() throws IOException;
+    }
+
+    private final OutputStreamManager manager;
+    private final Runnable drainAction;
+    private final SyncAction syncAction;
+    private final LongAdder commitCount = new LongAdder();
+    private final LongAdder groupCount = new LongAdder();
+
+    // guarded by the manager
+    private long requested;
+
+    // guarded by this
+    private long committed;
+    private boolean leading;
+
+    /**
+     * @param manager the manager whose lock guards its buffer
+     * @param drainAction writes the buffer of the manager to the file; called with the manager lock held
+     * @param syncAction forces the file to storage
+     */
+    GroupCommit(final OutputStreamManager manager, final Runnable drainAction, final SyncAction syncAction) {
+        this.manager = manager;
+        this.drainAction = drainAction;
+        this.syncAction = syncAction;
+    }
+
+    /**
+     * Returns once all bytes written to the manager before this call are durable. Must not be called while holding the
+     * lock of the manager.
+     *
+     * @throws AppenderLoggingException if the file could not be forced to storage
+     */
+    void commit() {
+        final long ticket;
+        synchronized (manager) {
+            ticket = ++requested;
+        }
+        commitCount.increment();
+        if (!awaitLeadership(ticket)) {
+            return;
+        }
+        boolean success = false;
+        long target = ticket;
+        try {
+            synchronized (manager) {
+                target = requested;
+                drainAction.run();
+            }
+            syncAction.sync();
+            success = true;
+        } catch (final IOException ex) {
+            throw new AppenderLoggingException("Unable to force " + manager.getName() + " to storage", ex);
+        } finally {
+            synchronized (this) {
+                if (success) {
+                    committed = Math.max(committed, target);
+                    groupCount.increment();
+                }
+                leading = false;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until the ticket is committed or no other thread leads a commit.
+     *
+     * @return {@code true} if the current thread became the leader, {@code false} if the ticket was committed
+     */
+    private synchronized boolean awaitLeadership(final long ticket) {
+        boolean interrupted = false;
+        try {
+            while (committed < ticket) {
+                if (!leading) {
+                    leading = true;
+                    return true;
+                }
+                try {
+                    wait();
+                } catch (final InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            return false;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of calls to {@link #commit()}.
+     */
+    long getCommitCount() {
+        return commitCount.sum();
+    }
+
+    /**
+     * Returns the number of completed forces, each of which committed one or more calls.
+     */
+    long getGroupCount() {
+        return groupCount.sum();
+    }
+}
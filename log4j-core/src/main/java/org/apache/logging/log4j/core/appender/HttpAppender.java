@@ -69,11 +69,34 @@ public final class HttpAppender extends AbstractAppender {
         @PluginBuilderAttribute
         private boolean verifyHostname = true;
 
+        @PluginBuilderAttribute
+        private int batchSize = 0;
+
+        @PluginBuilderAttribute
+        private int batchMaxBytes = 1024 * 1024;
+
+        @PluginBuilderAttribute
+        private long batchLingerMillis = 100;
+
+        @PluginBuilderAttribute
+        private HttpBatchingManager.BatchFormat batchFormat = HttpBatchingManager.BatchFormat.NEWLINE_DELIMITED;
+
+        @PluginBuilderAttribute
+        private boolean compress = false;
+
+        @PluginBuilderAttribute
+        private int maxInFlightRequests = 2;
+
         @Override
         public HttpAppender build() {
-            final HttpManager httpManager = new HttpURLConnectionManager(getConfiguration(),
+            final HttpURLConnectionManager connectionManager = new HttpURLConnectionManager(getConfiguration(),
                     getConfiguration().getLoggerContext(), getName(), url, method, connectTimeoutMillis,
                     readTimeoutMillis, headers, sslConfiguration, verifyHostname);
+            final HttpManager httpManager = batchSize > 1
+                    ? new HttpBatchingManager(getConfiguration(), getConfiguration().getLoggerContext(), getName(),
+                            connectionManager, batchSize, batchMaxBytes, batchLingerMillis, batchFormat, compress,
+                            maxInFlightRequests)
+                    : connectionManager;
             return new HttpAppender(getName(), getLayout(), getFilter(), isIgnoreExceptions(), httpManager,
                     getPropertyArray());
         }
@@ -106,6 +129,30 @@ public final class HttpAppender extends AbstractAppender {
             return verifyHostname;
         }
 
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public int getBatchMaxBytes() {
+            return batchMaxBytes;
+        }
+
+        public long getBatchLingerMillis() {
+            return batchLingerMillis;
+        }
+
+        public HttpBatchingManager.BatchFormat getBatchFormat() {
+            return batchFormat;
+        }
+
+        public boolean isCompress() {
+            return compress;
+        }
+
+        public int getMaxInFlightRequests() {
+            return maxInFlightRequests;
+        }
+
         public B setUrl(final URL url) {
             this.url = url;
             return asBuilder();
@@ -140,6 +187,78 @@ public final class HttpAppender extends AbstractAppender {
             this.verifyHostname = verifyHostname;
             return asBuilder();
         }
+
+        /**
+         * Sets the maximum number of events sent in one request. Values of 0 or 1 send each event on its own.
+         *
+         * @param batchSize the maximum number of events per request
+         * @return this builder
+         * @since 2.21.0
+         */
+        public B setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the size, in bytes before compression, beyond which a batch is sent before it is full.
+         *
+         * @param batchMaxBytes the maximum size of a batch
+         * @return this builder
+         * @since 2.21.0
+         */
+        public B setBatchMaxBytes(final int batchMaxBytes) {
+            this.batchMaxBytes = batchMaxBytes;
+            return asBuilder();
+        }
+
+        /**
+         * Sets how long an event may wait in an incomplete batch before the batch is sent.
+         *
+         * @param batchLingerMillis the maximum delay in milliseconds
+         * @return this builder
+         * @since 2.21.0
+         */
+        public B setBatchLingerMillis(final long batchLingerMillis) {
+            this.batchLingerMillis = batchLingerMillis;
+            return asBuilder();
+        }
+
+        /**
+         * Sets how the events of a batch are laid out in the request body.
+         *
+         * @param batchFormat the batch format
+         * @return this builder
+         * @since 2.21.0
+         */
+        public B setBatchFormat(final HttpBatchingManager.BatchFormat batchFormat) {
+            this.batchFormat = batchFormat;
+            return asBuilder();
+        }
+
+        /**
+         * Sets whether batches are sent gzip-compressed.
+         *
+         * @param compress {@code true} to compress batches
+         * @return this builder
+         * @since 2.21.0
+         */
+        public B setCompress(final boolean compress) {
+            this.compress = compress;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the maximum number of batches being sent at the same time.
+         *
+         * @param maxInFlightRequests the maximum number of concurrent requests
+         * @return this builder
+         * @since 2.21.0
+         */
+        public B setMaxInFlightRequests(final int maxInFlightRequests) {
+            this.maxInFlightRequests = maxInFlightRequests;
+            return asBuilder();
+        }
     }
 
     /**
@@ -159,8 +278,21 @@ public final class HttpAppender extends AbstractAppender {
         this.manager = Objects.requireNonNull(manager, "manager");
     }
 
+    /**
+     * Returns the manager sending the events.
+     *
+     * @return the HTTP manager
+     * @since 2.21.0
+     */
+    public HttpManager getManager() {
+        return manager;
+    }
+
     @Override
     public void start() {
+        if (manager instanceof HttpBatchingManager) {
+            ((HttpBatchingManager) manager).setErrorHandler(getHandler());
+        }
         super.start();
         manager.startup();
     }
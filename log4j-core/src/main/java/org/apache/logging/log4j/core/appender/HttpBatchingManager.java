@@ -0,0 +1,401 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.core.ErrorHandler;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.layout.internal.GrowableByteBufferDestination;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+
+/**
+ * Sends log events over HTTP in batches.
+ * <p>
+ * Events are encoded into the current batch, which is handed over to a pool of sender threads once it holds
+ * {@code batchSize} events or {@code maxBatchBytes} bytes, or when its first event has waited for
+ * {@code lingerMillis}. Up to {@code maxInFlightRequests} batches are sent concurrently through the
+ * {@link HttpURLConnectionManager}, which lets the JDK keep the connections alive between requests. When all of them
+ * are in flight, logging threads wait, without holding the lock on this manager, for a batch to become available again.
+ * Batches that cannot be sent are reported to the {@link ErrorHandler} of the appender.
+ * </p>
+ *
+ * @since 2.21.0
+ */
+public class HttpBatchingManager extends HttpManager {
+
+    /**
+     * How the events of a batch are laid out in the request body.
+     */
+    public enum BatchFormat {
+
+        /**
+         * One event per line.
+         */
+        NEWLINE_DELIMITED,
+
+        /**
+         * A JSON array of events; requires a layout producing JSON objects.
+         */
+        JSON_ARRAY
+    }
+
+    private static final String GZIP_ENCODING = "gzip";
+
+    private final HttpURLConnectionManager connectionManager;
+    private final int batchSize;
+    private final int maxBatchBytes;
+    private final long lingerNanos;
+    private final BatchFormat batchFormat;
+    private final boolean compress;
+    private final int maxInFlightRequests;
+    private final BlockingQueue<Batch> freeBatches;
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder eventCount = new LongAdder();
+    private final LongAdder byteCount = new LongAdder();
+    private final LongAdder failedBatchCount = new LongAdder();
+    private final LongAdder sendLatencyNanos = new LongAdder();
+    private final AtomicLong maxSendLatencyNanos = new AtomicLong();
+
+    private volatile ErrorHandler errorHandler;
+    private ExecutorService senders;
+    private ScheduledExecutorService lingerScheduler;
+
+    // guarded by this
+    private boolean running;
+    // guarded by this; null while all batches are in flight
+    private Batch currentBatch;
+
+    public HttpBatchingManager(final Configuration configuration, final LoggerContext loggerContext, final String name,
+            final HttpURLConnectionManager connectionManager, final int batchSize, final int maxBatchBytes,
+            final long lingerMillis, final BatchFormat batchFormat, final boolean compress,
+            final int maxInFlightRequests) {
+        super(configuration, loggerContext, name);
+        this.connectionManager = Objects.requireNonNull(connectionManager, "connectionManager");
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxBatchBytes = Math.max(maxBatchBytes, 1);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(lingerMillis, 1));
+        this.batchFormat = Objects.requireNonNull(batchFormat, "batchFormat");
+        this.compress = compress;
+        this.maxInFlightRequests = Math.max(maxInFlightRequests, 1);
+        // one batch being filled while the others are in flight
+        this.freeBatches = new ArrayBlockingQueue<>(this.maxInFlightRequests + 1);
+    }
+
+    /**
+     * Sets the handler to which batches that cannot be sent are reported.
+     *
+     * @param errorHandler the error handler of the appender
+     */
+    public void setErrorHandler(final ErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public synchronized void startup() {
+        if (running) {
+            return;
+        }
+        for (int i = 0; i <= maxInFlightRequests; i++) {
+            freeBatches.add(new Batch());
+        }
+        currentBatch = freeBatches.poll();
+        running = true;
+        senders = new ThreadPoolExecutor(maxInFlightRequests, maxInFlightRequests, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), Log4jThreadFactory.createDaemonThreadFactory("HttpBatchSender"));
+        final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+                Log4jThreadFactory.createDaemonThreadFactory("HttpBatchLinger"));
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        final long period = Math.max(lingerNanos / 2, TimeUnit.MILLISECONDS.toNanos(1));
+        scheduler.scheduleWithFixedDelay(this::sendLingeringBatch, period, period, TimeUnit.NANOSECONDS);
+        lingerScheduler = scheduler;
+    }
+
+    @Override
+    public void send(final Layout<?> layout, final LogEvent event) throws Exception {
+        while (true) {
+            synchronized (this) {
+                if (!running) {
+                    break;
+                }
+                final Batch batch = currentBatch;
+                if (batch != null) {
+                    batch.add(layout, event);
+                    if (batch.count >= batchSize || batch.destination.size() >= maxBatchBytes) {
+                        dispatch();
+                    }
+                    return;
+                }
+            }
+            // all batches are in flight: wait for one to be sent without blocking the other logging threads
+            installFreeBatch(freeBatches.take());
+        }
+        // not started or already stopped
+        connectionManager.send(layout, event);
+    }
+
+    private synchronized void installFreeBatch(final Batch batch) {
+        if (running && currentBatch == null) {
+            currentBatch = batch;
+        } else {
+            freeBatches.offer(batch);
+        }
+    }
+
+    private synchronized void sendLingeringBatch() {
+        final Batch batch = currentBatch;
+        if (batch != null && batch.count > 0 && System.nanoTime() - batch.firstEventNanos >= lingerNanos) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Hands the current batch over to the senders and takes a free one if there is any. Must be called while holding
+     * the lock on this manager.
+     */
+    private void dispatch() {
+        final Batch batch = currentBatch;
+        senders.execute(() -> sendBatch(batch));
+        currentBatch = freeBatches.poll();
+    }
+
+    private void sendBatch(final Batch batch) {
+        final long startNanos = System.nanoTime();
+        try {
+            batch.close();
+            final GrowableByteBufferDestination destination = batch.destination;
+            if (compress) {
+                final ByteArrayOutputStream compressed = new ByteArrayOutputStream(destination.size() / 4 + 64);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(destination.array(), 0, destination.size());
+                }
+                connectionManager.send(batch.contentType, GZIP_ENCODING, compressed.toByteArray(), 0,
+                        compressed.size());
+            } else {
+                connectionManager.send(batch.contentType, null, destination.array(), 0, destination.size());
+            }
+            final long latency = System.nanoTime() - startNanos;
+            batchCount.increment();
+            eventCount.add(batch.count);
+            byteCount.add(destination.size());
+            sendLatencyNanos.add(latency);
+            maxSendLatencyNanos.accumulateAndGet(latency, Math::max);
+            LOGGER.trace("{} sent {} events ({} bytes) in {} ns", getName(), batch.count, destination.size(),
+                    latency);
+        } catch (final IOException | RuntimeException e) {
+            failedBatchCount.increment();
+            final String message = "Unable to send HTTP batch of " + batch.count + " events";
+            final ErrorHandler handler = errorHandler;
+            if (handler != null) {
+                handler.error(message + " in appender [" + getName() + "]", e);
+            } else {
+                logError(message, e);
+            }
+        } finally {
+            batch.clear();
+            freeBatches.offer(batch);
+        }
+    }
+
+    @Override
+    protected boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        synchronized (this) {
+            if (!running) {
+                return connectionManager.stop(timeout, timeUnit);
+            }
+            running = false;
+            final Batch batch = currentBatch;
+            if (batch != null && batch.count > 0) {
+                senders.execute(() -> sendBatch(batch));
+            }
+            currentBatch = null;
+        }
+        lingerScheduler.shutdownNow();
+        senders.shutdown();
+        boolean stopped;
+        try {
+            stopped = senders.awaitTermination(timeout > 0 ? timeout : Long.MAX_VALUE, timeUnit);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = false;
+        }
+        return connectionManager.stop(timeout, timeUnit) && stopped;
+    }
+
+    /**
+     * Returns the number of batches successfully sent.
+     *
+     * @return the number of batches sent
+     */
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    /**
+     * Returns the number of events in the batches successfully sent.
+     *
+     * @return the number of events sent
+     */
+    public long getEventCount() {
+        return eventCount.sum();
+    }
+
+    /**
+     * Returns the number of bytes, before compression, in the batches successfully sent.
+     *
+     * @return the number of bytes sent
+     */
+    public long getByteCount() {
+        return byteCount.sum();
+    }
+
+    /**
+     * Returns the number of batches that could not be sent.
+     *
+     * @return the number of failed batches
+     */
+    public long getFailedBatchCount() {
+        return failedBatchCount.sum();
+    }
+
+    /**
+     * Returns the average number of events per batch sent.
+     *
+     * @return the average batch size
+     */
+    public double getAverageBatchSize() {
+        final long batches = batchCount.sum();
+        return batches == 0 ? 0 : (double) eventCount.sum() / batches;
+    }
+
+    /**
+     * Returns the average time taken to compress and send a batch, in nanoseconds.
+     *
+     * @return the average send latency
+     */
+    public long getAverageSendLatencyNanos() {
+        final long batches = batchCount.sum();
+        return batches == 0 ? 0 : sendLatencyNanos.sum() / batches;
+    }
+
+    /**
+     * Returns the longest time taken to compress and send a batch, in nanoseconds.
+     *
+     * @return the maximum send latency
+     */
+    public long getMaxSendLatencyNanos() {
+        return maxSendLatencyNanos.get();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    public BatchFormat getBatchFormat() {
+        return batchFormat;
+    }
+
+    public boolean isCompress() {
+        return compress;
+    }
+
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    /**
+     * Encoded events waiting to be sent together.
+     */
+    private final class Batch {
+
+        private final GrowableByteBufferDestination destination =
+                new GrowableByteBufferDestination(Constants.ENCODER_BYTE_BUFFER_SIZE, maxBatchBytes + maxBatchBytes / 4);
+        private String contentType;
+        private int count;
+        private long firstEventNanos;
+
+        void add(final Layout<?> layout, final LogEvent event) {
+            final int start = destination.size();
+            try {
+                addUnchecked(layout, event);
+            } catch (final RuntimeException | Error e) {
+                // drop the partially encoded event and its separator
+                destination.truncate(start);
+                throw e;
+            }
+            count++;
+        }
+
+        private void addUnchecked(final Layout<?> layout, final LogEvent event) {
+            if (count == 0) {
+                contentType = layout.getContentType();
+                firstEventNanos = System.nanoTime();
+                if (batchFormat == BatchFormat.JSON_ARRAY) {
+                    destination.getByteBuffer().put((byte) '[');
+                }
+            } else if (batchFormat == BatchFormat.JSON_ARRAY) {
+                writeByte((byte) ',');
+            }
+            layout.encode(event, destination);
+            if (batchFormat == BatchFormat.NEWLINE_DELIMITED && destination.size() > 0
+                    && destination.array()[destination.size() - 1] != '\n') {
+                writeByte((byte) '\n');
+            }
+        }
+
+        void close() {
+            if (batchFormat == BatchFormat.JSON_ARRAY) {
+                writeByte((byte) ']');
+            }
+        }
+
+        void clear() {
+            destination.clear();
+            contentType = null;
+            count = 0;
+        }
+
+        private void writeByte(final byte b) {
+            if (!destination.getByteBuffer().hasRemaining()) {
+                destination.drain(destination.getByteBuffer());
+            }
+            destination.getByteBuffer().put(b);
+        }
+    }
+}
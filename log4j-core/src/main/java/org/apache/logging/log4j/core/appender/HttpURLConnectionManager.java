@@ -74,6 +74,23 @@ public class HttpURLConnectionManager extends HttpManager {
 
     @Override
     public void send(final Layout<?> layout, final LogEvent event) throws IOException {
+        final byte[] msg = layout.toByteArray(event);
+        send(layout.getContentType(), null, msg, 0, msg.length);
+    }
+
+    /**
+     * Sends the given bytes as the body of a request.
+     *
+     * @param contentType the value of the {@code Content-Type} header, may be null
+     * @param contentEncoding the value of the {@code Content-Encoding} header, may be null
+     * @param body the array holding the body
+     * @param offset where the body starts in the array
+     * @param length the length of the body
+     * @throws IOException if the request fails or the response has an error status
+     * @since 2.21.0
+     */
+    protected void send(final String contentType, final String contentEncoding, final byte[] body, final int offset,
+            final int length) throws IOException {
         final HttpURLConnection urlConnection = (HttpURLConnection) url.openConnection();
         urlConnection.setAllowUserInteraction(false);
         urlConnection.setDoOutput(true);
@@ -85,8 +102,11 @@ public class HttpURLConnectionManager extends HttpManager {
         if (readTimeoutMillis > 0) {
             urlConnection.setReadTimeout(readTimeoutMillis);
         }
-        if (layout.getContentType() != null) {
-            urlConnection.setRequestProperty("Content-Type", layout.getContentType());
+        if (contentType != null) {
+            urlConnection.setRequestProperty("Content-Type", contentType);
+        }
+        if (contentEncoding != null) {
+            urlConnection.setRequestProperty("Content-Encoding", contentEncoding);
         }
         for (final Property header : headers) {
             urlConnection.setRequestProperty(header.getName(), header.evaluate(getConfiguration().getStrSubstitutor()));
@@ -98,13 +118,13 @@ public class HttpURLConnectionManager extends HttpManager {
             ((HttpsURLConnection) urlConnection).setHostnameVerifier(LaxHostnameVerifier.INSTANCE);
         }
 
-        final byte[] msg = layout.toByteArray(event);
-        urlConnection.setFixedLengthStreamingMode(msg.length);
+        urlConnection.setFixedLengthStreamingMode(length);
         urlConnection.connect();
         try (OutputStream os = urlConnection.getOutputStream()) {
-            os.write(msg);
+            os.write(body, offset, length);
         }
 
+        // reading the response to its end lets the connection be kept alive and reused
         final byte[] buffer = new byte[1024];
         try (InputStream is = urlConnection.getInputStream()) {
             while (IOUtils.EOF != is.read(buffer)) {
@@ -0,0 +1,388 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Writes to a file through a sequence of memory mapped regions without taking a lock.
+ * <p>
+ * Producers reserve a byte range of the current region by adding their length to its atomic position counter, copy
+ * their bytes into the reserved range and publish them by adding their length to the region's committed count. The
+ * one producer whose range crosses the end of the region installs the next region and writes the rest of its bytes
+ * there, while producers whose range starts past the end wait for the next region and try again. A maintainer thread
+ * calling {@link #maintain()} maps the next region ahead of time, so that producers normally do not map regions
+ * themselves, and unmaps the regions whose bytes are all committed.
+ * </p>
+ *
+ * @since 2.21.0
+ */
+public final class MappedRegionWriter {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    /** Added to the position counter of the current region on close, so that no new range fits in it. */
+    private static final long CLOSED = 1L << 62;
+
+    private static final int SPINS = 64;
+    private static final int YIELDS = 256;
+    private static final long PARK_NANOS = 10_000L;
+
+    private final FileChannel channel;
+    private final String fileName;
+    private final int regionLength;
+    private final Thread maintainer;
+    private final ThreadLocal<View> views;
+    private final AtomicReference<Region> next = new AtomicReference<>();
+    private final Queue<Region> retired = new ConcurrentLinkedQueue<>();
+    private final Object mapLock = new Object();
+    private volatile Region current;
+    private volatile boolean closed;
+    private volatile boolean failed;
+    private volatile long closedPosition = -1;
+
+    /**
+     * Maps the first region.
+     *
+     * @param channel the channel of the file to write to
+     * @param fileName the name of the file, for diagnostics
+     * @param position the file position to start writing at
+     * @param regionLength the length of each mapped region
+     * @param maintainer the thread calling {@link #maintain()}, woken up whenever a region is used up, or {@code null}
+     * @throws IOException if the first region cannot be mapped
+     */
+    public MappedRegionWriter(final FileChannel channel, final String fileName, final long position,
+            final int regionLength, final Thread maintainer) throws IOException {
+        this.channel = channel;
+        this.fileName = fileName;
+        this.regionLength = regionLength;
+        this.maintainer = maintainer;
+        this.views = Constants.ENABLE_THREADLOCALS ? ThreadLocal.withInitial(View::new) : null;
+        this.current = map(position);
+    }
+
+    /**
+     * Writes the given bytes after all the bytes written so far.
+     *
+     * @param bytes the source array
+     * @param offset the offset of the first byte to write
+     * @param length the number of bytes to write
+     * @param force whether to force the written bytes to the storage device
+     * @return {@code false} if the writer was closed before the bytes could be written
+     */
+    public boolean write(final byte[] bytes, final int offset, final int length, final boolean force) {
+        if (length == 0) {
+            return !closed;
+        }
+        int attempt = 0;
+        while (true) {
+            final Region region = current;
+            final long position = region.reserved.getAndAdd(length);
+            if (position + length <= region.capacity) {
+                copy(region, (int) position, bytes, offset, length);
+                region.commit(length, force);
+                return true;
+            }
+            if (position <= region.capacity) {
+                writeAcross(region, (int) position, bytes, offset, length, force);
+                return true;
+            }
+            // wait until the producer crossing the end of the region has installed the next one
+            while (current == region) {
+                if (closed) {
+                    return false;
+                }
+                backOff(attempt++);
+            }
+        }
+    }
+
+    private void writeAcross(Region region, int position, final byte[] bytes, int offset, int length,
+            final boolean force) {
+        while (true) {
+            final int chunk = Math.min(length, region.capacity - position);
+            copy(region, position, bytes, offset, chunk);
+            region.commit(chunk, force);
+            offset += chunk;
+            length -= chunk;
+            if (length == 0) {
+                return;
+            }
+            // the rest of the bytes are reserved at the start of the next region
+            final Region nextRegion = nextRegion(region, length);
+            current = nextRegion;
+            retired.add(region);
+            if (maintainer != null) {
+                LockSupport.unpark(maintainer);
+            }
+            region = nextRegion;
+            position = 0;
+        }
+    }
+
+    private Region nextRegion(final Region region, final int reserved) {
+        final long offset = region.offset + region.capacity;
+        Region mapped = next.getAndSet(null);
+        if (mapped != null && mapped.offset != offset) {
+            discard(mapped);
+            mapped = null;
+        }
+        if (mapped == null) {
+            LOGGER.debug("MappedRegionWriter mapping {} at {} on the logging thread", fileName, offset);
+            try {
+                mapped = map(offset);
+            } catch (final IOException ex) {
+                // producers waiting for the next region give up
+                failed = true;
+                closed = true;
+                throw new AppenderLoggingException("Unable to map " + fileName + " at " + offset, ex);
+            }
+        }
+        mapped.reserved.set(reserved);
+        return mapped;
+    }
+
+    private void copy(final Region region, final int position, final byte[] bytes, final int offset,
+            final int length) {
+        if (length == 0) {
+            return;
+        }
+        final ByteBuffer buffer;
+        if (views != null) {
+            final View view = views.get();
+            if (view.region != region) {
+                view.region = region;
+                view.buffer = region.buffer.duplicate();
+            }
+            buffer = view.buffer;
+        } else {
+            buffer = region.buffer.duplicate();
+        }
+        ((Buffer) buffer).position(position);
+        buffer.put(bytes, offset, length);
+    }
+
+    /**
+     * Maps the region following the current one if it is not mapped yet and unmaps the regions whose bytes are all
+     * committed. Meant to be called by the maintainer thread.
+     */
+    public void maintain() {
+        synchronized (this) {
+            Region region;
+            while (!closed && (region = retired.peek()) != null && region.isCommitted()) {
+                retired.poll();
+                unmap(region);
+            }
+        }
+        synchronized (mapLock) {
+            if (closed) {
+                return;
+            }
+            final Region region = current;
+            final long offset = region.offset + region.capacity;
+            final Region mapped = next.get();
+            if (mapped != null) {
+                if (mapped.offset == offset || !next.compareAndSet(mapped, null)) {
+                    return;
+                }
+                discard(mapped);
+            }
+            try {
+                final Region premapped = map(offset);
+                if (current != region || !next.compareAndSet(null, premapped)) {
+                    // a producer already had to map the region itself
+                    discard(premapped);
+                }
+            } catch (final IOException ex) {
+                LOGGER.error("MappedRegionWriter unable to map {} at {}", fileName, offset, ex);
+            }
+        }
+    }
+
+    /**
+     * Forces the bytes written so far to the storage device.
+     */
+    public synchronized void force() {
+        if (closed) {
+            return;
+        }
+        for (final Region region : retired) {
+            region.buffer.force();
+        }
+        current.buffer.force();
+    }
+
+    /**
+     * Returns the file position after the last reserved byte.
+     *
+     * @return the position in the file
+     */
+    public long getPosition() {
+        final long position = closedPosition;
+        if (position >= 0) {
+            return position;
+        }
+        final Region region = current;
+        return region.offset + Math.min(region.reserved.get(), region.capacity);
+    }
+
+    /**
+     * Returns whether this writer was closed.
+     *
+     * @return {@code true} if no more bytes are accepted
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Stops accepting bytes, waits for the bytes being written to be committed, unmaps all regions and truncates the
+     * file after the last written byte. Does not close the channel.
+     *
+     * @return the length of the file
+     * @throws IOException if the file cannot be truncated
+     */
+    public long close() throws IOException {
+        synchronized (mapLock) {
+            if (closedPosition >= 0) {
+                return closedPosition;
+            }
+            closed = true;
+            long end;
+            while (true) {
+                final Region region = current;
+                final long reserved = region.reserved.getAndAdd(CLOSED);
+                if (reserved <= region.capacity || failed) {
+                    final int length = (int) Math.min(reserved, region.capacity);
+                    region.awaitCommitted(length);
+                    end = region.offset + length;
+                    break;
+                }
+                // a producer is installing the next region
+                int attempt = 0;
+                while (current == region && !failed) {
+                    backOff(attempt++);
+                }
+            }
+            synchronized (this) {
+                Region region;
+                while ((region = retired.poll()) != null) {
+                    region.awaitCommitted(region.capacity);
+                    unmap(region);
+                }
+                region = next.getAndSet(null);
+                if (region != null) {
+                    unmap(region);
+                }
+                unmap(current);
+            }
+            LOGGER.debug("MappedRegionWriter truncating {} to {}", fileName, end);
+            channel.truncate(end);
+            closedPosition = end;
+            return end;
+        }
+    }
+
+    private Region map(final long offset) throws IOException {
+        return new Region(MemoryMappedFileManager.mmap(channel, fileName, offset, regionLength), offset, regionLength);
+    }
+
+    private void discard(final Region region) {
+        // never written to: unmapped by the next maintenance
+        region.committed.set(region.capacity);
+        retired.add(region);
+    }
+
+    private void unmap(final Region region) {
+        try {
+            MemoryMappedFileManager.unsafeUnmap(region.buffer);
+        } catch (final Exception ex) {
+            // the mapping is released when the buffer is garbage collected
+            LOGGER.debug("MappedRegionWriter unable to unmap {} at {}", fileName, region.offset, ex);
+        }
+    }
+
+    private static void backOff(final int attempt) {
+        if (attempt < SPINS) {
+            return;
+        }
+        if (attempt < YIELDS) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    /**
+     * A mapped region of the file.
+     */
+    private static final class Region {
+
+        private final MappedByteBuffer buffer;
+        private final long offset;
+        private final int capacity;
+        private final AtomicLong reserved = new AtomicLong();
+        private final AtomicInteger committed = new AtomicInteger();
+
+        private Region(final MappedByteBuffer buffer, final long offset, final int capacity) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.capacity = capacity;
+        }
+
+        private void commit(final int length, final boolean force) {
+            if (force) {
+                buffer.force();
+            }
+            committed.addAndGet(length);
+        }
+
+        private boolean isCommitted() {
+            return committed.get() >= capacity;
+        }
+
+        private void awaitCommitted(final int length) {
+            int attempt = 0;
+            while (committed.get() < length) {
+                backOff(attempt++);
+            }
+        }
+    }
+
+    /**
+     * A producer's view of the region it last wrote to.
+     */
+    private static final class View {
+
+        private Region region;
+        private ByteBuffer buffer;
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Core;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
@@ -66,6 +67,9 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
         @PluginBuilderAttribute("advertiseURI")
         private String advertiseURI;
 
+        @PluginBuilderAttribute
+        private boolean concurrentWrites;
+
         @Override
         public MemoryMappedFileAppender build() {
             final String name = getName();
@@ -82,7 +86,7 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
             }
             final Layout<? extends Serializable> layout = getOrCreateLayout();
             final MemoryMappedFileManager manager = MemoryMappedFileManager.getFileManager(fileName, append, isImmediateFlush(),
-                    actualRegionLength, advertiseURI, layout);
+                    actualRegionLength, advertiseURI, layout, concurrentWrites);
             if (manager == null) {
                 return null;
             }
@@ -116,6 +120,19 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
             return asBuilder();
         }
 
+        /**
+         * Lets application threads reserve their byte range in the mapped region without locking, leaving the mapping
+         * of the next region to a dedicated mapper thread.
+         *
+         * @param concurrentWrites whether to enable concurrent writes
+         * @return this builder
+         * @since 2.21.0
+         */
+        public B setConcurrentWrites(final boolean concurrentWrites) {
+            this.concurrentWrites = concurrentWrites;
+            return asBuilder();
+        }
+
     }
 
     private static final int BIT_POSITION_1GB = 30; // 2^30 ~= 1GB
@@ -153,6 +170,31 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
         return true;
     }
 
+    @Override
+    public void append(final LogEvent event) {
+        final MemoryMappedFileManager manager = getManager();
+        if (manager.isConcurrentWrites()) {
+            try {
+                manager.writeConcurrently(getLayout(), event, getImmediateFlush() || event.isEndOfBatch());
+            } catch (final AppenderLoggingException ex) {
+                error("Unable to write to stream " + manager.getName() + " for appender " + getName(), event, ex);
+                throw ex;
+            }
+            return;
+        }
+        super.append(event);
+    }
+
+    @Override
+    public void append(final LogEvent[] events, final int count) {
+        if (getManager().isConcurrentWrites()) {
+            // concurrent writes do not take the lock of the manager
+            appendEach(events, count);
+        } else {
+            super.append(events, count);
+        }
+    }
+
     /**
      * Returns the file name this appender is associated with.
      *
@@ -235,7 +277,7 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
     /**
      * Converts the specified region length to a valid value.
      */
-    private static int determineValidRegionLength(final String name, final int regionLength) {
+    static int determineValidRegionLength(final String name, final int regionLength) {
         if (regionLength > MAX_REGION_LENGTH) {
             LOGGER.info("MemoryMappedAppender[{}] Reduced region length from {} to max length: {}", name, regionLength,
                     MAX_REGION_LENGTH);
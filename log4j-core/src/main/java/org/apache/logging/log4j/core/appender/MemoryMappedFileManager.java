@@ -22,6 +22,7 @@ import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.lang.reflect.Method;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
@@ -32,12 +33,17 @@ import java.security.PrivilegedExceptionAction;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.layout.internal.GrowableByteBufferDestination;
 import org.apache.logging.log4j.core.util.Closer;
+import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.FileUtils;
+import org.apache.logging.log4j.core.util.Log4jThread;
 import org.apache.logging.log4j.core.util.NullOutputStream;
-import org.apache.logging.log4j.util.Constants;
 
 //Lines too long...
 //CHECKSTYLE:OFF
@@ -45,6 +51,11 @@ import org.apache.logging.log4j.util.Constants;
  * Extends OutputStreamManager but instead of using a buffered output stream, this class maps a region of a file into
  * memory and writes to this memory region.
  * <p>
+ * When created with concurrent writes enabled, events are encoded outside of any lock and written through a
+ * {@link MappedRegionWriter}: producers reserve their byte range in the mapped region with an atomic position counter
+ * and a dedicated mapper thread maps the next region ahead of time, so that logging threads neither contend on the
+ * manager's monitor nor wait for the file to be extended and remapped.
+ * </p>
  *
  * @see <a href="http://www.codeproject.com/Tips/683614/Things-to-Know-about-Memory-Mapped-File-in-Java">
  *      http://www.codeproject.com/Tips/683614/Things-to-Know-about-Memory-Mapped-File-in-Java</a>
@@ -65,6 +76,7 @@ public class MemoryMappedFileManager extends OutputStreamManager {
     private static final int MAX_REMAP_COUNT = 10;
     private static final MemoryMappedFileManagerFactory FACTORY = new MemoryMappedFileManagerFactory();
     private static final double NANOS_PER_MILLISEC = 1000.0 * 1000.0;
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
 
     private final boolean immediateFlush;
     private final int regionLength;
@@ -72,18 +84,53 @@ public class MemoryMappedFileManager extends OutputStreamManager {
     private final RandomAccessFile randomAccessFile;
     private MappedByteBuffer mappedBuffer;
     private long mappingOffset;
+    private final MappedRegionWriter regionWriter;
+    private final ThreadLocal<GrowableByteBufferDestination> encodingBuffers;
+    private volatile Thread mapper;
 
     protected MemoryMappedFileManager(final RandomAccessFile file, final String fileName, final OutputStream os,
             final boolean immediateFlush, final long position, final int regionLength, final String advertiseURI,
             final Layout<? extends Serializable> layout, final boolean writeHeader) throws IOException {
-        super(os, fileName, layout, writeHeader, ByteBuffer.wrap(Constants.EMPTY_BYTE_ARRAY));
+        this(file, fileName, os, immediateFlush, position, regionLength, advertiseURI, layout, writeHeader, false);
+    }
+
+    /**
+     * @param concurrentWrites whether producers write to the mapped regions without locking
+     * @since 2.21.0
+     */
+    protected MemoryMappedFileManager(final RandomAccessFile file, final String fileName, final OutputStream os,
+            final boolean immediateFlush, final long position, final int regionLength, final String advertiseURI,
+            final Layout<? extends Serializable> layout, final boolean writeHeader, final boolean concurrentWrites)
+            throws IOException {
+        super(os, fileName, layout, writeHeader, ByteBuffer.wrap(concurrentWrites
+                ? new byte[Constants.ENCODER_BYTE_BUFFER_SIZE]
+                : org.apache.logging.log4j.util.Constants.EMPTY_BYTE_ARRAY));
         this.immediateFlush = immediateFlush;
         this.randomAccessFile = Objects.requireNonNull(file, "RandomAccessFile");
         this.regionLength = regionLength;
         this.advertiseURI = advertiseURI;
-        this.mappedBuffer = mmap(randomAccessFile.getChannel(), getFileName(), position, regionLength);
-        this.byteBuffer = mappedBuffer;
-        this.mappingOffset = position;
+        if (concurrentWrites) {
+            final Thread thread = new Log4jThread(this::runMapper, "MemoryMappedFileManager-Mapper-" + fileName);
+            thread.setDaemon(true);
+            this.mapper = thread;
+            this.regionWriter = new MappedRegionWriter(randomAccessFile.getChannel(), fileName, position,
+                    regionLength, thread);
+            this.encodingBuffers = Constants.ENABLE_THREADLOCALS
+                    ? ThreadLocal.withInitial(this::createEncodingBuffer)
+                    : null;
+            if (writeHeader && layout != null) {
+                final byte[] header = layout.getHeader();
+                if (header != null) {
+                    regionWriter.write(header, 0, header.length, false);
+                }
+            }
+        } else {
+            this.mappedBuffer = mmap(randomAccessFile.getChannel(), getFileName(), position, regionLength);
+            this.byteBuffer = mappedBuffer;
+            this.mappingOffset = position;
+            this.regionWriter = null;
+            this.encodingBuffers = null;
+        }
     }
 
     /**
@@ -100,8 +147,28 @@ public class MemoryMappedFileManager extends OutputStreamManager {
     public static MemoryMappedFileManager getFileManager(final String fileName, final boolean append,
             final boolean immediateFlush, final int regionLength, final String advertiseURI,
             final Layout<? extends Serializable> layout) {
+        return getFileManager(fileName, append, immediateFlush, regionLength, advertiseURI, layout, false);
+    }
+
+    /**
+     * Returns the MemoryMappedFileManager.
+     *
+     * @param fileName The name of the file to manage.
+     * @param append true if the file should be appended to, false if it should be overwritten.
+     * @param immediateFlush true if the contents should be flushed to disk on every write
+     * @param regionLength The mapped region length.
+     * @param advertiseURI the URI to use when advertising the file
+     * @param layout The layout.
+     * @param concurrentWrites whether producers write to the mapped regions without locking, while a mapper thread
+     *            maps the next region ahead of time
+     * @return A MemoryMappedFileManager for the File.
+     * @since 2.21.0
+     */
+    public static MemoryMappedFileManager getFileManager(final String fileName, final boolean append,
+            final boolean immediateFlush, final int regionLength, final String advertiseURI,
+            final Layout<? extends Serializable> layout, final boolean concurrentWrites) {
         return narrow(MemoryMappedFileManager.class, getManager(fileName, new FactoryData(append, immediateFlush,
-                regionLength, advertiseURI, layout), FACTORY));
+                regionLength, advertiseURI, layout, concurrentWrites), FACTORY));
     }
 
     /**
@@ -124,20 +191,106 @@ public class MemoryMappedFileManager extends OutputStreamManager {
     }
 
     @Override
-    protected synchronized void write(final byte[] bytes, int offset, int length, final boolean immediateFlush) {
-        while (length > mappedBuffer.remaining()) {
-            final int chunk = mappedBuffer.remaining();
-            mappedBuffer.put(bytes, offset, chunk);
-            offset += chunk;
-            length -= chunk;
-            remap();
+    protected void write(final byte[] bytes, int offset, int length, final boolean immediateFlush) {
+        if (regionWriter != null) {
+            writeConcurrently(bytes, offset, length, immediateFlush);
+            return;
+        }
+        synchronized (this) {
+            while (length > mappedBuffer.remaining()) {
+                final int chunk = mappedBuffer.remaining();
+                mappedBuffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+                remap();
+            }
+            mappedBuffer.put(bytes, offset, length);
         }
-        mappedBuffer.put(bytes, offset, length);
 
         // no need to call flush() if force is true,
         // already done in AbstractOutputStreamAppender.append
     }
 
+    /**
+     * Returns whether events are written through {@link #writeConcurrently(Layout, LogEvent, boolean)}.
+     *
+     * @return {@code true} if concurrent writes are enabled
+     * @since 2.21.0
+     */
+    public boolean isConcurrentWrites() {
+        return regionWriter != null;
+    }
+
+    /**
+     * Encodes the event without holding any lock and copies the result into the byte range it reserves in the mapped
+     * region. Requires concurrent writes to be enabled.
+     *
+     * @param layout the layout encoding the event
+     * @param event the event to write
+     * @param immediateFlush if {@code true}, forces the written bytes to the storage device
+     * @since 2.21.0
+     */
+    public void writeConcurrently(final Layout<?> layout, final LogEvent event, final boolean immediateFlush) {
+        final GrowableByteBufferDestination destination = getEncodingBuffer();
+        try {
+            layout.encode(event, destination);
+            writeConcurrently(destination.array(), 0, destination.size(), immediateFlush);
+        } finally {
+            destination.clear();
+        }
+    }
+
+    private void writeConcurrently(final byte[] bytes, final int offset, final int length,
+            final boolean immediateFlush) {
+        if (!regionWriter.write(bytes, offset, length, immediateFlush)) {
+            throw new AppenderLoggingException("Unable to write to closed memory mapped file " + getName());
+        }
+    }
+
+    private GrowableByteBufferDestination getEncodingBuffer() {
+        return encodingBuffers != null ? encodingBuffers.get() : createEncodingBuffer();
+    }
+
+    private GrowableByteBufferDestination createEncodingBuffer() {
+        return new GrowableByteBufferDestination(Constants.ENCODER_BYTE_BUFFER_SIZE, Constants.MAX_REUSABLE_MESSAGE_SIZE * 4);
+    }
+
+    void startMapper() {
+        mapper.start();
+    }
+
+    private void runMapper() {
+        final Thread self = Thread.currentThread();
+        while (mapper == self) {
+            try {
+                regionWriter.maintain();
+            } catch (final Exception ex) {
+                logError("Unable to map the next region", ex);
+            }
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+    }
+
+    private void stopMapper(final long timeout, final TimeUnit timeUnit) {
+        final Thread thread = mapper;
+        if (thread == null) {
+            return;
+        }
+        mapper = null;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(Math.max(timeUnit.toMillis(timeout), 0));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        stopMapper(timeout, timeUnit);
+        return super.releaseSub(timeout, timeUnit);
+    }
+
     private synchronized void remap() {
         final long offset = this.mappingOffset + mappedBuffer.position();
         final int length = mappedBuffer.remaining() + regionLength;
@@ -163,11 +316,19 @@ public class MemoryMappedFileManager extends OutputStreamManager {
 
     @Override
     public synchronized void flush() {
+        if (regionWriter != null) {
+            flushBuffer(byteBuffer);
+            regionWriter.force();
+            return;
+        }
         mappedBuffer.force();
     }
 
     @Override
     public synchronized boolean closeOutputStream() {
+        if (regionWriter != null) {
+            return closeRegionWriter();
+        }
         final long position = mappedBuffer.position();
         final long length = mappingOffset + position;
         try {
@@ -187,6 +348,20 @@ public class MemoryMappedFileManager extends OutputStreamManager {
         }
     }
 
+    private boolean closeRegionWriter() {
+        // the mapper thread was stopped by releaseSub
+        flushBuffer(byteBuffer);
+        try {
+            final long length = regionWriter.close();
+            LOGGER.debug("MMapAppender closing. Set {} length to {}", getFileName(), length);
+            randomAccessFile.close();
+            return true;
+        } catch (final IOException ex) {
+            logError("Unable to close MemoryMappedFile", ex);
+            return false;
+        }
+    }
+
     public static MappedByteBuffer mmap(final FileChannel fileChannel, final String fileName, final long start,
             final int size) throws IOException {
         for (int i = 1;; i++) {
@@ -220,7 +395,7 @@ public class MemoryMappedFileManager extends OutputStreamManager {
         }
     }
 
-    private static void unsafeUnmap(final MappedByteBuffer mbb) throws PrivilegedActionException {
+    static void unsafeUnmap(final MappedByteBuffer mbb) throws PrivilegedActionException {
         LOGGER.debug("MMapAppender unmapping old buffer...");
         final long startNanos = System.nanoTime();
         AccessController.doPrivileged((PrivilegedExceptionAction<Object>) () -> {
@@ -279,17 +454,32 @@ public class MemoryMappedFileManager extends OutputStreamManager {
     }
 
     @Override
-    protected void flushBuffer(final ByteBuffer buffer) {
-        // do nothing (do not call drain() to avoid spurious remapping)
+    protected synchronized void flushBuffer(final ByteBuffer buffer) {
+        if (regionWriter == null) {
+            // do nothing (do not call drain() to avoid spurious remapping)
+            return;
+        }
+        ((Buffer) buffer).flip();
+        try {
+            if (buffer.remaining() > 0) {
+                writeConcurrently(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), false);
+            }
+        } finally {
+            buffer.clear();
+        }
     }
 
     @Override
     public ByteBuffer getByteBuffer() {
-        return mappedBuffer;
+        return regionWriter != null ? byteBuffer : mappedBuffer;
     }
 
     @Override
     public ByteBuffer drain(final ByteBuffer buf) {
+        if (regionWriter != null) {
+            flushBuffer(buf);
+            return buf;
+        }
         remap();
         return mappedBuffer;
     }
@@ -303,6 +493,7 @@ public class MemoryMappedFileManager extends OutputStreamManager {
         private final int regionLength;
         private final String advertiseURI;
         private final Layout<? extends Serializable> layout;
+        private final boolean concurrentWrites;
 
         /**
          * Constructor.
@@ -312,14 +503,17 @@ public class MemoryMappedFileManager extends OutputStreamManager {
          * @param regionLength length of the mapped region
          * @param advertiseURI the URI to use when advertising the file
          * @param layout The layout.
+         * @param concurrentWrites whether producers write to the mapped regions without locking
          */
         public FactoryData(final boolean append, final boolean immediateFlush, final int regionLength,
-                final String advertiseURI, final Layout<? extends Serializable> layout) {
+                final String advertiseURI, final Layout<? extends Serializable> layout,
+                final boolean concurrentWrites) {
             this.append = append;
             this.immediateFlush = immediateFlush;
             this.regionLength = regionLength;
             this.advertiseURI = advertiseURI;
             this.layout = layout;
+            this.concurrentWrites = concurrentWrites;
         }
     }
 
@@ -352,8 +546,13 @@ public class MemoryMappedFileManager extends OutputStreamManager {
                 raf = new RandomAccessFile(name, "rw");
                 final long position = (data.append) ? raf.length() : 0;
                 raf.setLength(position + data.regionLength);
-                return new MemoryMappedFileManager(raf, name, os, data.immediateFlush, position, data.regionLength,
-                        data.advertiseURI, data.layout, writeHeader);
+                final MemoryMappedFileManager manager = new MemoryMappedFileManager(raf, name, os, data.immediateFlush,
+                        position, data.regionLength, data.advertiseURI, data.layout, writeHeader,
+                        data.concurrentWrites);
+                if (data.concurrentWrites) {
+                    manager.startMapper();
+                }
+                return manager;
             } catch (final Exception ex) {
                 LOGGER.error("MemoryMappedFileManager (" + name + ") " + ex, ex);
                 Closer.closeSilently(raf);
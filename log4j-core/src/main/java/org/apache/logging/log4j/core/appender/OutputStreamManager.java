@@ -16,11 +16,13 @@
  */
 package org.apache.logging.log4j.core.appender;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
@@ -28,6 +30,9 @@ import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.layout.ByteBufferDestination;
 import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
+import org.apache.logging.log4j.core.metrics.MetricsRegistry;
+import org.apache.logging.log4j.core.metrics.OutputStreamMetrics;
+import org.apache.logging.log4j.core.util.CloseShieldOutputStream;
 import org.apache.logging.log4j.core.util.Constants;
 
 /**
@@ -39,6 +44,10 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
     protected ByteBuffer byteBuffer;
     private volatile OutputStream outputStream;
     private boolean skipFooter;
+    private final OutputStreamMetrics metrics;
+    // reused arrays for writes of direct buffers, guarded by this
+    private final ByteBuffer[] singleBuffer = new ByteBuffer[1];
+    private final ByteBuffer[] gatherBuffers = new ByteBuffer[2];
 
     protected OutputStreamManager(final OutputStream os, final String streamName, final Layout<?> layout,
             final boolean writeHeader) {
@@ -60,6 +69,7 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         super(null, streamName);
         this.outputStream = os;
         this.layout = layout;
+        this.metrics = MetricsRegistry.getOutputStreamMetrics(this);
         if (writeHeader) {
             writeHeader(os);
         }
@@ -81,6 +91,7 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         this.layout = layout;
         this.byteBuffer = Objects.requireNonNull(byteBuffer, "byteBuffer");
         this.outputStream = os;
+        this.metrics = MetricsRegistry.getOutputStreamMetrics(this);
         if (writeHeader) {
             writeHeader(os);
         }
@@ -100,6 +111,31 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         return AbstractManager.getManager(name, factory, data);
     }
 
+    /**
+     * Allocates the buffer of a manager whose destination is a file. If {@link Constants#ENABLE_CHANNEL_OUTPUT} is
+     * set, this is a direct buffer, which is written to the {@link FileChannel} of the file without copying it to a
+     * heap array first.
+     *
+     * @param size the buffer capacity
+     * @return a new buffer
+     * @since 2.21.0
+     */
+    protected static ByteBuffer allocateByteBuffer(final int size) {
+        return Constants.ENABLE_CHANNEL_OUTPUT ? ByteBuffer.allocateDirect(size) : ByteBuffer.wrap(new byte[size]);
+    }
+
+    /**
+     * Returns whether this manager writes to a {@link FileChannel} that it owns. Only such managers write the buffer
+     * together with data that does not fit into it with a single gathering write; all others flush the buffer and
+     * then write the data, as before.
+     *
+     * @return {@code false}; managers that own a {@code FileChannel} override this
+     * @since 2.21.0
+     */
+    protected boolean isChannelOutput() {
+        return false;
+    }
+
     @SuppressWarnings("unused")
     protected OutputStream createOutputStream() throws IOException {
         throw new IllegalStateException(getClass().getCanonicalName() + " must implement createOutputStream()");
@@ -218,14 +254,25 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
      */
     protected synchronized void write(final byte[] bytes, final int offset, final int length, final boolean immediateFlush) {
         if (immediateFlush && byteBuffer.position() == 0) {
-            writeToDestination(bytes, offset, length);
+            writeToDestinationAndRecord(bytes, offset, length);
             flushDestination();
             return;
         }
-        if (length >= byteBuffer.capacity()) {
+        if (length >= byteBuffer.capacity() && isChannelOutput()) {
+            // write the buffer and the data with a single gathering write
+            ((Buffer) byteBuffer).flip();
+            gatherBuffers[0] = byteBuffer;
+            gatherBuffers[1] = ByteBuffer.wrap(bytes, offset, length);
+            try {
+                writeToDestinationAndRecord(gatherBuffers);
+            } finally {
+                gatherBuffers[1] = null;
+                byteBuffer.clear();
+            }
+        } else if (length >= byteBuffer.capacity()) {
             // if request length exceeds buffer capacity, flush the buffer and write the data directly
             flush();
-            writeToDestination(bytes, offset, length);
+            writeToDestinationAndRecord(bytes, offset, length);
         } else {
             if (length > byteBuffer.remaining()) {
                 flush();
@@ -253,6 +300,83 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         }
     }
 
+    /**
+     * Writes the remaining bytes of the specified buffers to the destination. If the destination is a file, this is a
+     * single gathering write to its {@link FileChannel}, so that direct buffers reach the file without being copied
+     * to a heap array.
+     *
+     * @param buffers the buffers to write; their positions are advanced to their limits
+     * @since 2.21.0
+     */
+    protected synchronized void writeToDestination(final ByteBuffer[] buffers) {
+        try {
+            final FileChannel channel = getFileChannel();
+            if (channel != null) {
+                while (hasRemaining(buffers)) {
+                    channel.write(buffers);
+                }
+                return;
+            }
+            final OutputStream stream = getOutputStream();
+            for (final ByteBuffer buffer : buffers) {
+                if (buffer.hasArray()) {
+                    stream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                    ((Buffer) buffer).position(buffer.limit());
+                } else {
+                    final byte[] chunk = new byte[Math.min(buffer.remaining(), Constants.ENCODER_BYTE_BUFFER_SIZE)];
+                    while (buffer.hasRemaining()) {
+                        final int length = Math.min(buffer.remaining(), chunk.length);
+                        buffer.get(chunk, 0, length);
+                        stream.write(chunk, 0, length);
+                    }
+                }
+            }
+        } catch (final IOException ex) {
+            throw new AppenderLoggingException("Error writing to stream " + getName(), ex);
+        }
+    }
+
+    private static boolean hasRemaining(final ByteBuffer[] buffers) {
+        for (final ByteBuffer buffer : buffers) {
+            if (buffer.hasRemaining()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private FileChannel getFileChannel() throws IOException {
+        OutputStream stream = getOutputStream();
+        if (stream instanceof CloseShieldOutputStream) {
+            stream = ((CloseShieldOutputStream) stream).getDelegate();
+        }
+        return stream instanceof FileOutputStream ? ((FileOutputStream) stream).getChannel() : null;
+    }
+
+    private void writeToDestinationAndRecord(final ByteBuffer[] buffers) {
+        if (metrics == null) {
+            writeToDestination(buffers);
+            return;
+        }
+        long length = 0;
+        for (final ByteBuffer buffer : buffers) {
+            length += buffer.remaining();
+        }
+        final long startNanos = System.nanoTime();
+        writeToDestination(buffers);
+        metrics.recordWrite(length, System.nanoTime() - startNanos);
+    }
+
+    private void writeToDestinationAndRecord(final byte[] bytes, final int offset, final int length) {
+        if (metrics == null) {
+            writeToDestination(bytes, offset, length);
+            return;
+        }
+        final long startNanos = System.nanoTime();
+        writeToDestination(bytes, offset, length);
+        metrics.recordWrite(length, System.nanoTime() - startNanos);
+    }
+
     /**
      * Calls {@code flush()} on the underlying output stream.
      * @since 2.6
@@ -279,10 +403,14 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
     protected synchronized void flushBuffer(final ByteBuffer buf) {
         ((Buffer) buf).flip();
         try {
-            if (buf.remaining() > 0) {
-                writeToDestination(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+            if (buf.remaining() > 0 && buf.hasArray()) {
+                writeToDestinationAndRecord(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+            } else if (buf.remaining() > 0) {
+                singleBuffer[0] = buf;
+                writeToDestinationAndRecord(singleBuffer);
             }
         } finally {
+            singleBuffer[0] = null;
             buf.clear();
         }
     }
@@ -350,6 +478,19 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
           return;
         }
         synchronized (this) {
+          if (data.remaining() > byteBuffer.remaining() && isChannelOutput()) {
+              // write the buffer and the data with a single gathering write
+              ((Buffer) byteBuffer).flip();
+              gatherBuffers[0] = byteBuffer;
+              gatherBuffers[1] = data;
+              try {
+                  writeToDestinationAndRecord(gatherBuffers);
+              } finally {
+                  gatherBuffers[1] = null;
+                  byteBuffer.clear();
+              }
+              return;
+          }
           ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
         }
     }
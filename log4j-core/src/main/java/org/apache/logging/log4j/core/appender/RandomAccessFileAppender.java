@@ -61,6 +61,9 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
         @PluginBuilderAttribute("advertiseURI")
         private String advertiseURI;
 
+        @PluginBuilderAttribute("durable")
+        private boolean durable;
+
         public Builder() {
             this.withBufferSize(RandomAccessFileManager.DEFAULT_BUFFER_SIZE);
         }
@@ -78,9 +81,9 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
                 return null;
             }
             final Layout<? extends Serializable> layout = getOrCreateLayout();
-            final boolean immediateFlush = isImmediateFlush();
+            final boolean immediateFlush = durable || isImmediateFlush();
             final RandomAccessFileManager manager = RandomAccessFileManager.getFileManager(fileName, append,
-                    immediateFlush, getBufferSize(), advertiseURI, layout, null);
+                    immediateFlush, getBufferSize(), advertiseURI, layout, durable, null);
             if (manager == null) {
                 return null;
             }
@@ -109,6 +112,18 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
             return asBuilder();
         }
 
+        /**
+         * Makes every append return only once the event is forced to storage. Implies immediate flush.
+         *
+         * @param durable whether appended events are forced to storage
+         * @return this builder
+         * @since 2.21.0
+         */
+        public B setDurable(final boolean durable) {
+            this.durable = durable;
+            return asBuilder();
+        }
+
     }
 
     private final String fileName;
@@ -43,13 +43,26 @@ public class RandomAccessFileManager extends OutputStreamManager {
 
     private final String advertiseURI;
     private final RandomAccessFile randomAccessFile;
+    private final GroupCommit groupCommit;
 
     protected RandomAccessFileManager(final LoggerContext loggerContext, final RandomAccessFile file, final String fileName,
             final OutputStream os, final int bufferSize, final String advertiseURI,
             final Layout<? extends Serializable> layout, final boolean writeHeader) {
+        this(loggerContext, file, fileName, os, bufferSize, advertiseURI, layout, writeHeader, false);
+    }
+
+    /**
+     * @param durable if {@code true}, every flush forces the file to storage, using group commit for concurrent
+     *            flushes.
+     * @since 2.21.0
+     */
+    protected RandomAccessFileManager(final LoggerContext loggerContext, final RandomAccessFile file, final String fileName,
+            final OutputStream os, final int bufferSize, final String advertiseURI,
+            final Layout<? extends Serializable> layout, final boolean writeHeader, final boolean durable) {
         super(loggerContext, os, fileName, false, layout, writeHeader, ByteBuffer.wrap(new byte[bufferSize]));
         this.randomAccessFile = file;
         this.advertiseURI = advertiseURI;
+        this.groupCommit = durable ? new GroupCommit(this, () -> flushBuffer(byteBuffer), this::sync) : null;
     }
 
     /**
@@ -69,8 +82,32 @@ public class RandomAccessFileManager extends OutputStreamManager {
     public static RandomAccessFileManager getFileManager(final String fileName, final boolean append,
             final boolean immediateFlush, final int bufferSize, final String advertiseURI,
             final Layout<? extends Serializable> layout, final Configuration configuration) {
+        return getFileManager(fileName, append, immediateFlush, bufferSize, advertiseURI, layout, false,
+                configuration);
+    }
+
+    /**
+     * Returns the RandomAccessFileManager.
+     *
+     * @param fileName The name of the file to manage.
+     * @param append true if the file should be appended to, false if it should
+     *            be overwritten.
+     * @param immediateFlush true if the contents should be flushed to disk on every
+     *            write
+     * @param bufferSize The buffer size.
+     * @param advertiseURI the URI to use when advertising the file
+     * @param layout The layout.
+     * @param durable true if every flush should force the file to storage.
+     * @param configuration The configuration.
+     * @return A RandomAccessFileManager for the File.
+     * @since 2.21.0
+     */
+    public static RandomAccessFileManager getFileManager(final String fileName, final boolean append,
+            final boolean immediateFlush, final int bufferSize, final String advertiseURI,
+            final Layout<? extends Serializable> layout, final boolean durable, final Configuration configuration) {
         return narrow(RandomAccessFileManager.class, getManager(fileName,
-                new FactoryData(append, immediateFlush, bufferSize, advertiseURI, layout, configuration), FACTORY));
+                new FactoryData(append, immediateFlush, bufferSize, advertiseURI, layout, durable, configuration),
+                FACTORY));
     }
 
     /**
@@ -103,8 +140,43 @@ public class RandomAccessFileManager extends OutputStreamManager {
     }
 
     @Override
-    public synchronized void flush() {
+    protected void write(final byte[] bytes, final int offset, final int length, final boolean immediateFlush) {
+        if (groupCommit != null && immediateFlush) {
+            // write under the lock, but commit outside of it so that concurrent writers share one force
+            super.write(bytes, offset, length, false);
+            flush();
+        } else {
+            super.write(bytes, offset, length, immediateFlush);
+        }
+    }
+
+    /**
+     * Flushes the buffer. If this manager is {@linkplain #isDurable() durable}, also forces the file to storage before
+     * returning; concurrent callers share a single write and force.
+     */
+    @Override
+    public void flush() {
+        if (groupCommit != null && !Thread.holdsLock(this)) {
+            groupCommit.commit();
+        } else {
+            flushAndSync();
+        }
+    }
+
+    private synchronized void flushAndSync() {
         flushBuffer(byteBuffer);
+        if (groupCommit != null) {
+            try {
+                sync();
+            } catch (final IOException ex) {
+                throw new AppenderLoggingException("Unable to force RandomAccessFile " + getName() + " to storage",
+                        ex);
+            }
+        }
+    }
+
+    private void sync() throws IOException {
+        randomAccessFile.getChannel().force(false);
     }
 
     @Override
@@ -136,6 +208,20 @@ public class RandomAccessFileManager extends OutputStreamManager {
         return byteBuffer.capacity();
     }
 
+    /**
+     * Returns whether every flush forces the file to storage.
+     * @return true if the file is forced to storage on flush.
+     * @since 2.21.0
+     */
+    public boolean isDurable() {
+        return groupCommit != null;
+    }
+
+    // package-protected for testing
+    GroupCommit getGroupCommit() {
+        return groupCommit;
+    }
+
     /**
      * Gets this FileManager's content format specified by:
      * <p>
@@ -161,22 +247,26 @@ public class RandomAccessFileManager extends OutputStreamManager {
         private final int bufferSize;
         private final String advertiseURI;
         private final Layout<? extends Serializable> layout;
+        private final boolean durable;
 
         /**
          * Constructor.
          *
          * @param append Append status.
          * @param bufferSize size of the buffer
+         * @param durable Durability flag.
          * @param configuration The configuration.
          */
         public FactoryData(final boolean append, final boolean immediateFlush, final int bufferSize,
-                final String advertiseURI, final Layout<? extends Serializable> layout, final Configuration configuration) {
+                final String advertiseURI, final Layout<? extends Serializable> layout, final boolean durable,
+                final Configuration configuration) {
             super(configuration);
             this.append = append;
             this.immediateFlush = immediateFlush;
             this.bufferSize = bufferSize;
             this.advertiseURI = advertiseURI;
             this.layout = layout;
+            this.durable = durable;
         }
     }
 
@@ -212,7 +302,7 @@ public class RandomAccessFileManager extends OutputStreamManager {
                     raf.setLength(0);
                 }
                 return new RandomAccessFileManager(data.getLoggerContext(), raf, name,
-                        os, data.bufferSize, data.advertiseURI, data.layout, writeHeader);
+                        os, data.bufferSize, data.advertiseURI, data.layout, writeHeader, data.durable);
             } catch (final Exception ex) {
                 LOGGER.error("RandomAccessFileManager (" + name + ") " + ex, ex);
             }
@@ -301,6 +301,12 @@ public final class RollingFileAppender extends AbstractOutputStreamAppender<Roll
         super.append(event);
     }
 
+    @Override
+    protected void writeBatchedEvent(final LogEvent event) {
+        getManager().checkRollover(event);
+        super.writeBatchedEvent(event);
+    }
+
     /**
      * Returns the File name for the Appender.
      * @return The file name.
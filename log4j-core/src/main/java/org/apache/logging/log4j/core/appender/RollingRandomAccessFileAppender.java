@@ -89,6 +89,9 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
         @PluginBuilderAttribute
         private String fileGroup;
 
+        @PluginBuilderAttribute
+        private boolean concurrentWrites;
+
         @Override
         public RollingRandomAccessFileAppender build() {
             final String name = getName();
@@ -131,7 +134,7 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
             final RollingRandomAccessFileManager manager = RollingRandomAccessFileManager
                     .getRollingRandomAccessFileManager(fileName, filePattern, append, immediateFlush, bufferSize, policy,
                             strategy, advertiseURI, layout,
-                            filePermissions, fileOwner, fileGroup, getConfiguration());
+                            filePermissions, fileOwner, fileGroup, getConfiguration(), concurrentWrites);
             if (manager == null) {
                 return null;
             }
@@ -193,6 +196,19 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
             return asBuilder();
         }
 
+        /**
+         * Lets application threads append to a shared buffer without locking, leaving the rollover checks and the
+         * file writes to a dedicated flusher thread.
+         *
+         * @param concurrentWrites whether to enable concurrent writes
+         * @return this builder
+         * @since 2.21.0
+         */
+        public B setConcurrentWrites(final boolean concurrentWrites) {
+            this.concurrentWrites = concurrentWrites;
+            return asBuilder();
+        }
+
     }
 
     private final String fileName;
@@ -237,12 +253,38 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
     @Override
     public void append(final LogEvent event) {
         final RollingRandomAccessFileManager manager = getManager();
+        if (manager.isConcurrentWrites()) {
+            // rollover is checked by the manager's flusher thread
+            try {
+                manager.writeConcurrently(getLayout(), event, getImmediateFlush());
+            } catch (final AppenderLoggingException ex) {
+                error("Unable to write to stream " + manager.getName() + " for appender " + getName(), event, ex);
+                throw ex;
+            }
+            return;
+        }
         manager.checkRollover(event);
 
         // LOG4J2-1292 utilize gc-free Layout.encode() method: taken care of in superclass
         super.append(event);
     }
 
+    @Override
+    public void append(final LogEvent[] events, final int count) {
+        if (getManager().isConcurrentWrites()) {
+            // concurrent writes do not take the lock of the manager
+            appendEach(events, count);
+        } else {
+            super.append(events, count);
+        }
+    }
+
+    @Override
+    protected void writeBatchedEvent(final LogEvent event) {
+        getManager().checkRollover(event);
+        super.writeBatchedEvent(event);
+    }
+
     /**
      * Returns the File name for the Appender.
      *
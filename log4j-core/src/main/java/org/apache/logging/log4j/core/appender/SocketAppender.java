@@ -512,4 +512,10 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
         // problem with UDP: 8K buffer size means that largish messages get broken up into chunks
         writeByteArrayToManager(event); // revert to classic (non-garbage free) logging
     }
+
+    @Override
+    protected void writeBatchedEvent(final LogEvent event) {
+        // UDP sends what was written since the last flush as one datagram, so keep flushing like single events do
+        writeByteArrayToManager(event);
+    }
 }
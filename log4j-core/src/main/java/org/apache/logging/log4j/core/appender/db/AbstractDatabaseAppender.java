@@ -23,6 +23,7 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.logging.log4j.LoggingException;
+import org.apache.logging.log4j.core.BatchAppender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
@@ -38,7 +39,8 @@ import org.apache.logging.log4j.core.config.Property;
  *
  * @param <T> Specifies which type of {@link AbstractDatabaseManager} this Appender requires.
  */
-public abstract class AbstractDatabaseAppender<T extends AbstractDatabaseManager> extends AbstractAppender {
+public abstract class AbstractDatabaseAppender<T extends AbstractDatabaseManager> extends AbstractAppender
+        implements BatchAppender {
 
     public static class Builder<B extends Builder<B>> extends AbstractAppender.Builder<B> {
         // empty for now.
@@ -121,6 +123,35 @@ public abstract class AbstractDatabaseAppender<T extends AbstractDatabaseManager
         }
     }
 
+    /**
+     * Writes the events through the manager at once: without buffering, they share one connection and commit.
+     *
+     * @param events The LogEvents.
+     * @param count The number of events to append.
+     * @since 2.21.0
+     */
+    @Override
+    public final void append(final LogEvent[] events, final int count) {
+        final Serializable[] serializables = new Serializable[count];
+        for (int i = 0; i < count; i++) {
+            serializables[i] = toSerializable(events[i]);
+        }
+        this.readLock.lock();
+        try {
+            this.getManager().write(events, serializables, count);
+        } catch (final LoggingException e) {
+            LOGGER.error("Unable to write to database [{}] for appender [{}].", this.getManager().getName(),
+                    this.getName(), e);
+            throw e;
+        } catch (final Exception e) {
+            LOGGER.error("Unable to write to database [{}] for appender [{}].", this.getManager().getName(),
+                    this.getName(), e);
+            throw new AppenderLoggingException("Unable to write to database in appender: " + e.getMessage(), e);
+        } finally {
+            this.readLock.unlock();
+        }
+    }
+
     /**
      * This always returns {@code null}, as database appenders do not use a single layout. The JPA and NoSQL appenders
      * do not use a layout at all. The JDBC appender has a layout-per-column pattern.
@@ -211,7 +211,7 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
 
     @Override
     public final boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
-        return this.shutdown();
+        return this.shutdown(timeout, timeUnit);
     }
 
     /**
@@ -221,11 +221,15 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
      * @return true if all resources were closed normally, false otherwise.
      */
     public final synchronized boolean shutdown() {
+        return this.shutdown(0, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized boolean shutdown(final long timeout, final TimeUnit timeUnit) {
         boolean closed = true;
         this.flush();
         if (this.isRunning()) {
             try {
-                closed &= this.shutdownInternal();
+                closed &= this.shutdownInternal(timeout, timeUnit);
             } catch (final Exception e) {
                 logWarn("Caught exception while performing database shutdown operations", e);
                 closed = false;
@@ -245,6 +249,19 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
      */
     protected abstract boolean shutdownInternal() throws Exception;
 
+    /**
+     * Performs the shutdown operations like {@link #shutdownInternal()}, waiting at most the given time for background
+     * work to finish. The default implementation calls {@link #shutdownInternal()}.
+     *
+     * @param timeout the maximum time to wait, or 0 to wait until done.
+     * @param timeUnit the unit of {@code timeout}.
+     * @return true if all resources were closed normally, false otherwise.
+     * @since 2.21.0
+     */
+    protected boolean shutdownInternal(final long timeout, final TimeUnit timeUnit) throws Exception {
+        return shutdownInternal();
+    }
+
     /**
      * This method is called within the appender when the appender is started. If it has not already been called, it
      * calls {@link #startupInternal()} and catches any exceptions it might throw.
@@ -298,6 +315,27 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
         }
     }
 
+    /**
+     * Writes several events. If buffering is on, the events are buffered like {@link #write(LogEvent, Serializable)}
+     * does; otherwise they are written with {@link #writeThrough(LogEvent[], Serializable[], int)}, in a single unit
+     * of work.
+     *
+     * @param events The events to write to the database.
+     * @param serializables The serializable forms of the events, matching {@code events} by index.
+     * @param count The number of events to write.
+     * @since 2.21.0
+     */
+    public final synchronized void write(final LogEvent[] events, final Serializable[] serializables,
+            final int count) {
+        if (isBuffered()) {
+            for (int i = 0; i < count; i++) {
+                buffer(events[i]);
+            }
+        } else {
+            writeThrough(events, serializables, count);
+        }
+    }
+
     /**
      * Performs the actual writing of the event in an implementation-specific way. This method is called immediately
      * from {@link #write(LogEvent, Serializable)} if buffering is off, or from {@link #flush()} if the buffer has reached its limit.
@@ -318,6 +356,25 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
      */
     protected abstract void writeInternal(LogEvent event, Serializable serializable);
 
+    /**
+     * Writes several events using a single connection and commit.
+     *
+     * @param events The events to write to the database.
+     * @param serializables The serializable forms of the events, matching {@code events} by index.
+     * @param count The number of events to write.
+     * @since 2.21.0
+     */
+    protected void writeThrough(final LogEvent[] events, final Serializable[] serializables, final int count) {
+        this.connectAndStart();
+        try {
+            for (int i = 0; i < count; i++) {
+                this.writeInternal(events[i], serializables[i]);
+            }
+        } finally {
+            this.commitAndClose();
+        }
+    }
+
     protected void writeThrough(final LogEvent event, final Serializable serializable) {
         this.connectAndStart();
         try {
@@ -83,6 +83,12 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
         @PluginBuilderAttribute
         private long reconnectIntervalMillis = DEFAULT_RECONNECT_INTERVAL_MILLIS;
 
+        @PluginBuilderAttribute
+        private int asyncQueueSize;
+
+        @PluginBuilderAttribute
+        private long flushIntervalMillis;
+
         @Override
         public JdbcAppender build() {
             if (Assert.isEmpty(columnConfigs) && Assert.isEmpty(columnMappings)) {
@@ -91,10 +97,11 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
             }
             final String managerName = "JdbcManager{name=" + getName() + ", bufferSize=" + bufferSize + ", tableName="
                     + tableName + ", columnConfigs=" + Arrays.toString(columnConfigs) + ", columnMappings="
-                    + Arrays.toString(columnMappings) + '}';
+                    + Arrays.toString(columnMappings) + ", asyncQueueSize=" + asyncQueueSize + ", flushIntervalMillis="
+                    + flushIntervalMillis + '}';
             final JdbcDatabaseManager manager = JdbcDatabaseManager.getManager(managerName, bufferSize, getLayout(),
                     connectionSource, tableName, columnConfigs, columnMappings, immediateFail, reconnectIntervalMillis,
-                    truncateStrings);
+                    truncateStrings, asyncQueueSize, flushIntervalMillis);
             if (manager == null) {
                 return null;
             }
@@ -106,6 +113,42 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
             return reconnectIntervalMillis;
         }
 
+        public int getAsyncQueueSize() {
+            return asyncQueueSize;
+        }
+
+        public long getFlushIntervalMillis() {
+            return flushIntervalMillis;
+        }
+
+        /**
+         * If an integer greater than 0, log events are queued and written by a background thread in batches of up to
+         * {@code bufferSize} rows, so that logging threads do not wait on the database.
+         *
+         * @param asyncQueueSize the capacity of the queue.
+         *
+         * @return this
+         * @since 2.21.0
+         */
+        public B setAsyncQueueSize(final int asyncQueueSize) {
+            this.asyncQueueSize = asyncQueueSize;
+            return asBuilder();
+        }
+
+        /**
+         * The maximum time in milliseconds a queued event waits before its batch is committed, when
+         * {@code asyncQueueSize} is set.
+         *
+         * @param flushIntervalMillis the flush interval.
+         *
+         * @return this
+         * @since 2.21.0
+         */
+        public B setFlushIntervalMillis(final long flushIntervalMillis) {
+            this.flushIntervalMillis = flushIntervalMillis;
+            return asBuilder();
+        }
+
         public boolean isImmediateFail() {
             return immediateFail;
         }
@@ -29,6 +29,7 @@ import java.sql.SQLTransactionRollbackException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
@@ -37,6 +38,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
@@ -47,6 +51,9 @@ import org.apache.logging.log4j.core.appender.db.AbstractDatabaseAppender;
 import org.apache.logging.log4j.core.appender.db.AbstractDatabaseManager;
 import org.apache.logging.log4j.core.appender.db.ColumnMapping;
 import org.apache.logging.log4j.core.appender.db.DbAppenderLoggingException;
+import org.apache.logging.log4j.core.async.AsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.AsyncQueueFullPolicyFactory;
+import org.apache.logging.log4j.core.async.EventRoute;
 import org.apache.logging.log4j.core.config.plugins.convert.DateTypeConverter;
 import org.apache.logging.log4j.core.config.plugins.convert.TypeConverters;
 import org.apache.logging.log4j.core.util.Closer;
@@ -75,11 +82,21 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         private final boolean retry;
         private final long reconnectIntervalMillis;
         private final boolean truncateStrings;
+        private final int asyncQueueSize;
+        private final long flushIntervalMillis;
 
         protected FactoryData(final int bufferSize, final Layout<? extends Serializable> layout,
                 final ConnectionSource connectionSource, final String tableName, final ColumnConfig[] columnConfigs,
                 final ColumnMapping[] columnMappings, final boolean immediateFail, final long reconnectIntervalMillis,
                 final boolean truncateStrings) {
+            this(bufferSize, layout, connectionSource, tableName, columnConfigs, columnMappings, immediateFail,
+                    reconnectIntervalMillis, truncateStrings, 0, 0);
+        }
+
+        protected FactoryData(final int bufferSize, final Layout<? extends Serializable> layout,
+                final ConnectionSource connectionSource, final String tableName, final ColumnConfig[] columnConfigs,
+                final ColumnMapping[] columnMappings, final boolean immediateFail, final long reconnectIntervalMillis,
+                final boolean truncateStrings, final int asyncQueueSize, final long flushIntervalMillis) {
             super(bufferSize, layout);
             this.connectionSource = connectionSource;
             this.tableName = tableName;
@@ -89,14 +106,17 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
             this.retry = reconnectIntervalMillis > 0;
             this.reconnectIntervalMillis = reconnectIntervalMillis;
             this.truncateStrings = truncateStrings;
+            this.asyncQueueSize = asyncQueueSize;
+            this.flushIntervalMillis = flushIntervalMillis;
         }
 
         @Override
         public String toString() {
             return String.format(
-                    "FactoryData [connectionSource=%s, tableName=%s, columnConfigs=%s, columnMappings=%s, immediateFail=%s, retry=%s, reconnectIntervalMillis=%s, truncateStrings=%s]",
+                    "FactoryData [connectionSource=%s, tableName=%s, columnConfigs=%s, columnMappings=%s, immediateFail=%s, retry=%s, reconnectIntervalMillis=%s, truncateStrings=%s, asyncQueueSize=%s, flushIntervalMillis=%s]",
                     connectionSource, tableName, Arrays.toString(columnConfigs), Arrays.toString(columnMappings),
-                    immediateFail, retry, reconnectIntervalMillis, truncateStrings);
+                    immediateFail, retry, reconnectIntervalMillis, truncateStrings, asyncQueueSize,
+                    flushIntervalMillis);
         }
     }
 
@@ -210,6 +230,297 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
 
     }
 
+    /**
+     * Drains queued events into multi-row batches on a background thread, so that application threads do not wait on
+     * the database. The connection and prepared statement are kept open and reused across batches.
+     */
+    private final class AsyncWriter extends Log4jThread {
+
+        private static final long MIN_BACKOFF_MILLIS = 100;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition notFull = lock.newCondition();
+        private final Condition written = lock.newCondition();
+        private final ArrayDeque<LogEvent> queue;
+        private final List<LogEvent> batch;
+        private final int capacity;
+        private final int batchSize;
+        private final long flushIntervalNanos;
+
+        // guarded by lock
+        private long enqueuedCount;
+        private long writtenCount;
+        private long flushTarget;
+        private long firstEventNanos;
+        private boolean failing;
+        private boolean stopping;
+
+        private AsyncWriter(final int capacity, final int batchSize, final long flushIntervalMillis) {
+            super("JdbcDatabaseManager-AsyncWriter");
+            this.capacity = capacity;
+            this.batchSize = batchSize;
+            this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+            this.queue = new ArrayDeque<>(capacity);
+            this.batch = new ArrayList<>(batchSize);
+            setDaemon(true);
+        }
+
+        /**
+         * Queues an event. If the queue is full, the policy decides whether to drop the event or to wait for room.
+         * The caller holds the lock of the manager, which {@link #shutdown(long, TimeUnit)} needs, so it waits for at
+         * most one flush interval, in which the writer takes a batch unless the database is unavailable.
+         */
+        void enqueue(final LogEvent event, final AsyncQueueFullPolicy queueFullPolicy) {
+            lock.lock();
+            try {
+                if (queue.size() >= capacity && !stopping) {
+                    if (Thread.currentThread() == this) {
+                        // logging from the writer itself, which would wait for itself
+                        logger().warn("Dropping an event logged by the writer of JDBC manager '{}'; the queue is full.",
+                                JdbcDatabaseManager.this.getName());
+                        return;
+                    }
+                    // events are only written by the writer, so a synchronous route also waits for room
+                    if (queueFullPolicy.getRoute(getId(), event.getLevel()) == EventRoute.DISCARD) {
+                        return;
+                    }
+                    long remainingNanos = flushIntervalNanos;
+                    while (queue.size() >= capacity && !stopping) {
+                        if (remainingNanos <= 0) {
+                            throw new AppenderLoggingException(
+                                    "Cannot write logging event; the queue of JDBC manager '%s' is full.",
+                                    JdbcDatabaseManager.this.getName());
+                        }
+                        try {
+                            remainingNanos = notFull.awaitNanos(remainingNanos);
+                        } catch (final InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new AppenderLoggingException(e);
+                        }
+                    }
+                }
+                if (stopping) {
+                    throw new AppenderLoggingException("Cannot write logging event; JDBC manager '%s' is stopped.",
+                            JdbcDatabaseManager.this.getName());
+                }
+                queue.add(event);
+                enqueuedCount++;
+                if (queue.size() == 1) {
+                    firstEventNanos = System.nanoTime();
+                    notEmpty.signal();
+                } else if (queue.size() == batchSize) {
+                    notEmpty.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits until all the events queued so far are committed, unless the database is currently unavailable.
+         */
+        void awaitWritten() {
+            lock.lock();
+            try {
+                flushTarget = enqueuedCount;
+                notEmpty.signal();
+                while (writtenCount < flushTarget && !failing && isAlive()) {
+                    written.awaitUninterruptibly();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Stops the writer, waiting at most the given time for the queued events to be written.
+         *
+         * @return {@code true} if the writer stopped in time
+         */
+        boolean shutdown(final long timeout, final TimeUnit timeUnit) {
+            lock.lock();
+            try {
+                stopping = true;
+                notEmpty.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                join(Math.max(timeUnit.toMillis(timeout), 0));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return !isAlive();
+        }
+
+        @Override
+        public void run() {
+            while (takeBatch()) {
+                writeWithRetries();
+                lock.lock();
+                try {
+                    writtenCount += batch.size();
+                    written.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                batch.clear();
+            }
+        }
+
+        /**
+         * Waits until a batch is full, the oldest event has waited for the flush interval, or a flush is requested,
+         * then moves up to one batch worth of events out of the queue.
+         *
+         * @return {@code false} if the writer is stopping and no event is left
+         */
+        private boolean takeBatch() {
+            lock.lock();
+            try {
+                while (!stopping) {
+                    if (queue.isEmpty()) {
+                        notEmpty.awaitUninterruptibly();
+                        continue;
+                    }
+                    if (queue.size() >= batchSize || writtenCount < flushTarget) {
+                        break;
+                    }
+                    final long remaining = firstEventNanos + flushIntervalNanos - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    try {
+                        notEmpty.awaitNanos(remaining);
+                    } catch (final InterruptedException e) {
+                        // keep going: the writer is only stopped through shutdown()
+                    }
+                }
+                if (queue.isEmpty()) {
+                    return false;
+                }
+                for (int i = 0; i < batchSize && !queue.isEmpty(); i++) {
+                    batch.add(queue.poll());
+                }
+                firstEventNanos = System.nanoTime();
+                notFull.signalAll();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Writes the current batch. Connection failures are retried with an exponential backoff until the writer
+         * stops; a batch that cannot be written on a fresh connection is dropped.
+         */
+        private void writeWithRetries() {
+            long backoffMillis = Math.min(MIN_BACKOFF_MILLIS, Math.max(factoryData.reconnectIntervalMillis, 1));
+            boolean freshConnection = false;
+            while (true) {
+                try {
+                    if (isClosed(connection) || isClosed(statement)) {
+                        closeResources(false);
+                        connectAndPrepare();
+                        freshConnection = true;
+                    }
+                } catch (final SQLException | RuntimeException e) {
+                    closeResources(false);
+                    if (!factoryData.retry || isStopping()) {
+                        logError("Dropping " + batch.size() + " logging events; cannot connect to the database", e);
+                        return;
+                    }
+                    logger().debug("Cannot connect to the database, retrying in {} ms: {}", backoffMillis, e.toString());
+                    backOff(backoffMillis);
+                    backoffMillis = Math.min(backoffMillis * 2,
+                            Math.max(factoryData.reconnectIntervalMillis, MIN_BACKOFF_MILLIS));
+                    continue;
+                }
+                try {
+                    writeBatch();
+                    setFailing(false);
+                    return;
+                } catch (final SQLException | RuntimeException e) {
+                    rollbackQuietly();
+                    closeResources(false);
+                    if (freshConnection) {
+                        setFailing(false);
+                        logError("Dropping " + batch.size() + " logging events that could not be written", e);
+                        return;
+                    }
+                    // the connection may have gone stale, retry on a new one
+                    logger().debug("Cannot write batch, reconnecting: {}", e.toString());
+                }
+            }
+        }
+
+        private void writeBatch() throws SQLException {
+            final Layout<? extends Serializable> layout = factoryData.getLayout();
+            for (final LogEvent event : batch) {
+                writeInternal(event, layout != null ? layout.toSerializable(event) : null);
+            }
+            if (isBatchSupported) {
+                logger().debug("Executing batch PreparedStatement {}", statement);
+                final int[] result = statement.executeBatch();
+                logger().debug("Batch result: {}", Arrays.toString(result));
+            }
+            connection.commit();
+        }
+
+        private void rollbackQuietly() {
+            try {
+                if (!isClosed(connection)) {
+                    connection.rollback();
+                }
+            } catch (final SQLException e) {
+                // the connection is discarded anyway
+            }
+        }
+
+        private boolean isStopping() {
+            lock.lock();
+            try {
+                return stopping;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void setFailing(final boolean value) {
+            lock.lock();
+            try {
+                if (failing != value) {
+                    failing = value;
+                    written.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void backOff(final long millis) {
+            lock.lock();
+            try {
+                failing = true;
+                written.signalAll();
+                if (!stopping) {
+                    notEmpty.awaitNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+                }
+            } catch (final InterruptedException e) {
+                // retry now
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("AsyncWriter [capacity=%s, batchSize=%s, flushIntervalNanos=%s]", capacity,
+                    batchSize, flushIntervalNanos);
+        }
+    }
+
     private static final class ResultSetColumnMetaData {
 
         private final String schemaName;
@@ -335,6 +646,10 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
 
     private static final JdbcDatabaseManagerFactory INSTANCE = new JdbcDatabaseManagerFactory();
 
+    private static final int DEFAULT_ASYNC_BATCH_SIZE = 100;
+
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
     private static void appendColumnName(final int i, final String columnName, final StringBuilder sb) {
         if (i > 1) {
             sb.append(',');
@@ -456,7 +771,10 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
      * @param reconnectIntervalMillis How often to reconnect to the database when a SQL exception is detected.
      * @param truncateStrings Whether or not to truncate strings to match column metadata.
      * @return a new or existing JDBC manager as applicable.
+     * @deprecated use
+     * {@link #getManager(String, int, Layout, ConnectionSource, String, ColumnConfig[], ColumnMapping[], boolean, long, boolean, int, long)}
      */
+    @Deprecated
     public static JdbcDatabaseManager getManager(final String name, final int bufferSize,
             final Layout<? extends Serializable> layout, final ConnectionSource connectionSource,
             final String tableName, final ColumnConfig[] columnConfigs, final ColumnMapping[] columnMappings,
@@ -465,6 +783,36 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
                 columnMappings, immediateFail, reconnectIntervalMillis, truncateStrings), getFactory());
     }
 
+    /**
+     * Creates a JDBC manager for use within the {@link JdbcAppender}, or returns a suitable one if it already exists.
+     *
+     * @param name The name of the manager, which should include connection details and hashed passwords where possible.
+     * @param bufferSize The size of the log event buffer, or the maximum number of rows per batch when
+     * {@code asyncQueueSize} is positive.
+     * @param layout The Appender-level layout
+     * @param connectionSource The source for connections to the database.
+     * @param tableName The name of the database table to insert log events into.
+     * @param columnConfigs Configuration information about the log table columns.
+     * @param columnMappings column mapping configuration (including type conversion).
+     * @param immediateFail Whether or not to fail immediately with a {@link AppenderLoggingException} when connecting
+     * to JDBC fails.
+     * @param reconnectIntervalMillis How often to reconnect to the database when a SQL exception is detected.
+     * @param truncateStrings Whether or not to truncate strings to match column metadata.
+     * @param asyncQueueSize If positive, the capacity of the queue drained by a background writer thread.
+     * @param flushIntervalMillis The maximum time an event waits in the queue before its batch is committed.
+     * @return a new or existing JDBC manager as applicable.
+     * @since 2.21.0
+     */
+    public static JdbcDatabaseManager getManager(final String name, final int bufferSize,
+            final Layout<? extends Serializable> layout, final ConnectionSource connectionSource,
+            final String tableName, final ColumnConfig[] columnConfigs, final ColumnMapping[] columnMappings,
+            final boolean immediateFail, final long reconnectIntervalMillis, final boolean truncateStrings,
+            final int asyncQueueSize, final long flushIntervalMillis) {
+        return getManager(name, new FactoryData(bufferSize, layout, connectionSource, tableName, columnConfigs,
+                columnMappings, immediateFail, reconnectIntervalMillis, truncateStrings, asyncQueueSize,
+                flushIntervalMillis), getFactory());
+    }
+
     // NOTE: prepared statements are prepared in this order: column mappings, then column configs
     private final List<ColumnConfig> columnConfigs;
     private final String sqlStatement;
@@ -473,7 +821,11 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
     private volatile PreparedStatement statement;
     private volatile Reconnector reconnector;
     private volatile boolean isBatchSupported;
+    // guarded by the lock of the manager
+    private boolean writingBatch;
     private volatile Map<String, ResultSetColumnMetaData> columnMetaData;
+    private final AsyncWriter asyncWriter;
+    private final AsyncQueueFullPolicy asyncQueueFullPolicy;
 
     private JdbcDatabaseManager(final String name, final String sqlStatement, final List<ColumnConfig> columnConfigs,
             final FactoryData factoryData) {
@@ -481,6 +833,41 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         this.sqlStatement = sqlStatement;
         this.columnConfigs = columnConfigs;
         this.factoryData = factoryData;
+        this.asyncWriter = factoryData.asyncQueueSize > 0
+                ? new AsyncWriter(factoryData.asyncQueueSize,
+                        factoryData.getBufferSize() > 0 ? factoryData.getBufferSize() : DEFAULT_ASYNC_BATCH_SIZE,
+                        factoryData.flushIntervalMillis > 0 ? factoryData.flushIntervalMillis
+                                : DEFAULT_FLUSH_INTERVAL_MILLIS)
+                : null;
+        this.asyncQueueFullPolicy = asyncWriter != null ? AsyncQueueFullPolicyFactory.create() : null;
+    }
+
+    @Override
+    protected void buffer(final LogEvent event) {
+        if (asyncWriter == null) {
+            super.buffer(event);
+            return;
+        }
+        // Started on first use: write() holds the manager's lock, so startup() has completed by now.
+        if (asyncWriter.getState() == Thread.State.NEW) {
+            asyncWriter.start();
+        }
+        asyncWriter.enqueue(event.toImmutable(), asyncQueueFullPolicy);
+    }
+
+    @Override
+    protected boolean isBuffered() {
+        return asyncWriter != null || super.isBuffered();
+    }
+
+    /**
+     * Tests whether events are written to the database by a background thread.
+     *
+     * @return {@code true} if a background writer is used
+     * @since 2.21.0
+     */
+    public boolean isAsync() {
+        return asyncWriter != null;
     }
 
     private void checkConnection() {
@@ -542,10 +929,14 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
 
     @Override
     protected boolean commitAndClose() {
+        if (asyncWriter != null) {
+            // the background writer commits its own batches
+            return true;
+        }
         final boolean closed = true;
         try {
             if (this.connection != null && !this.connection.isClosed()) {
-                if (isBuffered() && this.isBatchSupported && this.statement != null) {
+                if (isBatching() && this.statement != null) {
                     logger().debug("Executing batch PreparedStatement {}", this.statement);
                     int[] result;
                     try {
@@ -607,6 +998,11 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
 
     @Override
     protected void connectAndStart() {
+        if (asyncWriter != null) {
+            // flushing only waits for the background writer
+            asyncWriter.awaitWritten();
+            return;
+        }
         checkConnection();
         synchronized (this) {
             try {
@@ -762,6 +1158,23 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         }
     }
 
+    @Override
+    protected boolean shutdownInternal(final long timeout, final TimeUnit timeUnit) {
+        if (asyncWriter == null) {
+            return shutdownInternal();
+        }
+        final boolean stopped = asyncWriter.shutdown(timeout, timeUnit);
+        if (!stopped) {
+            logger().warn("The writer of JDBC manager '{}' did not stop in time; queued logging events may be lost.",
+                    getName());
+        }
+        closeResources(true);
+        if (factoryData.connectionSource != null) {
+            factoryData.connectionSource.stop();
+        }
+        return stopped;
+    }
+
     @Override
     protected boolean shutdownInternal() {
         if (reconnector != null) {
@@ -855,7 +1268,7 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
                 }
             }
 
-            if (isBuffered() && this.isBatchSupported) {
+            if (isBatching()) {
                 logger().debug("addBatch for {}", this.statement);
                 this.statement.addBatch();
             } else {
@@ -883,6 +1296,39 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         }
     }
 
+    private boolean isBatching() {
+        return (isBuffered() || writingBatch) && this.isBatchSupported;
+    }
+
+    /**
+     * Writes the events as one JDBC batch, if the driver supports batch updates, and commits them at once.
+     */
+    @Override
+    protected void writeThrough(final LogEvent[] events, final Serializable[] serializables, final int count) {
+        this.connectAndStart();
+        writingBatch = true;
+        try {
+            try {
+                writeBatchInternal(events, serializables, count);
+            } catch (final DbAppenderLoggingException e) {
+                reconnectOn(e);
+                writeBatchInternal(events, serializables, count);
+            }
+        } finally {
+            writingBatch = false;
+        }
+    }
+
+    private void writeBatchInternal(final LogEvent[] events, final Serializable[] serializables, final int count) {
+        try {
+            for (int i = 0; i < count; i++) {
+                this.writeInternal(events[i], serializables[i]);
+            }
+        } finally {
+            this.commitAndClose();
+        }
+    }
+
     @Override
     protected void writeThrough(final LogEvent event, final Serializable serializable) {
         this.connectAndStart();
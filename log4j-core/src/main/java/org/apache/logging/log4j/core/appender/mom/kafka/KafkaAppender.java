@@ -21,10 +21,12 @@ import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import org.apache.logging.log4j.core.AbstractLifeCycle;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.BatchAppender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
@@ -42,7 +44,7 @@ import org.apache.logging.log4j.core.util.Integers;
  * Sends log events to an Apache Kafka topic.
  */
 @Plugin(name = "Kafka", category = Node.CATEGORY, elementType = Appender.ELEMENT_TYPE, printObject = true)
-public final class KafkaAppender extends AbstractAppender {
+public final class KafkaAppender extends AbstractAppender implements BatchAppender {
 
     /**
      * Builds KafkaAppender instances.
@@ -68,6 +70,9 @@ public final class KafkaAppender extends AbstractAppender {
         @PluginAttribute(value = "sendEventTimestamp", defaultBoolean = false)
         private boolean sendEventTimestamp;
 
+        @PluginAttribute("maxInFlightSends")
+        private int maxInFlightSends;
+
         @SuppressWarnings("resource")
         @Override
         public KafkaAppender build() {
@@ -77,7 +82,7 @@ public final class KafkaAppender extends AbstractAppender {
                 return null;
             }
             final KafkaManager kafkaManager = KafkaManager.getManager(getConfiguration().getLoggerContext(), getName(),
-                    topic, syncSend, sendEventTimestamp, getPropertyArray(), key);
+                    topic, syncSend, sendEventTimestamp, maxInFlightSends, getPropertyArray(), key);
             return new KafkaAppender(getName(), layout, getFilter(), isIgnoreExceptions(), kafkaManager,
                     getPropertyArray(), getRetryCount());
         }
@@ -96,6 +101,10 @@ public final class KafkaAppender extends AbstractAppender {
             return topic;
         }
 
+        public int getMaxInFlightSends() {
+            return maxInFlightSends;
+        }
+
         public boolean isSendEventTimestamp() {
             return sendEventTimestamp;
         }
@@ -120,6 +129,20 @@ public final class KafkaAppender extends AbstractAppender {
             return asBuilder();
         }
 
+        /**
+         * Bounds the number of records sent without waiting for their acknowledgement. When positive, sends return
+         * once the record is handed over to the producer, wait only if that many sends are already in flight, and
+         * report failures to the error handler of the appender. The {@code syncSend} attribute is then ignored.
+         *
+         * @param maxInFlightSends the maximum number of in-flight sends, or 0 to disable this mode.
+         * @return this builder.
+         * @since 2.21.0
+         */
+        public B setMaxInFlightSends(final int maxInFlightSends) {
+            this.maxInFlightSends = maxInFlightSends;
+            return asBuilder();
+        }
+
         public B setSendEventTimestamp(boolean sendEventTimestamp) {
             this.sendEventTimestamp = sendEventTimestamp;
             return asBuilder();
@@ -178,6 +201,9 @@ public final class KafkaAppender extends AbstractAppender {
 
     private final KafkaManager manager;
 
+    private final Consumer<Exception> sendFailureHandler =
+            e -> error("Unable to write to Kafka in appender [" + getName() + "]", e);
+
     private KafkaAppender(final String name, final Layout<? extends Serializable> layout, final Filter filter,
             final boolean ignoreExceptions, final KafkaManager manager, final Property[] properties,
             final int retryCount) {
@@ -212,6 +238,69 @@ public final class KafkaAppender extends AbstractAppender {
         }
     }
 
+    /**
+     * Sends the events with a single call to the manager; synchronous sends then wait for one round-trip per batch.
+     * Only the events that failed are retried, and each event that still fails is reported.
+     *
+     * @param events The LogEvents.
+     * @param count The number of events to append.
+     * @since 2.21.0
+     */
+    @Override
+    public void append(final LogEvent[] events, final int count) {
+        final LogEvent[] sent = new LogEvent[count];
+        final byte[][] data = new byte[count][];
+        final long[] timestamps = new long[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            final LogEvent event = events[i];
+            if (event.getLoggerName() != null && isRecursive(event)) {
+                LOGGER.warn("Recursive logging from [{}] for appender [{}].", event.getLoggerName(), getName());
+            } else {
+                sent[size] = event;
+                data[size] = serialize(event);
+                timestamps[size++] = event.getTimeMillis();
+            }
+        }
+        if (size == 0) {
+            return;
+        }
+        final Exception[] failures = new Exception[size];
+        int failed = manager.send(data, timestamps, size, sendFailureHandler, failures);
+        int currentRetryAttempt = 0;
+        while (failed > 0 && this.retryCount != null && currentRetryAttempt < this.retryCount) {
+            currentRetryAttempt++;
+            size = retainFailed(sent, data, timestamps, failures, size);
+            failed = manager.send(data, timestamps, size, sendFailureHandler, failures);
+        }
+        if (failed > 0) {
+            for (int i = 0; i < size; i++) {
+                if (failures[i] != null) {
+                    error("Unable to write to Kafka in appender [" + getName() + "]", sent[i], failures[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the events that failed, with their data, to the front of the arrays.
+     *
+     * @return the number of events that failed.
+     */
+    private static int retainFailed(final LogEvent[] sent, final byte[][] data, final long[] timestamps,
+            final Exception[] failures, final int size) {
+        int retained = 0;
+        for (int i = 0; i < size; i++) {
+            if (failures[i] != null) {
+                sent[retained] = sent[i];
+                data[retained] = data[i];
+                timestamps[retained] = timestamps[i];
+                failures[retained++] = failures[i];
+            }
+        }
+        return retained;
+    }
+
     @Override
     public void start() {
         super.start();
@@ -233,6 +322,10 @@ public final class KafkaAppender extends AbstractAppender {
     }
 
     private void tryAppend(final LogEvent event) throws ExecutionException, InterruptedException, TimeoutException {
+        manager.send(serialize(event), event.getTimeMillis(), sendFailureHandler);
+    }
+
+    private byte[] serialize(final LogEvent event) {
         final Layout<? extends Serializable> layout = getLayout();
         byte[] data;
         if (layout instanceof SerializedLayout) {
@@ -244,6 +337,6 @@ public final class KafkaAppender extends AbstractAppender {
         } else {
             data = layout.toByteArray(event);
         }
-        manager.send(data, event.getTimeMillis());
+        return data;
     }
 }
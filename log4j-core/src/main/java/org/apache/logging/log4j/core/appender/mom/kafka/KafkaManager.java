@@ -17,12 +17,16 @@
 package org.apache.logging.log4j.core.appender.mom.kafka;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -53,6 +57,8 @@ public class KafkaManager extends AbstractManager {
     private final String key;
     private final boolean syncSend;
     private final boolean sendTimestamp;
+    private final int maxInFlightSends;
+    private final Semaphore inFlightSends;
 
     private static final KafkaManagerFactory factory = new KafkaManagerFactory();
 
@@ -62,15 +68,17 @@ public class KafkaManager extends AbstractManager {
      */
     public KafkaManager(final LoggerContext loggerContext, final String name, final String topic,
             final boolean syncSend, final Property[] properties, final String key) {
-        this(loggerContext, name, topic, syncSend, false, properties, key);
+        this(loggerContext, name, topic, syncSend, false, 0, properties, key);
     }
 
     private KafkaManager(final LoggerContext loggerContext, final String name, final String topic, final boolean syncSend,
-            final boolean sendTimestamp, final Property[] properties, final String key) {
+            final boolean sendTimestamp, final int maxInFlightSends, final Property[] properties, final String key) {
         super(loggerContext, name);
         this.topic = Objects.requireNonNull(topic, "topic");
         this.syncSend = syncSend;
         this.sendTimestamp = sendTimestamp;
+        this.maxInFlightSends = Math.max(maxInFlightSends, 0);
+        this.inFlightSends = maxInFlightSends > 0 ? new Semaphore(maxInFlightSends) : null;
 
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
@@ -105,6 +113,10 @@ public class KafkaManager extends AbstractManager {
             // https://issues.apache.org/jira/browse/KAFKA-1660
             final Thread closeThread = new Log4jThread(() -> {
                 if (producer != null) {
+                    if (inFlightSends != null) {
+                        // completes the in-flight sends, reporting their failures
+                        producer.flush();
+                    }
                     producer.close();
                 }
             }, "KafkaManager-CloseThread");
@@ -125,20 +137,32 @@ public class KafkaManager extends AbstractManager {
     }
 
     public void send(final byte[] msg, final Long eventTimestamp) throws ExecutionException, InterruptedException, TimeoutException {
-        if (producer != null) {
-            byte[] newKey = null;
-
-            if (key != null && key.contains("${")) {
-                newKey = getLoggerContext().getConfiguration().getStrSubstitutor().replace(key)
-                        .getBytes(StandardCharsets.UTF_8);
-            } else if (key != null) {
-                newKey = key.getBytes(StandardCharsets.UTF_8);
-            }
-
-            final Long timestamp = sendTimestamp ? eventTimestamp : null;
+        send(msg, eventTimestamp, null);
+    }
 
-            final ProducerRecord<byte[], byte[]> newRecord = new ProducerRecord<>(topic, null, timestamp, newKey, msg);
-            if (syncSend) {
+    /**
+     * Sends a message to the topic.
+     * <p>
+     * If the number of in-flight sends is bounded, this method returns as soon as the record is handed over to the
+     * producer, unless the maximum number of sends are already in flight, in which case it waits for one of them to
+     * complete. Failures are then reported to the given handler from the producer I/O thread.
+     * </p>
+     *
+     * @param msg the message.
+     * @param eventTimestamp the timestamp of the log event.
+     * @param failureHandler receives the failures of in-flight sends, may be null to log them to the status logger.
+     * @throws ExecutionException if a synchronous send fails.
+     * @throws InterruptedException if interrupted while waiting for the send.
+     * @throws TimeoutException if the send did not complete or could not start in time.
+     * @since 2.21.0
+     */
+    public void send(final byte[] msg, final Long eventTimestamp, final Consumer<Exception> failureHandler)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        if (producer != null) {
+            final ProducerRecord<byte[], byte[]> newRecord = createRecord(msg, eventTimestamp);
+            if (inFlightSends != null) {
+                sendInFlight(newRecord, failureHandler);
+            } else if (syncSend) {
                 final Future<RecordMetadata> response = producer.send(newRecord);
                 response.get(timeoutMillis, TimeUnit.MILLISECONDS);
             } else {
@@ -151,6 +175,141 @@ public class KafkaManager extends AbstractManager {
         }
     }
 
+    /**
+     * Sends several messages to the topic.
+     * <p>
+     * If sends are synchronous, all records are handed over to the producer before waiting for their
+     * acknowledgements, so that the producer can send them together and the batch waits for one round-trip instead of
+     * one per message; the timeout then applies to the whole batch. Otherwise, this is the same as sending the messages
+     * one at a time.
+     * </p>
+     * <p>
+     * A failed message does not stop the others from being sent: its failure is stored in {@code failures} at the
+     * index of the message, so that the caller can retry the messages that failed, and only those.
+     * </p>
+     *
+     * @param msgs the messages.
+     * @param eventTimestamps the timestamps of the log events, matching {@code msgs} by index.
+     * @param count the number of messages to send.
+     * @param failureHandler receives the failures of in-flight sends, may be null to log them to the status logger.
+     * @param failures receives the failure of each message that could not be sent, or null for the others.
+     * @return the number of messages that could not be sent.
+     * @since 2.21.0
+     */
+    public int send(final byte[][] msgs, final long[] eventTimestamps, final int count,
+            final Consumer<Exception> failureHandler, final Exception[] failures) {
+        if (producer == null) {
+            return 0;
+        }
+        int failed = 0;
+        if (inFlightSends != null || !syncSend) {
+            for (int i = 0; i < count; i++) {
+                failures[i] = null;
+                try {
+                    send(msgs[i], eventTimestamps[i], failureHandler);
+                } catch (final Exception e) {
+                    failures[i] = keepInterrupt(e);
+                    failed++;
+                }
+            }
+            return failed;
+        }
+        final List<Future<RecordMetadata>> responses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            failures[i] = null;
+            try {
+                responses.add(producer.send(createRecord(msgs[i], eventTimestamps[i])));
+            } catch (final RuntimeException e) {
+                responses.add(null);
+                failures[i] = e;
+                failed++;
+            }
+        }
+        final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (int i = 0; i < count; i++) {
+            final Future<RecordMetadata> response = responses.get(i);
+            if (response != null) {
+                try {
+                    response.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (final Exception e) {
+                    failures[i] = keepInterrupt(e);
+                    failed++;
+                }
+            }
+        }
+        return failed;
+    }
+
+    private static Exception keepInterrupt(final Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        return e;
+    }
+
+    private ProducerRecord<byte[], byte[]> createRecord(final byte[] msg, final Long eventTimestamp) {
+        byte[] newKey = null;
+
+        if (key != null && key.contains("${")) {
+            newKey = getLoggerContext().getConfiguration().getStrSubstitutor().replace(key)
+                    .getBytes(StandardCharsets.UTF_8);
+        } else if (key != null) {
+            newKey = key.getBytes(StandardCharsets.UTF_8);
+        }
+
+        final Long timestamp = sendTimestamp ? eventTimestamp : null;
+
+        return new ProducerRecord<>(topic, null, timestamp, newKey, msg);
+    }
+
+    private void sendInFlight(final ProducerRecord<byte[], byte[]> record, final Consumer<Exception> failureHandler)
+            throws InterruptedException, TimeoutException {
+        if (!inFlightSends.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("Timed out waiting for one of " + maxInFlightSends
+                    + " in-flight sends to complete in appender [" + getName() + "]");
+        }
+        try {
+            producer.send(record, (metadata, e) -> {
+                inFlightSends.release();
+                if (e != null) {
+                    if (failureHandler != null) {
+                        try {
+                            failureHandler.accept(e);
+                        } catch (final RuntimeException ignored) {
+                            // the handler may rethrow, but there is no caller left to propagate to
+                        }
+                    } else {
+                        LOGGER.error("Unable to write to Kafka in appender [" + getName() + "]", e);
+                    }
+                }
+            });
+        } catch (final RuntimeException e) {
+            inFlightSends.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of records handed over to the producer and not yet acknowledged, if in-flight sends are
+     * bounded.
+     *
+     * @return the number of in-flight sends.
+     * @since 2.21.0
+     */
+    public int getInFlightSendCount() {
+        return inFlightSends != null ? maxInFlightSends - inFlightSends.availablePermits() : 0;
+    }
+
+    /**
+     * Returns the maximum number of in-flight sends, or 0 if they are not bounded.
+     *
+     * @return the maximum number of in-flight sends.
+     * @since 2.21.0
+     */
+    public int getMaxInFlightSends() {
+        return maxInFlightSends;
+    }
+
     public void startup() {
         if (producer == null) {
             producer = producerFactory.newKafkaProducer(config);
@@ -164,23 +323,26 @@ public class KafkaManager extends AbstractManager {
     @Deprecated
     public static KafkaManager getManager(final LoggerContext loggerContext, final String name, final String topic,
             final boolean syncSend, final Property[] properties, final String key) {
-        return getManager(loggerContext, name, topic, syncSend, false, properties, key);
+        return getManager(loggerContext, name, topic, syncSend, false, 0, properties, key);
     }
 
     static KafkaManager getManager(final LoggerContext loggerContext, final String name, final String topic,
-            final boolean syncSend, final boolean sendTimestamp, final Property[] properties, final String key) {
+            final boolean syncSend, final boolean sendTimestamp, final int maxInFlightSends,
+            final Property[] properties, final String key) {
         StringBuilder sb = new StringBuilder(name);
         sb.append(" ")
             .append(topic)
             .append(" ")
             .append(syncSend)
             .append(" ")
-            .append(sendTimestamp);
+            .append(sendTimestamp)
+            .append(" ")
+            .append(maxInFlightSends);
         for (Property prop : properties) {
             sb.append(" ").append(prop.getName()).append("=").append(prop.getValue());
         }
         return getManager(sb.toString(), factory, new FactoryData(loggerContext, topic, syncSend, sendTimestamp,
-                properties, key));
+                maxInFlightSends, properties, key));
     }
 
     private static class FactoryData {
@@ -188,15 +350,18 @@ public class KafkaManager extends AbstractManager {
         private final String topic;
         private final boolean syncSend;
         private final boolean sendTimestamp;
+        private final int maxInFlightSends;
         private final Property[] properties;
         private final String key;
 
         public FactoryData(final LoggerContext loggerContext, final String topic, final boolean syncSend,
-                final boolean sendTimestamp, final Property[] properties, final String key) {
+                final boolean sendTimestamp, final int maxInFlightSends, final Property[] properties,
+                final String key) {
             this.loggerContext = loggerContext;
             this.topic = topic;
             this.syncSend = syncSend;
             this.sendTimestamp = sendTimestamp;
+            this.maxInFlightSends = maxInFlightSends;
             this.properties = properties;
             this.key = key;
         }
@@ -207,7 +372,7 @@ public class KafkaManager extends AbstractManager {
         @Override
         public KafkaManager createManager(String name, FactoryData data) {
             return new KafkaManager(data.loggerContext, name, data.topic, data.syncSend, data.sendTimestamp,
-                    data.properties, data.key);
+                    data.maxInFlightSends, data.properties, data.key);
         }
     }
 
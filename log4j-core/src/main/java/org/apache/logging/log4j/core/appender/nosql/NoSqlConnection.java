@@ -52,6 +52,19 @@ public interface NoSqlConnection<W, T extends NoSqlObject<W>> extends Closeable
      */
     void insertObject(NoSqlObject<W> object);
 
+    /**
+     * Inserts the given objects into the underlying NoSQL database. Implementations should override the default, which
+     * inserts the objects one at a time, if the database can insert several objects in one request.
+     *
+     * @param objects The objects to insert.
+     * @since 2.21.0
+     */
+    default void insertObjects(final NoSqlObject<W>[] objects) {
+        for (final NoSqlObject<W> object : objects) {
+            insertObject(object);
+        }
+    }
+
     /**
      * Closes the underlying connection. This method call should be idempotent. Only the first call should have any
      * effect; all further calls should be ignored. It's possible the underlying connection is stateless (such as an
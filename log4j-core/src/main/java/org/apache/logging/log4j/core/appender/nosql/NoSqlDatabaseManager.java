@@ -252,10 +252,35 @@ public final class NoSqlDatabaseManager<W> extends AbstractDatabaseManager {
 
     @Override
     protected void writeInternal(final LogEvent event, final Serializable serializable) {
+        checkConnected();
+        this.connection.insertObject(createEntity(event, serializable));
+    }
+
+    /**
+     * Inserts the events with a single call to {@link NoSqlConnection#insertObjects(NoSqlObject[])}.
+     */
+    @Override
+    protected void writeThrough(final LogEvent[] events, final Serializable[] serializables, final int count) {
+        this.connectAndStart();
+        try {
+            checkConnected();
+            final NoSqlObject<W>[] entities = this.connection.createList(count);
+            for (int i = 0; i < count; i++) {
+                entities[i] = createEntity(events[i], serializables[i]);
+            }
+            this.connection.insertObjects(entities);
+        } finally {
+            this.commitAndClose();
+        }
+    }
+
+    private void checkConnected() {
         if (!this.isRunning() || this.connection == null || this.connection.isClosed()) {
             throw new AppenderLoggingException("Cannot write logging event; NoSQL manager not connected to the database.");
         }
+    }
 
+    private NoSqlObject<W> createEntity(final LogEvent event, final Serializable serializable) {
         final NoSqlObject<W> entity = this.connection.createObject();
         if (serializable instanceof MapMessage) {
             setFields((MapMessage<?, ?>) serializable, entity);
@@ -263,6 +288,6 @@ public final class NoSqlDatabaseManager<W> extends AbstractDatabaseManager {
             setFields(event, entity);
         }
         setAdditionalFields(entity);
-        this.connection.insertObject(entity);
+        return entity;
     }
 }
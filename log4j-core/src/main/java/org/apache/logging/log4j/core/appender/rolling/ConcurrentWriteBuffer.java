@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A double-buffered byte area that any number of producers append to without taking a lock.
+ * <p>
+ * Producers claim a byte range of the open segment with a single compare-and-set on a cursor holding both the
+ * segment generation and the write position, copy their bytes into the claimed range and publish them by adding
+ * their length to the segment's committed count. A single consumer, which must be externally serialized, seals the
+ * open segment by switching the cursor to the other segment, waits until all claimed ranges are committed, writes
+ * the segment out and then releases it for reuse.
+ * </p>
+ */
+final class ConcurrentWriteBuffer {
+
+    private static final long POSITION_MASK = 0xFFFFFFFFL;
+    private static final int GENERATION_MASK = Integer.MAX_VALUE;
+    private static final int SPINS = 64;
+    private static final int YIELDS = 256;
+    private static final long PARK_NANOS = 10_000L;
+
+    private final int capacity;
+    private final Segment[] segments;
+
+    /** Generation (31 bits) in the high word, position in the open segment in the low word. */
+    private final AtomicLong cursor = new AtomicLong();
+
+    /** Generation of the segment that was last written out. */
+    private volatile int writtenGeneration = GENERATION_MASK;
+
+    ConcurrentWriteBuffer(final int capacity) {
+        this.capacity = capacity;
+        this.segments = new Segment[] {new Segment(capacity), new Segment(capacity)};
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    boolean isEmpty() {
+        return position(cursor.get()) == 0;
+    }
+
+    /**
+     * Copies the given bytes into the open segment.
+     *
+     * @param bytes the source array
+     * @param length the number of bytes to copy, starting at index 0
+     * @param timeMillis the timestamp of the event the bytes belong to
+     * @return the cursor value the bytes were claimed at, or {@code -1} if the open segment is too full
+     */
+    long tryAppend(final byte[] bytes, final int length, final long timeMillis) {
+        while (true) {
+            final long current = cursor.get();
+            final int position = position(current);
+            if (length > capacity - position) {
+                return -1;
+            }
+            if (cursor.compareAndSet(current, current + length)) {
+                final Segment segment = segments[generation(current) & 1];
+                System.arraycopy(bytes, 0, segment.bytes, position, length);
+                segment.firstTimeMillis.accumulate(timeMillis);
+                segment.committed.addAndGet(length);
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Seals the open segment and opens the other one. Must only be called by the consumer.
+     *
+     * @return the sealed segment, or {@code null} if the open segment was empty
+     */
+    Segment seal() {
+        while (true) {
+            final long current = cursor.get();
+            final int position = position(current);
+            if (position == 0) {
+                return null;
+            }
+            final int generation = generation(current);
+            final long next = ((long) ((generation + 1) & GENERATION_MASK)) << 32;
+            if (cursor.compareAndSet(current, next)) {
+                final Segment segment = segments[generation & 1];
+                segment.generation = generation;
+                segment.length = position;
+                return segment;
+            }
+        }
+    }
+
+    /**
+     * Makes a sealed segment available again once it has been written out. Must only be called by the consumer.
+     *
+     * @param segment a segment returned by {@link #seal()}
+     */
+    void release(final Segment segment) {
+        segment.committed.set(0);
+        segment.firstTimeMillis.reset();
+        writtenGeneration = segment.generation;
+    }
+
+    /**
+     * Tests if the segment a producer appended to has been written out.
+     *
+     * @param claim a value returned by {@link #tryAppend(byte[], int, long)}
+     * @return {@code true} if the bytes have been handed over to the destination
+     */
+    boolean isWritten(final long claim) {
+        // generations wrap around: compare their distance on the 31-bit circle
+        return ((writtenGeneration - generation(claim)) & GENERATION_MASK) < (GENERATION_MASK >>> 1);
+    }
+
+    static boolean isFirstInSegment(final long claim) {
+        return position(claim) == 0;
+    }
+
+    /**
+     * Backs off progressively from spinning to yielding to parking.
+     *
+     * @param attempt the number of attempts made so far
+     */
+    static void backOff(final int attempt) {
+        if (attempt < SPINS) {
+            return;
+        }
+        if (attempt < YIELDS) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    private static int position(final long cursor) {
+        return (int) (cursor & POSITION_MASK);
+    }
+
+    private static int generation(final long cursor) {
+        return (int) (cursor >>> 32);
+    }
+
+    /**
+     * One half of the buffer.
+     */
+    static final class Segment {
+
+        private final byte[] bytes;
+        private final AtomicInteger committed = new AtomicInteger();
+        private final LongAccumulator firstTimeMillis = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private int generation;
+        private int length;
+
+        private Segment(final int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        /**
+         * Waits until every producer that claimed a range of this sealed segment has copied its bytes.
+         */
+        void awaitCommitted() {
+            int attempt = 0;
+            while (committed.get() != length) {
+                backOff(attempt++);
+            }
+        }
+
+        byte[] getBytes() {
+            return bytes;
+        }
+
+        int getLength() {
+            return length;
+        }
+
+        /**
+         * Returns the earliest timestamp of the events in this segment.
+         */
+        long getFirstTimeMillis() {
+            return firstTimeMillis.get();
+        }
+    }
+}
@@ -100,6 +100,12 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
         @PluginBuilderAttribute("compressionLevel")
         private String compressionLevelStr;
 
+        @PluginBuilderAttribute("compressionThreads")
+        private int compressionThreads = 1;
+
+        @PluginBuilderAttribute("compressionBufferSize")
+        private int compressionBufferSize;
+
         @PluginElement("Actions")
         private Action[] customActions;
 
@@ -145,8 +151,9 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
             final int compressionLevel = Integers.parseInt(trimmedCompressionLevelStr, Deflater.DEFAULT_COMPRESSION);
             // The config object can be null when this object is built programmatically.
             final StrSubstitutor nonNullStrSubstitutor = config != null ? config.getStrSubstitutor() : new StrSubstitutor();
-            return new DefaultRolloverStrategy(minIndex, maxIndex, useMax, compressionLevel, nonNullStrSubstitutor,
-                    customActions, stopCustomActionsOnError, tempCompressedFilePattern);
+            return new DefaultRolloverStrategy(minIndex, maxIndex, useMax, compressionLevel, compressionThreads,
+                    compressionBufferSize, nonNullStrSubstitutor, customActions, stopCustomActionsOnError,
+                    tempCompressedFilePattern);
         }
 
         public String getMax() {
@@ -210,6 +217,38 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
             return this;
         }
 
+        public int getCompressionThreads() {
+            return compressionThreads;
+        }
+
+        /**
+         * Defines the number of threads compressing a rolled file.
+         *
+         * @param compressionThreads The number of threads; values greater than 1 compress GZ files in parallel blocks.
+         * @return This builder for chaining convenience
+         * @since 2.21.0
+         */
+        public Builder withCompressionThreads(final int compressionThreads) {
+            this.compressionThreads = compressionThreads;
+            return this;
+        }
+
+        public int getCompressionBufferSize() {
+            return compressionBufferSize;
+        }
+
+        /**
+         * Defines the size of the blocks compressed in parallel.
+         *
+         * @param compressionBufferSize The block size in bytes, 0 for the default; applies only to parallel compression.
+         * @return This builder for chaining convenience
+         * @since 2.21.0
+         */
+        public Builder withCompressionBufferSize(final int compressionBufferSize) {
+            this.compressionBufferSize = compressionBufferSize;
+            return this;
+        }
+
         public Action[] getCustomActions() {
             return customActions;
         }
@@ -325,6 +364,8 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
     private final int minIndex;
     private final boolean useMax;
     private final int compressionLevel;
+    private final int compressionThreads;
+    private final int compressionBufferSize;
     private final List<Action> customActions;
     private final boolean stopCustomActionsOnError;
     private final PatternProcessor tempCompressedFilePattern;
@@ -359,11 +400,34 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
     protected DefaultRolloverStrategy(final int minIndex, final int maxIndex, final boolean useMax,
             final int compressionLevel, final StrSubstitutor strSubstitutor, final Action[] customActions,
             final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString) {
+        this(minIndex, maxIndex, useMax, compressionLevel, 1, 0, strSubstitutor, customActions,
+                stopCustomActionsOnError, tempCompressedFilePatternString);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param minIndex The minimum index.
+     * @param maxIndex The maximum index.
+     * @param compressionThreads The number of threads compressing a rolled file.
+     * @param compressionBufferSize The size of the blocks compressed in parallel, 0 for the default.
+     * @param customActions custom actions to perform asynchronously after rollover
+     * @param stopCustomActionsOnError whether to stop executing asynchronous actions if an error occurs
+     * @param tempCompressedFilePatternString File pattern of the working file
+     *                                     used during compression, if null no temporary file are used
+     * @since 2.21.0
+     */
+    protected DefaultRolloverStrategy(final int minIndex, final int maxIndex, final boolean useMax,
+            final int compressionLevel, final int compressionThreads, final int compressionBufferSize,
+            final StrSubstitutor strSubstitutor, final Action[] customActions,
+            final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString) {
         super(strSubstitutor);
         this.minIndex = minIndex;
         this.maxIndex = maxIndex;
         this.useMax = useMax;
         this.compressionLevel = compressionLevel;
+        this.compressionThreads = compressionThreads;
+        this.compressionBufferSize = compressionBufferSize;
         this.stopCustomActionsOnError = stopCustomActionsOnError;
         this.customActions = customActions == null ? Collections.<Action> emptyList() : Arrays.asList(customActions);
         this.tempCompressedFilePattern =
@@ -374,6 +438,20 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
         return this.compressionLevel;
     }
 
+    /**
+     * @since 2.21.0
+     */
+    public int getCompressionThreads() {
+        return this.compressionThreads;
+    }
+
+    /**
+     * @since 2.21.0
+     */
+    public int getCompressionBufferSize() {
+        return this.compressionBufferSize;
+    }
+
     public List<Action> getCustomActions() {
         return customActions;
     }
@@ -561,13 +639,13 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
                 }
                 compressAction = new CompositeAction(
                         Arrays.asList(fileExtension.createCompressAction(renameTo, tmpCompressedName,
-                                true, compressionLevel),
+                                true, compressionLevel, compressionThreads, compressionBufferSize),
                                 new FileRenameAction(tmpCompressedNameFile,
                                         renameToFile, true)),
                         true);
             } else {
                 compressAction = fileExtension.createCompressAction(renameTo, compressedName,
-                        true, compressionLevel);
+                        true, compressionLevel, compressionThreads, compressionBufferSize);
             }
         }
 
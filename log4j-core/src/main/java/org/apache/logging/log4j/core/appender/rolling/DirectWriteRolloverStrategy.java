@@ -71,6 +71,12 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
         @PluginBuilderAttribute("compressionLevel")
         private String compressionLevelStr;
 
+        @PluginBuilderAttribute("compressionThreads")
+        private int compressionThreads = 1;
+
+        @PluginBuilderAttribute("compressionBufferSize")
+        private int compressionBufferSize;
+
         @PluginElement("Actions")
         private Action[] customActions;
 
@@ -96,8 +102,9 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
                 }
             }
             final int compressionLevel = Integers.parseInt(compressionLevelStr, Deflater.DEFAULT_COMPRESSION);
-            return new DirectWriteRolloverStrategy(maxIndex, compressionLevel, config.getStrSubstitutor(),
-                    customActions, stopCustomActionsOnError, tempCompressedFilePattern);
+            return new DirectWriteRolloverStrategy(maxIndex, compressionLevel, compressionThreads,
+                    compressionBufferSize, config.getStrSubstitutor(), customActions, stopCustomActionsOnError,
+                    tempCompressedFilePattern);
         }
 
         public String getMaxFiles() {
@@ -130,6 +137,38 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
             return this;
         }
 
+        public int getCompressionThreads() {
+            return compressionThreads;
+        }
+
+        /**
+         * Defines the number of threads compressing a rolled file.
+         *
+         * @param compressionThreads The number of threads; values greater than 1 compress GZ files in parallel blocks.
+         * @return This builder for chaining convenience
+         * @since 2.21.0
+         */
+        public Builder withCompressionThreads(final int compressionThreads) {
+            this.compressionThreads = compressionThreads;
+            return this;
+        }
+
+        public int getCompressionBufferSize() {
+            return compressionBufferSize;
+        }
+
+        /**
+         * Defines the size of the blocks compressed in parallel.
+         *
+         * @param compressionBufferSize The block size in bytes, 0 for the default; applies only to parallel compression.
+         * @return This builder for chaining convenience
+         * @since 2.21.0
+         */
+        public Builder withCompressionBufferSize(final int compressionBufferSize) {
+            this.compressionBufferSize = compressionBufferSize;
+            return this;
+        }
+
         public Action[] getCustomActions() {
             return customActions;
         }
@@ -231,6 +270,8 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
      */
     private final int maxFiles;
     private final int compressionLevel;
+    private final int compressionThreads;
+    private final int compressionBufferSize;
     private final List<Action> customActions;
     private final boolean stopCustomActionsOnError;
     private volatile String currentFileName;
@@ -265,9 +306,31 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
     protected DirectWriteRolloverStrategy(final int maxFiles, final int compressionLevel,
                                           final StrSubstitutor strSubstitutor, final Action[] customActions,
                                           final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString) {
+        this(maxFiles, compressionLevel, 1, 0, strSubstitutor, customActions, stopCustomActionsOnError,
+                tempCompressedFilePatternString);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param maxFiles The maximum number of files that match the date portion of the pattern to keep.
+     * @param compressionThreads The number of threads compressing a rolled file.
+     * @param compressionBufferSize The size of the blocks compressed in parallel, 0 for the default.
+     * @param customActions custom actions to perform asynchronously after rollover
+     * @param stopCustomActionsOnError whether to stop executing asynchronous actions if an error occurs
+     * @param tempCompressedFilePatternString File pattern of the working file
+     *                                     used during compression, if null no temporary file are used
+     * @since 2.21.0
+     */
+    protected DirectWriteRolloverStrategy(final int maxFiles, final int compressionLevel,
+                                          final int compressionThreads, final int compressionBufferSize,
+                                          final StrSubstitutor strSubstitutor, final Action[] customActions,
+                                          final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString) {
         super(strSubstitutor);
         this.maxFiles = maxFiles;
         this.compressionLevel = compressionLevel;
+        this.compressionThreads = compressionThreads;
+        this.compressionBufferSize = compressionBufferSize;
         this.stopCustomActionsOnError = stopCustomActionsOnError;
         this.customActions = customActions == null ? Collections.<Action> emptyList() : Arrays.asList(customActions);
         this.tempCompressedFilePattern =
@@ -278,6 +341,20 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
         return this.compressionLevel;
     }
 
+    /**
+     * @since 2.21.0
+     */
+    public int getCompressionThreads() {
+        return this.compressionThreads;
+    }
+
+    /**
+     * @since 2.21.0
+     */
+    public int getCompressionBufferSize() {
+        return this.compressionBufferSize;
+    }
+
     public List<Action> getCustomActions() {
         return customActions;
     }
@@ -370,13 +447,13 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
                 }
                 compressAction = new CompositeAction(
                         Arrays.asList(fileExtension.createCompressAction(sourceName, tmpCompressedName,
-                                true, compressionLevel),
+                                true, compressionLevel, compressionThreads, compressionBufferSize),
                                 new FileRenameAction(tmpCompressedNameFile,
                                         new File(compressedName), true)),
                         true);
             } else {
                 compressAction = fileExtension.createCompressAction(sourceName, compressedName,
-                      true, compressionLevel);
+                      true, compressionLevel, compressionThreads, compressionBufferSize);
             }
         }
 
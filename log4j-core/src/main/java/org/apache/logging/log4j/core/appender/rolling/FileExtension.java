@@ -22,6 +22,7 @@ import java.util.Objects;
 import org.apache.logging.log4j.core.appender.rolling.action.Action;
 import org.apache.logging.log4j.core.appender.rolling.action.CommonsCompressAction;
 import org.apache.logging.log4j.core.appender.rolling.action.GzCompressAction;
+import org.apache.logging.log4j.core.appender.rolling.action.ParallelGzCompressAction;
 import org.apache.logging.log4j.core.appender.rolling.action.ZipCompressAction;
 
 /**
@@ -41,6 +42,17 @@ public enum FileExtension {
                                     final int compressionLevel) {
             return new GzCompressAction(source(renameTo), target(compressedName), deleteSource, compressionLevel);
         }
+
+        @Override
+        Action createCompressAction(final String renameTo, final String compressedName, final boolean deleteSource,
+                                    final int compressionLevel, final int compressionThreads,
+                                    final int compressionBufferSize) {
+            if (compressionThreads > 1) {
+                return new ParallelGzCompressAction(source(renameTo), target(compressedName), deleteSource,
+                        compressionLevel, compressionThreads, compressionBufferSize);
+            }
+            return createCompressAction(renameTo, compressedName, deleteSource, compressionLevel);
+        }
     },
     BZIP2(".bz2") {
         @Override
@@ -73,6 +85,21 @@ public enum FileExtension {
             // One of "gz", "bzip2", "xz", "pack200", or "deflate".
             return new CommonsCompressAction("xz", source(renameTo), target(compressedName), deleteSource);
         }
+    },
+    ZSTD(".zst") {
+        @Override
+        Action createCompressAction(final String renameTo, final String compressedName, final boolean deleteSource,
+                                    final int compressionLevel) {
+            // Requires com.github.luben:zstd-jni
+            return new CommonsCompressAction("zstd", source(renameTo), target(compressedName), deleteSource);
+        }
+    },
+    LZ4(".lz4") {
+        @Override
+        Action createCompressAction(final String renameTo, final String compressedName, final boolean deleteSource,
+                                    final int compressionLevel) {
+            return new CommonsCompressAction("lz4-framed", source(renameTo), target(compressedName), deleteSource);
+        }
     };
 
     public static FileExtension lookup(final String fileExtension) {
@@ -103,6 +130,15 @@ public enum FileExtension {
     abstract Action createCompressAction(String renameTo, String compressedName, boolean deleteSource,
                                          int compressionLevel);
 
+    /**
+     * Creates the compress action, using several threads if the format supports it.
+     */
+    Action createCompressAction(final String renameTo, final String compressedName, final boolean deleteSource,
+                                final int compressionLevel, final int compressionThreads,
+                                final int compressionBufferSize) {
+        return createCompressAction(renameTo, compressedName, deleteSource, compressionLevel);
+    }
+
     String getExtension() {
         return extension;
     }
@@ -275,6 +275,14 @@ public class RollingFileManager extends FileManager {
         super.writeToDestination(bytes, offset, length);
     }
 
+    @Override
+    protected synchronized void writeToDestination(final ByteBuffer[] buffers) {
+        for (final ByteBuffer buffer : buffers) {
+            size += buffer.remaining();
+        }
+        super.writeToDestination(buffers);
+    }
+
     public boolean isRenameEmptyFiles() {
         return renameEmptyFiles;
     }
@@ -743,7 +751,7 @@ public class RollingFileManager extends FileManager {
 
             try {
                 final int actualSize = data.bufferedIO ? data.bufferSize : Constants.ENCODER_BYTE_BUFFER_SIZE;
-                final ByteBuffer buffer = ByteBuffer.wrap(new byte[actualSize]);
+                final ByteBuffer buffer = allocateByteBuffer(actualSize);
                 final OutputStream os = data.createOnDemand  || data.fileName == null ? null :
                         new FileOutputStream(data.fileName, data.append);
                 // LOG4J2-531 create file first so time has valid value.
@@ -0,0 +1,441 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
+import org.apache.logging.log4j.core.appender.ConfigurationFactoryData;
+import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.appender.MappedRegionWriter;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.internal.GrowableByteBufferDestination;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.FileUtils;
+import org.apache.logging.log4j.core.util.Log4jThread;
+import org.apache.logging.log4j.core.util.NullOutputStream;
+
+/**
+ * Extends RollingFileManager but writes to memory mapped regions of the file through a {@link MappedRegionWriter}.
+ * <p>
+ * Events are encoded outside of any lock and producers reserve their byte range in the mapped region with an atomic
+ * position counter. A dedicated mapper thread maps the next region ahead of time and is the only one checking for
+ * rollover, so that producers neither contend on the manager's monitor nor wait for the file to be remapped. Since
+ * the rollover is checked shortly after events are written, using the current time, events logged just before a
+ * rollover is triggered may still end up in the file being rolled over.
+ * </p>
+ *
+ * @since 2.21.0
+ */
+public class RollingMemoryMappedFileManager extends RollingFileManager {
+
+    /**
+     * The default length of the mapped regions.
+     */
+    public static final int DEFAULT_REGION_LENGTH = 32 * 1024 * 1024;
+
+    private static final RollingMemoryMappedFileManagerFactory FACTORY = new RollingMemoryMappedFileManagerFactory();
+
+    private static final long ROLLOVER_CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean immediateFlush;
+    private final int regionLength;
+    private final ThreadLocal<GrowableByteBufferDestination> encodingBuffers;
+    private RandomAccessFile randomAccessFile;
+    private volatile MappedRegionWriter regionWriter;
+    private volatile Thread mapper;
+    private volatile boolean mapperIdle;
+
+    public RollingMemoryMappedFileManager(final LoggerContext loggerContext, final RandomAccessFile raf,
+            final String fileName, final String pattern, final OutputStream os, final boolean append,
+            final boolean immediateFlush, final int regionLength, final long size, final long initialTime,
+            final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
+            final Layout<? extends Serializable> layout,
+            final String filePermissions, final String fileOwner, final String fileGroup,
+            final boolean writeHeader) throws IOException {
+        super(loggerContext, fileName, pattern, os, append, false, size, initialTime, policy, strategy, advertiseURI,
+                layout, filePermissions, fileOwner, fileGroup, writeHeader,
+                ByteBuffer.wrap(new byte[Constants.ENCODER_BYTE_BUFFER_SIZE]));
+        this.immediateFlush = immediateFlush;
+        this.regionLength = regionLength;
+        this.encodingBuffers = Constants.ENABLE_THREADLOCALS
+                ? ThreadLocal.withInitial(this::createEncodingBuffer)
+                : null;
+        final Thread thread = new Log4jThread(this::runMapper, "RollingMemoryMappedFileManager-Mapper-" + getName());
+        thread.setDaemon(true);
+        this.mapper = thread;
+        if (raf != null) {
+            openRegionWriter(raf, writeHeader);
+        }
+    }
+
+    public static RollingMemoryMappedFileManager getRollingMemoryMappedFileManager(final String fileName,
+            final String filePattern, final boolean isAppend, final boolean immediateFlush, final int regionLength,
+            final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
+            final Layout<? extends Serializable> layout, final String filePermissions, final String fileOwner,
+            final String fileGroup, final Configuration configuration) {
+        if (strategy instanceof DirectWriteRolloverStrategy && fileName != null) {
+            LOGGER.error("The fileName attribute must not be specified with the DirectWriteRolloverStrategy");
+            return null;
+        }
+        final String name = fileName == null ? filePattern : fileName;
+        return narrow(RollingMemoryMappedFileManager.class, getManager(name, new FactoryData(fileName, filePattern,
+                isAppend, immediateFlush, regionLength, policy, strategy, advertiseURI, layout,
+                filePermissions, fileOwner, fileGroup, configuration), FACTORY));
+    }
+
+    private void openRegionWriter(final RandomAccessFile raf, final boolean writeHeader) throws IOException {
+        this.randomAccessFile = raf;
+        final long position = raf.length();
+        final MappedRegionWriter writer = new MappedRegionWriter(raf.getChannel(), getFileName(), position,
+                regionLength, mapper);
+        if (writeHeader && position == 0 && layout != null) {
+            final byte[] header = layout.getHeader();
+            if (header != null) {
+                writer.write(header, 0, header.length, false);
+            }
+        }
+        this.regionWriter = writer;
+    }
+
+    /**
+     * Returns whether the content of the mapped regions is forced to the storage device on every write.
+     *
+     * @return whether each write should be force-sync'ed
+     */
+    public boolean isImmediateFlush() {
+        return immediateFlush;
+    }
+
+    /**
+     * Returns the length of the mapped regions.
+     *
+     * @return the length of the mapped regions
+     */
+    public int getRegionLength() {
+        return regionLength;
+    }
+
+    /**
+     * Encodes the event without holding any lock and copies the result into the byte range it reserves in the mapped
+     * region. The mapper thread checks for rollover.
+     *
+     * @param layout the layout encoding the event
+     * @param event the event to write
+     * @param immediateFlush if {@code true}, forces the written bytes to the storage device
+     */
+    public void writeConcurrently(final Layout<?> layout, final LogEvent event, final boolean immediateFlush) {
+        final GrowableByteBufferDestination destination = getEncodingBuffer();
+        try {
+            layout.encode(event, destination);
+            write(destination.array(), 0, destination.size(), immediateFlush);
+        } finally {
+            destination.clear();
+        }
+    }
+
+    @Override
+    protected void write(final byte[] bytes, final int offset, final int length, final boolean immediateFlush) {
+        final MappedRegionWriter writer = regionWriter;
+        if (writer != null && writer.write(bytes, offset, length, immediateFlush)) {
+            if (mapperIdle) {
+                mapperIdle = false;
+                LockSupport.unpark(mapper);
+            }
+            return;
+        }
+        // the file is being rolled over or has not been created yet
+        writeToDestination(bytes, offset, length, immediateFlush);
+    }
+
+    @Override
+    protected synchronized void writeToDestination(final byte[] bytes, final int offset, final int length) {
+        writeToDestination(bytes, offset, length, false);
+    }
+
+    private synchronized void writeToDestination(final byte[] bytes, final int offset, final int length,
+            final boolean immediateFlush) {
+        try {
+            if (regionWriter == null) {
+                createFileAfterRollover();
+            }
+            if (!regionWriter.write(bytes, offset, length, immediateFlush)) {
+                throw new AppenderLoggingException("Unable to write to closed memory mapped file " + getName());
+            }
+        } catch (final IOException ex) {
+            final String msg = "Error writing to memory mapped file " + getName();
+            throw new AppenderLoggingException(msg, ex);
+        }
+    }
+
+    @Override
+    protected void createFileAfterRollover() throws IOException {
+        final String fileName = getFileName();
+        final File file = new File(fileName);
+        FileUtils.makeParentDirs(file);
+        final RandomAccessFile raf = new RandomAccessFile(fileName, "rw");
+        try {
+            if (isAttributeViewEnabled()) {
+                defineAttributeView(Paths.get(fileName));
+            }
+            if (!isAppend()) {
+                raf.setLength(0);
+            }
+            openRegionWriter(raf, true);
+        } catch (final IOException ex) {
+            raf.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public long getFileSize() {
+        final MappedRegionWriter writer = regionWriter;
+        return writer != null && !writer.isClosed() ? writer.getPosition() : size;
+    }
+
+    void startMapper() {
+        mapper.start();
+    }
+
+    private void runMapper() {
+        final Thread self = Thread.currentThread();
+        MappedRegionWriter checkedWriter = null;
+        long checkedPosition = -1;
+        while (mapper == self) {
+            boolean written = false;
+            try {
+                final MappedRegionWriter writer = regionWriter;
+                if (writer != null) {
+                    writer.maintain();
+                    final long position = writer.getPosition();
+                    if (writer != checkedWriter || position != checkedPosition) {
+                        checkedWriter = writer;
+                        checkedPosition = position;
+                        written = true;
+                        checkRollover(Log4jLogEvent.newBuilder().setTimeMillis(System.currentTimeMillis()).build());
+                    }
+                }
+            } catch (final Exception ex) {
+                logError("Unable to map the next region", ex);
+            }
+            if (written) {
+                LockSupport.parkNanos(this, ROLLOVER_CHECK_INTERVAL_NANOS);
+            } else {
+                mapperIdle = true;
+                final MappedRegionWriter writer = regionWriter;
+                if (writer == checkedWriter && (writer == null || writer.getPosition() == checkedPosition)) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                mapperIdle = false;
+            }
+        }
+    }
+
+    private void stopMapper(final long timeout, final TimeUnit timeUnit) {
+        final Thread thread = mapper;
+        if (thread == null) {
+            return;
+        }
+        mapper = null;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(Math.max(timeUnit.toMillis(timeout), 0));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        stopMapper(timeout, timeUnit);
+        return super.releaseSub(timeout, timeUnit);
+    }
+
+    @Override
+    public synchronized void flush() {
+        flushBuffer(byteBuffer);
+        final MappedRegionWriter writer = regionWriter;
+        if (writer != null) {
+            writer.force();
+        }
+    }
+
+    @Override
+    public synchronized boolean closeOutputStream() {
+        flushBuffer(byteBuffer);
+        final MappedRegionWriter writer = regionWriter;
+        if (writer == null) {
+            return true;
+        }
+        // called on rollover as well: producers then wait for the monitor until the next file is created
+        try {
+            final long length = writer.close();
+            LOGGER.debug("RollingMemoryMappedFileManager closing. Set {} length to {}", getFileName(), length);
+            randomAccessFile.close();
+            return true;
+        } catch (final IOException ex) {
+            logError("Unable to close memory mapped file", ex);
+            return false;
+        }
+    }
+
+    private GrowableByteBufferDestination getEncodingBuffer() {
+        return encodingBuffers != null ? encodingBuffers.get() : createEncodingBuffer();
+    }
+
+    private GrowableByteBufferDestination createEncodingBuffer() {
+        return new GrowableByteBufferDestination(Constants.ENCODER_BYTE_BUFFER_SIZE, Constants.MAX_REUSABLE_MESSAGE_SIZE * 4);
+    }
+
+    /**
+     * Factory to create a RollingMemoryMappedFileManager.
+     */
+    private static class RollingMemoryMappedFileManagerFactory implements
+            ManagerFactory<RollingMemoryMappedFileManager, FactoryData> {
+
+        /**
+         * Create the RollingMemoryMappedFileManager.
+         *
+         * @param name The name of the entity to manage.
+         * @param data The data required to create the entity.
+         * @return a RollingMemoryMappedFileManager.
+         */
+        @Override
+        public RollingMemoryMappedFileManager createManager(final String name, final FactoryData data) {
+            File file = null;
+            long size = 0;
+            long time = System.currentTimeMillis();
+            RandomAccessFile raf = null;
+            try {
+                if (data.fileName != null) {
+                    file = new File(name);
+                    if (!data.append) {
+                        file.delete();
+                    }
+                    size = data.append ? file.length() : 0;
+                    if (file.exists()) {
+                        time = file.lastModified();
+                    }
+                    FileUtils.makeParentDirs(file);
+                    raf = new RandomAccessFile(name, "rw");
+                    if (!data.append) {
+                        raf.setLength(0);
+                    }
+                }
+                final boolean writeHeader = !data.append || file == null || size == 0;
+                final RollingMemoryMappedFileManager manager = new RollingMemoryMappedFileManager(
+                        data.getLoggerContext(), raf, name, data.pattern, NullOutputStream.getInstance(), data.append,
+                        data.immediateFlush, data.regionLength, size, time, data.policy, data.strategy,
+                        data.advertiseURI, data.layout, data.filePermissions, data.fileOwner, data.fileGroup,
+                        writeHeader);
+                if (file != null && manager.isAttributeViewEnabled()) {
+                    manager.defineAttributeView(file.toPath());
+                }
+                manager.startMapper();
+                return manager;
+            } catch (final IOException ex) {
+                LOGGER.error("Cannot map file " + name + ": " + ex, ex);
+                if (raf != null) {
+                    try {
+                        raf.close();
+                    } catch (final IOException e) {
+                        LOGGER.error("Cannot close RandomAccessFile {}", name, e);
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Factory data.
+     */
+    private static class FactoryData extends ConfigurationFactoryData {
+        private final String fileName;
+        private final String pattern;
+        private final boolean append;
+        private final boolean immediateFlush;
+        private final int regionLength;
+        private final TriggeringPolicy policy;
+        private final RolloverStrategy strategy;
+        private final String advertiseURI;
+        private final Layout<? extends Serializable> layout;
+        private final String filePermissions;
+        private final String fileOwner;
+        private final String fileGroup;
+
+        public FactoryData(final String fileName, final String pattern, final boolean append,
+                final boolean immediateFlush, final int regionLength, final TriggeringPolicy policy,
+                final RolloverStrategy strategy, final String advertiseURI,
+                final Layout<? extends Serializable> layout, final String filePermissions, final String fileOwner,
+                final String fileGroup, final Configuration configuration) {
+            super(configuration);
+            this.fileName = fileName;
+            this.pattern = pattern;
+            this.append = append;
+            this.immediateFlush = immediateFlush;
+            this.regionLength = regionLength;
+            this.policy = policy;
+            this.strategy = strategy;
+            this.advertiseURI = advertiseURI;
+            this.layout = layout;
+            this.filePermissions = filePermissions;
+            this.fileOwner = fileOwner;
+            this.fileGroup = fileGroup;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public TriggeringPolicy getTriggeringPolicy() {
+            return this.policy;
+        }
+
+        public RolloverStrategy getRolloverStrategy() {
+            return this.strategy;
+        }
+    }
+
+    /**
+     * Updates the RollingFileManager's data during a reconfiguration. This method should be considered private.
+     * It is not thread safe and calling it outside of a reconfiguration may lead to errors. This method may be
+     * made protected in a future release.
+     * @param data The data to update.
+     */
+    @Override
+    public void updateData(final Object data) {
+        final FactoryData factoryData = (FactoryData) data;
+        setRolloverStrategy(factoryData.getRolloverStrategy());
+        setPatternProcessor(new PatternProcessor(factoryData.getPattern(), getPatternProcessor()));
+        setTriggeringPolicy(factoryData.getTriggeringPolicy());
+    }
+}
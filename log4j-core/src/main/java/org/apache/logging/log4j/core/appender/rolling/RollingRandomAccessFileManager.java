@@ -23,19 +23,33 @@ import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.appender.AppenderLoggingException;
 import org.apache.logging.log4j.core.appender.ConfigurationFactoryData;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.internal.GrowableByteBufferDestination;
+import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.FileUtils;
+import org.apache.logging.log4j.core.util.Log4jThread;
 import org.apache.logging.log4j.core.util.NullOutputStream;
 
 /**
  * Extends RollingFileManager but instead of using a buffered output stream, this class uses a {@code ByteBuffer} and a
  * {@code RandomAccessFile} to do the I/O.
+ * <p>
+ * When created with concurrent writes enabled, events are encoded outside of any lock and appended to a shared
+ * double buffer with a compare-and-set. A dedicated flusher thread is then the only one checking for rollover and
+ * writing to the {@code RandomAccessFile}, so that producers never contend on the manager's monitor. Since the
+ * rollover is checked once per flushed buffer, using the timestamp of its earliest event, events logged just after a
+ * time-based rollover boundary may still end up in the file being rolled over.
+ * </p>
  */
 public class RollingRandomAccessFileManager extends RollingFileManager {
     /**
@@ -45,8 +59,17 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
 
     private static final RollingRandomAccessFileManagerFactory FACTORY = new RollingRandomAccessFileManagerFactory();
 
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private RandomAccessFile randomAccessFile;
 
+    private final ConcurrentWriteBuffer concurrentWriteBuffer;
+    private final ThreadLocal<GrowableByteBufferDestination> encodingBuffers;
+    private volatile Thread flusher;
+    private volatile boolean flushRequested;
+    private boolean flushingConcurrentWriteBuffer;
+
     @Deprecated
     public RollingRandomAccessFileManager(final LoggerContext loggerContext, final RandomAccessFile raf,
             final String fileName, final String pattern, final OutputStream os, final boolean append,
@@ -67,9 +90,33 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
             final Layout<? extends Serializable> layout,
             final String filePermissions, final String fileOwner, final String fileGroup,
             final boolean writeHeader) {
+        this(loggerContext, raf, fileName, pattern, os, append, immediateFlush, bufferSize, size, initialTime, policy,
+                strategy, advertiseURI, layout, filePermissions, fileOwner, fileGroup, writeHeader, false);
+    }
+
+    /**
+     * @param concurrentWrites whether producers append to a shared buffer drained by a flusher thread
+     * @since 2.21.0
+     */
+    public RollingRandomAccessFileManager(final LoggerContext loggerContext, final RandomAccessFile raf,
+            final String fileName, final String pattern, final OutputStream os, final boolean append,
+            final boolean immediateFlush, final int bufferSize, final long size, final long initialTime,
+            final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
+            final Layout<? extends Serializable> layout,
+            final String filePermissions, final String fileOwner, final String fileGroup,
+            final boolean writeHeader, final boolean concurrentWrites) {
         super(loggerContext, fileName, pattern, os, append, false, size, initialTime, policy, strategy, advertiseURI,
                 layout, filePermissions, fileOwner, fileGroup, writeHeader, ByteBuffer.wrap(new byte[bufferSize]));
         this.randomAccessFile = raf;
+        if (concurrentWrites) {
+            this.concurrentWriteBuffer = new ConcurrentWriteBuffer(bufferSize);
+            this.encodingBuffers = Constants.ENABLE_THREADLOCALS
+                    ? ThreadLocal.withInitial(this::createEncodingBuffer)
+                    : null;
+        } else {
+            this.concurrentWriteBuffer = null;
+            this.encodingBuffers = null;
+        }
         writeHeader();
     }
 
@@ -99,6 +146,18 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
             final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
             final Layout<? extends Serializable> layout, final String filePermissions, final String fileOwner, final String fileGroup,
             final Configuration configuration) {
+        return getRollingRandomAccessFileManager(fileName, filePattern, isAppend, immediateFlush, bufferSize, policy,
+                strategy, advertiseURI, layout, filePermissions, fileOwner, fileGroup, configuration, false);
+    }
+
+    /**
+     * @since 2.21.0
+     */
+    public static RollingRandomAccessFileManager getRollingRandomAccessFileManager(final String fileName,
+            final String filePattern, final boolean isAppend, final boolean immediateFlush, final int bufferSize,
+            final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
+            final Layout<? extends Serializable> layout, final String filePermissions, final String fileOwner, final String fileGroup,
+            final Configuration configuration, final boolean concurrentWrites) {
         if (strategy instanceof DirectWriteRolloverStrategy && fileName != null) {
             LOGGER.error("The fileName attribute must not be specified with the DirectWriteRolloverStrategy");
             return null;
@@ -106,7 +165,7 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
         final String name = fileName == null ? filePattern : fileName;
         return narrow(RollingRandomAccessFileManager.class, getManager(name, new FactoryData(fileName, filePattern, isAppend,
                 immediateFlush, bufferSize, policy, strategy, advertiseURI, layout,
-                filePermissions, fileOwner, fileGroup, configuration), FACTORY));
+                filePermissions, fileOwner, fileGroup, configuration, concurrentWrites), FACTORY));
     }
 
     /**
@@ -168,14 +227,192 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
         writeHeader();
     }
 
+    /**
+     * Returns whether events are appended through {@link #writeConcurrently(Layout, LogEvent, boolean)}.
+     *
+     * @return {@code true} if concurrent writes are enabled
+     * @since 2.21.0
+     */
+    public boolean isConcurrentWrites() {
+        return concurrentWriteBuffer != null;
+    }
+
+    /**
+     * Encodes the event without holding any lock and appends the result to the shared buffer, from where the flusher
+     * thread writes it to the file after checking for rollover. Requires concurrent writes to be enabled.
+     *
+     * @param layout the layout encoding the event
+     * @param event the event to write
+     * @param immediateFlush if {@code true}, waits until the event has been written to the file
+     * @since 2.21.0
+     */
+    public void writeConcurrently(final Layout<?> layout, final LogEvent event, final boolean immediateFlush) {
+        final GrowableByteBufferDestination destination = getEncodingBuffer();
+        try {
+            layout.encode(event, destination);
+            writeConcurrently(destination.array(), destination.size(), event.getTimeMillis(), immediateFlush);
+        } finally {
+            destination.clear();
+        }
+    }
+
+    private void writeConcurrently(final byte[] bytes, final int length, final long timeMillis,
+            final boolean immediateFlush) {
+        if (length == 0) {
+            return;
+        }
+        final Thread thread = flusher;
+        if (thread == null || length > concurrentWriteBuffer.getCapacity()) {
+            // the manager is shutting down or the event does not fit: write it directly after the buffered ones
+            writeDirectly(bytes, length);
+            return;
+        }
+        long claim;
+        int attempt = 0;
+        while ((claim = concurrentWriteBuffer.tryAppend(bytes, length, timeMillis)) < 0) {
+            if (!isFlusherRunning(thread)) {
+                // nobody is left to make room in the buffer
+                writeDirectly(bytes, length);
+                return;
+            }
+            requestFlush(thread);
+            ConcurrentWriteBuffer.backOff(attempt++);
+        }
+        if (immediateFlush) {
+            requestFlush(thread);
+            attempt = 0;
+            while (!concurrentWriteBuffer.isWritten(claim)) {
+                if (!isFlusherRunning(thread)) {
+                    flushConcurrentWriteBuffer(true);
+                    return;
+                }
+                ConcurrentWriteBuffer.backOff(attempt++);
+            }
+        } else if (!isFlusherRunning(thread)) {
+            // the flusher stopped while the event was appended, possibly after its final flush
+            flushConcurrentWriteBuffer(true);
+        } else if (ConcurrentWriteBuffer.isFirstInSegment(claim)) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private boolean isFlusherRunning(final Thread thread) {
+        return flusher == thread && thread.getState() != Thread.State.TERMINATED;
+    }
+
+    private synchronized void writeDirectly(final byte[] bytes, final int length) {
+        flushConcurrentWriteBuffer(true);
+        writeToDestination(bytes, 0, length);
+    }
+
+    private void requestFlush(final Thread thread) {
+        if (!flushRequested) {
+            flushRequested = true;
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private GrowableByteBufferDestination getEncodingBuffer() {
+        return encodingBuffers != null ? encodingBuffers.get() : createEncodingBuffer();
+    }
+
+    private GrowableByteBufferDestination createEncodingBuffer() {
+        return new GrowableByteBufferDestination(Constants.ENCODER_BYTE_BUFFER_SIZE, Constants.MAX_REUSABLE_MESSAGE_SIZE * 4);
+    }
+
+    /**
+     * Writes the buffered segments of the shared buffer to the file.
+     *
+     * @param checkRollover whether to check for rollover before writing each segment
+     */
+    private synchronized void flushConcurrentWriteBuffer(final boolean checkRollover) {
+        if (concurrentWriteBuffer == null || flushingConcurrentWriteBuffer) {
+            return;
+        }
+        flushingConcurrentWriteBuffer = true;
+        try {
+            ConcurrentWriteBuffer.Segment segment;
+            while ((segment = concurrentWriteBuffer.seal()) != null) {
+                try {
+                    segment.awaitCommitted();
+                    if (checkRollover) {
+                        checkRollover(Log4jLogEvent.newBuilder().setTimeMillis(segment.getFirstTimeMillis()).build());
+                    }
+                    writeToDestination(segment.getBytes(), 0, segment.getLength());
+                } finally {
+                    concurrentWriteBuffer.release(segment);
+                }
+            }
+        } finally {
+            flushingConcurrentWriteBuffer = false;
+        }
+    }
+
+    void startFlusher() {
+        final Thread thread = new Log4jThread(this::runFlusher, "RollingRandomAccessFileManager-Flusher-" + getName());
+        thread.setDaemon(true);
+        flusher = thread;
+        thread.start();
+    }
+
+    private void runFlusher() {
+        final Thread self = Thread.currentThread();
+        while (flusher == self) {
+            if (!flushRequested) {
+                // linger a little once the buffer is in use so that writes are gathered
+                LockSupport.parkNanos(this, concurrentWriteBuffer.isEmpty() ? IDLE_PARK_NANOS : FLUSH_INTERVAL_NANOS);
+            }
+            flushRequested = false;
+            if (!concurrentWriteBuffer.isEmpty()) {
+                try {
+                    flushConcurrentWriteBuffer(true);
+                } catch (final Exception ex) {
+                    logError("Unable to write to RandomAccessFile", ex);
+                }
+            }
+        }
+    }
+
+    private void stopFlusher(final long timeout, final TimeUnit timeUnit) {
+        final Thread thread = flusher;
+        if (thread == null) {
+            return;
+        }
+        flusher = null;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(Math.max(timeUnit.toMillis(timeout), 0));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void rollover() {
+        // write out what was logged before the rollover was triggered, unless the flusher triggered it itself
+        flushConcurrentWriteBuffer(false);
+        super.rollover();
+    }
+
+    @Override
+    public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        if (concurrentWriteBuffer != null) {
+            stopFlusher(timeout, timeUnit);
+            flushConcurrentWriteBuffer(true);
+        }
+        return super.releaseSub(timeout, timeUnit);
+    }
+
     @Override
     public synchronized void flush() {
+        flushConcurrentWriteBuffer(true);
         flushBuffer(byteBuffer);
     }
 
     @Override
     public synchronized boolean closeOutputStream() {
-        flush();
+        // called on rollover as well: only drain the regular buffer, the shared buffer goes to the next file
+        flushBuffer(byteBuffer);
         if (randomAccessFile != null) {
             try {
                 randomAccessFile.close();
@@ -254,10 +491,14 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
 
             final RollingRandomAccessFileManager rrm = new RollingRandomAccessFileManager(data.getLoggerContext(), raf, name, data.pattern,
                     NullOutputStream.getInstance(), data.append, data.immediateFlush, data.bufferSize, size, time, data.policy,
-                    data.strategy, data.advertiseURI, data.layout, data.filePermissions, data.fileOwner, data.fileGroup, writeHeader);
+                    data.strategy, data.advertiseURI, data.layout, data.filePermissions, data.fileOwner, data.fileGroup, writeHeader,
+                    data.concurrentWrites);
             if (rrm.isAttributeViewEnabled()) {
                 rrm.defineAttributeView(file.toPath());
             }
+            if (data.concurrentWrites) {
+                rrm.startFlusher();
+            }
             return rrm;
         }
     }
@@ -278,6 +519,7 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
         private final String filePermissions;
         private final String fileOwner;
         private final String fileGroup;
+        private final boolean concurrentWrites;
 
         /**
          * Create the data for the factory.
@@ -295,12 +537,13 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
          * @param fileOwner File owner
          * @param fileGroup File group
          * @param configuration
+         * @param concurrentWrites Whether producers append to a shared buffer drained by a flusher thread
          */
         public FactoryData(final String fileName, final String pattern, final boolean append, final boolean immediateFlush,
                 final int bufferSize, final TriggeringPolicy policy, final RolloverStrategy strategy,
                 final String advertiseURI, final Layout<? extends Serializable> layout,
                 final String filePermissions, final String fileOwner, final String fileGroup,
-                final Configuration configuration) {
+                final Configuration configuration, final boolean concurrentWrites) {
             super(configuration);
             this.fileName = fileName;
             this.pattern = pattern;
@@ -314,6 +557,7 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
             this.filePermissions = filePermissions;
             this.fileOwner = fileOwner;
             this.fileGroup = fileGroup;
+            this.concurrentWrites = concurrentWrites;
         }
 
         public String getPattern() {
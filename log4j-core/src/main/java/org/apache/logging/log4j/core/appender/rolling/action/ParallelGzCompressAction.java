@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+
+/**
+ * Compresses a file using GZ compression on several threads.
+ * <p>
+ * The file is split into blocks that are compressed concurrently, each into its own gzip member, and the members are
+ * written out in order. The result is a multi-member gzip file, which {@code gzip -d}, {@code zcat} and
+ * {@link java.util.zip.GZIPInputStream} read as a single stream.
+ * </p>
+ *
+ * @since 2.21.0
+ */
+public final class ParallelGzCompressAction extends AbstractAction {
+
+    /**
+     * The default size of the blocks compressed independently.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final int GZIP_BUF_SIZE = 8192;
+
+    /**
+     * Source file.
+     */
+    private final File source;
+
+    /**
+     * Destination file.
+     */
+    private final File destination;
+
+    /**
+     * If true, attempt to delete file on completion.
+     */
+    private final boolean deleteSource;
+
+    /**
+     * GZIP compression level to use.
+     *
+     * @see Deflater#setLevel(int)
+     */
+    private final int compressionLevel;
+
+    /**
+     * Number of threads compressing blocks.
+     */
+    private final int threads;
+
+    /**
+     * Size of the blocks compressed independently.
+     */
+    private final int blockSize;
+
+    /**
+     * Creates new instance of ParallelGzCompressAction.
+     *
+     * @param source           file to compress, may not be null.
+     * @param destination      compressed file, may not be null.
+     * @param deleteSource     if true, attempt to delete file on completion.  Failure to delete
+     *                         does not cause an exception to be thrown or affect return value.
+     * @param compressionLevel Gzip deflater compression level.
+     * @param threads          number of threads compressing blocks.
+     * @param blockSize        size of the blocks compressed independently.
+     */
+    public ParallelGzCompressAction(final File source, final File destination, final boolean deleteSource,
+            final int compressionLevel, final int threads, final int blockSize) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(destination, "destination");
+
+        this.source = source;
+        this.destination = destination;
+        this.deleteSource = deleteSource;
+        this.compressionLevel = compressionLevel;
+        this.threads = Math.max(threads, 1);
+        this.blockSize = blockSize > 0 ? blockSize : DEFAULT_BLOCK_SIZE;
+    }
+
+    /**
+     * Compress.
+     *
+     * @return true if successfully compressed.
+     * @throws IOException on IO exception.
+     */
+    @Override
+    public boolean execute() throws IOException {
+        return execute(source, destination, deleteSource, compressionLevel, threads, blockSize);
+    }
+
+    /**
+     * Compress a file.
+     *
+     * @param source           file to compress, may not be null.
+     * @param destination      compressed file, may not be null.
+     * @param deleteSource     if true, attempt to delete file on completion.  Failure to delete
+     *                         does not cause an exception to be thrown or affect return value.
+     * @param compressionLevel Gzip deflater compression level.
+     * @param threads          number of threads compressing blocks.
+     * @param blockSize        size of the blocks compressed independently.
+     * @return true if source file compressed.
+     * @throws IOException on IO exception.
+     */
+    public static boolean execute(final File source, final File destination, final boolean deleteSource,
+            final int compressionLevel, final int threads, final int blockSize) throws IOException {
+        if (!source.exists()) {
+            return false;
+        }
+        final long startNanos = System.nanoTime();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads,
+                Log4jThreadFactory.createDaemonThreadFactory("ParallelGzCompress"));
+        final long inputLength;
+        try (final InputStream input = new FileInputStream(source);
+             final OutputStream output = new FileOutputStream(destination)) {
+            inputLength = compress(input, output, executor, compressionLevel, threads, blockSize);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (LOGGER.isDebugEnabled()) {
+            final long elapsedNanos = Math.max(System.nanoTime() - startNanos, 1);
+            LOGGER.debug("Compressed {} ({} bytes) to {} ({} bytes) in {} ms with {} threads, {} MiB/s", source,
+                    inputLength, destination, destination.length(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    threads, String.format("%.1f", inputLength * 1e9 / elapsedNanos / (1024 * 1024)));
+        }
+
+        if (deleteSource && !source.delete()) {
+            LOGGER.warn("Unable to delete {}.", source);
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads blocks from the input, compresses them on the executor and writes the results in order, keeping at most
+     * two blocks per thread in memory.
+     *
+     * @return the number of bytes read
+     */
+    private static long compress(final InputStream input, final OutputStream output, final ExecutorService executor,
+            final int compressionLevel, final int threads, final int blockSize) throws IOException {
+        final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>(2 * threads);
+        long inputLength = 0;
+        try {
+            while (true) {
+                final byte[] block = new byte[blockSize];
+                final int length = readBlock(input, block);
+                if (length <= 0 && inputLength > 0) {
+                    break;
+                }
+                inputLength += length;
+                pending.add(executor.submit(() -> compressBlock(block, length, compressionLevel)));
+                if (pending.size() >= 2 * threads) {
+                    output.write(pending.poll().get());
+                }
+                if (length < blockSize) {
+                    break;
+                }
+            }
+            while (!pending.isEmpty()) {
+                output.write(pending.poll().get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+        return inputLength;
+    }
+
+    /**
+     * Fills the block from the input.
+     *
+     * @return the number of bytes read, less than the block size only at the end of the input
+     */
+    private static int readBlock(final InputStream input, final byte[] block) throws IOException {
+        int length = 0;
+        while (length < block.length) {
+            final int n = input.read(block, length, block.length - length);
+            if (n < 0) {
+                break;
+            }
+            length += n;
+        }
+        return length;
+    }
+
+    private static byte[] compressBlock(final byte[] block, final int length, final int compressionLevel)
+            throws IOException {
+        final ByteArrayOutputStream member = new ByteArrayOutputStream(length / 4 + 64);
+        try (final GZIPOutputStream gzipOut = new ConfigurableLevelGZIPOutputStream(member, GZIP_BUF_SIZE,
+                compressionLevel)) {
+            gzipOut.write(block, 0, length);
+        }
+        return member.toByteArray();
+    }
+
+    private static final class ConfigurableLevelGZIPOutputStream extends GZIPOutputStream {
+
+        ConfigurableLevelGZIPOutputStream(final OutputStream out, final int bufSize, final int level)
+                throws IOException {
+            super(out, bufSize);
+            def.setLevel(level);
+        }
+    }
+
+    /**
+     * Capture exception.
+     *
+     * @param ex exception.
+     */
+    @Override
+    protected void reportException(final Exception ex) {
+        LOGGER.warn("Exception during compression of '" + source.toString() + "'.", ex);
+    }
+
+    @Override
+    public String toString() {
+        return ParallelGzCompressAction.class.getSimpleName() + '[' + source + " to " + destination
+                + ", deleteSource=" + deleteSource + ", threads=" + threads + ", blockSize=" + blockSize + ']';
+    }
+
+    public File getSource() {
+        return source;
+    }
+
+    public File getDestination() {
+        return destination;
+    }
+
+    public boolean isDeleteSource() {
+        return deleteSource;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+}
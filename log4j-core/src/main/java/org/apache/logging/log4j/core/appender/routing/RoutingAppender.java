@@ -144,6 +144,11 @@ public final class RoutingAppender extends AbstractAppender {
 
     private static final String DEFAULT_KEY = "ROUTING_APPENDER_DEFAULT";
 
+    /**
+     * Number of locks the creation of route appenders is striped over; must be a power of 2.
+     */
+    private static final int CREATION_LOCK_STRIPES = 64;
+
     private final Routes routes;
     private Route defaultRoute;
     private final Configuration configuration;
@@ -155,6 +160,7 @@ public final class RoutingAppender extends AbstractAppender {
     private final PurgePolicy purgePolicy;
     private final AbstractScript defaultRouteScript;
     private final ConcurrentMap<Object, Object> scriptStaticVariables = new ConcurrentHashMap<>();
+    private final Object[] creationLocks = new Object[CREATION_LOCK_STRIPES];
 
     private RoutingAppender(final String name, final Filter filter, final boolean ignoreExceptions, final Routes routes,
             final RewritePolicy rewritePolicy, final Configuration configuration, final PurgePolicy purgePolicy,
@@ -179,6 +185,9 @@ public final class RoutingAppender extends AbstractAppender {
             }
         }
         defaultRoute = defRoute;
+        for (int i = 0; i < creationLocks.length; i++) {
+            creationLocks[i] = new Object();
+        }
     }
 
     @Override
@@ -257,10 +266,21 @@ public final class RoutingAppender extends AbstractAppender {
         }
     }
 
-    private synchronized RouteAppenderControl getControl(final String key, final LogEvent event) {
+    private RouteAppenderControl getControl(final String key, final LogEvent event) {
+        // fast path: routes that already have an appender are served without locking
+        final RouteAppenderControl control = getAppender(key);
+        if (control != null && control.checkout()) {
+            return control;
+        }
+        // only callers routing to the same lock stripe wait for each other while the route appender is created
+        synchronized (creationLocks[creationLockIndex(key)]) {
+            return createControl(key, event);
+        }
+    }
+
+    private RouteAppenderControl createControl(final String key, final LogEvent event) {
         RouteAppenderControl control = getAppender(key);
-        if (control != null) {
-            control.checkout();
+        if (control != null && control.checkout()) {
             return control;
         }
         Route route = null;
@@ -273,8 +293,7 @@ public final class RoutingAppender extends AbstractAppender {
         if (route == null) {
             route = defaultRoute;
             control = getAppender(DEFAULT_KEY);
-            if (control != null) {
-                control.checkout();
+            if (control != null && control.checkout()) {
                 return control;
             }
         }
@@ -283,15 +302,18 @@ public final class RoutingAppender extends AbstractAppender {
             if (app == null) {
                 return null;
             }
-            CreatedRouteAppenderControl created = new CreatedRouteAppenderControl(app);
-            control = created;
+            final CreatedRouteAppenderControl created = new CreatedRouteAppenderControl(app);
+            // checked out before being published, so that it cannot be purged before the event is appended
+            created.checkout();
             createdAppenders.put(key, created);
+            return created;
         }
+        return null;
+    }
 
-        if (control != null) {
-            control.checkout();
-        }
-        return control;
+    private static int creationLockIndex(final String key) {
+        final int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (CREATION_LOCK_STRIPES - 1);
     }
 
     private RouteAppenderControl getAppender(final String key) {
@@ -340,13 +362,9 @@ public final class RoutingAppender extends AbstractAppender {
         final CreatedRouteAppenderControl control = createdAppenders.remove(key);
         if (null != control) {
             LOGGER.debug("Stopping route with {} key", key);
-            // Synchronize with getControl to avoid triggering stopAppender before RouteAppenderControl.checkout
-            // can be invoked.
-            synchronized (this) {
-                control.pendingDeletion = true;
-            }
-            // Don't attempt to stop the appender in a synchronized block, since it may block flushing events
-            // to disk.
+            // No lock needed: RouteAppenderControl.checkout fails once the appender is stopped, in which case
+            // getControl looks the route up again and creates a new appender.
+            control.pendingDeletion = true;
             control.tryStopAppender();
         } else if (referencedAppenders.containsKey(key)) {
             LOGGER.debug("Route {} using an appender reference may not be removed because " +
@@ -437,7 +455,12 @@ public final class RoutingAppender extends AbstractAppender {
             super(appender, null, null);
         }
 
-        abstract void checkout();
+        /**
+         * Marks the appender as in use.
+         *
+         * @return {@code false} if the appender has already been stopped and must not be used
+         */
+        abstract boolean checkout();
 
         abstract void release();
     }
@@ -452,12 +475,17 @@ public final class RoutingAppender extends AbstractAppender {
         }
 
         @Override
-        void checkout() {
-            if (pendingDeletion) {
-                LOGGER.warn("CreatedRouteAppenderControl.checkout invoked on a " +
-                        "RouteAppenderControl that is pending deletion");
+        boolean checkout() {
+            while (true) {
+                final int current = depth.get();
+                if (current < 0) {
+                    // stopped by tryStopAppender
+                    return false;
+                }
+                if (depth.compareAndSet(current, current + 1)) {
+                    return true;
+                }
             }
-            depth.incrementAndGet();
         }
 
         @Override
@@ -486,8 +514,8 @@ public final class RoutingAppender extends AbstractAppender {
         }
 
         @Override
-        void checkout() {
-            // nop
+        boolean checkout() {
+            return true;
         }
 
         @Override
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.WaitStrategy;
+
+/**
+ * Wait strategy that spins, then yields, then blocks, and sizes these phases from the recent wait times of its
+ * consumer.
+ * <p>
+ * The strategy keeps a moving average of how long the consumer had to wait for the next event. While events arrive
+ * faster than the spin budget, the consumer starts by busy spinning; while they arrive faster than the yield budget,
+ * it starts by yielding; otherwise it blocks right away, so that an idle consumer does not burn a core. A blocked
+ * consumer is woken by the producers and, like {@link TimeoutBlockingWaitStrategy}, wakes up by itself after a
+ * timeout so that the event handler can flush.
+ * </p>
+ * <p>
+ * Producers only take the lock to wake the consumer up if it is actually blocked, and the strategy is garbage-free.
+ * </p>
+ *
+ * @since 2.21.0
+ */
+public final class AdaptiveWaitStrategy implements WaitStrategy {
+
+    /**
+     * The phase a wait starts in.
+     */
+    public enum Phase {
+        /** Busy spin. */
+        SPIN,
+        /** Call {@link Thread#yield()}. */
+        YIELD,
+        /** Block until a producer signals. */
+        PARK
+    }
+
+    private static final int ONE_MILLISECOND_IN_NANOSECONDS = 1_000_000;
+
+    private static final int SPINS_PER_CLOCK_CHECK = 64;
+
+    /** Weight of a new sample in the moving averages, as a right shift: 1/8. */
+    private static final int AVERAGE_SHIFT = 3;
+
+    private final Object mutex = new Object();
+
+    private final AtomicBoolean signalNeeded = new AtomicBoolean();
+
+    private final long spinNanos;
+
+    private final long yieldNanos;
+
+    private final long timeoutNanos;
+
+    // written by the consumer thread only
+    private volatile long averageWaitNanos;
+
+    private volatile long averageWakeupLatencyNanos;
+
+    private volatile Phase phase = Phase.PARK;
+
+    // written by the producers
+    private volatile long signalNanos;
+
+    /**
+     * @param spinNanos the longest average wait time for which the consumer starts by spinning, and how long it spins
+     * @param yieldNanos the longest average wait time for which the consumer starts by yielding, and how long it
+     *                   spins and yields before it blocks
+     * @param timeout how long to wait before waking up
+     * @param units the unit in which the timeout is specified
+     */
+    public AdaptiveWaitStrategy(final long spinNanos, final long yieldNanos, final long timeout,
+            final TimeUnit units) {
+        this.spinNanos = Math.max(0, spinNanos);
+        this.yieldNanos = Math.max(this.spinNanos, yieldNanos);
+        this.timeoutNanos = units.toNanos(timeout);
+        this.averageWaitNanos = timeoutNanos;
+    }
+
+    @Override
+    public long waitFor(
+            final long sequence,
+            final Sequence cursorSequence,
+            final Sequence dependentSequence,
+            final SequenceBarrier barrier)
+            throws AlertException, InterruptedException, TimeoutException {
+        long availableSequence = dependentSequence.get();
+        if (availableSequence >= sequence) {
+            return availableSequence;
+        }
+        final long start = System.nanoTime();
+        final Phase startPhase = choosePhase(averageWaitNanos);
+        if (phase != startPhase) {
+            phase = startPhase;
+        }
+        long now = start;
+        int counter = 0;
+        if (startPhase == Phase.SPIN) {
+            while ((availableSequence = dependentSequence.get()) < sequence) {
+                barrier.checkAlert();
+                if (++counter % SPINS_PER_CLOCK_CHECK == 0 && (now = System.nanoTime()) - start >= spinNanos) {
+                    break;
+                }
+            }
+        }
+        if (availableSequence < sequence && startPhase != Phase.PARK) {
+            while ((availableSequence = dependentSequence.get()) < sequence) {
+                barrier.checkAlert();
+                if ((now = System.nanoTime()) - start >= yieldNanos) {
+                    break;
+                }
+                Thread.yield();
+            }
+        }
+        if (availableSequence < sequence) {
+            park(sequence, cursorSequence, barrier, start);
+            while ((availableSequence = dependentSequence.get()) < sequence) {
+                barrier.checkAlert();
+            }
+            now = System.nanoTime();
+        }
+        recordWait(now - start);
+        return availableSequence;
+    }
+
+    private void park(final long sequence, final Sequence cursorSequence, final SequenceBarrier barrier,
+            final long start) throws AlertException, InterruptedException, TimeoutException {
+        if (cursorSequence.get() >= sequence) {
+            return;
+        }
+        final long parkStart = System.nanoTime();
+        boolean waited = false;
+        synchronized (mutex) {
+            while (true) {
+                // the flag is set before the cursor is checked and the mutex is held until wait() releases it, so a
+                // producer that publishes after the check takes the mutex and wakes this thread up
+                signalNeeded.set(true);
+                if (cursorSequence.get() >= sequence) {
+                    break;
+                }
+                barrier.checkAlert();
+                final long remainingNanos = timeoutNanos - (System.nanoTime() - start);
+                if (remainingNanos <= 0) {
+                    recordWait(timeoutNanos);
+                    throw TimeoutException.INSTANCE;
+                }
+                mutex.wait(remainingNanos / ONE_MILLISECOND_IN_NANOSECONDS,
+                        (int) (remainingNanos % ONE_MILLISECOND_IN_NANOSECONDS));
+                waited = true;
+            }
+        }
+        final long signalled = signalNanos;
+        if (waited && signalled - parkStart > 0) {
+            final long latency = System.nanoTime() - signalled;
+            averageWakeupLatencyNanos = average(averageWakeupLatencyNanos, latency);
+        }
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        if (signalNeeded.getAndSet(false)) {
+            synchronized (mutex) {
+                signalNanos = System.nanoTime();
+                mutex.notifyAll();
+            }
+        }
+    }
+
+    Phase choosePhase(final long averageWait) {
+        if (averageWait < spinNanos) {
+            return Phase.SPIN;
+        }
+        if (averageWait < yieldNanos) {
+            return Phase.YIELD;
+        }
+        return Phase.PARK;
+    }
+
+    private void recordWait(final long waitNanos) {
+        averageWaitNanos = average(averageWaitNanos, waitNanos);
+    }
+
+    private static long average(final long average, final long sample) {
+        return average + ((sample - average) >> AVERAGE_SHIFT);
+    }
+
+    /**
+     * Returns the phase the last wait of the consumer started in.
+     *
+     * @return the current phase
+     */
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Returns the moving average of how long the consumer waited for new events.
+     *
+     * @return the average wait time in nanoseconds
+     */
+    public long getAverageWaitNanos() {
+        return averageWaitNanos;
+    }
+
+    /**
+     * Returns the moving average of the time between a producer waking the blocked consumer up and the consumer
+     * running again, or zero if the consumer has not been blocked yet.
+     *
+     * @return the average wakeup latency in nanoseconds
+     */
+    public long getWakeupLatencyNanos() {
+        return averageWakeupLatencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveWaitStrategy{" +
+                "spinNanos=" + spinNanos +
+                ", yieldNanos=" + yieldNanos +
+                ", timeoutNanos=" + timeoutNanos +
+                ", phase=" + phase +
+                '}';
+    }
+}
@@ -225,6 +225,10 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
     }
 
     private void publish(final RingBufferLogEventTranslator translator) {
+        if (loggerDisruptor.isSampledOut(translator.level, translator.marker)) {
+            translator.clear();
+            return;
+        }
         if (!loggerDisruptor.tryPublish(translator)) {
             handleRingBufferFull(translator);
         }
@@ -244,6 +248,11 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
             case ENQUEUE:
                 loggerDisruptor.enqueueLogMessageWhenQueueFull(translator);
                 break;
+            case SPILL:
+                final RingBufferLogEvent event = new RingBufferLogEvent();
+                translator.translateTo(event, 0); // also clears the translator
+                loggerDisruptor.spill(this, event);
+                break;
             case SYNCHRONOUS:
                 logMessageInCurrentThread(translator.fqcn, translator.level, translator.marker, translator.message,
                         translator.thrown);
@@ -336,11 +345,14 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
         if (!isReused(message)) {
             InternalAsyncUtil.makeMessageImmutable(message);
         }
-        StackTraceElement location = null;
+        final StackTraceElement location = calcLocationIfRequested(fqcn);
+        if (loggerDisruptor.isSampledOut(level, marker)) {
+            return;
+        }
         // calls the translateTo method on this AsyncLogger
-        if (!disruptor.getRingBuffer().tryPublishEvent(this,
+        if (loggerDisruptor.isOverflowJournalActive() || !disruptor.getRingBuffer().tryPublishEvent(this,
                 this, // asyncLogger: 0
-                (location = calcLocationIfRequested(fqcn)), // location: 1
+                location, // location: 1
                 fqcn, // 2
                 level, // 3
                 marker, // 4
@@ -376,8 +388,11 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
         if (!isReused(message)) {
             InternalAsyncUtil.makeMessageImmutable(message);
         }
+        if (loggerDisruptor.isSampledOut(level, marker)) {
+            return;
+        }
         // calls the translateTo method on this AsyncLogger
-        if (!disruptor.getRingBuffer().tryPublishEvent(this,
+        if (loggerDisruptor.isOverflowJournalActive() || !disruptor.getRingBuffer().tryPublishEvent(this,
             this, // asyncLogger: 0
             location, // location: 1
             fqcn, // 2
@@ -459,6 +474,11 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
                         msg, // 5
                         thrown); // 6
                 break;
+            case SPILL:
+                final RingBufferLogEvent event = new RingBufferLogEvent();
+                translateTo(event, 0, this, location, fqcn, level, marker, msg, thrown);
+                loggerDisruptor.spill(this, event);
+                break;
             case SYNCHRONOUS:
                 logMessageInCurrentThread(fqcn, level, marker, msg, thrown);
                 break;
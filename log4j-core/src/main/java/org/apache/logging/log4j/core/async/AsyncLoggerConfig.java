@@ -180,6 +180,10 @@ public class AsyncLoggerConfig extends LoggerConfig {
         delegate.enqueueEvent(event, this);
     }
 
+    void logToOverflowJournal(final LogEvent event) {
+        delegate.spillEvent(event, this);
+    }
+
     /**
      * Called by AsyncLoggerConfigHelper.RingBufferLog4jEventHandler.
      *
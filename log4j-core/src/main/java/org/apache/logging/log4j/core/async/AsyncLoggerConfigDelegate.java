@@ -54,6 +54,17 @@ public interface AsyncLoggerConfigDelegate {
 
     boolean tryEnqueue(LogEvent event, AsyncLoggerConfig asyncLoggerConfig);
 
+    /**
+     * Appends the {@link LogEvent} to the overflow journal of the mixed configuration ringbuffer, which enqueues it
+     * once the ringbuffer has room again. Without a journal, the event is enqueued with
+     * {@link #enqueueEvent(LogEvent, AsyncLoggerConfig)}.
+     *
+     * @since 2.21.0
+     */
+    default void spillEvent(final LogEvent event, final AsyncLoggerConfig asyncLoggerConfig) {
+        enqueueEvent(event, asyncLoggerConfig);
+    }
+
     /**
      * Notifies the delegate what LogEventFactory an AsyncLoggerConfig is using, so the delegate can determine
      * whether to populate the ring buffer with mutable log events or not. This method may be invoked multiple times
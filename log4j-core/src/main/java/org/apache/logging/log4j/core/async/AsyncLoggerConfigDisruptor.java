@@ -16,6 +16,8 @@
  */
 package org.apache.logging.log4j.core.async;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
@@ -32,6 +34,7 @@ import com.lmax.disruptor.dsl.ProducerType;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.AbstractLifeCycle;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.AppenderControl;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.impl.LogEventFactory;
 import org.apache.logging.log4j.core.impl.MutableLogEvent;
@@ -53,6 +56,10 @@ import org.apache.logging.log4j.message.ReusableMessage;
  * <p>
  * This class serves to make the dependency on the Disruptor optional, so that these classes are only loaded when the
  * {@code AsyncLoggerConfig} is actually used.
+ * <p>
+ * If the {@code AsyncLoggerConfig.Shards} property is greater than one, the events are spread over that many
+ * Disruptors, each with its own background thread. Each application thread always publishes to the same Disruptor,
+ * so the events of a thread are processed in order.
  */
 public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements AsyncLoggerConfigDelegate {
 
@@ -92,12 +99,15 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
     }
 
     /**
-     * EventHandler performs the work in a separate thread.
+     * Dispatches the events to the appenders as batches of at most {@value #MAX_BATCH_SIZE} events, see
+     * {@link AppenderControl#addToBatch(LogEvent)}. The ring buffer slots of a batch are cleared and released to the
+     * producers once the batch has been appended.
      */
     private static class Log4jEventWrapperHandler implements SequenceReportingEventHandler<Log4jEventWrapper> {
-        private static final int NOTIFY_PROGRESS_THRESHOLD = 50;
+        private static final int MAX_BATCH_SIZE = 50;
+        private final Log4jEventWrapper[] batch = new Log4jEventWrapper[MAX_BATCH_SIZE];
+        private int batchSize;
         private Sequence sequenceCallback;
-        private int counter;
 
         @Override
         public void setSequenceCallback(final Sequence sequenceCallback) {
@@ -107,21 +117,34 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
         @Override
         public void onEvent(final Log4jEventWrapper event, final long sequence, final boolean endOfBatch)
                 throws Exception {
-            event.event.setEndOfBatch(endOfBatch);
-            event.loggerConfig.logToAsyncLoggerConfigsOnCurrentThread(event.event);
-            event.clear();
-
-            notifyIntermediateProgress(sequence);
+            batch[batchSize++] = event;
+            try {
+                event.event.setEndOfBatch(endOfBatch);
+                AppenderControl.addToBatch(event.event);
+                event.loggerConfig.logToAsyncLoggerConfigsOnCurrentThread(event.event);
+            } catch (final Throwable t) {
+                // the exception handler lets the processor move past this sequence, which releases the slots of the
+                // whole batch, so the batch must be appended before producers can reuse them
+                endBatch(sequence);
+                throw t;
+            }
+            if (endOfBatch || batchSize == MAX_BATCH_SIZE) {
+                endBatch(sequence);
+            }
         }
 
-        /**
-         * Notify the BatchEventProcessor that the sequence has progressed. Without this callback the sequence would not
-         * be progressed until the batch has completely finished.
-         */
-        private void notifyIntermediateProgress(final long sequence) {
-            if (++counter > NOTIFY_PROGRESS_THRESHOLD) {
+        private void endBatch(final long sequence) {
+            try {
+                AppenderControl.endBatch();
+            } finally {
+                for (int i = 0; i < batchSize; i++) {
+                    batch[i].clear();
+                    batch[i] = null;
+                }
+                batchSize = 0;
+                // Notify the BatchEventProcessor that the sequence has progressed. Without this callback the sequence
+                // would not be progressed until the batch has completely finished.
                 sequenceCallback.set(sequence);
-                counter = 0;
             }
         }
     }
@@ -158,15 +181,18 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
 
     private int ringBufferSize;
     private AsyncQueueFullPolicy asyncQueueFullPolicy;
+    private PriorityAsyncQueueFullPolicy priorityPolicy;
     private Boolean mutable = Boolean.FALSE;
 
-    private volatile Disruptor<Log4jEventWrapper> disruptor;
-    private long backgroundThreadId; // LOG4J2-471
+    private volatile Disruptor<Log4jEventWrapper>[] disruptors;
+    private long[] backgroundThreadIds; // LOG4J2-471
+    private volatile OverflowJournal overflowJournal;
+    private final ConcurrentMap<String, AsyncLoggerConfig> spillTargets = new ConcurrentHashMap<>();
     private EventFactory<Log4jEventWrapper> factory;
     private EventTranslatorTwoArg<Log4jEventWrapper, LogEvent, AsyncLoggerConfig> translator;
     private volatile boolean alreadyLoggedWarning;
     private final AsyncWaitStrategyFactory asyncWaitStrategyFactory;
-    private WaitStrategy waitStrategy;
+    private WaitStrategy[] waitStrategies = new WaitStrategy[0];
 
     private final Object queueFullEnqueueLock = new Object();
 
@@ -174,9 +200,25 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
         this.asyncWaitStrategyFactory = asyncWaitStrategyFactory; // may be null
     }
 
-    // package-protected for testing
+    // package-protected for testing; all shards use a wait strategy of the same type
     WaitStrategy getWaitStrategy() {
-        return waitStrategy;
+        final WaitStrategy[] strategies = waitStrategies;
+        return strategies.length == 0 ? null : strategies[0];
+    }
+
+    /**
+     * Returns the Disruptor that the current thread publishes to, or {@code null} if this AsyncLoggerConfigDisruptor
+     * has been stopped.
+     */
+    Disruptor<Log4jEventWrapper> getDisruptor() {
+        final Disruptor<Log4jEventWrapper>[] temp = disruptors;
+        return temp == null ? null : temp[DisruptorUtil.shardIndex(temp.length)];
+    }
+
+    // package-protected for testing
+    int getShardCount() {
+        final Disruptor<Log4jEventWrapper>[] temp = disruptors;
+        return temp == null ? 0 : temp.length;
     }
 
     // called from AsyncLoggerConfig constructor
@@ -195,40 +237,59 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
      */
     @Override
     public synchronized void start() {
-        if (disruptor != null) {
+        if (disruptors != null) {
             LOGGER.trace("AsyncLoggerConfigDisruptor not starting new disruptor for this configuration, "
                     + "using existing object.");
             return;
         }
         LOGGER.trace("AsyncLoggerConfigDisruptor creating new disruptor for this configuration.");
-        ringBufferSize = DisruptorUtil.calculateRingBufferSize("AsyncLoggerConfig.RingBufferSize");
-        waitStrategy = DisruptorUtil.createWaitStrategy(
-                "AsyncLoggerConfig.WaitStrategy", asyncWaitStrategyFactory);
-
-        final ThreadFactory threadFactory = new Log4jThreadFactory("AsyncLoggerConfig", true, Thread.NORM_PRIORITY) {
-            @Override
-            public Thread newThread(final Runnable r) {
-                final Thread result = super.newThread(r);
-                backgroundThreadId = result.getId();
-                return result;
-            }
-        };
+        final int shards = DisruptorUtil.calculateShards("AsyncLoggerConfig.Shards");
+        ringBufferSize = DisruptorUtil.calculateShardRingBufferSize(
+                DisruptorUtil.calculateRingBufferSize("AsyncLoggerConfig.RingBufferSize"), shards);
         asyncQueueFullPolicy = AsyncQueueFullPolicyFactory.create();
+        priorityPolicy = asyncQueueFullPolicy instanceof PriorityAsyncQueueFullPolicy
+                ? (PriorityAsyncQueueFullPolicy) asyncQueueFullPolicy : null;
 
         translator = mutable ? MUTABLE_TRANSLATOR : TRANSLATOR;
         factory = mutable ? MUTABLE_FACTORY : FACTORY;
-        disruptor = new Disruptor<>(factory, ringBufferSize, threadFactory, ProducerType.MULTI, waitStrategy);
-
         final ExceptionHandler<Log4jEventWrapper> errorHandler = DisruptorUtil.getAsyncLoggerConfigExceptionHandler();
-        disruptor.setDefaultExceptionHandler(errorHandler);
 
-        final Log4jEventWrapperHandler[] handlers = {new Log4jEventWrapperHandler()};
-        disruptor.handleEventsWith(handlers);
+        final long[] threadIds = new long[shards];
+        @SuppressWarnings("unchecked")
+        final Disruptor<Log4jEventWrapper>[] created = new Disruptor[shards];
+        final WaitStrategy[] strategies = new WaitStrategy[shards];
+        for (int i = 0; i < shards; i++) {
+            final int shard = i;
+            final String threadFactoryName = shards == 1 ? "AsyncLoggerConfig" : "AsyncLoggerConfig-shard" + shard;
+            final ThreadFactory threadFactory = new Log4jThreadFactory(threadFactoryName, true, Thread.NORM_PRIORITY) {
+                @Override
+                public Thread newThread(final Runnable r) {
+                    final Thread result = super.newThread(r);
+                    threadIds[shard] = result.getId();
+                    return result;
+                }
+            };
+            // each shard has its own wait strategy, so that its consumer is not signalled by the other shards
+            strategies[i] = DisruptorUtil.createWaitStrategy(
+                    "AsyncLoggerConfig.WaitStrategy", asyncWaitStrategyFactory);
+            created[i] = new Disruptor<>(factory, ringBufferSize, threadFactory, ProducerType.MULTI, strategies[i]);
+            created[i].setDefaultExceptionHandler(errorHandler);
+
+            final Log4jEventWrapperHandler[] handlers = {new Log4jEventWrapperHandler()};
+            created[i].handleEventsWith(handlers);
+        }
 
-        LOGGER.debug("Starting AsyncLoggerConfig disruptor for this configuration with ringbufferSize={}, "
-                + "waitStrategy={}, exceptionHandler={}...", disruptor.getRingBuffer().getBufferSize(), waitStrategy
-                .getClass().getSimpleName(), errorHandler);
-        disruptor.start();
+        LOGGER.debug("Starting {} AsyncLoggerConfig disruptor(s) for this configuration with ringbufferSize={}, "
+                + "waitStrategy={}, exceptionHandler={}...", shards, created[0].getRingBuffer().getBufferSize(),
+                strategies[0].getClass().getSimpleName(), errorHandler);
+        for (final Disruptor<Log4jEventWrapper> disruptor : created) {
+            disruptor.start();
+        }
+        backgroundThreadIds = threadIds;
+        disruptors = created;
+        waitStrategies = strategies;
+        overflowJournal = SpillingAsyncQueueFullPolicy.createOverflowJournal(asyncQueueFullPolicy,
+                "AsyncLoggerConfig", this::replay);
         super.start();
     }
 
@@ -238,7 +299,7 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
      */
     @Override
     public boolean stop(final long timeout, final TimeUnit timeUnit) {
-        final Disruptor<Log4jEventWrapper> temp = disruptor;
+        final Disruptor<Log4jEventWrapper>[] temp = disruptors;
         if (temp == null) {
             LOGGER.trace("AsyncLoggerConfigDisruptor: disruptor for this configuration already shut down.");
             return true; // disruptor was already shut down by another thread
@@ -247,7 +308,14 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
         LOGGER.trace("AsyncLoggerConfigDisruptor: shutting down disruptor for this configuration.");
 
         // We must guarantee that publishing to the RingBuffer has stopped before we call disruptor.shutdown().
-        disruptor = null; // client code fails with NPE if log after stop = OK
+        // The overflow journal must be replayed while the background threads still run.
+        final OverflowJournal journal = overflowJournal;
+        if (journal != null) {
+            journal.stop(timeout, timeUnit);
+            overflowJournal = null;
+        }
+        spillTargets.clear();
+        disruptors = null; // client code fails with NPE if log after stop = OK
 
         // Calling Disruptor.shutdown() will wait until all enqueued events are fully processed,
         // but this waiting happens in a busy-spin. To avoid (postpone) wasting CPU,
@@ -258,12 +326,17 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
             } catch (final InterruptedException e) { // ignored
             }
         }
-        try {
-            // busy-spins until all events currently in the disruptor have been processed, or timeout
-            temp.shutdown(timeout, timeUnit);
-        } catch (final TimeoutException e) {
-            LOGGER.warn("AsyncLoggerConfigDisruptor: shutdown timed out after {} {}", timeout, timeUnit);
-            temp.halt(); // give up on remaining log events, if any
+        final long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        for (final Disruptor<Log4jEventWrapper> disruptor : temp) {
+            try {
+                // a negative timeout waits until the disruptor is empty, however long it takes
+                final long remaining = timeout < 0 ? -1 : Math.max(0, deadline - System.nanoTime());
+                // busy-spins until all events currently in the disruptor have been processed, or timeout
+                disruptor.shutdown(remaining, TimeUnit.NANOSECONDS);
+            } catch (final TimeoutException e) {
+                LOGGER.warn("AsyncLoggerConfigDisruptor: shutdown timed out after {} {}", timeout, timeUnit);
+                disruptor.halt(); // give up on remaining log events, if any
+            }
         }
         LOGGER.trace("AsyncLoggerConfigDisruptor: disruptor has been shut down.");
 
@@ -271,16 +344,25 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
             LOGGER.trace("AsyncLoggerConfigDisruptor: {} discarded {} events.", asyncQueueFullPolicy,
                     DiscardingAsyncQueueFullPolicy.getDiscardCount(asyncQueueFullPolicy));
         }
+        if (PriorityAsyncQueueFullPolicy.getDiscardCount(asyncQueueFullPolicy) > 0) {
+            LOGGER.trace("AsyncLoggerConfigDisruptor: {} sampled out {} events.", asyncQueueFullPolicy,
+                    PriorityAsyncQueueFullPolicy.getDiscardCount(asyncQueueFullPolicy));
+        }
         setStopped();
         return true;
     }
 
     /**
-     * Returns {@code true} if the specified disruptor still has unprocessed events.
+     * Returns {@code true} if any of the specified disruptors still has unprocessed events.
      */
-    private static boolean hasBacklog(final Disruptor<?> theDisruptor) {
-        final RingBuffer<?> ringBuffer = theDisruptor.getRingBuffer();
-        return !ringBuffer.hasAvailableCapacity(ringBuffer.getBufferSize());
+    private static boolean hasBacklog(final Disruptor<?>[] theDisruptors) {
+        for (final Disruptor<?> theDisruptor : theDisruptors) {
+            final RingBuffer<?> ringBuffer = theDisruptor.getRingBuffer();
+            if (!ringBuffer.hasAvailableCapacity(ringBuffer.getBufferSize())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -289,11 +371,26 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
         if (remainingCapacity < 0) {
             return EventRoute.DISCARD;
         }
-        return asyncQueueFullPolicy.getRoute(backgroundThreadId, logLevel);
+        return asyncQueueFullPolicy.getRoute(getBackgroundThreadId(), logLevel);
+    }
+
+    /**
+     * Returns the ID of the background thread that the queue full policy compares the current thread with: the ID of
+     * the current thread if it is one of the background threads, which must never block on a full ring buffer.
+     */
+    private long getBackgroundThreadId() {
+        final long[] threadIds = backgroundThreadIds;
+        final long currentThreadId = Thread.currentThread().getId();
+        for (final long threadId : threadIds) {
+            if (threadId == currentThreadId) {
+                return threadId;
+            }
+        }
+        return threadIds[0];
     }
 
     private int remainingDisruptorCapacity() {
-        final Disruptor<Log4jEventWrapper> temp = disruptor;
+        final Disruptor<Log4jEventWrapper> temp = getDisruptor();
         if (hasLog4jBeenShutDown(temp)) {
             return -1;
         }
@@ -362,17 +459,17 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
     private void enqueue(final LogEvent logEvent, final AsyncLoggerConfig asyncLoggerConfig) {
         if (synchronizeEnqueueWhenQueueFull()) {
             synchronized (queueFullEnqueueLock) {
-                disruptor.getRingBuffer().publishEvent(translator, logEvent, asyncLoggerConfig);
+                getDisruptor().getRingBuffer().publishEvent(translator, logEvent, asyncLoggerConfig);
             }
         } else {
-            disruptor.getRingBuffer().publishEvent(translator, logEvent, asyncLoggerConfig);
+            getDisruptor().getRingBuffer().publishEvent(translator, logEvent, asyncLoggerConfig);
         }
     }
 
     private boolean synchronizeEnqueueWhenQueueFull() {
         return DisruptorUtil.ASYNC_CONFIG_SYNCHRONIZE_ENQUEUE_WHEN_QUEUE_FULL
                 // Background thread must never block
-                && backgroundThreadId != Thread.currentThread().getId()
+                && getBackgroundThreadId() != Thread.currentThread().getId()
                 // Threads owned by log4j are most likely to result in
                 // deadlocks because they generally consume events.
                 // This prevents deadlocks between AsyncLoggerContext
@@ -382,8 +479,48 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
 
     @Override
     public boolean tryEnqueue(final LogEvent event, final AsyncLoggerConfig asyncLoggerConfig) {
+        final OverflowJournal journal = overflowJournal;
+        if (journal != null && journal.isActive()) {
+            return false; // older events wait in the overflow journal
+        }
+        final RingBuffer<Log4jEventWrapper> ringBuffer = getDisruptor().getRingBuffer();
+        final PriorityAsyncQueueFullPolicy policy = priorityPolicy;
+        if (policy != null && !policy.isAdmitted(event.getLevel(), event.getMarker(),
+                ringBuffer.remainingCapacity(), ringBuffer.getBufferSize())) {
+            return true; // sampled out: the event is handled by discarding it
+        }
         final LogEvent logEvent = prepareEvent(event);
-        return disruptor.getRingBuffer().tryPublishEvent(translator, logEvent, asyncLoggerConfig);
+        return ringBuffer.tryPublishEvent(translator, logEvent, asyncLoggerConfig);
+    }
+
+    @Override
+    public void spillEvent(final LogEvent event, final AsyncLoggerConfig asyncLoggerConfig) {
+        final OverflowJournal journal = overflowJournal;
+        if (journal != null) {
+            spillTargets.putIfAbsent(asyncLoggerConfig.getName(), asyncLoggerConfig);
+            if (journal.append(asyncLoggerConfig.getName(), event)) {
+                return;
+            }
+        }
+        enqueueEvent(event, asyncLoggerConfig);
+    }
+
+    /**
+     * Called by the overflow journal to put a spilled event back into the ring buffer of the thread that logged it.
+     */
+    private boolean replay(final String loggerConfigName, final LogEvent event) {
+        final AsyncLoggerConfig asyncLoggerConfig = spillTargets.get(loggerConfigName);
+        final Disruptor<Log4jEventWrapper>[] temp = disruptors;
+        if (asyncLoggerConfig == null || temp == null) {
+            return true; // nowhere to deliver the event
+        }
+        final Disruptor<Log4jEventWrapper> disruptor = temp[DisruptorUtil.shardIndex(event.getThreadId(), temp.length)];
+        return disruptor.getRingBuffer().tryPublishEvent(translator, event, asyncLoggerConfig);
+    }
+
+    // package-protected for testing
+    OverflowJournal getOverflowJournal() {
+        return overflowJournal;
     }
 
     private LogEvent ensureImmutable(final LogEvent event) {
@@ -408,6 +545,14 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
      */
     @Override
     public RingBufferAdmin createRingBufferAdmin(final String contextName, final String loggerConfigName) {
-        return RingBufferAdmin.forAsyncLoggerConfig(disruptor.getRingBuffer(), contextName, loggerConfigName);
+        final Disruptor<Log4jEventWrapper>[] temp = disruptors;
+        final RingBuffer<?>[] rings = new RingBuffer<?>[temp.length];
+        for (int i = 0; i < temp.length; i++) {
+            rings[i] = temp[i].getRingBuffer();
+        }
+        final RingBufferAdmin admin = RingBufferAdmin.forAsyncLoggerConfig(rings, contextName, loggerConfigName);
+        admin.setOverflowJournal(overflowJournal);
+        admin.setWaitStrategies(waitStrategies);
+        return admin;
     }
 }
@@ -17,10 +17,13 @@
 package org.apache.logging.log4j.core.async;
 
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
+import com.lmax.disruptor.EventTranslatorTwoArg;
 import com.lmax.disruptor.EventTranslatorVararg;
 import com.lmax.disruptor.ExceptionHandler;
 import com.lmax.disruptor.RingBuffer;
@@ -31,42 +34,78 @@ import com.lmax.disruptor.dsl.ProducerType;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.core.AbstractLifeCycle;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
 import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
+import org.apache.logging.log4j.core.time.Instant;
+import org.apache.logging.log4j.core.time.internal.FixedPreciseClock;
+import org.apache.logging.log4j.core.util.DummyNanoClock;
 import org.apache.logging.log4j.core.util.Log4jThread;
 import org.apache.logging.log4j.core.util.Log4jThreadFactory;
 import org.apache.logging.log4j.core.util.Throwables;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.StringMap;
 
 /**
  * Helper class for async loggers: AsyncLoggerDisruptor handles the mechanics of working with the LMAX Disruptor, and
  * works with its associated AsyncLoggerContext to synchronize the life cycle of the Disruptor and its thread with the
  * life cycle of the context. The AsyncLoggerDisruptor of the context is shared by all AsyncLogger objects created by
  * that AsyncLoggerContext.
+ * <p>
+ * If the {@code AsyncLogger.Shards} property is greater than one, the events are spread over that many Disruptors,
+ * each with its own background thread. Each application thread always publishes to the same Disruptor, so the
+ * events of a thread are processed in order, but the events of different threads may be processed concurrently.
+ * </p>
  */
 class AsyncLoggerDisruptor extends AbstractLifeCycle {
     private static final int SLEEP_MILLIS_BETWEEN_DRAIN_ATTEMPTS = 50;
     private static final int MAX_DRAIN_ATTEMPTS_BEFORE_SHUTDOWN = 200;
 
+    /**
+     * Copies an event taken from the overflow journal into the ring buffer, keeping its original time stamp, thread
+     * and context data.
+     */
+    private static final EventTranslatorTwoArg<RingBufferLogEvent, AsyncLogger, LogEvent> REPLAY_TRANSLATOR =
+            (ringBufferElement, sequence, asyncLogger, event) -> {
+                // the element's map is null if it last held a frozen copy-on-write context map
+                final StringMap contextData = ringBufferElement.getContextData() == null
+                        ? ContextDataFactory.createContextData()
+                        : (StringMap) ringBufferElement.getContextData();
+                contextData.clear();
+                contextData.putAll(event.getContextData());
+                final Instant instant = event.getInstant();
+                ringBufferElement.setValues(asyncLogger, event.getLoggerName(), event.getMarker(),
+                        event.getLoggerFqcn(), event.getLevel(), event.getMessage(), event.getThrown(), contextData,
+                        event.getContextStack(), event.getThreadId(), event.getThreadName(),
+                        event.getThreadPriority(), event.getSource(),
+                        new FixedPreciseClock(instant.getEpochMillisecond(), instant.getNanoOfMillisecond()),
+                        new DummyNanoClock(event.getNanoTime()));
+            };
+
     private final Object queueFullEnqueueLock = new Object();
 
-    private volatile Disruptor<RingBufferLogEvent> disruptor;
+    private volatile Disruptor<RingBufferLogEvent>[] disruptors;
     private String contextName;
     private final Supplier<AsyncWaitStrategyFactory> waitStrategyFactorySupplier;
 
     private boolean useThreadLocalTranslator = true;
-    private long backgroundThreadId;
+    private long[] backgroundThreadIds;
     private AsyncQueueFullPolicy asyncQueueFullPolicy;
+    private PriorityAsyncQueueFullPolicy priorityPolicy;
+    private volatile OverflowJournal overflowJournal;
+    private final ConcurrentMap<String, AsyncLogger> spillTargets = new ConcurrentHashMap<>();
     private int ringBufferSize;
-    private WaitStrategy waitStrategy;
+    private WaitStrategy[] waitStrategies = new WaitStrategy[0];
 
     AsyncLoggerDisruptor(final String contextName, final Supplier<AsyncWaitStrategyFactory> waitStrategyFactorySupplier) {
         this.contextName = contextName;
         this.waitStrategyFactorySupplier = Objects.requireNonNull(waitStrategyFactorySupplier, "waitStrategyFactorySupplier");
     }
 
-    // package-protected for testing
+    // package-protected for testing; all shards use a wait strategy of the same type
     WaitStrategy getWaitStrategy() {
-        return waitStrategy;
+        final WaitStrategy[] strategies = waitStrategies;
+        return strategies.length == 0 ? null : strategies[0];
     }
 
     public String getContextName() {
@@ -77,8 +116,19 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         contextName = name;
     }
 
+    /**
+     * Returns the Disruptor that the current thread publishes to, or {@code null} if this AsyncLoggerDisruptor has
+     * been stopped.
+     */
     Disruptor<RingBufferLogEvent> getDisruptor() {
-        return disruptor;
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
+        return temp == null ? null : temp[DisruptorUtil.shardIndex(temp.length)];
+    }
+
+    // package-protected for testing
+    int getShardCount() {
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
+        return temp == null ? 0 : temp.length;
     }
 
     /**
@@ -88,7 +138,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
      */
     @Override
     public synchronized void start() {
-        if (disruptor != null) {
+        if (disruptors != null) {
             LOGGER.trace(
                     "[{}] AsyncLoggerDisruptor not starting new disruptor for this context, using existing object.",
                     contextName);
@@ -100,33 +150,51 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         }
         setStarting();
         LOGGER.trace("[{}] AsyncLoggerDisruptor creating new disruptor for this context.", contextName);
-        ringBufferSize = DisruptorUtil.calculateRingBufferSize("AsyncLogger.RingBufferSize");
+        final int shards = DisruptorUtil.calculateShards("AsyncLogger.Shards");
+        ringBufferSize = DisruptorUtil.calculateShardRingBufferSize(
+                DisruptorUtil.calculateRingBufferSize("AsyncLogger.RingBufferSize"), shards);
         AsyncWaitStrategyFactory factory = waitStrategyFactorySupplier.get(); // get factory from configuration
-        waitStrategy = DisruptorUtil.createWaitStrategy("AsyncLogger.WaitStrategy", factory);
-
-        final ThreadFactory threadFactory = new Log4jThreadFactory("AsyncLogger[" + contextName + "]", true, Thread.NORM_PRIORITY) {
-            @Override
-            public Thread newThread(final Runnable r) {
-                final Thread result = super.newThread(r);
-                backgroundThreadId = result.getId();
-                return result;
-            }
-        };
         asyncQueueFullPolicy = AsyncQueueFullPolicyFactory.create();
-
-        disruptor = new Disruptor<>(RingBufferLogEvent.FACTORY, ringBufferSize, threadFactory, ProducerType.MULTI,
-                waitStrategy);
-
+        priorityPolicy = asyncQueueFullPolicy instanceof PriorityAsyncQueueFullPolicy
+                ? (PriorityAsyncQueueFullPolicy) asyncQueueFullPolicy : null;
         final ExceptionHandler<RingBufferLogEvent> errorHandler = DisruptorUtil.getAsyncLoggerExceptionHandler();
-        disruptor.setDefaultExceptionHandler(errorHandler);
 
-        final RingBufferLogEventHandler[] handlers = {new RingBufferLogEventHandler()};
-        disruptor.handleEventsWith(handlers);
+        final long[] threadIds = new long[shards];
+        @SuppressWarnings("unchecked")
+        final Disruptor<RingBufferLogEvent>[] created = new Disruptor[shards];
+        final WaitStrategy[] strategies = new WaitStrategy[shards];
+        for (int i = 0; i < shards; i++) {
+            final int shard = i;
+            final ThreadFactory threadFactory = new Log4jThreadFactory(threadFactoryName(contextName, shards, shard), true,
+                    Thread.NORM_PRIORITY) {
+                @Override
+                public Thread newThread(final Runnable r) {
+                    final Thread result = super.newThread(r);
+                    threadIds[shard] = result.getId();
+                    return result;
+                }
+            };
+            // each shard has its own wait strategy, so that its consumer is not signalled by the other shards
+            strategies[i] = DisruptorUtil.createWaitStrategy("AsyncLogger.WaitStrategy", factory);
+            created[i] = new Disruptor<>(RingBufferLogEvent.FACTORY, ringBufferSize, threadFactory,
+                    ProducerType.MULTI, strategies[i]);
+            created[i].setDefaultExceptionHandler(errorHandler);
+
+            final RingBufferLogEventHandler[] handlers = {new RingBufferLogEventHandler()};
+            created[i].handleEventsWith(handlers);
+        }
 
-        LOGGER.debug("[{}] Starting AsyncLogger disruptor for this context with ringbufferSize={}, waitStrategy={}, "
-                + "exceptionHandler={}...", contextName, disruptor.getRingBuffer().getBufferSize(), waitStrategy
-                .getClass().getSimpleName(), errorHandler);
-        disruptor.start();
+        LOGGER.debug("[{}] Starting {} AsyncLogger disruptor(s) for this context with ringbufferSize={}, "
+                + "waitStrategy={}, exceptionHandler={}...", contextName, shards,
+                created[0].getRingBuffer().getBufferSize(), strategies[0].getClass().getSimpleName(), errorHandler);
+        for (final Disruptor<RingBufferLogEvent> disruptor : created) {
+            disruptor.start();
+        }
+        backgroundThreadIds = threadIds;
+        disruptors = created;
+        waitStrategies = strategies;
+        overflowJournal = SpillingAsyncQueueFullPolicy.createOverflowJournal(asyncQueueFullPolicy,
+                "AsyncLogger[" + contextName + "]", this::replay);
 
         LOGGER.trace("[{}] AsyncLoggers use a {} translator", contextName, useThreadLocalTranslator ? "threadlocal"
                 : "vararg");
@@ -139,7 +207,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
      */
     @Override
     public boolean stop(final long timeout, final TimeUnit timeUnit) {
-        final Disruptor<RingBufferLogEvent> temp = getDisruptor();
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
         if (temp == null) {
             LOGGER.trace("[{}] AsyncLoggerDisruptor: disruptor for this context already shut down.", contextName);
             return true; // disruptor was already shut down by another thread
@@ -147,8 +215,16 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         setStopping();
         LOGGER.debug("[{}] AsyncLoggerDisruptor: shutting down disruptor for this context.", contextName);
 
+        // The overflow journal must be replayed while the background threads still run.
+        final OverflowJournal journal = overflowJournal;
+        if (journal != null) {
+            journal.stop(timeout, timeUnit);
+            overflowJournal = null;
+        }
+        spillTargets.clear();
+
         // We must guarantee that publishing to the RingBuffer has stopped before we call disruptor.shutdown().
-        disruptor = null; // client code fails with NPE if log after stop. This is by design.
+        disruptors = null; // client code fails with NPE if log after stop. This is by design.
 
         // Calling Disruptor.shutdown() will wait until all enqueued events are fully processed,
         // but this waiting happens in a busy-spin. To avoid (postpone) wasting CPU,
@@ -159,12 +235,18 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             } catch (final InterruptedException e) { // ignored
             }
         }
-        try {
-            // busy-spins until all events currently in the disruptor have been processed, or timeout
-            temp.shutdown(timeout, timeUnit);
-        } catch (final TimeoutException e) {
-            LOGGER.warn("[{}] AsyncLoggerDisruptor: shutdown timed out after {} {}", contextName, timeout, timeUnit);
-            temp.halt(); // give up on remaining log events, if any
+        final long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        for (final Disruptor<RingBufferLogEvent> disruptor : temp) {
+            try {
+                // a negative timeout waits until the disruptor is empty, however long it takes
+                final long remaining = timeout < 0 ? -1 : Math.max(0, deadline - System.nanoTime());
+                // busy-spins until all events currently in the disruptor have been processed, or timeout
+                disruptor.shutdown(remaining, TimeUnit.NANOSECONDS);
+            } catch (final TimeoutException e) {
+                LOGGER.warn("[{}] AsyncLoggerDisruptor: shutdown timed out after {} {}", contextName, timeout,
+                        timeUnit);
+                disruptor.halt(); // give up on remaining log events, if any
+            }
         }
 
         LOGGER.trace("[{}] AsyncLoggerDisruptor: disruptor has been shut down.", contextName);
@@ -173,16 +255,29 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             LOGGER.trace("AsyncLoggerDisruptor: {} discarded {} events.", asyncQueueFullPolicy,
                     DiscardingAsyncQueueFullPolicy.getDiscardCount(asyncQueueFullPolicy));
         }
+        if (PriorityAsyncQueueFullPolicy.getDiscardCount(asyncQueueFullPolicy) > 0) {
+            LOGGER.trace("AsyncLoggerDisruptor: {} sampled out {} events.", asyncQueueFullPolicy,
+                    PriorityAsyncQueueFullPolicy.getDiscardCount(asyncQueueFullPolicy));
+        }
         setStopped();
         return true;
     }
 
+    private static String threadFactoryName(final String contextName, final int shards, final int shard) {
+        return shards == 1 ? "AsyncLogger[" + contextName + "]" : "AsyncLogger[" + contextName + "]-shard" + shard;
+    }
+
     /**
-     * Returns {@code true} if the specified disruptor still has unprocessed events.
+     * Returns {@code true} if any of the specified disruptors still has unprocessed events.
      */
-    private static boolean hasBacklog(final Disruptor<?> theDisruptor) {
-        final RingBuffer<?> ringBuffer = theDisruptor.getRingBuffer();
-        return !ringBuffer.hasAvailableCapacity(ringBuffer.getBufferSize());
+    private static boolean hasBacklog(final Disruptor<?>[] theDisruptors) {
+        for (final Disruptor<?> theDisruptor : theDisruptors) {
+            final RingBuffer<?> ringBuffer = theDisruptor.getRingBuffer();
+            if (!ringBuffer.hasAvailableCapacity(ringBuffer.getBufferSize())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -192,8 +287,18 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
      * @return a new {@code RingBufferAdmin} that instruments the ringbuffer
      */
     public RingBufferAdmin createRingBufferAdmin(final String jmxContextName) {
-        final RingBuffer<RingBufferLogEvent> ring = disruptor == null ? null : disruptor.getRingBuffer();
-        return RingBufferAdmin.forAsyncLogger(ring, jmxContextName);
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
+        if (temp == null) {
+            return RingBufferAdmin.forAsyncLogger((RingBuffer<?>) null, jmxContextName);
+        }
+        final RingBuffer<?>[] rings = new RingBuffer<?>[temp.length];
+        for (int i = 0; i < temp.length; i++) {
+            rings[i] = temp[i].getRingBuffer();
+        }
+        final RingBufferAdmin admin = RingBufferAdmin.forAsyncLogger(rings, jmxContextName);
+        admin.setOverflowJournal(overflowJournal);
+        admin.setWaitStrategies(waitStrategies);
+        return admin;
     }
 
     EventRoute getEventRoute(final Level logLevel) {
@@ -201,11 +306,26 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         if (remainingCapacity < 0) {
             return EventRoute.DISCARD;
         }
-        return asyncQueueFullPolicy.getRoute(backgroundThreadId, logLevel);
+        return asyncQueueFullPolicy.getRoute(getBackgroundThreadId(), logLevel);
+    }
+
+    /**
+     * Returns the ID of the background thread that the queue full policy compares the current thread with: the ID of
+     * the current thread if it is one of the background threads, which must never block on a full ring buffer.
+     */
+    private long getBackgroundThreadId() {
+        final long[] threadIds = backgroundThreadIds;
+        final long currentThreadId = Thread.currentThread().getId();
+        for (final long threadId : threadIds) {
+            if (threadId == currentThreadId) {
+                return threadId;
+            }
+        }
+        return threadIds[0];
     }
 
     private int remainingDisruptorCapacity() {
-        final Disruptor<RingBufferLogEvent> temp = disruptor;
+        final Disruptor<RingBufferLogEvent> temp = getDisruptor();
         if (hasLog4jBeenShutDown(temp)) {
             return -1;
         }
@@ -223,11 +343,14 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
     }
 
     boolean tryPublish(final RingBufferLogEventTranslator translator) {
+        if (isOverflowJournalActive()) {
+            return false; // older events wait in the overflow journal
+        }
         try {
             // Note: we deliberately access the volatile disruptor field afresh here.
             // Avoiding this and using an older reference could result in adding a log event to the disruptor after it
             // was shut down, which could cause the publishEvent method to hang and never return.
-            return disruptor.getRingBuffer().tryPublishEvent(translator);
+            return getDisruptor().getRingBuffer().tryPublishEvent(translator);
         } catch (final NullPointerException npe) {
             // LOG4J2-639: catch NPE if disruptor field was set to null in stop()
             logWarningOnNpeFromDisruptorPublish(translator);
@@ -235,6 +358,74 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         }
     }
 
+    /**
+     * Returns {@code true} if the {@link PriorityAsyncQueueFullPolicy}, if any, does not admit a low-priority event
+     * to the current thread's ring buffer because it is too full. The caller should discard the event.
+     */
+    boolean isSampledOut(final Level level, final Marker marker) {
+        final PriorityAsyncQueueFullPolicy policy = priorityPolicy;
+        if (policy == null) {
+            return false;
+        }
+        final Disruptor<RingBufferLogEvent> temp = getDisruptor();
+        if (temp == null) {
+            return false; // let the caller report the shutdown
+        }
+        final RingBuffer<RingBufferLogEvent> ringBuffer = temp.getRingBuffer();
+        return !policy.isAdmitted(level, marker, ringBuffer.remainingCapacity(), ringBuffer.getBufferSize());
+    }
+
+    /**
+     * Returns {@code true} if older events wait in the overflow journal, so new events must not be published to the
+     * ring buffer directly.
+     */
+    boolean isOverflowJournalActive() {
+        final OverflowJournal journal = overflowJournal;
+        return journal != null && journal.isActive();
+    }
+
+    /**
+     * Appends an event that did not fit into the ring buffer to the overflow journal, or publishes it to the ring
+     * buffer, waiting for a free slot, if there is no journal.
+     *
+     * @param asyncLogger the logger of the event
+     * @param event an event that is not part of the ring buffer
+     */
+    void spill(final AsyncLogger asyncLogger, final RingBufferLogEvent event) {
+        final OverflowJournal journal = overflowJournal;
+        if (journal != null) {
+            spillTargets.putIfAbsent(asyncLogger.getName(), asyncLogger);
+            if (journal.append(asyncLogger.getName(), event)) {
+                return;
+            }
+        }
+        try {
+            getDisruptor().getRingBuffer().publishEvent(REPLAY_TRANSLATOR, asyncLogger, event);
+        } catch (final NullPointerException npe) {
+            // LOG4J2-639: catch NPE if disruptor field was set to null in stop()
+            logWarningOnNpeFromDisruptorPublish(event.getLevel(), event.getLoggerFqcn(), event.getMessage(),
+                    event.getThrown());
+        }
+    }
+
+    /**
+     * Called by the overflow journal to put a spilled event back into the ring buffer of the thread that logged it.
+     */
+    private boolean replay(final String loggerName, final LogEvent event) {
+        final AsyncLogger asyncLogger = spillTargets.get(loggerName);
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
+        if (asyncLogger == null || temp == null) {
+            return true; // nowhere to deliver the event
+        }
+        final Disruptor<RingBufferLogEvent> disruptor = temp[DisruptorUtil.shardIndex(event.getThreadId(), temp.length)];
+        return disruptor.getRingBuffer().tryPublishEvent(REPLAY_TRANSLATOR, asyncLogger, event);
+    }
+
+    // package-protected for testing
+    OverflowJournal getOverflowJournal() {
+        return overflowJournal;
+    }
+
     void enqueueLogMessageWhenQueueFull(final RingBufferLogEventTranslator translator) {
         try {
             // Note: we deliberately access the volatile disruptor field afresh here.
@@ -242,10 +433,10 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             // was shut down, which could cause the publishEvent method to hang and never return.
             if (synchronizeEnqueueWhenQueueFull()) {
                 synchronized (queueFullEnqueueLock) {
-                    disruptor.publishEvent(translator);
+                    getDisruptor().publishEvent(translator);
                 }
             } else {
-                disruptor.publishEvent(translator);
+                getDisruptor().publishEvent(translator);
             }
         } catch (final NullPointerException npe) {
             // LOG4J2-639: catch NPE if disruptor field was set to null in stop()
@@ -268,7 +459,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             // was shut down, which could cause the publishEvent method to hang and never return.
             if (synchronizeEnqueueWhenQueueFull()) {
                 synchronized (queueFullEnqueueLock) {
-                    disruptor.getRingBuffer().publishEvent(translator,
+                    getDisruptor().getRingBuffer().publishEvent(translator,
                             asyncLogger, // asyncLogger: 0
                             location, // location: 1
                             fqcn, // 2
@@ -278,7 +469,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
                             thrown); // 6
                 }
             } else {
-                disruptor.getRingBuffer().publishEvent(translator,
+                getDisruptor().getRingBuffer().publishEvent(translator,
                         asyncLogger, // asyncLogger: 0
                         location, // location: 1
                         fqcn, // 2
@@ -296,7 +487,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
     private boolean synchronizeEnqueueWhenQueueFull() {
         return DisruptorUtil.ASYNC_LOGGER_SYNCHRONIZE_ENQUEUE_WHEN_QUEUE_FULL
                 // Background thread must never block
-                && backgroundThreadId != Thread.currentThread().getId()
+                && getBackgroundThreadId() != Thread.currentThread().getId()
                 // Threads owned by log4j are most likely to result in
                 // deadlocks because they generally consume events.
                 // This prevents deadlocks between AsyncLoggerContext
@@ -16,11 +16,15 @@
  */
 package org.apache.logging.log4j.core.async;
 
+import java.nio.file.Paths;
+
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.appender.rolling.FileSize;
 import org.apache.logging.log4j.core.util.Loader;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.util.PropertiesUtil;
+import org.apache.logging.log4j.util.Strings;
 
 /**
  * Creates {@link AsyncQueueFullPolicy} instances based on user-specified system properties. The {@code AsyncQueueFullPolicy}
@@ -35,6 +39,18 @@ import org.apache.logging.log4j.util.PropertiesUtil;
  * This can be adjusted with property {@code "log4j2.DiscardThreshold"} (name of the level at which to start
  * discarding).
  * </p> <p>
+ * If this property has value {@code "Spill"}, this factory creates {@link SpillingAsyncQueueFullPolicy} objects, which
+ * write the events that do not fit into the queue to an {@link OverflowJournal}. The journals are created in the
+ * directory given by property {@code "log4j2.OverflowJournalDirectory"} (by default the temporary directory), and hold
+ * at most the number of bytes given by property {@code "log4j2.OverflowJournalSize"} (by default 64 MB).
+ * </p> <p>
+ * If this property has value {@code "Priority"}, this factory creates {@link PriorityAsyncQueueFullPolicy} objects,
+ * which reserve part of the queue for events at or above the level given by property {@code "log4j2.PriorityLevel"}
+ * (by default {@code WARN}) and for events with one of the comma-separated markers given by property
+ * {@code "log4j2.PriorityMarkers"}. Property {@code "log4j2.ReservedCapacity"} gives the reserved percentage of the
+ * queue (by default 10) and property {@code "log4j2.SamplingThreshold"} the occupancy percentage at which other events
+ * start being sampled out (by default 50).
+ * </p> <p>
  * For any other value, this
  * factory interprets the value as the fully qualified name of a class implementing the {@link AsyncQueueFullPolicy}
  * interface. The class must have a default constructor.
@@ -47,6 +63,17 @@ public class AsyncQueueFullPolicyFactory {
     static final String PROPERTY_VALUE_DEFAULT_ASYNC_EVENT_ROUTER = "Default";
     static final String PROPERTY_VALUE_DISCARDING_ASYNC_EVENT_ROUTER = "Discard";
     static final String PROPERTY_NAME_DISCARDING_THRESHOLD_LEVEL = "log4j2.DiscardThreshold";
+    static final String PROPERTY_VALUE_SPILLING_ASYNC_EVENT_ROUTER = "Spill";
+    static final String PROPERTY_NAME_OVERFLOW_JOURNAL_DIRECTORY = "log4j2.OverflowJournalDirectory";
+    static final String PROPERTY_NAME_OVERFLOW_JOURNAL_SIZE = "log4j2.OverflowJournalSize";
+    private static final long DEFAULT_OVERFLOW_JOURNAL_SIZE = 64 * 1024 * 1024;
+    static final String PROPERTY_VALUE_PRIORITY_ASYNC_EVENT_ROUTER = "Priority";
+    static final String PROPERTY_NAME_PRIORITY_LEVEL = "log4j2.PriorityLevel";
+    static final String PROPERTY_NAME_PRIORITY_MARKERS = "log4j2.PriorityMarkers";
+    static final String PROPERTY_NAME_RESERVED_CAPACITY = "log4j2.ReservedCapacity";
+    static final String PROPERTY_NAME_SAMPLING_THRESHOLD = "log4j2.SamplingThreshold";
+    private static final int DEFAULT_RESERVED_CAPACITY = 10;
+    private static final int DEFAULT_SAMPLING_THRESHOLD = 50;
 
     private static final Logger LOGGER = StatusLogger.getLogger();
 
@@ -58,6 +85,10 @@ public class AsyncQueueFullPolicyFactory {
      * </p> <p>
      * If this property has value {@code "Discard"}, this method returns {@link DiscardingAsyncQueueFullPolicy} objects.
      * </p> <p>
+     * If this property has value {@code "Spill"}, this method returns {@link SpillingAsyncQueueFullPolicy} objects.
+     * </p> <p>
+     * If this property has value {@code "Priority"}, this method returns {@link PriorityAsyncQueueFullPolicy} objects.
+     * </p> <p>
      * For any other value, this method interprets the value as the fully qualified name of a class implementing the
      * {@link AsyncQueueFullPolicy} interface. The class must have a default constructor.
      * </p>
@@ -74,6 +105,14 @@ public class AsyncQueueFullPolicyFactory {
                 router, DiscardingAsyncQueueFullPolicy.class, PROPERTY_VALUE_DISCARDING_ASYNC_EVENT_ROUTER)) {
             return createDiscardingAsyncQueueFullPolicy();
         }
+        if (isRouterSelected(
+                router, SpillingAsyncQueueFullPolicy.class, PROPERTY_VALUE_SPILLING_ASYNC_EVENT_ROUTER)) {
+            return createSpillingAsyncQueueFullPolicy();
+        }
+        if (isRouterSelected(
+                router, PriorityAsyncQueueFullPolicy.class, PROPERTY_VALUE_PRIORITY_ASYNC_EVENT_ROUTER)) {
+            return createPriorityAsyncQueueFullPolicy();
+        }
         return createCustomRouter(router);
     }
 
@@ -105,4 +144,30 @@ public class AsyncQueueFullPolicyFactory {
         LOGGER.debug("Creating custom DiscardingAsyncQueueFullPolicy(discardThreshold:{})", thresholdLevel);
         return new DiscardingAsyncQueueFullPolicy(thresholdLevel);
     }
+
+    private static AsyncQueueFullPolicy createSpillingAsyncQueueFullPolicy() {
+        final PropertiesUtil util = PropertiesUtil.getProperties();
+        final String directory = util.getStringProperty(PROPERTY_NAME_OVERFLOW_JOURNAL_DIRECTORY,
+                System.getProperty("java.io.tmpdir"));
+        final String sizeProperty = util.getStringProperty(PROPERTY_NAME_OVERFLOW_JOURNAL_SIZE);
+        final long size = sizeProperty == null ? DEFAULT_OVERFLOW_JOURNAL_SIZE
+                : FileSize.parse(sizeProperty, DEFAULT_OVERFLOW_JOURNAL_SIZE);
+        final int journalSize = (int) Math.min(Integer.MAX_VALUE, Math.max(size, 4096));
+        LOGGER.debug("Creating custom SpillingAsyncQueueFullPolicy(directory:{}, journalSize:{})", directory,
+                journalSize);
+        return new SpillingAsyncQueueFullPolicy(Paths.get(directory), journalSize);
+    }
+
+    private static AsyncQueueFullPolicy createPriorityAsyncQueueFullPolicy() {
+        final PropertiesUtil util = PropertiesUtil.getProperties();
+        final String level = util.getStringProperty(PROPERTY_NAME_PRIORITY_LEVEL, Level.WARN.name());
+        final Level priorityLevel = Level.toLevel(level, Level.WARN);
+        final String markers = util.getStringProperty(PROPERTY_NAME_PRIORITY_MARKERS);
+        final String[] priorityMarkers = Strings.isBlank(markers) ? new String[0] : Strings.splitList(markers);
+        final int reserved = util.getIntegerProperty(PROPERTY_NAME_RESERVED_CAPACITY, DEFAULT_RESERVED_CAPACITY);
+        final int sampling = util.getIntegerProperty(PROPERTY_NAME_SAMPLING_THRESHOLD, DEFAULT_SAMPLING_THRESHOLD);
+        LOGGER.debug("Creating custom PriorityAsyncQueueFullPolicy(priorityLevel:{}, priorityMarkers:{}, "
+                + "reservedCapacity:{}%, samplingThreshold:{}%)", priorityLevel, markers, reserved, sampling);
+        return new PriorityAsyncQueueFullPolicy(priorityLevel, priorityMarkers, reserved, sampling);
+    }
 }
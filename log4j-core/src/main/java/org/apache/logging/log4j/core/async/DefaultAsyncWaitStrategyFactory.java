@@ -62,6 +62,8 @@ class DefaultAsyncWaitStrategyFactory implements AsyncWaitStrategyFactory {
             case "BUSYSPIN":
                 LOGGER.trace("DefaultAsyncWaitStrategyFactory creating BusySpinWaitStrategy");
                 return new BusySpinWaitStrategy();
+            case "ADAPTIVE":
+                return createAdaptiveWaitStrategy(propertyName);
             case "TIMEOUT":
                 return createDefaultWaitStrategy(propertyName);
             default:
@@ -75,6 +77,15 @@ class DefaultAsyncWaitStrategyFactory implements AsyncWaitStrategyFactory {
         return new TimeoutBlockingWaitStrategy(timeoutMillis, TimeUnit.MILLISECONDS);
     }
 
+    static WaitStrategy createAdaptiveWaitStrategy(final String propertyName) {
+        final long spinTimeNs = parseAdditionalLongProperty(propertyName, "SpinTimeNs", 20_000L);
+        final long yieldTimeNs = parseAdditionalLongProperty(propertyName, "YieldTimeNs", 200_000L);
+        final long timeoutMillis = parseAdditionalLongProperty(propertyName, "Timeout", 10L);
+        LOGGER.trace("DefaultAsyncWaitStrategyFactory creating AdaptiveWaitStrategy(spinTimeNs={}, yieldTimeNs={}, "
+                + "timeout={}, unit=MILLIS)", spinTimeNs, yieldTimeNs, timeoutMillis);
+        return new AdaptiveWaitStrategy(spinTimeNs, yieldTimeNs, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
     private static String getFullPropertyKey(final String strategyKey, final String additionalKey) {
         if (strategyKey.startsWith("AsyncLogger.")) {
             return "AsyncLogger." + additionalKey;
@@ -81,6 +81,54 @@ final class DisruptorUtil {
         return Integers.ceilingNextPowerOfTwo(ringBufferSize);
     }
 
+    /**
+     * Returns the number of ring buffers, each with its own background thread, that async logging is spread over.
+     *
+     * @param propertyName the name of the property holding the number of shards
+     * @return the number of shards, at least one
+     */
+    static int calculateShards(final String propertyName) {
+        final int shards = PropertiesUtil.getProperties().getIntegerProperty(propertyName, 1);
+        if (shards < 1) {
+            LOGGER.warn("Invalid {} {}, using a single ring buffer.", propertyName, shards);
+            return 1;
+        }
+        return shards;
+    }
+
+    /**
+     * Returns the size of each ring buffer when the configured ring buffer size is spread over several shards.
+     *
+     * @param ringBufferSize the configured ring buffer size
+     * @param shards the number of shards
+     * @return the size of each shard
+     */
+    static int calculateShardRingBufferSize(final int ringBufferSize, final int shards) {
+        return Integers.ceilingNextPowerOfTwo(Math.max(RINGBUFFER_MIN_SIZE, ringBufferSize / shards));
+    }
+
+    /**
+     * Returns the shard that events logged by the current thread are published to. All events of a thread go to the
+     * same shard, so they are processed in the order they were logged.
+     *
+     * @param shards the number of shards
+     * @return the index of the shard of the current thread
+     */
+    static int shardIndex(final int shards) {
+        return shardIndex(Thread.currentThread().getId(), shards);
+    }
+
+    /**
+     * Returns the shard that events logged by the specified thread are published to.
+     *
+     * @param threadId the ID of the thread that logged the events
+     * @param shards the number of shards
+     * @return the index of the shard of the thread
+     */
+    static int shardIndex(final long threadId, final int shards) {
+        return shards == 1 ? 0 : (int) (threadId % shards);
+    }
+
     static ExceptionHandler<RingBufferLogEvent> getAsyncLoggerExceptionHandler() {
         final String cls = PropertiesUtil.getProperties().getStringProperty("AsyncLogger.ExceptionHandler");
         if (cls == null) {
@@ -29,6 +29,7 @@ import org.apache.logging.log4j.message.Message;
  * @see AsyncQueueFullPolicyFactory
  * @see DefaultAsyncQueueFullPolicy
  * @see DiscardingAsyncQueueFullPolicy
+ * @see SpillingAsyncQueueFullPolicy
  * @since 2.6
  */
 public enum EventRoute {
@@ -72,6 +73,29 @@ public enum EventRoute {
             asyncAppender.logMessageInCurrentThread(logEvent);
         }
     },
+    /**
+     * Appends the event to the overflow journal of the queue, which enqueues it for asynchronous logging once the
+     * queue has room again. If the queue has no journal, enqueues the event like {@link #ENQUEUE}.
+     *
+     * @see SpillingAsyncQueueFullPolicy
+     * @since 2.21.0
+     */
+    SPILL {
+        @Override
+        public void logMessage(final AsyncLogger asyncLogger, final String fqcn, final Level level,
+                final Marker marker, final Message message, final Throwable thrown) {
+        }
+
+        @Override
+        public void logMessage(final AsyncLoggerConfig asyncLoggerConfig, final LogEvent event) {
+            asyncLoggerConfig.logToOverflowJournal(event);
+        }
+
+        @Override
+        public void logMessage(final AsyncAppender asyncAppender, final LogEvent logEvent) {
+            asyncAppender.logMessageToOverflowJournal(logEvent);
+        }
+    },
     /**
      * Discards the event (so it is not logged at all).
      */
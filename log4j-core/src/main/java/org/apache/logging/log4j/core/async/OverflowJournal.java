@@ -0,0 +1,414 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.MemoryMappedFileManager;
+import org.apache.logging.log4j.core.layout.BinaryLayout;
+import org.apache.logging.log4j.core.layout.BinaryLogEventDecoder;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Memory-mapped, append-only journal that holds the events which did not fit into a full async queue, and replays
+ * them into the queue in order once it has room again.
+ * <p>
+ * Events are serialized with a {@link BinaryLayout} and appended to a circular region of a temporary file. A
+ * background thread takes the oldest event and hands it to a {@link Replayer} until the replayer accepts it. While
+ * the journal holds events, the owner of the queue must route new events to the journal as well (see
+ * {@link #isActive()}); this keeps the events of each application thread in order. When the journal is full,
+ * {@link #append(String, LogEvent)} waits until the background thread has made room.
+ * </p>
+ * <p>
+ * The journal is a buffer for short stalls, not a durable store: its file is deleted when the journal is stopped
+ * and is not read again after a restart.
+ * </p>
+ *
+ * @see SpillingAsyncQueueFullPolicy
+ * @since 2.21.0
+ */
+public final class OverflowJournal {
+
+    /**
+     * Puts the events taken from the journal back into the async queue.
+     */
+    @FunctionalInterface
+    public interface Replayer {
+
+        /**
+         * Tries to enqueue an event taken from the journal.
+         *
+         * @param key the key the event was appended with, or an empty string.
+         * @param event the event.
+         * @return {@code true} if the event was enqueued, {@code false} if the queue is still full.
+         */
+        boolean tryReplay(String key, LogEvent event);
+    }
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final int WRAP_MARKER = -1;
+
+    private static final long RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long DEFAULT_STOP_TIMEOUT_MILLIS = 10_000;
+
+    private static final byte[] NO_KEY = new byte[0];
+
+    private final String name;
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final int capacity;
+
+    private final Replayer replayer;
+
+    private final BinaryLayout layout = BinaryLayout.newBuilder().setLocationInfo(true).build();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Condition notFull = lock.newCondition();
+
+    private final LongAdder spilledBytes = new LongAdder();
+
+    private final LongAdder spilledEvents = new LongAdder();
+
+    private final LongAdder replayedBytes = new LongAdder();
+
+    private final LongAdder replayedEvents = new LongAdder();
+
+    private final Thread replayThread;
+
+    // guarded by lock
+    private int readPosition;
+
+    // guarded by lock
+    private int writePosition;
+
+    // guarded by lock
+    private int usedBytes;
+
+    private volatile boolean active;
+
+    private volatile boolean stopped;
+
+    private OverflowJournal(final String name, final Path path, final FileChannel channel,
+            final MappedByteBuffer buffer, final Replayer replayer) {
+        this.name = name;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        this.capacity = buffer.capacity();
+        this.replayer = replayer;
+        this.replayThread = Log4jThreadFactory.createDaemonThreadFactory("OverflowJournal-" + name)
+                .newThread(this::replay);
+    }
+
+    /**
+     * Creates a journal in a new temporary file and starts its background thread.
+     *
+     * @param name the name of the journal, used in the file name and in status messages.
+     * @param directory the directory of the file.
+     * @param capacity the maximum size of the journal in bytes.
+     * @param replayer puts the events back into the async queue.
+     * @return the journal.
+     * @throws IOException if the file cannot be created or mapped.
+     */
+    public static OverflowJournal open(final String name, final Path directory, final int capacity,
+            final Replayer replayer) throws IOException {
+        Files.createDirectories(directory);
+        final Path path = Files.createTempFile(directory, "log4j2-" + name.replaceAll("[^\\w.-]", "_") + '-',
+                ".journal");
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        final OverflowJournal journal;
+        try {
+            final MappedByteBuffer buffer = MemoryMappedFileManager.mmap(channel, path.toString(), 0, capacity);
+            journal = new OverflowJournal(name, path, channel, buffer, replayer);
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        journal.replayThread.start();
+        LOGGER.debug("OverflowJournal[{}] created in {} with capacity {}", name, path, capacity);
+        return journal;
+    }
+
+    /**
+     * Returns {@code true} if the journal holds events that have not been replayed yet. As long as it does, new events
+     * must be appended to the journal too, so that they are not enqueued before older events of the same thread.
+     *
+     * @return whether events wait in the journal.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Appends an event to the journal, waiting for room if the journal is full.
+     *
+     * @param key identifies the target of the event when it is replayed, may be {@code null}.
+     * @param event the event.
+     * @return {@code true} if the event was appended, {@code false} if the journal is stopped, the wait was interrupted
+     * or the event is larger than the journal. The caller must then enqueue the event itself.
+     */
+    public boolean append(final String key, final LogEvent event) {
+        final byte[] keyBytes = key == null ? NO_KEY : key.getBytes(StandardCharsets.UTF_8);
+        final byte[] eventBytes = layout.toByteArray(event);
+        final int recordSize = Integer.BYTES + Short.BYTES + keyBytes.length + eventBytes.length;
+        if (keyBytes.length > Short.MAX_VALUE || recordSize > capacity / 2) {
+            LOGGER.warn("OverflowJournal[{}]: event of {} bytes does not fit into the journal", name, recordSize);
+            return false;
+        }
+        lock.lock();
+        try {
+            while (!stopped && !hasRoom(recordSize)) {
+                notFull.await();
+            }
+            if (stopped) {
+                return false;
+            }
+            if (capacity - writePosition < recordSize) {
+                // the record does not fit before the end of the file: continue at the start
+                if (capacity - writePosition >= Integer.BYTES) {
+                    buffer.putInt(writePosition, WRAP_MARKER);
+                }
+                usedBytes += capacity - writePosition;
+                writePosition = 0;
+            }
+            buffer.position(writePosition);
+            buffer.putInt(recordSize - Integer.BYTES);
+            buffer.putShort((short) keyBytes.length);
+            buffer.put(keyBytes);
+            buffer.put(eventBytes);
+            writePosition += recordSize;
+            usedBytes += recordSize;
+            active = true;
+            notEmpty.signal();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+        spilledBytes.add(recordSize);
+        spilledEvents.increment();
+        return true;
+    }
+
+    private boolean hasRoom(final int recordSize) {
+        final int tail = capacity - writePosition;
+        return recordSize <= tail
+                ? usedBytes + recordSize <= capacity
+                : usedBytes + tail + recordSize <= capacity;
+    }
+
+    private void replay() {
+        while (true) {
+            final byte[] record;
+            lock.lock();
+            try {
+                while (usedBytes == 0 && !stopped) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (stopped) {
+                    return;
+                }
+                final int tail = capacity - readPosition;
+                if (tail < Integer.BYTES || buffer.getInt(readPosition) == WRAP_MARKER) {
+                    usedBytes -= tail;
+                    readPosition = 0;
+                    continue;
+                }
+                record = new byte[buffer.getInt(readPosition)];
+                buffer.position(readPosition + Integer.BYTES);
+                buffer.get(record);
+            } finally {
+                lock.unlock();
+            }
+            final int keyLength = ByteBuffer.wrap(record).getShort();
+            final String key = new String(record, Short.BYTES, keyLength, StandardCharsets.UTF_8);
+            final int eventOffset = Short.BYTES + keyLength;
+            try {
+                final LogEvent event = BinaryLogEventDecoder.decode(
+                        Arrays.copyOfRange(record, eventOffset, record.length));
+                while (!replayer.tryReplay(key, event)) {
+                    if (stopped) {
+                        return;
+                    }
+                    LockSupport.parkNanos(RETRY_NANOS);
+                }
+            } catch (final IOException | RuntimeException e) {
+                LOGGER.error("OverflowJournal[{}]: dropping event that could not be replayed", name, e);
+            }
+            final int recordSize = Integer.BYTES + record.length;
+            lock.lock();
+            try {
+                readPosition += recordSize;
+                usedBytes -= recordSize;
+                if (usedBytes == 0) {
+                    readPosition = writePosition = 0;
+                    active = false;
+                }
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            replayedBytes.add(recordSize);
+            replayedEvents.increment();
+        }
+    }
+
+    /**
+     * Waits until all events have been replayed, then stops the background thread and deletes the file. Events that
+     * could not be replayed in time are lost.
+     *
+     * @param timeout the maximum time to wait for the journal to drain; if not positive, ten seconds.
+     * @param timeUnit the unit of {@code timeout}.
+     * @return {@code true} if all events were replayed.
+     */
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        final long timeoutNanos = timeout > 0 ? timeUnit.toNanos(timeout)
+                : TimeUnit.MILLISECONDS.toNanos(DEFAULT_STOP_TIMEOUT_MILLIS);
+        final long deadline = System.nanoTime() + timeoutNanos;
+        while (active && !stopped && deadline - System.nanoTime() > 0) {
+            LockSupport.parkNanos(RETRY_NANOS);
+        }
+        lock.lock();
+        try {
+            stopped = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            replayThread.join(TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            LOGGER.warn("OverflowJournal[{}]: unable to close {}", name, path, e);
+        }
+        final long lost = getSpilledEventCount() - getReplayedEventCount();
+        if (lost > 0) {
+            LOGGER.warn("OverflowJournal[{}]: {} events were not replayed before shutdown", name, lost);
+        }
+        LOGGER.debug("OverflowJournal[{}] stopped after spilling {} events ({} bytes)", name,
+                getSpilledEventCount(), getSpilledBytes());
+        return lost == 0;
+    }
+
+    /**
+     * Returns the name of the journal.
+     *
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the maximum size of the journal in bytes.
+     *
+     * @return the capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of bytes taken by events that have not been replayed yet.
+     *
+     * @return the used bytes.
+     */
+    public int getUsedBytes() {
+        lock.lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes appended to the journal.
+     *
+     * @return the spilled bytes.
+     */
+    public long getSpilledBytes() {
+        return spilledBytes.sum();
+    }
+
+    /**
+     * Returns the number of events appended to the journal.
+     *
+     * @return the spilled events.
+     */
+    public long getSpilledEventCount() {
+        return spilledEvents.sum();
+    }
+
+    /**
+     * Returns the number of bytes replayed into the async queue.
+     *
+     * @return the replayed bytes.
+     */
+    public long getReplayedBytes() {
+        return replayedBytes.sum();
+    }
+
+    /**
+     * Returns the number of events replayed into the async queue.
+     *
+     * @return the replayed events.
+     */
+    public long getReplayedEventCount() {
+        return replayedEvents.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "OverflowJournal[" + name + ", capacity=" + capacity + ']';
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Priority router that keeps high-priority events flowing when the async queue saturates.
+ * <p>
+ * Events at or {@linkplain Level#isMoreSpecificThan(Level) more specific} than the priority level, and events carrying
+ * one of the priority markers, are always admitted to the queue. The top {@code reservedPercent} of the queue capacity
+ * is reserved for them: low-priority events are admitted freely while the queue is less than
+ * {@code samplingPercent} full, are sampled with a probability that falls linearly to zero as the occupancy rises
+ * towards the reserved part, and are discarded once the reserved part is reached. High-priority events therefore never
+ * wait behind a full queue of low-priority events.
+ * </p><p>
+ * When the queue is full nonetheless, the {@linkplain DefaultAsyncQueueFullPolicy default routing rules} hold.
+ * </p>
+ *
+ * @since 2.21.0
+ */
+public class PriorityAsyncQueueFullPolicy extends DefaultAsyncQueueFullPolicy {
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private final Level priorityLevel;
+    private final String[] priorityMarkers;
+    private final int reservedPercent;
+    private final int samplingPercent;
+    private final LongAdder discardCount = new LongAdder();
+
+    /**
+     * Constructs a router that reserves part of the queue for high-priority events.
+     *
+     * @param priorityLevel events at this level or more specific are high priority
+     * @param priorityMarkers events with one of these markers (or their descendants) are high priority
+     * @param reservedPercent percentage of the queue capacity reserved for high-priority events
+     * @param samplingPercent queue occupancy percentage at which low-priority events start being sampled
+     */
+    public PriorityAsyncQueueFullPolicy(final Level priorityLevel, final String[] priorityMarkers,
+            final int reservedPercent, final int samplingPercent) {
+        this.priorityLevel = Objects.requireNonNull(priorityLevel, "priorityLevel");
+        this.priorityMarkers = priorityMarkers == null ? new String[0] : priorityMarkers.clone();
+        this.reservedPercent = Math.max(0, Math.min(100, reservedPercent));
+        this.samplingPercent = Math.max(0, Math.min(100 - this.reservedPercent, samplingPercent));
+    }
+
+    /**
+     * Returns {@code true} if the event is always admitted to the queue.
+     *
+     * @param level the event level
+     * @param marker the event marker, may be {@code null}
+     * @return {@code true} if the event is high priority
+     */
+    public boolean isHighPriority(final Level level, final Marker marker) {
+        if (level.isMoreSpecificThan(priorityLevel)) {
+            return true;
+        }
+        if (marker != null) {
+            for (final String name : priorityMarkers) {
+                if (marker.isInstanceOf(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decides whether an event may be added to a queue with the given occupancy. Rejected events are counted as
+     * discarded.
+     *
+     * @param level the event level
+     * @param marker the event marker, may be {@code null}
+     * @param remainingCapacity the number of free slots in the queue
+     * @param capacity the total number of slots in the queue
+     * @return {@code true} if the event should be enqueued, {@code false} if it should be discarded
+     */
+    public boolean isAdmitted(final Level level, final Marker marker, final long remainingCapacity,
+            final long capacity) {
+        if (isHighPriority(level, marker)) {
+            return true;
+        }
+        final long used = capacity - remainingCapacity;
+        final long samplingStart = capacity * samplingPercent / 100;
+        if (used < samplingStart) {
+            return true;
+        }
+        final long limit = capacity * (100 - reservedPercent) / 100;
+        if (used < limit && ThreadLocalRandom.current().nextLong(limit - samplingStart) < limit - used) {
+            return true;
+        }
+        if (discardCount.sum() == 0) {
+            LOGGER.warn("Async queue is {}% full, sampling out events less specific than {}. " +
+                    "This message will only appear once; future events are silently discarded " +
+                    "while the queue stays this full.", used * 100 / capacity, priorityLevel);
+        }
+        discardCount.increment();
+        return false;
+    }
+
+    /**
+     * Returns the number of low-priority events discarded by the given router, if it is a
+     * {@code PriorityAsyncQueueFullPolicy}.
+     *
+     * @param router the router
+     * @return the number of discarded events, or {@code 0}
+     */
+    public static long getDiscardCount(final AsyncQueueFullPolicy router) {
+        if (router instanceof PriorityAsyncQueueFullPolicy) {
+            return ((PriorityAsyncQueueFullPolicy) router).discardCount.sum();
+        }
+        return 0;
+    }
+
+    public Level getPriorityLevel() {
+        return priorityLevel;
+    }
+
+    public String[] getPriorityMarkers() {
+        return priorityMarkers.clone();
+    }
+
+    public int getReservedPercent() {
+        return reservedPercent;
+    }
+
+    public int getSamplingPercent() {
+        return samplingPercent;
+    }
+}
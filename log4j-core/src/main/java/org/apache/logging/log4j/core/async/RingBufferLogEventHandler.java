@@ -19,19 +19,26 @@ package org.apache.logging.log4j.core.async;
 import com.lmax.disruptor.LifecycleAware;
 import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SequenceReportingEventHandler;
+import org.apache.logging.log4j.core.config.AppenderControl;
 
 /**
  * This event handler gets passed messages from the RingBuffer as they become
  * available. Processing of these messages is done in a separate thread,
  * controlled by the {@code Executor} passed to the {@code Disruptor}
  * constructor.
+ * <p>
+ * Events are dispatched to the appenders as batches of at most {@value #MAX_BATCH_SIZE} events, see
+ * {@link AppenderControl#addToBatch(org.apache.logging.log4j.core.LogEvent)}. The ring buffer slots of a batch are
+ * cleared and released to the producers once the batch has been appended.
+ * </p>
  */
 public class RingBufferLogEventHandler implements
         SequenceReportingEventHandler<RingBufferLogEvent>, LifecycleAware {
 
-    private static final int NOTIFY_PROGRESS_THRESHOLD = 50;
+    private static final int MAX_BATCH_SIZE = 50;
+    private final RingBufferLogEvent[] batch = new RingBufferLogEvent[MAX_BATCH_SIZE];
+    private int batchSize;
     private Sequence sequenceCallback;
-    private int counter;
     private long threadId = -1;
 
     @Override
@@ -42,28 +49,40 @@ public class RingBufferLogEventHandler implements
     @Override
     public void onEvent(final RingBufferLogEvent event, final long sequence,
             final boolean endOfBatch) throws Exception {
+        batch[batchSize++] = event;
         try {
             // RingBufferLogEvents are populated by an EventTranslator. If an exception is thrown during event
             // translation, the event may not be fully populated, but Disruptor requires that the associated sequence
             // still be published since a slot has already been claimed in the ring buffer. Ignore any such unpopulated
             // events. The exception that occurred during translation will have already been propagated.
             if (event.isPopulated()) {
+                AppenderControl.addToBatch(event);
                 event.execute(endOfBatch);
             }
+        } catch (final Throwable t) {
+            // the exception handler lets the processor move past this sequence, which releases the slots of the
+            // whole batch, so the batch must be appended before producers can reuse them
+            endBatch(sequence);
+            throw t;
         }
-        finally {
-            event.clear();
-            // notify the BatchEventProcessor that the sequence has progressed.
-            // Without this callback the sequence would not be progressed
-            // until the batch has completely finished.
-            notifyCallback(sequence);
+        if (endOfBatch || batchSize == MAX_BATCH_SIZE) {
+            endBatch(sequence);
         }
     }
 
-    private void notifyCallback(long sequence) {
-        if (++counter > NOTIFY_PROGRESS_THRESHOLD) {
+    private void endBatch(final long sequence) {
+        try {
+            AppenderControl.endBatch();
+        } finally {
+            for (int i = 0; i < batchSize; i++) {
+                batch[i].clear();
+                batch[i] = null;
+            }
+            batchSize = 0;
+            // notify the BatchEventProcessor that the sequence has progressed.
+            // Without this callback the sequence would not be progressed
+            // until the batch has completely finished.
             sequenceCallback.set(sequence);
-            counter = 0;
         }
     }
 
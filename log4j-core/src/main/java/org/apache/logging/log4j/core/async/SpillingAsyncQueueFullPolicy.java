@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Spilling router extends the DefaultAsyncQueueFullPolicy by writing the events that do not fit into the full queue
+ * to an {@link OverflowJournal}, instead of blocking the caller until the queue has room. The journal replays the
+ * events into the queue in order once the queue drains. The {@linkplain DefaultAsyncQueueFullPolicy default routing
+ * rules} still hold for the background thread and other Log4j threads.
+ *
+ * @since 2.21.0
+ */
+public class SpillingAsyncQueueFullPolicy extends DefaultAsyncQueueFullPolicy {
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private final Path directory;
+    private final int journalSize;
+
+    /**
+     * Constructs a router that spills events to journals of the specified size in the specified directory.
+     *
+     * @param directory directory of the journal files
+     * @param journalSize maximum size of a journal in bytes
+     */
+    public SpillingAsyncQueueFullPolicy(final Path directory, final int journalSize) {
+        this.directory = Objects.requireNonNull(directory, "directory");
+        if (journalSize <= 0) {
+            throw new IllegalArgumentException("journalSize must be positive: " + journalSize);
+        }
+        this.journalSize = journalSize;
+    }
+
+    @Override
+    public EventRoute getRoute(final long backgroundThreadId, final Level level) {
+        final EventRoute route = super.getRoute(backgroundThreadId, level);
+        return route == EventRoute.ENQUEUE ? EventRoute.SPILL : route;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getJournalSize() {
+        return journalSize;
+    }
+
+    /**
+     * Opens the overflow journal of an async queue if the specified router spills events.
+     *
+     * @param router the router of the queue
+     * @param name the name of the queue
+     * @param replayer puts the events back into the queue
+     * @return the journal, or {@code null} if the router does not spill events or the journal cannot be created
+     */
+    public static OverflowJournal createOverflowJournal(final AsyncQueueFullPolicy router, final String name,
+            final OverflowJournal.Replayer replayer) {
+        if (!(router instanceof SpillingAsyncQueueFullPolicy)) {
+            return null;
+        }
+        final SpillingAsyncQueueFullPolicy policy = (SpillingAsyncQueueFullPolicy) router;
+        try {
+            return OverflowJournal.open(name, policy.directory, policy.journalSize, replayer);
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.error("Unable to create overflow journal for {} in {}, blocking when the queue is full instead",
+                    name, policy.directory, e);
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SpillingAsyncQueueFullPolicy[directory=" + directory + ", journalSize=" + journalSize + ']';
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.logging.log4j.core.util.Integers;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.util.Constants;
 import org.apache.logging.log4j.util.PropertiesUtil;
+import org.apache.logging.log4j.util.VirtualThreads;
 
 /**
  * Strategy for deciding whether thread name should be cached or not.
@@ -31,6 +32,9 @@ public enum ThreadNameCachingStrategy { // LOG4J2-467
     CACHED {
         @Override
         public String getThreadName() {
+            if (VirtualThreads.isCurrentThreadVirtual()) {
+                return Thread.currentThread().getName();
+            }
             String result = THREADLOCAL_NAME.get();
             if (result == null) {
                 result = Thread.currentThread().getName();
@@ -71,7 +71,6 @@ import org.apache.logging.log4j.core.script.ScriptRef;
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.DummyNanoClock;
 import org.apache.logging.log4j.core.util.Loader;
-import org.apache.logging.log4j.core.util.NameUtil;
 import org.apache.logging.log4j.core.util.NanoClock;
 import org.apache.logging.log4j.core.util.Source;
 import org.apache.logging.log4j.core.util.WatchManager;
@@ -130,6 +129,10 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
     private String name;
     private ConcurrentMap<String, Appender> appenders = new ConcurrentHashMap<>();
     private ConcurrentMap<String, LoggerConfig> loggerConfigs = new ConcurrentHashMap<>();
+    /**
+     * Snapshot of {@link #loggerConfigs} used to resolve Logger names, rebuilt on demand once cleared by a change.
+     */
+    private volatile LoggerConfigTrie loggerConfigTrie;
     private List<CustomLevelConfig> customLevels = Collections.emptyList();
     private final ConcurrentMap<String, String> propertyMap = new ConcurrentHashMap<>();
     private final Interpolator tempLookup = new Interpolator(propertyMap);
@@ -681,6 +684,7 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
             } else if (child.getName().equalsIgnoreCase("Loggers")) {
                 final Loggers l = child.getObject();
                 loggerConfigs = l.getMap();
+                loggerConfigTrie = null;
                 setLoggers = true;
                 if (l.getRoot() != null) {
                     root = l.getRoot();
@@ -881,6 +885,7 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
             nlc.addAppender(appender, null, null);
             nlc.setParent(lc);
             loggerConfigs.putIfAbsent(loggerName, nlc);
+            loggerConfigTrie = null;
             setParents();
             logger.getContext().updateLoggers();
         }
@@ -906,6 +911,7 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
             nlc.addFilter(filter);
             nlc.setParent(lc);
             loggerConfigs.putIfAbsent(loggerName, nlc);
+            loggerConfigTrie = null;
             setParents();
             logger.getContext().updateLoggers();
         }
@@ -930,6 +936,7 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
             final LoggerConfig nlc = new LoggerConfig(loggerName, lc.getLevel(), additive);
             nlc.setParent(lc);
             loggerConfigs.putIfAbsent(loggerName, nlc);
+            loggerConfigTrie = null;
             setParents();
             logger.getContext().updateLoggers();
         }
@@ -972,18 +979,22 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
      */
     @Override
     public LoggerConfig getLoggerConfig(final String loggerName) {
-        LoggerConfig loggerConfig = loggerConfigs.get(loggerName);
-        if (loggerConfig != null) {
-            return loggerConfig;
-        }
-        String substr = loggerName;
-        while ((substr = NameUtil.getSubName(substr)) != null) {
-            loggerConfig = loggerConfigs.get(substr);
-            if (loggerConfig != null) {
-                return loggerConfig;
+        return getLoggerConfigTrie().find(loggerName, root);
+    }
+
+    private LoggerConfigTrie getLoggerConfigTrie() {
+        LoggerConfigTrie trie = loggerConfigTrie;
+        if (trie == null) {
+            // rebuilt under the same lock as the changes to the LoggerConfigs, so that a stale snapshot is never kept
+            synchronized (this) {
+                trie = loggerConfigTrie;
+                if (trie == null) {
+                    trie = new LoggerConfigTrie(loggerConfigs);
+                    loggerConfigTrie = trie;
+                }
             }
         }
-        return root;
+        return trie;
     }
 
     @Override
@@ -1031,6 +1042,7 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
     @Override
     public synchronized void addLogger(final String loggerName, final LoggerConfig loggerConfig) {
         loggerConfigs.putIfAbsent(loggerName, loggerConfig);
+        loggerConfigTrie = null;
         setParents();
     }
 
@@ -1042,6 +1054,7 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
     @Override
     public synchronized void removeLogger(final String loggerName) {
         loggerConfigs.remove(loggerName);
+        loggerConfigTrie = null;
         setParents();
     }
 
@@ -1158,18 +1171,14 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
     }
 
     private void setParents() {
+        final LoggerConfigTrie trie = getLoggerConfigTrie();
         for (final Map.Entry<String, LoggerConfig> entry : loggerConfigs.entrySet()) {
             final LoggerConfig logger = entry.getValue();
-            String key = entry.getKey();
+            final String key = entry.getKey();
             if (!key.isEmpty()) {
                 final int i = key.lastIndexOf('.');
                 if (i > 0) {
-                    key = key.substring(0, i);
-                    LoggerConfig parent = getLoggerConfig(key);
-                    if (parent == null) {
-                        parent = root;
-                    }
-                    logger.setParent(parent);
+                    logger.setParent(trie.find(key, i, root));
                 } else {
                     logger.setParent(root);
                 }
@@ -16,15 +16,19 @@
  */
 package org.apache.logging.log4j.core.config;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.BatchAppender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AppenderLoggingException;
 import org.apache.logging.log4j.core.filter.AbstractFilterable;
 import org.apache.logging.log4j.core.filter.Filterable;
+import org.apache.logging.log4j.core.metrics.AppenderMetrics;
+import org.apache.logging.log4j.core.metrics.MetricsRegistry;
 import org.apache.logging.log4j.util.PerformanceSensitive;
 
 /**
@@ -37,11 +41,18 @@ public class AppenderControl extends AbstractFilterable {
      */
     static final AppenderControl[] EMPTY_ARRAY = {};
 
+    /**
+     * The events the current thread collects for {@link BatchAppender}s.
+     */
+    private static final ThreadLocal<Batch> BATCH = new ThreadLocal<>();
+
     private final ThreadLocal<AppenderControl> recursive = new ThreadLocal<>();
     private final Appender appender;
     private final Level level;
     private final int intLevel;
     private final String appenderName;
+    private final AppenderMetrics metrics;
+    private final BatchAppender batchAppender;
 
     /**
      * Constructor.
@@ -56,6 +67,8 @@ public class AppenderControl extends AbstractFilterable {
         this.appenderName = appender.getName();
         this.level = level;
         this.intLevel = level == null ? Level.ALL.intLevel() : level.intLevel();
+        this.metrics = MetricsRegistry.getAppenderMetrics(appender);
+        this.batchAppender = appender instanceof BatchAppender ? (BatchAppender) appender : null;
         start();
     }
 
@@ -90,7 +103,11 @@ public class AppenderControl extends AbstractFilterable {
     }
 
     private boolean shouldSkip(final LogEvent event) {
-        return isFilteredByAppenderControl(event) || isFilteredByLevel(event) || isRecursiveCall();
+        if (isFilteredByAppenderControl(event) || isFilteredByLevel(event)) {
+            recordFiltered();
+            return true;
+        }
+        return isRecursiveCall();
     }
 
     @PerformanceSensitive
@@ -107,6 +124,7 @@ public class AppenderControl extends AbstractFilterable {
     @PerformanceSensitive
     private boolean isRecursiveCall() {
         if (recursive.get() != null) {
+            recordError();
             appenderErrorHandlerMessage("Recursive call to appender ");
             return true;
         }
@@ -130,8 +148,207 @@ public class AppenderControl extends AbstractFilterable {
 
     private void callAppender0(final LogEvent event) {
         ensureAppenderStarted();
-        if (!isFilteredByAppender(event)) {
+        if (isFilteredByAppender(event)) {
+            recordFiltered();
+        } else if (batchAppender != null && collectBatchedEvent(event)) {
+            // appended by endBatch()
+        } else if (metrics == null) {
             tryCallAppender(event);
+        } else {
+            final long startNanos = System.nanoTime();
+            try {
+                tryCallAppender(event);
+            } finally {
+                metrics.recordAppend(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    private boolean collectBatchedEvent(final LogEvent event) {
+        final Batch batch = BATCH.get();
+        if (batch == null || batch.current != event) {
+            return false;
+        }
+        batch.add(this, event);
+        return true;
+    }
+
+    private void callBatchAppender(final LogEvent[] events, final int count) {
+        try {
+            recursive.set(this);
+            if (metrics == null) {
+                tryCallBatchAppender(events, count);
+            } else {
+                final long startNanos = System.nanoTime();
+                try {
+                    tryCallBatchAppender(events, count);
+                } finally {
+                    final long nanosPerEvent = (System.nanoTime() - startNanos) / count;
+                    for (int i = 0; i < count; i++) {
+                        metrics.recordAppend(nanosPerEvent);
+                    }
+                }
+            }
+        } finally {
+            recursive.set(null);
+        }
+    }
+
+    private void tryCallBatchAppender(final LogEvent[] events, final int count) {
+        try {
+            batchAppender.append(events, count);
+        } catch (final RuntimeException error) {
+            handleAppenderError(events[0], error);
+        } catch (final Throwable throwable) {
+            handleAppenderError(events[0], new AppenderLoggingException(throwable));
+        }
+    }
+
+    /**
+     * Declares that the current thread is about to pass the given event to its appenders as part of a batch. Until
+     * {@link #endBatch()} is called, {@link BatchAppender}s do not receive the event when it is passed to
+     * {@link #callAppender(LogEvent)}; instead, {@code endBatch()} passes all events collected for an appender in a
+     * single call to {@link BatchAppender#append(LogEvent[], int)}. Other appenders, and events logged while the event
+     * is dispatched, are not affected.
+     * <p>
+     * The caller must leave the events of a batch unchanged until {@code endBatch()} returns.
+     * </p>
+     * <p>
+     * FOR INTERNAL USE. This method is used by the asynchronous loggers and the {@code AsyncAppender}.
+     * </p>
+     *
+     * @param event the event the current thread dispatches next.
+     * @since 2.21.0
+     */
+    public static void addToBatch(final LogEvent event) {
+        Batch batch = BATCH.get();
+        if (batch == null) {
+            batch = new Batch();
+            BATCH.set(batch);
+        }
+        batch.current = event;
+    }
+
+    /**
+     * Appends the events collected since the first call to {@link #addToBatch(LogEvent)} to their
+     * {@link BatchAppender}s, and ends the current thread's batch.
+     * <p>
+     * FOR INTERNAL USE.
+     * </p>
+     *
+     * @throws AppenderLoggingException if an appender that does not ignore exceptions failed, after all appenders of
+     *     the batch were called.
+     * @since 2.21.0
+     */
+    public static void endBatch() {
+        final Batch batch = BATCH.get();
+        if (batch != null) {
+            batch.flush(null);
+        }
+    }
+
+    /**
+     * Appends the events collected since the first call to {@link #addToBatch(LogEvent)} to their
+     * {@link BatchAppender}s, ends the current thread's batch and reports the outcome of each appender to the listener
+     * instead of throwing.
+     * <p>
+     * FOR INTERNAL USE.
+     * </p>
+     *
+     * @param listener receives the events of each appender and its failure, if any.
+     * @since 2.21.0
+     */
+    public static void endBatch(final BatchListener listener) {
+        final Batch batch = BATCH.get();
+        if (batch != null) {
+            batch.flush(listener);
+        }
+    }
+
+    /**
+     * Receives the outcome of the batches appended by {@link #endBatch(BatchListener)}.
+     *
+     * @since 2.21.0
+     */
+    public interface BatchListener {
+
+        /**
+         * Called once the events collected for an appender were passed to it.
+         *
+         * @param control the appender.
+         * @param events the events in the order they were collected, the array may be longer than {@code count}.
+         * @param count the number of events.
+         * @param failure the exception of an appender that does not ignore exceptions, or {@code null}.
+         */
+        void batchAppended(AppenderControl control, LogEvent[] events, int count, RuntimeException failure);
+    }
+
+    /**
+     * The events one thread collected for each {@link BatchAppender} since its batch started. There is typically only
+     * a handful of such appenders, so they are looked up linearly.
+     */
+    private static final class Batch {
+
+        // the largest batch the asynchronous loggers and the AsyncAppender dispatch, so that buffers do not grow
+        private static final int INITIAL_CAPACITY = 128;
+
+        private LogEvent current;
+        private AppenderControl[] controls = new AppenderControl[2];
+        private LogEvent[][] events = {new LogEvent[INITIAL_CAPACITY], new LogEvent[INITIAL_CAPACITY]};
+        private int[] counts = new int[2];
+        private int size;
+
+        void add(final AppenderControl control, final LogEvent event) {
+            int index = 0;
+            while (index < size && controls[index] != control) {
+                index++;
+            }
+            if (index == size) {
+                if (size == controls.length) {
+                    controls = Arrays.copyOf(controls, size * 2);
+                    events = Arrays.copyOf(events, size * 2);
+                    counts = Arrays.copyOf(counts, size * 2);
+                }
+                if (events[index] == null) {
+                    events[index] = new LogEvent[INITIAL_CAPACITY];
+                }
+                controls[index] = control;
+                size++;
+            }
+            final int count = counts[index];
+            if (count == events[index].length) {
+                events[index] = Arrays.copyOf(events[index], count * 2);
+            }
+            events[index][count] = event;
+            counts[index] = count + 1;
+        }
+
+        void flush(final BatchListener listener) {
+            current = null; // events logged by the appenders are not part of this batch
+            RuntimeException failure = null;
+            for (int i = 0; i < size; i++) {
+                try {
+                    RuntimeException error = null;
+                    try {
+                        controls[i].callBatchAppender(events[i], counts[i]);
+                    } catch (final RuntimeException ex) {
+                        error = ex;
+                    }
+                    if (listener != null) {
+                        listener.batchAppended(controls[i], events[i], counts[i], error);
+                    } else if (failure == null) {
+                        failure = error;
+                    }
+                } finally {
+                    Arrays.fill(events[i], 0, counts[i], null);
+                    counts[i] = 0;
+                    controls[i] = null;
+                }
+            }
+            size = 0;
+            if (failure != null) {
+                throw failure;
+            }
         }
     }
 
@@ -142,6 +359,7 @@ public class AppenderControl extends AbstractFilterable {
     }
 
     private void handleError(final String prefix) {
+        recordError();
         final String msg = appenderErrorHandlerMessage(prefix);
         if (!appender.ignoreExceptions()) {
             throw new AppenderLoggingException(msg);
@@ -167,12 +385,25 @@ public class AppenderControl extends AbstractFilterable {
     }
 
     private void handleAppenderError(final LogEvent event, final RuntimeException ex) {
+        recordError();
         appender.getHandler().error(createErrorMsg("An exception occurred processing Appender "), event, ex);
         if (!appender.ignoreExceptions()) {
             throw ex;
         }
     }
 
+    private void recordFiltered() {
+        if (metrics != null) {
+            metrics.recordFiltered();
+        }
+    }
+
+    private void recordError() {
+        if (metrics != null) {
+            metrics.recordError();
+        }
+    }
+
     // AppenderControl is a helper object whose purpose is to make it
     // easier for LoggerConfig to manage and invoke Appenders.
     // LoggerConfig manages Appenders by their name. To facilitate this,
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.Map;
+
+/**
+ * An immutable trie of the LoggerConfigs of a configuration, keyed by the dot-separated segments of their names.
+ * <p>
+ * Resolving the LoggerConfig of a Logger walks the segments of its name once, matching each of them in place against
+ * the children of the current node, so it neither creates substrings nor allocates. The trie is a snapshot: it must
+ * be rebuilt whenever LoggerConfigs are added or removed.
+ * </p>
+ */
+final class LoggerConfigTrie {
+
+    private final Node root = new Node();
+
+    LoggerConfigTrie(final Map<String, LoggerConfig> loggerConfigs) {
+        for (final Map.Entry<String, LoggerConfig> entry : loggerConfigs.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void put(final String name, final LoggerConfig loggerConfig) {
+        Node node = root;
+        if (!name.isEmpty()) {
+            int start = 0;
+            while (true) {
+                int end = name.indexOf('.', start);
+                if (end < 0) {
+                    end = name.length();
+                }
+                node = node.getOrAddChild(name.substring(start, end));
+                if (end == name.length()) {
+                    break;
+                }
+                start = end + 1;
+            }
+        }
+        node.loggerConfig = loggerConfig;
+    }
+
+    /**
+     * Locates the LoggerConfig with the longest name that is the given Logger name or one of its ancestors.
+     *
+     * @param name the Logger name.
+     * @param defaultConfig the LoggerConfig returned if no LoggerConfig matches.
+     * @return the located LoggerConfig.
+     */
+    LoggerConfig find(final String name, final LoggerConfig defaultConfig) {
+        return find(name, name.length(), defaultConfig);
+    }
+
+    /**
+     * Locates the LoggerConfig for the Logger named by the first {@code length} characters of {@code name}.
+     *
+     * @param name a string starting with the Logger name.
+     * @param length the length of the Logger name.
+     * @param defaultConfig the LoggerConfig returned if no LoggerConfig matches.
+     * @return the located LoggerConfig.
+     */
+    LoggerConfig find(final String name, final int length, final LoggerConfig defaultConfig) {
+        LoggerConfig result = root.loggerConfig;
+        if (length > 0) {
+            Node node = root;
+            int start = 0;
+            while (true) {
+                int end = name.indexOf('.', start);
+                if (end < 0 || end > length) {
+                    end = length;
+                }
+                node = node.getChild(name, start, end);
+                if (node == null) {
+                    break;
+                }
+                if (node.loggerConfig != null) {
+                    result = node.loggerConfig;
+                }
+                if (end == length) {
+                    break;
+                }
+                start = end + 1;
+            }
+        }
+        return result != null ? result : defaultConfig;
+    }
+
+    /**
+     * A name segment, with its children in an open-addressing hash table.
+     */
+    private static final class Node {
+
+        private static final String[] NO_KEYS = new String[0];
+        private static final Node[] NO_NODES = new Node[0];
+
+        private LoggerConfig loggerConfig;
+        private String[] keys = NO_KEYS;
+        private Node[] children = NO_NODES;
+        private int size;
+
+        Node getChild(final String name, final int start, final int end) {
+            if (size == 0) {
+                return null;
+            }
+            final int length = end - start;
+            final int mask = keys.length - 1;
+            int index = hash(name, start, end) & mask;
+            String key;
+            while ((key = keys[index]) != null) {
+                if (key.length() == length && key.regionMatches(0, name, start, length)) {
+                    return children[index];
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        Node getOrAddChild(final String segment) {
+            final Node existing = getChild(segment, 0, segment.length());
+            if (existing != null) {
+                return existing;
+            }
+            // keep the table at most half full
+            if (2 * (size + 1) > keys.length) {
+                resize(Math.max(4, 2 * keys.length));
+            }
+            final Node child = new Node();
+            insert(segment, child);
+            size++;
+            return child;
+        }
+
+        private void resize(final int capacity) {
+            final String[] oldKeys = keys;
+            final Node[] oldChildren = children;
+            keys = new String[capacity];
+            children = new Node[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    insert(oldKeys[i], oldChildren[i]);
+                }
+            }
+        }
+
+        private void insert(final String segment, final Node child) {
+            final int mask = keys.length - 1;
+            int index = hash(segment, 0, segment.length()) & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = segment;
+            children[index] = child;
+        }
+
+        private static int hash(final String name, final int start, final int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + name.charAt(i);
+            }
+            // spread the low bits used to index the table
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
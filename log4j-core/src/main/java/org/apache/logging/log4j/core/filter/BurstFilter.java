@@ -16,14 +16,20 @@
  */
 package org.apache.logging.log4j.core.filter;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.ContextDataInjector;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
@@ -31,7 +37,9 @@ import org.apache.logging.log4j.core.config.Node;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
 
 /**
  * The <code>BurstFilter</code> is a logging filter that regulates logging traffic.
@@ -50,6 +58,14 @@ import org.apache.logging.log4j.message.Message;
  * &nbsp;&lt;/Filters&gt;<br>
  * &lt;/Console&gt;<br>
  * </code><br>
+ * <p>
+ * With <code>tokenBucket="true"</code> the filter uses a lock-free token bucket that is refilled at
+ * <code>rate</code> tokens per second up to <code>maxBurst</code> tokens instead of tracking the time of every
+ * recent event, so that filtering does not allocate. The token bucket mode can also keep a separate bucket per
+ * Logger name or per value of a context data key, see {@link BucketKey}. Events for which no key is found, or which
+ * would exceed <code>maxBuckets</code> buckets, share a single bucket. The number of events dropped by the filter
+ * is counted and exposed through JMX.
+ * </p>
  */
 
 @Plugin(name = "BurstFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
@@ -63,6 +79,22 @@ public final class BurstFilter extends AbstractFilter {
 
     private static final int HASH_SHIFT = 32;
 
+    private static final int DEFAULT_MAX_BUCKETS = 1000;
+
+    /**
+     * Selects the key of the token bucket an event is counted against.
+     *
+     * @since 2.21.0
+     */
+    public enum BucketKey {
+        /** All events share one bucket. */
+        NONE,
+        /** Events are counted per Logger name. */
+        LOGGER_NAME,
+        /** Events are counted per value of the context data key configured with <code>contextKey</code>. */
+        CONTEXT_DATA
+    }
+
     /**
      * Level of messages to be filtered. Anything at or below this level will be
      * filtered out if <code>maxBurst</code> has been exceeded. The default is
@@ -71,8 +103,28 @@ public final class BurstFilter extends AbstractFilter {
      */
     private final Level level;
 
+    private final float rate;
+
+    private final long maxBurst;
+
     private final long burstInterval;
 
+    private final boolean tokenBucket;
+
+    private final BucketKey bucketKey;
+
+    private final String contextKey;
+
+    private final int maxBuckets;
+
+    private final TokenBucket defaultBucket;
+
+    private final Map<Object, TokenBucket> buckets;
+
+    private final ContextDataInjector injector;
+
+    private final LongAdder dropped = new LongAdder();
+
     private final DelayQueue<LogDelay> history = new DelayQueue<>();
 
     private final Queue<LogDelay> available = new ConcurrentLinkedQueue<>();
@@ -81,82 +133,101 @@ public final class BurstFilter extends AbstractFilter {
         return new LogDelay(expireTime);
     }
 
-    private BurstFilter(final Level level, final float rate, final long maxBurst, final Result onMatch,
-                        final Result onMismatch) {
+    private BurstFilter(final Level level, final float rate, final long maxBurst, final boolean tokenBucket,
+                        final BucketKey bucketKey, final String contextKey, final int maxBuckets,
+                        final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
         this.level = level;
+        this.rate = rate;
+        this.maxBurst = maxBurst;
         this.burstInterval = (long) (NANOS_IN_SECONDS * (maxBurst / rate));
-        for (int i = 0; i < maxBurst; ++i) {
-            available.add(createLogDelay(0));
+        this.tokenBucket = tokenBucket;
+        this.bucketKey = bucketKey;
+        this.contextKey = contextKey;
+        this.maxBuckets = maxBuckets;
+        this.injector = bucketKey == BucketKey.CONTEXT_DATA ? ContextDataInjectorFactory.createInjector() : null;
+        if (tokenBucket) {
+            this.defaultBucket = new TokenBucket(rate, maxBurst, System.nanoTime());
+            this.buckets = bucketKey == BucketKey.NONE ? null : new ConcurrentHashMap<>();
+        } else {
+            this.defaultBucket = null;
+            this.buckets = null;
+            for (int i = 0; i < maxBurst; ++i) {
+                available.add(createLogDelay(0));
+            }
         }
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
                          final Object... params) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
                          final Throwable t) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
                          final Throwable t) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final LogEvent event) {
-        return filter(event.getLevel());
+        final Level level = event.getLevel();
+        if (this.level.isMoreSpecificThan(level)) {
+            return tokenBucket ? acquire(getBucket(event.getLoggerName(), event.getContextData())) : acquire();
+        }
+        return onMatch;
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
@@ -164,7 +235,7 @@ public final class BurstFilter extends AbstractFilter {
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
@@ -172,7 +243,7 @@ public final class BurstFilter extends AbstractFilter {
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
@@ -180,7 +251,7 @@ public final class BurstFilter extends AbstractFilter {
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8, final Object p9) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     /**
@@ -188,25 +259,65 @@ public final class BurstFilter extends AbstractFilter {
      * maximum burst of log statements has been exceeded.
      *
      * @param level The log level.
+     * @param logger The Logger, used as bucket key.
      * @return The onMatch value if the filter passes, onMismatch otherwise.
      */
-    private Result filter(final Level level) {
+    private Result filter(final Level level, final Logger logger) {
         if (this.level.isMoreSpecificThan(level)) {
-            LogDelay delay = history.poll();
-            while (delay != null) {
-                available.add(delay);
-                delay = history.poll();
+            if (tokenBucket) {
+                final String loggerName = logger == null ? null : logger.getName();
+                final ReadOnlyStringMap contextData = injector == null ? null : injector.rawContextData();
+                return acquire(getBucket(loggerName, contextData));
             }
-            delay = available.poll();
-            if (delay != null) {
-                delay.setDelay(burstInterval);
-                history.add(delay);
-                return onMatch;
-            }
-            return onMismatch;
+            return acquire();
         }
         return onMatch;
+    }
 
+    private Result acquire() {
+        LogDelay delay = history.poll();
+        while (delay != null) {
+            available.add(delay);
+            delay = history.poll();
+        }
+        delay = available.poll();
+        if (delay != null) {
+            delay.setDelay(burstInterval);
+            history.add(delay);
+            return onMatch;
+        }
+        dropped.increment();
+        return onMismatch;
+    }
+
+    private Result acquire(final TokenBucket bucket) {
+        return bucket.tryAcquire(System.nanoTime()) ? onMatch : onMismatch;
+    }
+
+    private TokenBucket getBucket(final String loggerName, final ReadOnlyStringMap contextData) {
+        final Object key;
+        switch (bucketKey) {
+            case LOGGER_NAME:
+                key = loggerName;
+                break;
+            case CONTEXT_DATA:
+                key = contextData == null ? null : contextData.getValue(contextKey);
+                break;
+            default:
+                return defaultBucket;
+        }
+        if (key == null) {
+            return defaultBucket;
+        }
+        final TokenBucket bucket = buckets.get(key);
+        return bucket != null ? bucket : createBucket(key);
+    }
+
+    private TokenBucket createBucket(final Object key) {
+        if (buckets.size() >= maxBuckets) {
+            return defaultBucket;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(rate, maxBurst, System.nanoTime()));
     }
 
     /**
@@ -214,21 +325,143 @@ public final class BurstFilter extends AbstractFilter {
      * @return The number of available slots.
      */
     public int getAvailable() {
-        return available.size();
+        return tokenBucket ? defaultBucket.getAvailable(System.nanoTime()) : available.size();
     }
 
     /**
      * Clear the history. Used for unit testing.
      */
     public void clear() {
+        if (tokenBucket) {
+            final long nanoTime = System.nanoTime();
+            defaultBucket.reset(nanoTime);
+            if (buckets != null) {
+                buckets.values().forEach(bucket -> bucket.reset(nanoTime));
+            }
+            return;
+        }
         for (final LogDelay delay : history) {
             history.remove(delay);
             available.add(delay);
         }
     }
 
+    /**
+     * Returns the level of the events regulated by this filter.
+     *
+     * @return the level.
+     * @since 2.21.0
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the average number of events per second allowed.
+     *
+     * @return the rate.
+     * @since 2.21.0
+     */
+    public float getRate() {
+        return rate;
+    }
+
+    /**
+     * Returns the maximum number of events allowed in a burst.
+     *
+     * @return the maximum burst.
+     * @since 2.21.0
+     */
+    public long getMaxBurst() {
+        return maxBurst;
+    }
+
+    /**
+     * Returns whether this filter uses token buckets.
+     *
+     * @return {@code true} if this filter uses token buckets.
+     * @since 2.21.0
+     */
+    public boolean isTokenBucket() {
+        return tokenBucket;
+    }
+
+    /**
+     * Returns how events are assigned to token buckets.
+     *
+     * @return the bucket key.
+     * @since 2.21.0
+     */
+    public BucketKey getBucketKey() {
+        return bucketKey;
+    }
+
+    /**
+     * Returns the number of per-key token buckets.
+     *
+     * @return the number of per-key buckets, not counting the shared bucket.
+     * @since 2.21.0
+     */
+    public int getBucketCount() {
+        return buckets == null ? 0 : buckets.size();
+    }
+
+    /**
+     * Returns the number of events denied by this filter since it was created or the counters were reset.
+     *
+     * @return the number of dropped events.
+     * @since 2.21.0
+     */
+    public long getDroppedCount() {
+        if (!tokenBucket) {
+            return dropped.sum();
+        }
+        long sum = defaultBucket.getDroppedCount();
+        if (buckets != null) {
+            for (final TokenBucket bucket : buckets.values()) {
+                sum += bucket.getDroppedCount();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the number of events denied by this filter for each bucket key.
+     *
+     * @return the number of dropped events by bucket key, empty if the filter does not use per-key buckets.
+     * @since 2.21.0
+     */
+    public Map<String, Long> getDroppedCountsByKey() {
+        if (buckets == null) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Long> result = new HashMap<>(buckets.size());
+        buckets.forEach((key, bucket) -> result.put(String.valueOf(key), bucket.getDroppedCount()));
+        return result;
+    }
+
+    /**
+     * Resets the counters of dropped events.
+     *
+     * @since 2.21.0
+     */
+    public void resetDroppedCounts() {
+        if (!tokenBucket) {
+            dropped.reset();
+            return;
+        }
+        defaultBucket.resetDroppedCount();
+        if (buckets != null) {
+            buckets.values().forEach(TokenBucket::resetDroppedCount);
+        }
+    }
+
     @Override
     public String toString() {
+        if (tokenBucket) {
+            return "level=" + level.toString() + ", rate=" + rate + ", max=" + maxBurst + ", bucketKey=" + bucketKey
+                    + (bucketKey == BucketKey.CONTEXT_DATA ? ", contextKey=" + contextKey : "");
+        }
         return "level=" + level.toString() + ", interval=" + burstInterval + ", max=" + history.size();
     }
 
@@ -300,6 +533,18 @@ public final class BurstFilter extends AbstractFilter {
         @PluginBuilderAttribute
         private long maxBurst;
 
+        @PluginBuilderAttribute
+        private boolean tokenBucket;
+
+        @PluginBuilderAttribute
+        private BucketKey bucketKey = BucketKey.NONE;
+
+        @PluginBuilderAttribute
+        private String contextKey;
+
+        @PluginBuilderAttribute
+        private int maxBuckets = DEFAULT_MAX_BUCKETS;
+
         /**
          * Sets the logging level to use.
          * @param level the logging level to use.
@@ -331,6 +576,52 @@ public final class BurstFilter extends AbstractFilter {
             return this;
         }
 
+        /**
+         * Sets whether to use a lock-free token bucket instead of tracking the time of recent events.
+         * @param tokenBucket {@code true} to use a token bucket.
+         * @return this
+         * @since 2.21.0
+         */
+        public Builder setTokenBucket(final boolean tokenBucket) {
+            this.tokenBucket = tokenBucket;
+            return this;
+        }
+
+        /**
+         * Sets how events are assigned to separate token buckets. Any value other than {@link BucketKey#NONE}
+         * implies a token bucket.
+         * @param bucketKey how events are assigned to token buckets.
+         * @return this
+         * @since 2.21.0
+         */
+        public Builder setBucketKey(final BucketKey bucketKey) {
+            this.bucketKey = bucketKey;
+            return this;
+        }
+
+        /**
+         * Sets the context data key whose value selects the token bucket when the bucket key is
+         * {@link BucketKey#CONTEXT_DATA}.
+         * @param contextKey the context data key.
+         * @return this
+         * @since 2.21.0
+         */
+        public Builder setContextKey(final String contextKey) {
+            this.contextKey = contextKey;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of per-key token buckets. Events for further keys share one bucket.
+         * @param maxBuckets the maximum number of per-key token buckets.
+         * @return this
+         * @since 2.21.0
+         */
+        public Builder setMaxBuckets(final int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+            return this;
+        }
+
         @Override
         public BurstFilter build() {
             if (this.rate <= 0) {
@@ -339,7 +630,19 @@ public final class BurstFilter extends AbstractFilter {
             if (this.maxBurst <= 0) {
                 this.maxBurst = (long) (this.rate * DEFAULT_RATE_MULTIPLE);
             }
-            return new BurstFilter(this.level, this.rate, this.maxBurst, this.getOnMatch(), this.getOnMismatch());
+            if (this.bucketKey == null) {
+                this.bucketKey = BucketKey.NONE;
+            }
+            if (this.bucketKey == BucketKey.CONTEXT_DATA && this.contextKey == null) {
+                LOGGER.error("BurstFilter with bucketKey CONTEXT_DATA requires a contextKey, using a single bucket");
+                this.bucketKey = BucketKey.NONE;
+            }
+            if (this.maxBuckets <= 0) {
+                this.maxBuckets = DEFAULT_MAX_BUCKETS;
+            }
+            final boolean useTokenBucket = this.tokenBucket || this.bucketKey != BucketKey.NONE;
+            return new BurstFilter(this.level, this.rate, this.maxBurst, useTokenBucket, this.bucketKey,
+                    this.contextKey, this.maxBuckets, this.getOnMatch(), this.getOnMismatch());
         }
     }
 }
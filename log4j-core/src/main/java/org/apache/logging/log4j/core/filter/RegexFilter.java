@@ -19,7 +19,6 @@ package org.apache.logging.log4j.core.filter;
 import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.Level;
@@ -32,8 +31,15 @@ import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.internal.ReusableRegex;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.util.BoundedObjectPool;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.StringBuilders;
+import org.apache.logging.log4j.util.VirtualThreads;
 
 /**
  * This filter returns the onMatch result if the message matches the regular expression.
@@ -43,15 +49,28 @@ import org.apache.logging.log4j.message.ParameterizedMessage;
  *
  */
 @Plugin(name = "RegexFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+@PerformanceSensitive("allocation")
 public final class RegexFilter extends AbstractFilter {
 
     private static final int DEFAULT_PATTERN_FLAGS = 0;
     private final Pattern pattern;
+    private final ReusableRegex regex;
     private final boolean useRawMessage;
+    /**
+     * Buffers of platform threads to format messages into, or {@code null} if thread locals are disabled.
+     */
+    private final ThreadLocal<StringBuilder> threadLocalBuffers = Constants.ENABLE_THREADLOCALS
+            ? ThreadLocal.withInitial(StringBuilder::new)
+            : null;
+    /**
+     * Buffers of virtual threads, and of all threads if thread locals are disabled.
+     */
+    private final BoundedObjectPool<StringBuilder> buffers = new BoundedObjectPool<>(StringBuilder::new);
 
     private RegexFilter(final boolean raw, final Pattern pattern, final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
         this.pattern = pattern;
+        this.regex = new ReusableRegex(pattern);
         this.useRawMessage = raw;
     }
 
@@ -79,22 +98,52 @@ public final class RegexFilter extends AbstractFilter {
         if (msg == null) {
             return onMismatch;
         }
-        final String text = useRawMessage ? msg.getFormat() : msg.getFormattedMessage();
-        return filter(text);
+        return filter(msg);
     }
 
     @Override
     public Result filter(final LogEvent event) {
-        final String text = useRawMessage ? event.getMessage().getFormat() : event.getMessage().getFormattedMessage();
-        return filter(text);
+        return filter(event.getMessage());
+    }
+
+    private Result filter(final Message msg) {
+        if (useRawMessage) {
+            return filter(msg.getFormat());
+        }
+        if (!(msg instanceof ReusableMessage)) {
+            // other messages cache the formatted string for the layout
+            return filter(msg.getFormattedMessage());
+        }
+        if (threadLocalBuffers == null || VirtualThreads.isCurrentThreadVirtual()) {
+            final StringBuilder buffer = buffers.acquire();
+            try {
+                return filter((ReusableMessage) msg, buffer);
+            } finally {
+                buffers.release(buffer);
+            }
+        }
+        return filter((ReusableMessage) msg, threadLocalBuffers.get());
+    }
+
+    private Result filter(final ReusableMessage msg, final StringBuilder buffer) {
+        // formatting may log and filter another message, which is then formatted after this one and removed again
+        final int start = buffer.length();
+        try {
+            msg.formatTo(buffer);
+            return regex.matches(buffer, start) ? onMatch : onMismatch;
+        } finally {
+            buffer.setLength(start);
+            if (start == 0) {
+                StringBuilders.trimToMaxSize(buffer, Constants.MAX_REUSABLE_MESSAGE_SIZE);
+            }
+        }
     }
 
     private Result filter(final String msg) {
         if (msg == null) {
             return onMismatch;
         }
-        final Matcher m = pattern.matcher(msg);
-        return m.matches() ? onMatch : onMismatch;
+        return regex.matches(msg) ? onMatch : onMismatch;
     }
 
     @Override
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free token bucket whose whole state is a single {@code long}.
+ * <p>
+ * Instead of a token count and a refill time, the bucket stores the {@link System#nanoTime()} at which it will be
+ * full again (the "theoretical arrival time" of the generic cell rate algorithm). Taking a token moves that time one
+ * emission interval into the future, and a token is available as long as the time stays within {@code capacity}
+ * intervals from now. Refilling therefore needs no background work and taking a token is a single compare-and-set,
+ * which does not allocate.
+ * </p>
+ */
+final class TokenBucket {
+
+    private static final double NANOS_IN_SECONDS = 1_000_000_000d;
+
+    private final int capacity;
+
+    private final long emissionIntervalNanos;
+
+    private final long toleranceNanos;
+
+    private final AtomicLong fullAt;
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param rate the number of tokens added per second.
+     * @param capacity the maximum number of tokens the bucket holds.
+     * @param nanoTime the current {@link System#nanoTime()}.
+     */
+    TokenBucket(final float rate, final long capacity, final long nanoTime) {
+        this.capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(1, capacity));
+        this.emissionIntervalNanos = Math.max(1, (long) (NANOS_IN_SECONDS / rate));
+        this.toleranceNanos = (this.capacity - 1) * emissionIntervalNanos;
+        this.fullAt = new AtomicLong(nanoTime);
+    }
+
+    /**
+     * Takes a token if one is available; otherwise counts the attempt as dropped.
+     *
+     * @param nanoTime the current {@link System#nanoTime()}.
+     * @return {@code true} if a token was taken.
+     */
+    boolean tryAcquire(final long nanoTime) {
+        long current;
+        long next;
+        do {
+            current = fullAt.get();
+            final long start = current - nanoTime > 0 ? current : nanoTime;
+            if (start - nanoTime > toleranceNanos) {
+                dropped.increment();
+                return false;
+            }
+            next = start + emissionIntervalNanos;
+        } while (!fullAt.compareAndSet(current, next));
+        return true;
+    }
+
+    /**
+     * Returns the number of tokens that could be taken right now.
+     *
+     * @param nanoTime the current {@link System#nanoTime()}.
+     * @return the number of available tokens.
+     */
+    int getAvailable(final long nanoTime) {
+        final long backlog = fullAt.get() - nanoTime;
+        if (backlog <= 0) {
+            return capacity;
+        }
+        return (int) Math.max(0, Math.floorDiv(toleranceNanos - backlog, emissionIntervalNanos) + 1);
+    }
+
+    /**
+     * Refills the bucket.
+     *
+     * @param nanoTime the current {@link System#nanoTime()}.
+     */
+    void reset(final long nanoTime) {
+        fullAt.set(nanoTime);
+    }
+
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    void resetDroppedCount() {
+        dropped.reset();
+    }
+}
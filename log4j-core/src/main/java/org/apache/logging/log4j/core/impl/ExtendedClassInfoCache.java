@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.core.impl.ThrowableProxyHelper.CacheEntry;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Caches the packaging data of stack trace classes across {@link ThrowableProxy} instances.
+ * <p>
+ * Resolving the class of a stack trace element, its code source location and its implementation version is the most
+ * expensive part of building a {@link ThrowableProxy}. The same stack traces tend to be logged over and over, so the
+ * result is kept in a map keyed by class name and shared by all proxies. Classes and class loaders are only weakly
+ * referenced and an entry is only reused when the class was resolved by the same class loader, so the cache neither
+ * prevents class unloading nor mixes up classes of the same name from different class loaders.
+ * </p>
+ * <p>
+ * The number of entries is bounded by the {@value #PROPERTY_CACHE_SIZE} property, which defaults to
+ * {@value #DEFAULT_CACHE_SIZE}; a value of {@code 0} disables the cache. When the cache is full, an arbitrary entry is
+ * evicted for each new one.
+ * </p>
+ *
+ * @since 2.21.0
+ */
+public final class ExtendedClassInfoCache {
+
+    /**
+     * The property ({@value}) that holds the maximum number of cached classes.
+     */
+    public static final String PROPERTY_CACHE_SIZE = "log4j2.extendedClassInfoCacheSize";
+
+    static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private static final int MAX_SIZE = Math.max(0,
+            PropertiesUtil.getProperties().getIntegerProperty(PROPERTY_CACHE_SIZE, DEFAULT_CACHE_SIZE));
+
+    private static final ConcurrentMap<String, Resolution> CACHE = new ConcurrentHashMap<>();
+
+    private static final LongAdder HITS = new LongAdder();
+
+    private static final LongAdder MISSES = new LongAdder();
+
+    private ExtendedClassInfoCache() {
+    }
+
+    /**
+     * Returns the packaging data of a class obtained from the call stack.
+     *
+     * @param clazz the class.
+     * @return the packaging data, marked as exact.
+     */
+    static CacheEntry get(final Class<?> clazz) {
+        if (MAX_SIZE == 0) {
+            return ThrowableProxyHelper.toCacheEntry(clazz, true);
+        }
+        final String className = clazz.getName();
+        final Resolution resolution = CACHE.get(className);
+        if (resolution != null && resolution.getResolvedClass() == clazz) {
+            HITS.increment();
+            return resolution.toCacheEntry(true);
+        }
+        MISSES.increment();
+        final CacheEntry entry = ThrowableProxyHelper.toCacheEntry(clazz, true);
+        put(className, new Resolution(entry.loader, clazz, entry));
+        return entry;
+    }
+
+    /**
+     * Returns the packaging data of a class only known by name.
+     *
+     * @param lastLoader the class loader used to resolve the class, may be {@code null}.
+     * @param className the name of the class.
+     * @return the packaging data, marked as inexact.
+     */
+    static CacheEntry get(final ClassLoader lastLoader, final String className) {
+        if (MAX_SIZE == 0) {
+            return ThrowableProxyHelper.toCacheEntry(ThrowableProxyHelper.loadClass(lastLoader, className), false);
+        }
+        final Resolution resolution = CACHE.get(className);
+        if (resolution != null && resolution.isResolvedBy(lastLoader)) {
+            HITS.increment();
+            return resolution.toCacheEntry(false);
+        }
+        MISSES.increment();
+        final Class<?> clazz = ThrowableProxyHelper.loadClass(lastLoader, className);
+        final CacheEntry entry = ThrowableProxyHelper.toCacheEntry(clazz, false);
+        put(className, new Resolution(lastLoader, clazz, entry));
+        return entry;
+    }
+
+    private static void put(final String className, final Resolution resolution) {
+        if (CACHE.size() >= MAX_SIZE && !CACHE.containsKey(className)) {
+            final Iterator<String> iterator = CACHE.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        CACHE.put(className, resolution);
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public static long getHitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to resolve the class.
+     *
+     * @return the number of cache misses.
+     */
+    public static long getMissCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Returns the number of cached classes.
+     *
+     * @return the size of the cache.
+     */
+    public static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * Removes all entries and resets the hit and miss counts.
+     */
+    public static void clear() {
+        CACHE.clear();
+        HITS.reset();
+        MISSES.reset();
+    }
+
+    /**
+     * The packaging data of a class, together with the class loader that resolved it.
+     */
+    private static final class Resolution {
+
+        private final WeakReference<ClassLoader> resolvedBy;
+
+        private final WeakReference<Class<?>> resolvedClass;
+
+        private final WeakReference<ClassLoader> loader;
+
+        private final ExtendedClassInfo exactInfo;
+
+        private final ExtendedClassInfo inexactInfo;
+
+        Resolution(final ClassLoader resolvedBy, final Class<?> clazz, final CacheEntry entry) {
+            this.resolvedBy = resolvedBy == null ? null : new WeakReference<>(resolvedBy);
+            this.resolvedClass = clazz == null ? null : new WeakReference<>(clazz);
+            this.loader = entry.loader == null ? null : new WeakReference<>(entry.loader);
+            final ExtendedClassInfo info = entry.element;
+            this.exactInfo = new ExtendedClassInfo(true, info.getLocation(), info.getVersion());
+            this.inexactInfo = new ExtendedClassInfo(false, info.getLocation(), info.getVersion());
+        }
+
+        Class<?> getResolvedClass() {
+            return resolvedClass == null ? null : resolvedClass.get();
+        }
+
+        boolean isResolvedBy(final ClassLoader classLoader) {
+            if (resolvedClass != null && resolvedClass.get() == null) {
+                // the class has been unloaded
+                return false;
+            }
+            return resolvedBy == null ? classLoader == null : classLoader != null && resolvedBy.get() == classLoader;
+        }
+
+        CacheEntry toCacheEntry(final boolean exact) {
+            return new CacheEntry(exact ? exactInfo : inexactInfo, loader == null ? null : loader.get());
+        }
+    }
+}
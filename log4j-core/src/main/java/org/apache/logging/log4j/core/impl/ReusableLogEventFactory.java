@@ -28,7 +28,9 @@ import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.util.Clock;
 import org.apache.logging.log4j.core.util.ClockFactory;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.BoundedObjectPool;
 import org.apache.logging.log4j.util.StringMap;
+import org.apache.logging.log4j.util.VirtualThreads;
 
 /**
  * Garbage-free LogEventFactory that reuses a single mutable log event.
@@ -39,6 +41,9 @@ public class ReusableLogEventFactory implements LogEventFactory, LocationAwareLo
     private static final Clock CLOCK = ClockFactory.getClock();
 
     private static final ThreadLocal<MutableLogEvent> mutableLogEventThreadLocal = new ThreadLocal<>();
+    // shared by virtual threads, which would each keep their own event in the ThreadLocal
+    private static final BoundedObjectPool<MutableLogEvent> mutableLogEventPool =
+            new BoundedObjectPool<>(MutableLogEvent::new);
     private final ContextDataInjector injector = ContextDataInjectorFactory.createInjector();
 
     /**
@@ -101,6 +106,14 @@ public class ReusableLogEventFactory implements LogEventFactory, LocationAwareLo
     }
 
     private static MutableLogEvent getOrCreateMutableLogEvent() {
+        if (VirtualThreads.isCurrentThreadVirtual()) {
+            // pooled events come from any thread
+            final MutableLogEvent result = mutableLogEventPool.acquire();
+            result.setThreadId(Thread.currentThread().getId());
+            result.setThreadName(Thread.currentThread().getName());
+            result.setThreadPriority(Thread.currentThread().getPriority());
+            return result;
+        }
         MutableLogEvent result = mutableLogEventThreadLocal.get();
         return result == null || result.reserved ? createInstance(result) : result;
     }
@@ -127,8 +140,12 @@ public class ReusableLogEventFactory implements LogEventFactory, LocationAwareLo
     public static void release(final LogEvent logEvent) { // LOG4J2-1583
         if (logEvent instanceof MutableLogEvent) {
             final MutableLogEvent mutableLogEvent = (MutableLogEvent) logEvent;
+            final boolean pooled = mutableLogEvent.reserved && VirtualThreads.isCurrentThreadVirtual();
             mutableLogEvent.clear();
             mutableLogEvent.reserved = false;
+            if (pooled) {
+                mutableLogEventPool.release(mutableLogEvent);
+            }
         }
     }
 }
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the stack traces that were recently rendered so that repeated stack traces can be replaced by a short
+ * reference.
+ * <p>
+ * A stack trace is identified by its signature, a hash of the class names and stack trace elements of the throwable,
+ * its causes and its suppressed throwables. Messages are not part of the signature. The first occurrence of a
+ * signature within a window is rendered in full; the following occurrences in the same window only print the stack
+ * hash and the number of times it was seen. The signatures are kept in a least recently used map of bounded size.
+ * </p>
+ *
+ * @since 2.21.0
+ */
+public final class StackTraceDeduplicator {
+
+    /**
+     * The default number of remembered signatures.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    /**
+     * The default window, in seconds, after which a stack trace is rendered in full again.
+     */
+    public static final int DEFAULT_WINDOW_SECONDS = 60;
+
+    private static final int MAX_DEPTH = 16;
+
+    private final long windowMillis;
+
+    private final Map<Long, Occurrences> occurrences;
+
+    /**
+     * Creates a deduplicator.
+     *
+     * @param maxSize the maximum number of remembered signatures.
+     * @param windowSeconds the number of seconds after which a stack trace is rendered in full again.
+     */
+    public StackTraceDeduplicator(final int maxSize, final int windowSeconds) {
+        final int capacity = Math.max(1, maxSize);
+        this.windowMillis = Math.max(1, windowSeconds) * 1000L;
+        this.occurrences = new LinkedHashMap<Long, Occurrences>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, Occurrences> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Records an occurrence of a stack trace.
+     *
+     * @param signature the signature of the stack trace.
+     * @param timeMillis the time of the occurrence.
+     * @return the number of occurrences in the current window, including this one; {@code 1} means that the stack
+     * trace has to be rendered in full.
+     */
+    public long record(final long signature, final long timeMillis) {
+        synchronized (occurrences) {
+            final Long key = signature;
+            final Occurrences current = occurrences.get(key);
+            if (current == null || timeMillis - current.windowStart >= windowMillis) {
+                occurrences.put(key, new Occurrences(timeMillis));
+                return 1;
+            }
+            return ++current.count;
+        }
+    }
+
+    /**
+     * Returns the window after which a stack trace is rendered in full again.
+     *
+     * @return the window in milliseconds.
+     */
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * Computes the signature of a throwable.
+     *
+     * @param throwable the throwable.
+     * @return the signature.
+     */
+    public static long signature(final Throwable throwable) {
+        return signature(throwable, 0);
+    }
+
+    private static long signature(final Throwable throwable, final int depth) {
+        long hash = throwable.getClass().getName().hashCode();
+        hash = mix(hash, throwable.getStackTrace());
+        if (depth < MAX_DEPTH) {
+            for (final Throwable suppressed : throwable.getSuppressed()) {
+                hash = 31 * hash + signature(suppressed, depth + 1);
+            }
+            final Throwable cause = throwable.getCause();
+            if (cause != null && cause != throwable) {
+                hash = 31 * hash + signature(cause, depth + 1);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Computes the signature of a throwable proxy.
+     *
+     * @param proxy the throwable proxy.
+     * @return the signature.
+     */
+    public static long signature(final ThrowableProxy proxy) {
+        final Throwable throwable = proxy.getThrowable();
+        return throwable != null ? signature(throwable) : signature(proxy, 0);
+    }
+
+    private static long signature(final ThrowableProxy proxy, final int depth) {
+        long hash = proxy.getName().hashCode();
+        hash = mix(hash, proxy.getStackTrace());
+        if (depth < MAX_DEPTH) {
+            for (final ThrowableProxy suppressed : proxy.getSuppressedProxies()) {
+                hash = 31 * hash + signature(suppressed, depth + 1);
+            }
+            final ThrowableProxy cause = proxy.getCauseProxy();
+            if (cause != null) {
+                hash = 31 * hash + signature(cause, depth + 1);
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, final StackTraceElement[] stackTrace) {
+        for (final StackTraceElement element : stackTrace) {
+            hash = 31 * hash + element.hashCode();
+        }
+        // spread the bits so that the hexadecimal form does not start with zeros for short traces
+        hash *= 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    /**
+     * Appends the reference to a stack trace, {@code [stackHash=<signature>]} for the first occurrence and
+     * {@code [stackHash=<signature>, seen <count> times]} for the following ones.
+     *
+     * @param signature the signature of the stack trace.
+     * @param count the number of occurrences.
+     * @param buffer the buffer to append to.
+     */
+    public static void formatReference(final long signature, final long count, final StringBuilder buffer) {
+        buffer.append("[stackHash=");
+        formatSignature(signature, buffer);
+        if (count > 1) {
+            buffer.append(", seen ").append(count).append(" times");
+        }
+        buffer.append(']');
+    }
+
+    /**
+     * Appends the signature of a stack trace as 16 hexadecimal digits.
+     *
+     * @param signature the signature.
+     * @param buffer the buffer to append to.
+     */
+    public static void formatSignature(final long signature, final StringBuilder buffer) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            buffer.append(Character.forDigit((int) (signature >>> shift) & 0xF, 16));
+        }
+    }
+
+    private static final class Occurrences {
+
+        private final long windowStart;
+
+        private long count = 1;
+
+        Occurrences(final long windowStart) {
+            this.windowStart = windowStart;
+        }
+    }
+}
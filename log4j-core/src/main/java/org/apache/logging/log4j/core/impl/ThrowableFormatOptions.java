@@ -56,6 +56,11 @@ public final class ThrowableFormatOptions {
      */
     private static final String SHORT = "short";
 
+    /**
+     * Replace repeated stack traces by a reference.
+     */
+    private static final String DEDUP = "dedup";
+
     /**
      * ANSI renderer
      */
@@ -78,6 +83,11 @@ public final class ThrowableFormatOptions {
      */
     private final List<String> ignorePackages;
 
+    /**
+     * The deduplicator of repeated stack traces, or null.
+     */
+    private final StackTraceDeduplicator deduplicator;
+
     public static final String CLASS_NAME = "short.className";
     public static final String METHOD_NAME = "short.methodName";
     public static final String LINE_NUMBER = "short.lineNumber";
@@ -100,11 +110,34 @@ public final class ThrowableFormatOptions {
      */
     protected ThrowableFormatOptions(final int lines, final String separator, final List<String> ignorePackages,
             final TextRenderer textRenderer, final String suffix) {
+        this(lines, separator, ignorePackages, textRenderer, suffix, null);
+    }
+
+    /**
+     * Constructs the options for printing stack trace.
+     *
+     * @param lines
+     *            The number of lines.
+     * @param separator
+     *            The stack trace separator.
+     * @param ignorePackages
+     *            The packages to filter.
+     * @param textRenderer
+     *            The ANSI renderer
+     * @param suffix
+     *            The suffix of each line.
+     * @param deduplicator
+     *            The deduplicator of repeated stack traces, may be null.
+     * @since 2.21.0
+     */
+    protected ThrowableFormatOptions(final int lines, final String separator, final List<String> ignorePackages,
+            final TextRenderer textRenderer, final String suffix, final StackTraceDeduplicator deduplicator) {
         this.lines = lines;
         this.separator = separator == null ? Strings.LINE_SEPARATOR : separator;
         this.ignorePackages = ignorePackages;
         this.textRenderer = textRenderer == null ? PlainTextRenderer.getInstance() : textRenderer;
         this.suffix = suffix;
+        this.deduplicator = deduplicator;
     }
 
     /**
@@ -160,6 +193,16 @@ public final class ThrowableFormatOptions {
         return this.ignorePackages;
     }
 
+    /**
+     * Returns the deduplicator of repeated stack traces.
+     *
+     * @return The deduplicator, or null if stack traces are not deduplicated.
+     * @since 2.21.0
+     */
+    public StackTraceDeduplicator getDeduplicator() {
+        return this.deduplicator;
+    }
+
     /**
      * Determines if all lines should be printed.
      *
@@ -216,6 +259,9 @@ public final class ThrowableFormatOptions {
             s.deleteCharAt(s.length() - 1);
             s.append(")}");
         }
+        if (deduplicator != null) {
+            s.append("{dedup(").append(deduplicator.getWindowMillis() / 1000).append(")}");
+        }
         return s.toString();
     }
 
@@ -252,6 +298,7 @@ public final class ThrowableFormatOptions {
         List<String> packages = DEFAULT.ignorePackages;
         TextRenderer ansiRenderer = DEFAULT.textRenderer;
         String suffix = DEFAULT.getSuffix();
+        StackTraceDeduplicator deduplicator = DEFAULT.deduplicator;
         for (final String rawOption : options) {
             if (rawOption != null) {
                 final String option = rawOption.trim();
@@ -294,12 +341,23 @@ public final class ThrowableFormatOptions {
                     suffix = option.substring("S(".length(), option.length() - 1);
                 } else if (option.startsWith("suffix(") && option.endsWith(")")){
                     suffix = option.substring("suffix(".length(), option.length() - 1);
+                } else if (option.equalsIgnoreCase(DEDUP)) {
+                    deduplicator = new StackTraceDeduplicator(StackTraceDeduplicator.DEFAULT_MAX_SIZE,
+                            StackTraceDeduplicator.DEFAULT_WINDOW_SECONDS);
+                } else if (option.startsWith("dedup(") && option.endsWith(")")) {
+                    final String[] args = option.substring("dedup(".length(), option.length() - 1)
+                            .split(Patterns.COMMA_SEPARATOR);
+                    final int windowSeconds = Integers.parseInt(args[0].trim(),
+                            StackTraceDeduplicator.DEFAULT_WINDOW_SECONDS);
+                    final int maxSize = args.length > 1 ? Integers.parseInt(args[1].trim(),
+                            StackTraceDeduplicator.DEFAULT_MAX_SIZE) : StackTraceDeduplicator.DEFAULT_MAX_SIZE;
+                    deduplicator = new StackTraceDeduplicator(maxSize, windowSeconds);
                 } else if (!option.equalsIgnoreCase(FULL)) {
                     lines = Integers.parseInt(option);
                 }
             }
         }
-        return new ThrowableFormatOptions(lines, separator, packages, ansiRenderer, suffix);
+        return new ThrowableFormatOptions(lines, separator, packages, ansiRenderer, suffix, deduplicator);
     }
 
     public String getSuffix() {
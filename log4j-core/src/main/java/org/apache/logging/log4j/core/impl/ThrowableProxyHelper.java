@@ -46,10 +46,10 @@ class ThrowableProxyHelper {
      * </p>
      */
     static final class CacheEntry {
-        private final ExtendedClassInfo element;
-        private final ClassLoader loader;
+        final ExtendedClassInfo element;
+        final ClassLoader loader;
 
-        private CacheEntry(final ExtendedClassInfo element, final ClassLoader loader) {
+        CacheEntry(final ExtendedClassInfo element, final ClassLoader loader) {
             this.element = element;
             this.loader = loader;
         }
@@ -95,7 +95,7 @@ class ThrowableProxyHelper {
             // present as those methods have returned.
             ExtendedClassInfo extClassInfo;
             if (clazz != null && className.equals(clazz.getName())) {
-                final CacheEntry entry = toCacheEntry(clazz, true);
+                final CacheEntry entry = ExtendedClassInfoCache.get(clazz);
                 extClassInfo = entry.element;
                 lastLoader = entry.loader;
                 stack.pollLast();
@@ -109,7 +109,7 @@ class ThrowableProxyHelper {
                         lastLoader = entry.loader;
                     }
                 } else {
-                    final CacheEntry entry = toCacheEntry(ThrowableProxyHelper.loadClass(lastLoader, className), false);
+                    final CacheEntry entry = ExtendedClassInfoCache.get(lastLoader, className);
                     extClassInfo = entry.element;
                     map.put(className, entry);
                     if (entry.loader != null) {
@@ -152,7 +152,7 @@ class ThrowableProxyHelper {
      * @param exact             True if the class was obtained via Reflection.getCallerClass.
      * @return The CacheEntry.
      */
-    private static CacheEntry toCacheEntry(final Class<?> callerClass, final boolean exact) {
+    static CacheEntry toCacheEntry(final Class<?> callerClass, final boolean exact) {
         String location = "?";
         String version = "?";
         ClassLoader lastLoader = null;
@@ -197,7 +197,7 @@ class ThrowableProxyHelper {
      * @param className  The name of the Class.
      * @return The Class object for the Class or null if it could not be located.
      */
-    private static Class<?> loadClass(final ClassLoader lastLoader, final String className) {
+    static Class<?> loadClass(final ClassLoader lastLoader, final String className) {
         // XXX: this is overly complicated
         Class<?> clazz;
         if (lastLoader != null) {
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import java.util.Objects;
+
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.core.metrics.AppenderMetrics;
+import org.apache.logging.log4j.core.metrics.OutputStreamMetrics;
+
+/**
+ * Implementation of the {@code AppenderMetricsAdminMBean} interface.
+ *
+ * @since 2.21.0
+ */
+public class AppenderMetricsAdmin implements AppenderMetricsAdminMBean {
+
+    private static final double MEDIAN = 50;
+    private static final double P99 = 99;
+
+    private final AppenderMetrics metrics;
+    private final OutputStreamMetrics outputStreamMetrics;
+    private final ObjectName objectName;
+
+    /**
+     * Constructs a new {@code AppenderMetricsAdmin} with the specified contextName
+     * and metrics.
+     *
+     * @param contextName used in the {@code ObjectName} for this mbean
+     * @param metrics the metrics of the instrumented appender
+     * @param outputStreamMetrics the metrics of the manager of the appender, may be {@code null}
+     */
+    public AppenderMetricsAdmin(final String contextName, final AppenderMetrics metrics,
+            final OutputStreamMetrics outputStreamMetrics) {
+        Objects.requireNonNull(contextName, "contextName");
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+        this.outputStreamMetrics = outputStreamMetrics;
+        try {
+            final String ctxName = Server.escape(contextName);
+            final String appenderName = Server.escape(metrics.getName());
+            objectName = new ObjectName(String.format(PATTERN, ctxName, appenderName));
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code ObjectName} of this mbean.
+     *
+     * @return the {@code ObjectName}
+     * @see AppenderMetricsAdminMBean#PATTERN
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public String getName() {
+        return metrics.getName();
+    }
+
+    @Override
+    public long getAppendCount() {
+        return metrics.getAppendCount();
+    }
+
+    @Override
+    public long getFilteredCount() {
+        return metrics.getFilteredCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return metrics.getErrorCount();
+    }
+
+    @Override
+    public long getQueueFullCount() {
+        return metrics.getQueueFullCount();
+    }
+
+    @Override
+    public long getDiscardedCount() {
+        return metrics.getDiscardedCount();
+    }
+
+    @Override
+    public long getAppendLatencyMeanNanos() {
+        return metrics.getAppendLatency().getMeanNanos();
+    }
+
+    @Override
+    public long getAppendLatencyMedianNanos() {
+        return metrics.getAppendLatency().getValueAtPercentile(MEDIAN);
+    }
+
+    @Override
+    public long getAppendLatency99thPercentileNanos() {
+        return metrics.getAppendLatency().getValueAtPercentile(P99);
+    }
+
+    @Override
+    public long getAppendLatencyMaxNanos() {
+        return metrics.getAppendLatency().getMaxNanos();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return outputStreamMetrics == null ? -1 : outputStreamMetrics.getBytesWritten();
+    }
+
+    @Override
+    public long getWriteCount() {
+        return outputStreamMetrics == null ? -1 : outputStreamMetrics.getWriteCount();
+    }
+
+    @Override
+    public long getWriteLatency99thPercentileNanos() {
+        return outputStreamMetrics == null ? -1 : outputStreamMetrics.getWriteLatency().getValueAtPercentile(P99);
+    }
+
+    @Override
+    public long getWriteLatencyMaxNanos() {
+        return outputStreamMetrics == null ? -1 : outputStreamMetrics.getWriteLatency().getMaxNanos();
+    }
+
+    @Override
+    public void reset() {
+        metrics.reset();
+        if (outputStreamMetrics != null) {
+            outputStreamMetrics.reset();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * The MBean interface for monitoring the metrics of an {@code Appender}.
+ *
+ * @see org.apache.logging.log4j.core.metrics.MetricsRegistry
+ * @since 2.21.0
+ */
+public interface AppenderMetricsAdminMBean {
+    /**
+     * ObjectName pattern ({@value}) for AppenderMetricsAdmin MBeans.
+     * This pattern contains two variables, where the first is the
+     * name of the context, the second is the name of the instrumented appender.
+     * <p>
+     * You can find all registered AppenderMetricsAdmin MBeans like this:
+     * </p>
+     * <pre>
+     * MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+     * String pattern = String.format(AppenderMetricsAdminMBean.PATTERN, &quot;*&quot;, &quot;*&quot;);
+     * Set&lt;ObjectName&gt; metricsNames = mbs.queryNames(new ObjectName(pattern), null);
+     * </pre>
+     * @see Server#escape(String)
+     */
+    String PATTERN = Server.DOMAIN + ":type=%s,component=Appenders,name=%s,subtype=Metrics";
+
+    /**
+     * Returns the name of the instrumented {@code Appender}.
+     *
+     * @return the name of the Appender
+     */
+    String getName();
+
+    /**
+     * Returns the number of events passed to the Appender.
+     *
+     * @return the number of appended events
+     */
+    long getAppendCount();
+
+    /**
+     * Returns the number of events filtered out before reaching the Appender.
+     *
+     * @return the number of filtered events
+     */
+    long getFilteredCount();
+
+    /**
+     * Returns the number of events that failed with an error.
+     *
+     * @return the number of errors
+     */
+    long getErrorCount();
+
+    /**
+     * Returns the number of events that found the queue of an asynchronous Appender full.
+     *
+     * @return the number of queue full events
+     */
+    long getQueueFullCount();
+
+    /**
+     * Returns the number of events discarded by an asynchronous Appender.
+     *
+     * @return the number of discarded events
+     */
+    long getDiscardedCount();
+
+    /**
+     * Returns the mean duration of appending an event.
+     *
+     * @return the mean append latency in nanoseconds
+     */
+    long getAppendLatencyMeanNanos();
+
+    /**
+     * Returns the median duration of appending an event.
+     *
+     * @return the median append latency in nanoseconds
+     */
+    long getAppendLatencyMedianNanos();
+
+    /**
+     * Returns the 99th percentile of the duration of appending an event.
+     *
+     * @return the 99th percentile append latency in nanoseconds
+     */
+    long getAppendLatency99thPercentileNanos();
+
+    /**
+     * Returns the longest duration of appending an event.
+     *
+     * @return the maximum append latency in nanoseconds
+     */
+    long getAppendLatencyMaxNanos();
+
+    /**
+     * Returns the number of bytes written by the manager of the Appender.
+     *
+     * @return the number of bytes written, or -1 if the Appender does not write to an {@code OutputStreamManager}
+     */
+    long getBytesWritten();
+
+    /**
+     * Returns the number of writes to the destination by the manager of the Appender.
+     *
+     * @return the number of writes, or -1 if the Appender does not write to an {@code OutputStreamManager}
+     */
+    long getWriteCount();
+
+    /**
+     * Returns the 99th percentile of the duration of writes to the destination.
+     *
+     * @return the 99th percentile write latency in nanoseconds, or -1 if the Appender does not write to an
+     *         {@code OutputStreamManager}
+     */
+    long getWriteLatency99thPercentileNanos();
+
+    /**
+     * Returns the longest duration of a write to the destination.
+     *
+     * @return the maximum write latency in nanoseconds, or -1 if the Appender does not write to an
+     *         {@code OutputStreamManager}
+     */
+    long getWriteLatencyMaxNanos();
+
+    /**
+     * Resets the counters and latencies of the Appender and its manager.
+     */
+    void reset();
+}
@@ -21,6 +21,7 @@ import java.util.Objects;
 import javax.management.ObjectName;
 
 import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.apache.logging.log4j.core.async.OverflowJournal;
 
 /**
  * Implementation of the {@code AsyncAppenderAdminMBean} interface.
@@ -131,4 +132,22 @@ public class AsyncAppenderAdmin implements AsyncAppenderAdminMBean {
     public int getQueueRemainingCapacity() {
         return asyncAppender.getQueueRemainingCapacity();
     }
+
+    @Override
+    public long getOverflowJournalUsedBytes() {
+        final OverflowJournal journal = asyncAppender.getOverflowJournal();
+        return journal == null ? 0 : journal.getUsedBytes();
+    }
+
+    @Override
+    public long getOverflowJournalSpilledBytes() {
+        final OverflowJournal journal = asyncAppender.getOverflowJournal();
+        return journal == null ? 0 : journal.getSpilledBytes();
+    }
+
+    @Override
+    public long getOverflowJournalReplayedBytes() {
+        final OverflowJournal journal = asyncAppender.getOverflowJournal();
+        return journal == null ? 0 : journal.getReplayedBytes();
+    }
 }
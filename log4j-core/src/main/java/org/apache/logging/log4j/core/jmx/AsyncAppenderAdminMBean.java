@@ -128,4 +128,25 @@ public interface AsyncAppenderAdminMBean {
     int getQueueCapacity();
 
     int getQueueRemainingCapacity();
+
+    /**
+     * Returns the number of bytes taken by events that wait in the overflow journal, or zero if there is none.
+     * @return the number of bytes waiting in the overflow journal
+     * @since 2.21.0
+     */
+    long getOverflowJournalUsedBytes();
+
+    /**
+     * Returns the number of bytes written to the overflow journal, or zero if there is none.
+     * @return the number of bytes spilled to the overflow journal
+     * @since 2.21.0
+     */
+    long getOverflowJournalSpilledBytes();
+
+    /**
+     * Returns the number of bytes replayed from the overflow journal into the queue, or zero if there is none.
+     * @return the number of bytes replayed from the overflow journal
+     * @since 2.21.0
+     */
+    long getOverflowJournalReplayedBytes();
 }
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import java.util.Map;
+import java.util.Objects;
+
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.core.filter.BurstFilter;
+
+/**
+ * Implementation of the {@code BurstFilterAdminMBean} interface.
+ *
+ * @since 2.21.0
+ */
+public class BurstFilterAdmin implements BurstFilterAdminMBean {
+
+    private final String name;
+    private final BurstFilter filter;
+    private final ObjectName objectName;
+
+    /**
+     * Constructs a new {@code BurstFilterAdmin} with the specified contextName,
+     * component name and filter.
+     *
+     * @param contextName used in the {@code ObjectName} for this mbean
+     * @param name the name of the component the filter is attached to
+     * @param filter the instrumented object
+     */
+    public BurstFilterAdmin(final String contextName, final String name, final BurstFilter filter) {
+        Objects.requireNonNull(contextName, "contextName");
+        this.name = Objects.requireNonNull(name, "name");
+        this.filter = Objects.requireNonNull(filter, "filter");
+        try {
+            final String ctxName = Server.escape(contextName);
+            final String filterName = Server.escape(name);
+            objectName = new ObjectName(String.format(PATTERN, ctxName, filterName));
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code ObjectName} of this mbean.
+     *
+     * @return the {@code ObjectName}
+     * @see BurstFilterAdminMBean#PATTERN
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getLevel() {
+        return filter.getLevel().name();
+    }
+
+    @Override
+    public float getRate() {
+        return filter.getRate();
+    }
+
+    @Override
+    public long getMaxBurst() {
+        return filter.getMaxBurst();
+    }
+
+    @Override
+    public String getBucketKey() {
+        return filter.getBucketKey().name();
+    }
+
+    @Override
+    public int getBucketCount() {
+        return filter.getBucketCount();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return filter.getDroppedCount();
+    }
+
+    @Override
+    public Map<String, Long> getDroppedCountsByKey() {
+        return filter.getDroppedCountsByKey();
+    }
+
+    @Override
+    public void resetDroppedCounts() {
+        filter.resetDroppedCounts();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import java.util.Map;
+
+/**
+ * The MBean interface for monitoring a {@code BurstFilter}.
+ *
+ * @since 2.21.0
+ */
+public interface BurstFilterAdminMBean {
+    /**
+     * ObjectName pattern ({@value}) for BurstFilterAdmin MBeans.
+     * This pattern contains two variables, where the first is the
+     * name of the context, the second is the name of the component the
+     * instrumented filter is attached to.
+     * <p>
+     * The component name is {@code Configuration} for a filter of the configuration,
+     * {@code LoggerConfig.<name>} for a filter of a LoggerConfig and
+     * {@code Appender.<name>} for a filter of an Appender. If a component has more than
+     * one BurstFilter, the second and later ones are suffixed with {@code #<index>}.
+     * </p>
+     * <p>
+     * You can find all registered BurstFilterAdmin MBeans like this:
+     * </p>
+     * <pre>
+     * MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+     * String pattern = String.format(BurstFilterAdminMBean.PATTERN, &quot;*&quot;, &quot;*&quot;);
+     * Set&lt;ObjectName&gt; filterNames = mbs.queryNames(new ObjectName(pattern), null);
+     * </pre>
+     * @see Server#escape(String)
+     */
+    String PATTERN = Server.DOMAIN + ":type=%s,component=BurstFilters,name=%s";
+
+    /**
+     * Returns the name of the component the instrumented filter is attached to.
+     *
+     * @return the name of the filtered component
+     */
+    String getName();
+
+    /**
+     * Returns the level of the events regulated by the filter.
+     *
+     * @return the level name
+     */
+    String getLevel();
+
+    /**
+     * Returns the average number of events per second allowed.
+     *
+     * @return the rate
+     */
+    float getRate();
+
+    /**
+     * Returns the maximum number of events allowed in a burst.
+     *
+     * @return the maximum burst
+     */
+    long getMaxBurst();
+
+    /**
+     * Returns how events are assigned to token buckets.
+     *
+     * @return the bucket key, {@code NONE} if the filter uses a single bucket
+     */
+    String getBucketKey();
+
+    /**
+     * Returns the number of per-key token buckets.
+     *
+     * @return the number of per-key buckets
+     */
+    int getBucketCount();
+
+    /**
+     * Returns the number of events dropped by the filter.
+     *
+     * @return the number of dropped events
+     */
+    long getDroppedCount();
+
+    /**
+     * Returns the number of events dropped by the filter for each bucket key.
+     *
+     * @return the number of dropped events by key
+     */
+    Map<String, Long> getDroppedCountsByKey();
+
+    /**
+     * Resets the counters of dropped events.
+     */
+    void resetDroppedCounts();
+}
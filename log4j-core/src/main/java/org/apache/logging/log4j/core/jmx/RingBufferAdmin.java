@@ -19,14 +19,19 @@ package org.apache.logging.log4j.core.jmx;
 import javax.management.ObjectName;
 
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.WaitStrategy;
+import org.apache.logging.log4j.core.async.AdaptiveWaitStrategy;
+import org.apache.logging.log4j.core.async.OverflowJournal;
 
 /**
  * Instruments an LMAX Disruptor ring buffer.
  */
 public class RingBufferAdmin implements RingBufferAdminMBean {
 
-    private final RingBuffer<?> ringBuffer;
+    private final RingBuffer<?>[] ringBuffers;
     private final ObjectName objectName;
+    private volatile OverflowJournal overflowJournal;
+    private volatile WaitStrategy[] waitStrategies = new WaitStrategy[0];
 
     public static RingBufferAdmin forAsyncLogger(final RingBuffer<?> ringBuffer, final String contextName) {
         final String ctxName = Server.escape(contextName);
@@ -34,6 +39,21 @@ public class RingBufferAdmin implements RingBufferAdminMBean {
         return new RingBufferAdmin(ringBuffer, name);
     }
 
+    /**
+     * Creates a {@code RingBufferAdmin} that reports the combined size and remaining capacity of the ring buffers of
+     * sharded Async Loggers.
+     *
+     * @param ringBuffers the ring buffers of all shards
+     * @param contextName name of the {@code AsyncLoggerContext}
+     * @return a new {@code RingBufferAdmin}
+     * @since 2.21.0
+     */
+    public static RingBufferAdmin forAsyncLogger(final RingBuffer<?>[] ringBuffers, final String contextName) {
+        final String ctxName = Server.escape(contextName);
+        final String name = String.format(PATTERN_ASYNC_LOGGER, ctxName);
+        return new RingBufferAdmin(ringBuffers, name);
+    }
+
     public static RingBufferAdmin forAsyncLoggerConfig(final RingBuffer<?> ringBuffer,
             final String contextName, final String configName) {
         final String ctxName = Server.escape(contextName);
@@ -42,8 +62,33 @@ public class RingBufferAdmin implements RingBufferAdminMBean {
         return new RingBufferAdmin(ringBuffer, name);
     }
 
+    /**
+     * Creates a {@code RingBufferAdmin} that reports the combined size and remaining capacity of the ring buffers of
+     * sharded Async LoggerConfigs.
+     *
+     * @param ringBuffers the ring buffers of all shards
+     * @param contextName name of the {@code LoggerContext}
+     * @param configName name of the {@code AsyncLoggerConfig}
+     * @return a new {@code RingBufferAdmin}
+     * @since 2.21.0
+     */
+    public static RingBufferAdmin forAsyncLoggerConfig(final RingBuffer<?>[] ringBuffers,
+            final String contextName, final String configName) {
+        final String ctxName = Server.escape(contextName);
+        final String cfgName = Server.escape(configName);
+        final String name = String.format(PATTERN_ASYNC_LOGGER_CONFIG, ctxName, cfgName);
+        return new RingBufferAdmin(ringBuffers, name);
+    }
+
     protected RingBufferAdmin(final RingBuffer<?> ringBuffer, final String mbeanName) {
-        this.ringBuffer = ringBuffer;
+        this(ringBuffer == null ? new RingBuffer<?>[0] : new RingBuffer<?>[] {ringBuffer}, mbeanName);
+    }
+
+    /**
+     * @since 2.21.0
+     */
+    protected RingBufferAdmin(final RingBuffer<?>[] ringBuffers, final String mbeanName) {
+        this.ringBuffers = ringBuffers.clone();
         try {
             objectName = new ObjectName(mbeanName);
         } catch (final Exception e) {
@@ -53,12 +98,83 @@ public class RingBufferAdmin implements RingBufferAdminMBean {
 
     @Override
     public long getBufferSize() {
-        return ringBuffer == null ? 0 : ringBuffer.getBufferSize();
+        long bufferSize = 0;
+        for (final RingBuffer<?> ringBuffer : ringBuffers) {
+            bufferSize += ringBuffer.getBufferSize();
+        }
+        return bufferSize;
     }
 
     @Override
     public long getRemainingCapacity() {
-        return ringBuffer == null ? 0 : ringBuffer.remainingCapacity();
+        long remainingCapacity = 0;
+        for (final RingBuffer<?> ringBuffer : ringBuffers) {
+            remainingCapacity += ringBuffer.remainingCapacity();
+        }
+        return remainingCapacity;
+    }
+
+    @Override
+    public long getOverflowJournalUsedBytes() {
+        final OverflowJournal journal = overflowJournal;
+        return journal == null ? 0 : journal.getUsedBytes();
+    }
+
+    @Override
+    public long getOverflowJournalSpilledBytes() {
+        final OverflowJournal journal = overflowJournal;
+        return journal == null ? 0 : journal.getSpilledBytes();
+    }
+
+    @Override
+    public long getOverflowJournalReplayedBytes() {
+        final OverflowJournal journal = overflowJournal;
+        return journal == null ? 0 : journal.getReplayedBytes();
+    }
+
+    /**
+     * Sets the overflow journal that holds the events which did not fit into the ring buffer.
+     *
+     * @param overflowJournal the journal, or {@code null}
+     * @since 2.21.0
+     */
+    public void setOverflowJournal(final OverflowJournal overflowJournal) {
+        this.overflowJournal = overflowJournal;
+    }
+
+    @Override
+    public String getWaitStrategyPhase() {
+        final StringBuilder sb = new StringBuilder();
+        for (final WaitStrategy waitStrategy : waitStrategies) {
+            if (waitStrategy instanceof AdaptiveWaitStrategy) {
+                if (sb.length() > 0) {
+                    sb.append(',');
+                }
+                sb.append(((AdaptiveWaitStrategy) waitStrategy).getPhase());
+            }
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    @Override
+    public long getWaitStrategyWakeupLatencyNanos() {
+        long latency = 0;
+        for (final WaitStrategy waitStrategy : waitStrategies) {
+            if (waitStrategy instanceof AdaptiveWaitStrategy) {
+                latency = Math.max(latency, ((AdaptiveWaitStrategy) waitStrategy).getWakeupLatencyNanos());
+            }
+        }
+        return latency;
+    }
+
+    /**
+     * Sets the wait strategies of the consumers of the ring buffers, in the order of the ring buffers.
+     *
+     * @param waitStrategies the wait strategies
+     * @since 2.21.0
+     */
+    public void setWaitStrategies(final WaitStrategy[] waitStrategies) {
+        this.waitStrategies = waitStrategies == null ? new WaitStrategy[0] : waitStrategies.clone();
     }
 
     /**
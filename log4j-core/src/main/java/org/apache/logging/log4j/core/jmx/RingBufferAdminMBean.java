@@ -68,4 +68,49 @@ public interface RingBufferAdminMBean {
      * @return the number of available slots in the ring buffer
      */
     long getRemainingCapacity();
+
+    /**
+     * Returns the number of bytes taken by events that wait in the overflow journal of the ring buffer, or zero if
+     * the ring buffer has no overflow journal.
+     *
+     * @return the number of bytes waiting in the overflow journal
+     * @since 2.21.0
+     */
+    long getOverflowJournalUsedBytes();
+
+    /**
+     * Returns the number of bytes written to the overflow journal because the ring buffer was full, or zero if the
+     * ring buffer has no overflow journal.
+     *
+     * @return the number of bytes spilled to the overflow journal
+     * @since 2.21.0
+     */
+    long getOverflowJournalSpilledBytes();
+
+    /**
+     * Returns the number of bytes replayed from the overflow journal into the ring buffer, or zero if the ring buffer
+     * has no overflow journal.
+     *
+     * @return the number of bytes replayed from the overflow journal
+     * @since 2.21.0
+     */
+    long getOverflowJournalReplayedBytes();
+
+    /**
+     * Returns the phase that the last wait of each consumer started in, separated by commas if the ring buffer is
+     * sharded, or {@code null} if the consumers do not use the adaptive wait strategy.
+     *
+     * @return the phases of the adaptive wait strategies, or {@code null}
+     * @since 2.21.0
+     */
+    String getWaitStrategyPhase();
+
+    /**
+     * Returns the average time it takes a blocked consumer to run again after a producer woke it up, taking the
+     * slowest consumer if the ring buffer is sharded, or zero if the consumers do not use the adaptive wait strategy.
+     *
+     * @return the wakeup latency in nanoseconds
+     * @since 2.21.0
+     */
+    long getWaitStrategyWakeupLatencyNanos();
 }
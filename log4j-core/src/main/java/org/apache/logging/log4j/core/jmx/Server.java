@@ -33,12 +33,21 @@ import javax.management.ObjectName;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.appender.AbstractOutputStreamAppender;
+import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.appender.AsyncAppender;
 import org.apache.logging.log4j.core.async.AsyncLoggerConfig;
 import org.apache.logging.log4j.core.async.AsyncLoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.filter.BurstFilter;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.Filterable;
 import org.apache.logging.log4j.core.impl.Log4jContextFactory;
+import org.apache.logging.log4j.core.metrics.AppenderMetrics;
+import org.apache.logging.log4j.core.metrics.MetricsRegistry;
+import org.apache.logging.log4j.core.metrics.OutputStreamMetrics;
 import org.apache.logging.log4j.core.selector.ContextSelector;
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.Log4jThreadFactory;
@@ -185,6 +194,7 @@ public final class Server {
 
                 registerLoggerConfigs(ctx, mbs, executor);
                 registerAppenders(ctx, mbs, executor);
+                registerBurstFilters(ctx, mbs);
             }
         } catch (final Exception ex) {
             LOGGER.error("Could not register mbeans", ex);
@@ -217,6 +227,8 @@ public final class Server {
             unregisterAsyncLoggerConfigRingBufferAdmins(CONTEXT_NAME_ALL, mbs);
             unregisterAppenders(CONTEXT_NAME_ALL, mbs);
             unregisterAsyncAppenders(CONTEXT_NAME_ALL, mbs);
+            unregisterAppenderMetrics(CONTEXT_NAME_ALL, mbs);
+            unregisterBurstFilters(CONTEXT_NAME_ALL, mbs);
         }
     }
 
@@ -266,6 +278,8 @@ public final class Server {
         unregisterLoggerConfigs(contextName, mbs);
         unregisterAppenders(contextName, mbs);
         unregisterAsyncAppenders(contextName, mbs);
+        unregisterAppenderMetrics(contextName, mbs);
+        unregisterBurstFilters(contextName, mbs);
         unregisterAsyncLoggerRingBufferAdmins(contextName, mbs);
         unregisterAsyncLoggerConfigRingBufferAdmins(contextName, mbs);
     }
@@ -319,6 +333,18 @@ public final class Server {
         unregisterAllMatching(search, mbs);
     }
 
+    private static void unregisterAppenderMetrics(final String contextName, final MBeanServer mbs) {
+        final String pattern = AppenderMetricsAdminMBean.PATTERN;
+        final String search = String.format(pattern, escape(contextName), "*");
+        unregisterAllMatching(search, mbs);
+    }
+
+    private static void unregisterBurstFilters(final String contextName, final MBeanServer mbs) {
+        final String pattern = BurstFilterAdminMBean.PATTERN;
+        final String search = String.format(pattern, escape(contextName), "*");
+        unregisterAllMatching(search, mbs);
+    }
+
     private static void unregisterAsyncLoggerRingBufferAdmins(final String contextName, final MBeanServer mbs) {
         final String pattern1 = RingBufferAdminMBean.PATTERN_ASYNC_LOGGER;
         final String search1 = String.format(pattern1, escape(contextName));
@@ -384,6 +410,54 @@ public final class Server {
                 final AppenderAdmin mbean = new AppenderAdmin(ctx.getName(), appender);
                 register(mbs, mbean, mbean.getObjectName());
             }
+            if (MetricsRegistry.isEnabled()) {
+                registerAppenderMetrics(ctx, mbs, appender);
+            }
+        }
+    }
+
+    private static void registerAppenderMetrics(final LoggerContext ctx, final MBeanServer mbs,
+            final Appender appender)
+            throws InstanceAlreadyExistsException, MBeanRegistrationException, NotCompliantMBeanException {
+
+        final AppenderMetrics metrics = MetricsRegistry.getAppenderMetrics(appender);
+        final OutputStreamMetrics outputStreamMetrics = appender instanceof AbstractOutputStreamAppender
+                ? MetricsRegistry.getOutputStreamMetrics(((AbstractOutputStreamAppender<?>) appender).getManager())
+                : null;
+        final AppenderMetricsAdmin mbean = new AppenderMetricsAdmin(ctx.getName(), metrics, outputStreamMetrics);
+        register(mbs, mbean, mbean.getObjectName());
+    }
+
+    private static void registerBurstFilters(final LoggerContext ctx, final MBeanServer mbs)
+            throws InstanceAlreadyExistsException, MBeanRegistrationException, NotCompliantMBeanException {
+
+        final Configuration config = ctx.getConfiguration();
+        registerBurstFilters(ctx, mbs, "Configuration", config.getFilter());
+        for (final LoggerConfig cfg : config.getLoggers().values()) {
+            registerBurstFilters(ctx, mbs, "LoggerConfig." + cfg.getName(), cfg.getFilter());
+        }
+        for (final Appender appender : config.getAppenders().values()) {
+            if (appender instanceof Filterable) {
+                registerBurstFilters(ctx, mbs, "Appender." + appender.getName(),
+                        ((Filterable) appender).getFilter());
+            }
+        }
+    }
+
+    private static void registerBurstFilters(final LoggerContext ctx, final MBeanServer mbs, final String name,
+            final Filter filter)
+            throws InstanceAlreadyExistsException, MBeanRegistrationException, NotCompliantMBeanException {
+
+        final Filter[] filters = filter instanceof CompositeFilter
+                ? ((CompositeFilter) filter).getFiltersArray()
+                : new Filter[] {filter};
+        int count = 0;
+        for (final Filter f : filters) {
+            if (f instanceof BurstFilter) {
+                final String filterName = count++ == 0 ? name : name + "#" + count;
+                final BurstFilterAdmin mbean = new BurstFilterAdmin(ctx.getName(), filterName, (BurstFilter) f);
+                register(mbs, mbean, mbean.getObjectName());
+            }
         }
     }
 
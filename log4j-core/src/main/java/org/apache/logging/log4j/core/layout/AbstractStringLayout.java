@@ -36,6 +36,7 @@ import org.apache.logging.log4j.spi.AbstractLogger;
 import org.apache.logging.log4j.util.PropertiesUtil;
 import org.apache.logging.log4j.util.StringBuilders;
 import org.apache.logging.log4j.util.Strings;
+import org.apache.logging.log4j.util.VirtualThreads;
 
 /**
  * Abstract base class for Layouts that result in a String.
@@ -130,6 +131,10 @@ public abstract class AbstractStringLayout extends AbstractLayout<String> implem
             // Recursive logging may clobber the cached StringBuilder.
             return new StringBuilder(DEFAULT_STRING_BUILDER_SIZE);
         }
+        if (VirtualThreads.isCurrentThreadVirtual()) {
+            // A virtual thread would keep a StringBuilder of its own that is seldom used again.
+            return new StringBuilder(DEFAULT_STRING_BUILDER_SIZE);
+        }
         StringBuilder result = threadLocal.get();
         if (result == null) {
             result = new StringBuilder(DEFAULT_STRING_BUILDER_SIZE);
@@ -0,0 +1,518 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.impl.LocationAware;
+import org.apache.logging.log4j.core.time.Instant;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.StringBuilders;
+import org.apache.logging.log4j.util.TriConsumer;
+
+/**
+ * Formats a {@link LogEvent} in a compact binary form, meant to replace the {@link SerializedLayout} to ship events
+ * between applications, and read back by a {@link BinaryLogEventDecoder}.
+ * <p>
+ * Every event is a record prefixed with its length. The fields of a record are written in a fixed order, integers as
+ * variable-length quantities and strings in UTF-8. Optional fields are flagged at the start of the record and fields
+ * added by later versions of the format are appended, so that older decoders skip them.
+ * </p>
+ * <p>
+ * When events are written to a stream, such as the connection of a {@code SocketAppender}, the logger, thread, marker,
+ * level, context key and class names are added to a string table the first time they are written, and referred to
+ * by their index afterwards. The table is reset whenever the {@link #getHeader() header} is written, that is on every
+ * new stream, and is bounded by the {@code stringTableSize} attribute. In steady state, encoding an event into a
+ * stream does not allocate, unless it carries a throwable or a message that cannot format itself into a
+ * {@link StringBuilder}. The records returned by {@link #toByteArray(LogEvent)} do not use the string table, so that
+ * each of them can be decoded on its own.
+ * </p>
+ *
+ * @since 2.21.0
+ */
+@Plugin(name = "BinaryLayout", category = Node.CATEGORY, elementType = Layout.ELEMENT_TYPE, printObject = true)
+public final class BinaryLayout extends AbstractLayout<byte[]> implements LocationAware {
+
+    /**
+     * The default maximum number of strings in the string table.
+     */
+    public static final int DEFAULT_STRING_TABLE_SIZE = 4096;
+
+    static final byte[] MAGIC = {'L', '4', 'J', 'B'};
+    static final int VERSION = 1;
+
+    static final int FLAG_END_OF_BATCH = 1;
+    static final int FLAG_INCLUDE_LOCATION = 1 << 1;
+    static final int FLAG_NANO_TIME = 1 << 2;
+    static final int FLAG_MARKER = 1 << 3;
+    static final int FLAG_CONTEXT_DATA = 1 << 4;
+    static final int FLAG_CONTEXT_STACK = 1 << 5;
+    static final int FLAG_SOURCE = 1 << 6;
+    static final int FLAG_THROWN = 1 << 7;
+
+    static final int STRING_NULL = 0;
+    static final int STRING_INLINE = 1;
+    static final int STRING_DEFINE = 2;
+    static final int STRING_REFERENCE_BASE = 3;
+
+    private static final int MAX_NESTING_DEPTH = 64;
+
+    private static final TriConsumer<String, Object, Output> WRITE_CONTEXT_ENTRY = (key, value, output) -> {
+        output.writeTableString(key);
+        output.writeInlineString(value == null || value instanceof String ? (String) value : String.valueOf(value));
+    };
+
+    /**
+     * Builds BinaryLayout instances.
+     */
+    public static final class Builder implements org.apache.logging.log4j.core.util.Builder<BinaryLayout> {
+
+        @PluginBuilderAttribute
+        private boolean locationInfo;
+
+        @PluginBuilderAttribute
+        private int stringTableSize = DEFAULT_STRING_TABLE_SIZE;
+
+        private Builder() {
+        }
+
+        public boolean isLocationInfo() {
+            return locationInfo;
+        }
+
+        public int getStringTableSize() {
+            return stringTableSize;
+        }
+
+        /**
+         * Whether to include the location of the logging call in the events.
+         *
+         * @param locationInfo whether to include the location.
+         * @return this builder.
+         */
+        public Builder setLocationInfo(final boolean locationInfo) {
+            this.locationInfo = locationInfo;
+            return this;
+        }
+
+        /**
+         * The maximum number of strings in the string table of a stream; 0 disables the string table.
+         *
+         * @param stringTableSize the maximum number of strings.
+         * @return this builder.
+         */
+        public Builder setStringTableSize(final int stringTableSize) {
+            this.stringTableSize = stringTableSize;
+            return this;
+        }
+
+        @Override
+        public BinaryLayout build() {
+            return new BinaryLayout(locationInfo, stringTableSize);
+        }
+    }
+
+    private final boolean locationInfo;
+    private final int stringTableSize;
+
+    /** Guarded by the destination the events are encoded to; reset with every header. */
+    private final Output streamOutput;
+
+    private BinaryLayout(final boolean locationInfo, final int stringTableSize) {
+        super(null, null, null);
+        this.locationInfo = locationInfo;
+        this.stringTableSize = Math.max(stringTableSize, 0);
+        this.streamOutput = new Output(this.stringTableSize > 0 ? new HashMap<>() : null, this.stringTableSize);
+    }
+
+    @PluginBuilderFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a BinaryLayout with the default settings.
+     *
+     * @return a BinaryLayout.
+     */
+    public static BinaryLayout createDefaultLayout() {
+        return newBuilder().build();
+    }
+
+    @Override
+    public boolean requiresLocation() {
+        return locationInfo;
+    }
+
+    public boolean isLocationInfo() {
+        return locationInfo;
+    }
+
+    public int getStringTableSize() {
+        return stringTableSize;
+    }
+
+    /**
+     * Returns the stream header, identifying the format and its version, and resets the string table since the
+     * header starts a new stream.
+     *
+     * @return the stream header.
+     */
+    @Override
+    public byte[] getHeader() {
+        synchronized (streamOutput) {
+            streamOutput.resetStringTable();
+        }
+        final byte[] header = Arrays.copyOf(MAGIC, MAGIC.length + 1);
+        header[MAGIC.length] = VERSION;
+        return header;
+    }
+
+    /**
+     * Formats the event as a self-contained record, which does not refer to the string table of any stream.
+     *
+     * @param event the event.
+     * @return the record.
+     */
+    @Override
+    public byte[] toByteArray(final LogEvent event) {
+        final Output output = new Output(null, 0);
+        writeRecord(event, output);
+        return Arrays.copyOf(output.bytes, output.size);
+    }
+
+    @Override
+    public byte[] toSerializable(final LogEvent event) {
+        return toByteArray(event);
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        // the string table must be updated in the order the records reach the destination
+        synchronized (destination) {
+            synchronized (streamOutput) {
+                writeRecord(event, streamOutput);
+                ByteBufferDestinationHelper.writeToUnsynchronized(streamOutput.bytes, 0, streamOutput.size,
+                        destination);
+            }
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/octet-stream";
+    }
+
+    private void writeRecord(final LogEvent event, final Output output) {
+        output.clear();
+        final Marker marker = event.getMarker();
+        final ReadOnlyStringMap contextData = event.getContextData();
+        final ThreadContext.ContextStack contextStack = event.getContextStack();
+        final StackTraceElement source = locationInfo ? event.getSource() : null;
+        final Throwable thrown = event.getThrown();
+        int flags = 0;
+        if (event.isEndOfBatch()) {
+            flags |= FLAG_END_OF_BATCH;
+        }
+        if (event.isIncludeLocation()) {
+            flags |= FLAG_INCLUDE_LOCATION;
+        }
+        if (event.getNanoTime() != 0) {
+            flags |= FLAG_NANO_TIME;
+        }
+        if (marker != null) {
+            flags |= FLAG_MARKER;
+        }
+        if (contextData != null && !contextData.isEmpty()) {
+            flags |= FLAG_CONTEXT_DATA;
+        }
+        if (contextStack != null && contextStack.getDepth() > 0) {
+            flags |= FLAG_CONTEXT_STACK;
+        }
+        if (source != null) {
+            flags |= FLAG_SOURCE;
+        }
+        if (thrown != null) {
+            flags |= FLAG_THROWN;
+        }
+        output.writeVarLong(flags);
+
+        final Instant instant = event.getInstant();
+        output.writeZigZagLong(instant.getEpochMillisecond());
+        output.writeVarLong(instant.getNanoOfMillisecond());
+        output.writeVarLong(event.getLevel().intLevel());
+        output.writeTableString(event.getLevel().name());
+        output.writeTableString(event.getLoggerName());
+        output.writeTableString(event.getLoggerFqcn());
+        output.writeTableString(event.getThreadName());
+        output.writeZigZagLong(event.getThreadId());
+        output.writeZigZagLong(event.getThreadPriority());
+        writeMessage(event.getMessage(), output);
+        if ((flags & FLAG_NANO_TIME) != 0) {
+            output.writeZigZagLong(event.getNanoTime());
+        }
+        if (marker != null) {
+            writeMarker(marker, output, 0);
+        }
+        if ((flags & FLAG_CONTEXT_DATA) != 0) {
+            output.writeVarLong(contextData.size());
+            contextData.forEach(WRITE_CONTEXT_ENTRY, output);
+        }
+        if ((flags & FLAG_CONTEXT_STACK) != 0) {
+            output.writeVarLong(contextStack.getDepth());
+            for (final String element : contextStack) {
+                output.writeInlineString(element);
+            }
+        }
+        if (source != null) {
+            writeStackTraceElement(source, output);
+        }
+        if (thrown != null) {
+            writeThrowable(thrown, output, Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+        output.prependLength();
+    }
+
+    private static void writeMessage(final Message message, final Output output) {
+        if (message == null) {
+            output.writeString(null, false);
+        } else if (message instanceof StringBuilderFormattable) {
+            final StringBuilder text = output.text;
+            text.setLength(0);
+            ((StringBuilderFormattable) message).formatTo(text);
+            output.writeString(text, false);
+            StringBuilders.trimToMaxSize(text, Constants.MAX_REUSABLE_MESSAGE_SIZE);
+        } else {
+            output.writeString(message.getFormattedMessage(), false);
+        }
+    }
+
+    private static void writeMarker(final Marker marker, final Output output, final int depth) {
+        output.writeTableString(marker.getName());
+        final Marker[] parents = depth < MAX_NESTING_DEPTH ? marker.getParents() : null;
+        if (parents == null) {
+            output.writeVarLong(0);
+            return;
+        }
+        output.writeVarLong(parents.length);
+        for (final Marker parent : parents) {
+            writeMarker(parent, output, depth + 1);
+        }
+    }
+
+    private static void writeStackTraceElement(final StackTraceElement element, final Output output) {
+        output.writeTableString(element.getClassName());
+        output.writeTableString(element.getMethodName());
+        output.writeTableString(element.getFileName());
+        output.writeZigZagLong(element.getLineNumber());
+    }
+
+    /**
+     * Writes a throwable, followed by its cause and then its suppressed throwables, each of them preceded by a
+     * {@code 1} and both lists terminated by a {@code 0}.
+     */
+    private static void writeThrowable(final Throwable thrown, final Output output, final Set<Throwable> visited) {
+        visited.add(thrown);
+        output.writeTableString(thrown.getClass().getName());
+        output.writeInlineString(thrown.getMessage());
+        final StackTraceElement[] stackTrace = thrown.getStackTrace();
+        output.writeVarLong(stackTrace.length);
+        for (final StackTraceElement element : stackTrace) {
+            writeStackTraceElement(element, output);
+        }
+        writeNestedThrowable(thrown.getCause(), output, visited);
+        output.writeVarLong(0);
+        for (final Throwable suppressed : thrown.getSuppressed()) {
+            writeNestedThrowable(suppressed, output, visited);
+        }
+        output.writeVarLong(0);
+    }
+
+    private static void writeNestedThrowable(final Throwable thrown, final Output output, final Set<Throwable> visited) {
+        if (thrown != null && !visited.contains(thrown) && visited.size() < MAX_NESTING_DEPTH) {
+            output.writeVarLong(1);
+            writeThrowable(thrown, output, visited);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BinaryLayout[locationInfo=" + locationInfo + ", stringTableSize=" + stringTableSize + "]";
+    }
+
+    /**
+     * A growable byte array the records are written to, with the string table of a stream.
+     */
+    private static final class Output {
+
+        private static final int LENGTH_PREFIX_SIZE = 5;
+
+        private final Map<String, Integer> stringTable;
+        private final int maxStringTableSize;
+        private final StringBuilder text = new StringBuilder(Constants.INITIAL_REUSABLE_MESSAGE_SIZE);
+        private byte[] bytes = new byte[512];
+        private int size;
+
+        Output(final Map<String, Integer> stringTable, final int maxStringTableSize) {
+            this.stringTable = stringTable;
+            this.maxStringTableSize = maxStringTableSize;
+        }
+
+        void resetStringTable() {
+            if (stringTable != null) {
+                stringTable.clear();
+            }
+        }
+
+        /**
+         * Starts a record, leaving room for its length.
+         */
+        void clear() {
+            size = LENGTH_PREFIX_SIZE;
+        }
+
+        /**
+         * Writes the length of the record right before its body and moves the record to the start of the array.
+         */
+        void prependLength() {
+            final int length = size - LENGTH_PREFIX_SIZE;
+            int prefixSize = 1;
+            for (int value = length >>> 7; value != 0; value >>>= 7) {
+                prefixSize++;
+            }
+            int position = LENGTH_PREFIX_SIZE - prefixSize;
+            final int start = position;
+            for (int value = length; ; value >>>= 7) {
+                if ((value & ~0x7F) == 0) {
+                    bytes[position] = (byte) value;
+                    break;
+                }
+                bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+            }
+            System.arraycopy(bytes, start, bytes, 0, size - start);
+            size -= start;
+        }
+
+        private void ensureCapacity(final int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+            }
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeZigZagLong(final long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeInlineString(final String value) {
+            writeString(value, false);
+        }
+
+        void writeTableString(final String value) {
+            writeString(value, stringTable != null);
+        }
+
+        void writeString(final CharSequence value, final boolean useTable) {
+            if (value == null) {
+                writeVarLong(STRING_NULL);
+                return;
+            }
+            if (useTable) {
+                final String key = (String) value;
+                final Integer index = stringTable.get(key);
+                if (index != null) {
+                    writeVarLong(STRING_REFERENCE_BASE + (long) index);
+                    return;
+                }
+                if (stringTable.size() < maxStringTableSize) {
+                    stringTable.put(key, stringTable.size());
+                    writeVarLong(STRING_DEFINE);
+                    writeUtf8(value);
+                    return;
+                }
+            }
+            writeVarLong(STRING_INLINE);
+            writeUtf8(value);
+        }
+
+        private void writeUtf8(final CharSequence value) {
+            final int length = value.length();
+            long byteCount = 0;
+            for (int i = 0; i < length; i++) {
+                final char c = value.charAt(i);
+                if (c < 0x80) {
+                    byteCount++;
+                } else if (c < 0x800) {
+                    byteCount += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    byteCount += 4;
+                    i++;
+                } else {
+                    byteCount += 3;
+                }
+            }
+            writeVarLong(byteCount);
+            ensureCapacity((int) byteCount);
+            for (int i = 0; i < length; i++) {
+                final char c = value.charAt(i);
+                if (c < 0x80) {
+                    bytes[size++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[size++] = (byte) (0xC0 | (c >> 6));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    // lone surrogates are encoded as such, as the decoder accepts them
+                    bytes[size++] = (byte) (0xE0 | (c >> 12));
+                    bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,490 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.time.MutableInstant;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.spi.MutableThreadContextStack;
+import org.apache.logging.log4j.spi.StandardLevel;
+import org.apache.logging.log4j.util.StringMap;
+import org.apache.logging.log4j.util.Strings;
+
+import static org.apache.logging.log4j.core.layout.BinaryLayout.FLAG_CONTEXT_DATA;
+import static org.apache.logging.log4j.core.layout.BinaryLayout.FLAG_CONTEXT_STACK;
+import static org.apache.logging.log4j.core.layout.BinaryLayout.FLAG_END_OF_BATCH;
+import static org.apache.logging.log4j.core.layout.BinaryLayout.FLAG_INCLUDE_LOCATION;
+import static org.apache.logging.log4j.core.layout.BinaryLayout.FLAG_MARKER;
+import static org.apache.logging.log4j.core.layout.BinaryLayout.FLAG_NANO_TIME;
+import static org.apache.logging.log4j.core.layout.BinaryLayout.FLAG_SOURCE;
+import static org.apache.logging.log4j.core.layout.BinaryLayout.FLAG_THROWN;
+import static org.apache.logging.log4j.core.layout.BinaryLayout.MAGIC;
+import static org.apache.logging.log4j.core.layout.BinaryLayout.STRING_DEFINE;
+import static org.apache.logging.log4j.core.layout.BinaryLayout.STRING_INLINE;
+import static org.apache.logging.log4j.core.layout.BinaryLayout.STRING_NULL;
+import static org.apache.logging.log4j.core.layout.BinaryLayout.STRING_REFERENCE_BASE;
+
+/**
+ * Reads the events written by a {@link BinaryLayout}.
+ * <p>
+ * An instance reads a stream, starting with the header of the layout, and keeps its string table. Instances are not
+ * thread-safe. Records returned by {@link BinaryLayout#toByteArray(LogEvent)} are read by {@link #decode(byte[])}.
+ * </p>
+ * <p>
+ * Unlike Java deserialization, decoding never instantiates classes named by the input: throwables are rebuilt as
+ * {@link DecodedThrowable}s holding the name of their original class. Nor does it change global state: levels unknown
+ * to this JVM are replaced by the standard level they fall into, markers known to the {@link MarkerManager} are used as
+ * they are, and other markers are created without registering them. Invalid fields are reported as {@link StreamCorruptedException}s.
+ * </p>
+ *
+ * @since 2.21.0
+ */
+public final class BinaryLogEventDecoder {
+
+    /**
+     * The default maximum size of a record.
+     */
+    public static final int DEFAULT_MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private static final int MAX_STRING_TABLE_SIZE = 1 << 20;
+    private static final int MAX_NESTING_DEPTH = 64;
+
+    private final InputStream in;
+    private final int maxRecordSize;
+    private final List<String> stringTable = new ArrayList<>();
+    private byte[] buffer = new byte[512];
+    private boolean headerRead;
+
+    /**
+     * Creates a decoder reading the given stream.
+     *
+     * @param in the stream, starting with the header of the layout.
+     */
+    public BinaryLogEventDecoder(final InputStream in) {
+        this(in, DEFAULT_MAX_RECORD_SIZE);
+    }
+
+    /**
+     * Creates a decoder reading the given stream.
+     *
+     * @param in the stream, starting with the header of the layout.
+     * @param maxRecordSize the size above which a record is rejected as corrupt.
+     */
+    public BinaryLogEventDecoder(final InputStream in, final int maxRecordSize) {
+        this.in = Objects.requireNonNull(in, "in");
+        this.maxRecordSize = maxRecordSize;
+    }
+
+    /**
+     * Decodes a record returned by {@link BinaryLayout#toByteArray(LogEvent)}.
+     *
+     * @param record the record.
+     * @return the event.
+     * @throws IOException if the record is corrupt.
+     */
+    public static LogEvent decode(final byte[] record) throws IOException {
+        final Reader reader = new Reader(record, 0, record.length, new ArrayList<>());
+        final int length = (int) reader.readVarLong();
+        if (length < 0 || length > reader.limit - reader.position) {
+            throw new StreamCorruptedException("Invalid record length " + length);
+        }
+        return readEvent(new Reader(record, reader.position, reader.position + length, reader.stringTable));
+    }
+
+    /**
+     * Reads the next event of the stream.
+     *
+     * @return the event, or {@code null} at the end of the stream.
+     * @throws IOException if the stream cannot be read or is corrupt.
+     */
+    public LogEvent readEvent() throws IOException {
+        if (!headerRead) {
+            if (!readHeader()) {
+                return null;
+            }
+            headerRead = true;
+        }
+        final long length = readRecordLength();
+        if (length < 0) {
+            return null;
+        }
+        if (length > maxRecordSize) {
+            throw new StreamCorruptedException("Record of " + length + " bytes exceeds the maximum of "
+                    + maxRecordSize);
+        }
+        if (buffer.length < length) {
+            buffer = new byte[(int) Math.max(length, 2L * buffer.length)];
+        }
+        readFully(buffer, (int) length);
+        return readEvent(new Reader(buffer, 0, (int) length, stringTable));
+    }
+
+    private boolean readHeader() throws IOException {
+        final int first = in.read();
+        if (first < 0) {
+            return false;
+        }
+        final byte[] header = new byte[MAGIC.length + 1];
+        header[0] = (byte) first;
+        for (int i = 1; i < header.length; i++) {
+            final int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated header");
+            }
+            header[i] = (byte) b;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (header[i] != MAGIC[i]) {
+                throw new StreamCorruptedException("Not a BinaryLayout stream");
+            }
+        }
+        if (header[MAGIC.length] < 1) {
+            throw new StreamCorruptedException("Unsupported BinaryLayout version " + header[MAGIC.length]);
+        }
+        stringTable.clear();
+        return true;
+    }
+
+    private long readRecordLength() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final int b = in.read();
+            if (b < 0) {
+                if (shift == 0) {
+                    return -1;
+                }
+                throw new EOFException("Truncated record length");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Invalid record length");
+    }
+
+    private void readFully(final byte[] bytes, final int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            final int n = in.read(bytes, read, length - read);
+            if (n < 0) {
+                throw new EOFException("Truncated record");
+            }
+            read += n;
+        }
+    }
+
+    private static LogEvent readEvent(final Reader reader) throws IOException {
+        try {
+            return readFields(reader);
+        } catch (final RuntimeException e) {
+            // a field the decoding checks let through, but that the event rejects
+            final StreamCorruptedException corrupted = new StreamCorruptedException("Invalid record: " + e);
+            corrupted.initCause(e);
+            throw corrupted;
+        }
+    }
+
+    private static LogEvent readFields(final Reader reader) throws IOException {
+        final int flags = (int) reader.readVarLong();
+        final MutableInstant instant = new MutableInstant();
+        final long epochMillis = reader.readZigZagLong();
+        final long nanoOfMillisecond = reader.readVarLong();
+        if (nanoOfMillisecond < 0 || nanoOfMillisecond >= 1_000_000) {
+            throw new StreamCorruptedException("Invalid nanosecond of millisecond " + nanoOfMillisecond);
+        }
+        instant.initFromEpochMilli(epochMillis, (int) nanoOfMillisecond);
+        final Level level = readLevel(reader);
+        final Log4jLogEvent.Builder builder = Log4jLogEvent.newBuilder()
+                .setInstant(instant)
+                .setLevel(level)
+                .setLoggerName(reader.readString())
+                .setLoggerFqcn(reader.readString())
+                .setThreadName(reader.readString())
+                .setThreadId(reader.readZigZagLong())
+                .setThreadPriority((int) reader.readZigZagLong())
+                .setMessage(new SimpleMessage(reader.readString()))
+                .setEndOfBatch((flags & FLAG_END_OF_BATCH) != 0)
+                .setIncludeLocation((flags & FLAG_INCLUDE_LOCATION) != 0);
+        if ((flags & FLAG_NANO_TIME) != 0) {
+            builder.setNanoTime(reader.readZigZagLong());
+        }
+        if ((flags & FLAG_MARKER) != 0) {
+            builder.setMarker(readMarker(reader, 0));
+        }
+        if ((flags & FLAG_CONTEXT_DATA) != 0) {
+            final int size = reader.readCount();
+            final StringMap contextData = ContextDataFactory.createContextData(size);
+            for (int i = 0; i < size; i++) {
+                final String key = reader.readString();
+                if (key == null) {
+                    throw new StreamCorruptedException("Missing context data key");
+                }
+                contextData.putValue(key, reader.readString());
+            }
+            builder.setContextData(contextData);
+        }
+        if ((flags & FLAG_CONTEXT_STACK) != 0) {
+            final int depth = reader.readCount();
+            final List<String> elements = new ArrayList<>(depth);
+            for (int i = 0; i < depth; i++) {
+                elements.add(reader.readString());
+            }
+            builder.setContextStack(new MutableThreadContextStack(elements));
+        }
+        if ((flags & FLAG_SOURCE) != 0) {
+            builder.setSource(readStackTraceElement(reader));
+        }
+        if ((flags & FLAG_THROWN) != 0) {
+            builder.setThrown(readThrowable(reader, 0));
+        }
+        // any remaining bytes hold fields added by later versions
+        return builder.build();
+    }
+
+    private static Level readLevel(final Reader reader) throws IOException {
+        final long intLevel = reader.readVarLong();
+        if (intLevel < 0 || intLevel > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("Invalid level " + intLevel);
+        }
+        final String name = reader.readString();
+        if (Strings.isEmpty(name)) {
+            throw new StreamCorruptedException("Missing level name");
+        }
+        final Level level = Level.getLevel(name);
+        if (level != null) {
+            return level;
+        }
+        // Level.forName would register the level for good
+        return Level.getLevel(StandardLevel.getStandardLevel((int) intLevel).name());
+    }
+
+    private static Marker readMarker(final Reader reader, final int depth) throws IOException {
+        if (depth > MAX_NESTING_DEPTH) {
+            throw new StreamCorruptedException("Markers nested too deeply");
+        }
+        final String name = reader.readString();
+        if (name == null) {
+            throw new StreamCorruptedException("Missing marker name");
+        }
+        final int parentCount = reader.readCount();
+        if (MarkerManager.exists(name)) {
+            // the parents of a shared marker are left as this JVM defines them
+            for (int i = 0; i < parentCount; i++) {
+                readMarker(reader, depth + 1);
+            }
+            return MarkerManager.getMarker(name);
+        }
+        // not registered, so that the markers of the MarkerManager are left unchanged
+        final Marker marker = new MarkerManager.Log4jMarker(name);
+        if (parentCount > 0) {
+            final Marker[] parents = new Marker[parentCount];
+            for (int i = 0; i < parentCount; i++) {
+                parents[i] = readMarker(reader, depth + 1);
+            }
+            marker.setParents(parents);
+        }
+        return marker;
+    }
+
+    private static StackTraceElement readStackTraceElement(final Reader reader) throws IOException {
+        final String className = reader.readString();
+        final String methodName = reader.readString();
+        final String fileName = reader.readString();
+        final int lineNumber = (int) reader.readZigZagLong();
+        return new StackTraceElement(className != null ? className : "", methodName != null ? methodName : "",
+                fileName, lineNumber);
+    }
+
+    private static DecodedThrowable readThrowable(final Reader reader, final int depth) throws IOException {
+        if (depth > MAX_NESTING_DEPTH) {
+            throw new StreamCorruptedException("Throwables nested too deeply");
+        }
+        final String className = reader.readString();
+        final String message = reader.readString();
+        final int depthOfStack = reader.readCount();
+        final StackTraceElement[] stackTrace = new StackTraceElement[depthOfStack];
+        for (int i = 0; i < depthOfStack; i++) {
+            stackTrace[i] = readStackTraceElement(reader);
+        }
+        final DecodedThrowable cause = reader.readVarLong() != 0 ? readThrowable(reader, depth + 1) : null;
+        if (cause != null && reader.readVarLong() != 0) {
+            throw new StreamCorruptedException("More than one cause");
+        }
+        final DecodedThrowable throwable = new DecodedThrowable(className, message, cause);
+        throwable.setStackTrace(stackTrace);
+        while (reader.readVarLong() != 0) {
+            throwable.addSuppressed(readThrowable(reader, depth + 1));
+        }
+        return throwable;
+    }
+
+    /**
+     * A throwable decoded from a {@link BinaryLayout} record, standing for a throwable of another class.
+     */
+    public static final class DecodedThrowable extends Throwable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String className;
+
+        DecodedThrowable(final String className, final String message, final Throwable cause) {
+            super(message, cause);
+            this.className = className;
+        }
+
+        /**
+         * Returns the name of the class of the original throwable.
+         *
+         * @return the class name.
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            // the stack trace is the one decoded
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            final String message = getLocalizedMessage();
+            return message != null ? className + ": " + message : className;
+        }
+    }
+
+    /**
+     * Reads the fields of one record.
+     */
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private final int limit;
+        private final List<String> stringTable;
+        private int position;
+
+        Reader(final byte[] bytes, final int position, final int limit, final List<String> stringTable) {
+            this.bytes = bytes;
+            this.position = position;
+            this.limit = limit;
+            this.stringTable = stringTable;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= limit) {
+                    throw new EOFException("Truncated record");
+                }
+                final byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Invalid variable-length integer");
+        }
+
+        long readZigZagLong() throws IOException {
+            final long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        /**
+         * Reads a number of elements, each taking at least one byte.
+         */
+        int readCount() throws IOException {
+            final long count = readVarLong();
+            if (count < 0 || count > limit - position) {
+                throw new StreamCorruptedException("Invalid count " + count);
+            }
+            return (int) count;
+        }
+
+        String readString() throws IOException {
+            final long tag = readVarLong();
+            if (tag == STRING_NULL) {
+                return null;
+            }
+            if (tag == STRING_INLINE || tag == STRING_DEFINE) {
+                final String value = readUtf8();
+                if (tag == STRING_DEFINE) {
+                    if (stringTable.size() >= MAX_STRING_TABLE_SIZE) {
+                        throw new StreamCorruptedException("String table too large");
+                    }
+                    stringTable.add(value);
+                }
+                return value;
+            }
+            final long index = tag - STRING_REFERENCE_BASE;
+            if (index < 0 || index >= stringTable.size()) {
+                throw new StreamCorruptedException("Unknown string table entry " + index);
+            }
+            return stringTable.get((int) index);
+        }
+
+        private String readUtf8() throws IOException {
+            final int length = readCount();
+            final int end = position + length;
+            final char[] chars = new char[length];
+            int count = 0;
+            while (position < end) {
+                final int b = bytes[position++] & 0xFF;
+                if (b < 0x80) {
+                    chars[count++] = (char) b;
+                } else if (b < 0xE0) {
+                    checkContinuation(end, 1);
+                    chars[count++] = (char) (((b & 0x1F) << 6) | (bytes[position++] & 0x3F));
+                } else if (b < 0xF0) {
+                    checkContinuation(end, 2);
+                    chars[count++] = (char) (((b & 0x0F) << 12) | ((bytes[position++] & 0x3F) << 6)
+                            | (bytes[position++] & 0x3F));
+                } else {
+                    checkContinuation(end, 3);
+                    final int codePoint = ((b & 0x07) << 18) | ((bytes[position++] & 0x3F) << 12)
+                            | ((bytes[position++] & 0x3F) << 6) | (bytes[position++] & 0x3F);
+                    if (!Character.isValidCodePoint(codePoint)) {
+                        throw new StreamCorruptedException("Invalid code point " + codePoint);
+                    }
+                    count += Character.toChars(codePoint, chars, count);
+                }
+            }
+            return new String(chars, 0, count);
+        }
+
+        private void checkContinuation(final int end, final int count) throws IOException {
+            if (position + count > end) {
+                throw new StreamCorruptedException("Truncated UTF-8 sequence");
+            }
+        }
+    }
+}
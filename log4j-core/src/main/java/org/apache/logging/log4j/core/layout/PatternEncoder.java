@@ -0,0 +1,388 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.pattern.CompiledPatternFormatter;
+import org.apache.logging.log4j.core.pattern.FormattingInfo;
+import org.apache.logging.log4j.core.pattern.LevelPatternConverter;
+import org.apache.logging.log4j.core.pattern.LineSeparatorPatternConverter;
+import org.apache.logging.log4j.core.pattern.LiteralPatternConverter;
+import org.apache.logging.log4j.core.pattern.LogEventPatternConverter;
+import org.apache.logging.log4j.core.pattern.PatternFormatter;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.spi.AbstractLogger;
+import org.apache.logging.log4j.util.BoundedObjectPool;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.StringBuilders;
+import org.apache.logging.log4j.util.Strings;
+import org.apache.logging.log4j.util.VirtualThreads;
+
+/**
+ * Encodes log events with the formatters of a pattern, without formatting the whole event into text first.
+ * <p>
+ * The pattern is split into segments when the layout is configured:
+ * </p>
+ * <ul>
+ * <li>adjacent literals and line separators without lookups are encoded into a single byte array once,</li>
+ * <li>the output of a level converter, including its padding, is encoded once for each level,</li>
+ * <li>the other formatters are formatted into a StringBuilder. ASCII characters are copied to the output as bytes,
+ * and only the remaining text is passed to the CharsetEncoder.</li>
+ * </ul>
+ * <p>
+ * The bytes of an event are assembled in a thread-local buffer and written to the destination with a single call,
+ * so that events of different threads are not interleaved and the destination lock is not held while encoding.
+ * Events that are logged while another event is being formatted use new buffers.
+ * </p>
+ * <p>
+ * Only charsets that encode ASCII characters as single bytes of the same value are supported.
+ * </p>
+ */
+@PerformanceSensitive("allocation")
+final class PatternEncoder implements Encoder<LogEvent> {
+
+    /** Bounds the number of cached level encodings. */
+    private static final int MAX_CACHED_LEVELS = 64;
+
+    private static final int TEXT = 0;
+    private static final int CHARS = 1;
+    private static final int BYTES = 2;
+    private static final int ENCODER = 3;
+
+    /**
+     * Like {@link StringBuilderEncoder}, the thread-local state is kept in an Object[] of JDK classes, so that a
+     * thread pool does not keep the class loader of Log4j alive.
+     */
+    private final ThreadLocal<Object[]> threadLocal = new ThreadLocal<>();
+    /**
+     * Holds the same state for virtual threads, which would each keep their own copy in the ThreadLocal.
+     */
+    private final BoundedObjectPool<Object[]> pool = new BoundedObjectPool<>(this::createState);
+    private final Segment[] segments;
+    private final Charset charset;
+
+    PatternEncoder(final PatternFormatter[] formatters, final boolean compiled, final Charset charset) {
+        this.charset = Objects.requireNonNull(charset, "charset");
+        this.segments = split(formatters, compiled, charset);
+    }
+
+    /**
+     * Returns whether events can be encoded with the specified charset.
+     *
+     * @param charset the charset of the layout.
+     * @return {@code true} if ASCII characters are encoded as single bytes of the same value.
+     */
+    static boolean isSupported(final Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    private static Segment[] split(final PatternFormatter[] formatters, final boolean compiled,
+            final Charset charset) {
+        final List<Segment> segments = new ArrayList<>();
+        final List<PatternFormatter> text = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        for (final PatternFormatter formatter : formatters) {
+            final LogEventPatternConverter converter = formatter.getConverter();
+            final boolean defaultInfo = formatter.getFormattingInfo() == null
+                    || formatter.getFormattingInfo() == FormattingInfo.getDefault();
+            final String constant = defaultInfo ? constantOf(converter) : null;
+            if (constant == null && !(converter instanceof LevelPatternConverter)) {
+                text.add(formatter);
+                continue;
+            }
+            if (!text.isEmpty()) {
+                segments.add(new TextSegment(text.toArray(PatternFormatter.EMPTY_ARRAY), compiled));
+                text.clear();
+            }
+            if (constant != null) {
+                literal.append(constant);
+                continue;
+            }
+            if (literal.length() > 0) {
+                segments.add(new ConstantSegment(literal.toString().getBytes(charset)));
+                literal.setLength(0);
+            }
+            segments.add(new LevelSegment(formatter, charset));
+        }
+        if (!text.isEmpty()) {
+            segments.add(new TextSegment(text.toArray(PatternFormatter.EMPTY_ARRAY), compiled));
+        }
+        if (literal.length() > 0) {
+            segments.add(new ConstantSegment(literal.toString().getBytes(charset)));
+        }
+        return segments.toArray(new Segment[0]);
+    }
+
+    private static String constantOf(final LogEventPatternConverter converter) {
+        if (converter instanceof LiteralPatternConverter
+                && !((LiteralPatternConverter) converter).isSubstituted()) {
+            return ((LiteralPatternConverter) converter).getLiteral();
+        }
+        if (converter instanceof LineSeparatorPatternConverter) {
+            return Strings.LINE_SEPARATOR;
+        }
+        return null;
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        if (AbstractLogger.getRecursionDepth() > 1) { // LOG4J2-2368
+            // Recursive logging would clobber the thread-local state of the outer event.
+            encode(createState(), event, destination);
+            return;
+        }
+        if (VirtualThreads.isCurrentThreadVirtual()) {
+            final Object[] state = pool.acquire();
+            try {
+                encode(state, event, destination);
+            } finally {
+                pool.release(state);
+            }
+            return;
+        }
+        encode(getThreadLocalState(), event, destination);
+    }
+
+    private void encode(final Object[] state, final LogEvent event, final ByteBufferDestination destination) {
+        ((ByteBuffer) state[BYTES]).clear();
+        try {
+            for (final Segment segment : segments) {
+                segment.encode(event, state);
+            }
+            final ByteBuffer bytes = (ByteBuffer) state[BYTES];
+            destination.writeBytes(bytes.array(), bytes.arrayOffset(), bytes.position());
+        } finally {
+            trimToMaxSize(state);
+        }
+    }
+
+    private Object[] getThreadLocalState() {
+        Object[] threadLocalState = threadLocal.get();
+        if (threadLocalState == null) {
+            threadLocalState = createState();
+            threadLocal.set(threadLocalState);
+        }
+        return threadLocalState;
+    }
+
+    private Object[] createState() {
+        return new Object[] {
+                new StringBuilder(AbstractStringLayout.DEFAULT_STRING_BUILDER_SIZE),
+                CharBuffer.allocate(Constants.ENCODER_CHAR_BUFFER_SIZE),
+                ByteBuffer.allocate(Constants.ENCODER_BYTE_BUFFER_SIZE),
+                charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+        };
+    }
+
+    private static void trimToMaxSize(final Object[] state) {
+        StringBuilders.trimToMaxSize((StringBuilder) state[TEXT], AbstractStringLayout.MAX_STRING_BUILDER_SIZE);
+        if (((ByteBuffer) state[BYTES]).capacity() > Constants.ENCODER_BYTE_BUFFER_SIZE) {
+            state[BYTES] = ByteBuffer.allocate(Constants.ENCODER_BYTE_BUFFER_SIZE);
+        }
+    }
+
+    private static void appendBytes(final Object[] state, final byte[] bytes) {
+        ensureCapacity(state, bytes.length).put(bytes);
+    }
+
+    /**
+     * Appends the text in chunks of the thread-local CharBuffer. A chunk does not end with a high surrogate, so that
+     * each chunk can be encoded on its own.
+     */
+    private static void appendText(final Object[] state, final StringBuilder text) {
+        final CharBuffer chars = (CharBuffer) state[CHARS];
+        final int length = text.length();
+        int start = 0;
+        while (start < length) {
+            int end = Math.min(length, start + chars.capacity());
+            if (end < length && end - start > 1 && Character.isHighSurrogate(text.charAt(end - 1))) {
+                end--;
+            }
+            chars.clear();
+            text.getChars(start, end, chars.array(), chars.arrayOffset());
+            chars.limit(end - start);
+            appendChars(state, chars);
+            start = end;
+        }
+    }
+
+    private static void appendChars(final Object[] state, final CharBuffer chars) {
+        final ByteBuffer bytes = ensureCapacity(state, chars.remaining());
+        final char[] source = chars.array();
+        final byte[] target = bytes.array();
+        final int offset = chars.arrayOffset();
+        final int end = offset + chars.limit();
+        int i = offset + chars.position();
+        int position = bytes.arrayOffset() + bytes.position();
+        while (i < end) {
+            final char c = source[i];
+            if (c >= 0x80) {
+                break;
+            }
+            target[position++] = (byte) c;
+            i++;
+        }
+        bytes.position(position - bytes.arrayOffset());
+        chars.position(i - offset);
+        if (chars.hasRemaining()) {
+            encodeChars(state, chars);
+        }
+    }
+
+    private static void encodeChars(final Object[] state, final CharBuffer chars) {
+        final CharsetEncoder encoder = (CharsetEncoder) state[ENCODER];
+        encoder.reset();
+        CoderResult result;
+        while ((result = encoder.encode(chars, (ByteBuffer) state[BYTES], true)).isOverflow()) {
+            grow(state, chars.remaining());
+        }
+        if (!result.isUnderflow()) { // replaced malformed input, so only an overflow can stop the encoder
+            throwException(result);
+        }
+        while ((result = encoder.flush((ByteBuffer) state[BYTES])).isOverflow()) {
+            grow(state, 1);
+        }
+    }
+
+    private static ByteBuffer ensureCapacity(final Object[] state, final int length) {
+        final ByteBuffer bytes = (ByteBuffer) state[BYTES];
+        return bytes.remaining() >= length ? bytes : grow(state, length);
+    }
+
+    private static ByteBuffer grow(final Object[] state, final int length) {
+        final ByteBuffer bytes = (ByteBuffer) state[BYTES];
+        final ByteBuffer result = ByteBuffer.allocate(Math.max(bytes.capacity() * 2, bytes.position() + length));
+        bytes.flip();
+        result.put(bytes);
+        state[BYTES] = result;
+        return result;
+    }
+
+    private static void throwException(final CoderResult result) {
+        try {
+            result.throwException();
+        } catch (final CharacterCodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(super.toString());
+        builder.append("[charset=");
+        builder.append(charset);
+        builder.append(", segments=");
+        builder.append(segments.length);
+        builder.append("]");
+        return builder.toString();
+    }
+
+    private abstract static class Segment {
+
+        abstract void encode(LogEvent event, Object[] state);
+    }
+
+    private static final class ConstantSegment extends Segment {
+
+        private final byte[] bytes;
+
+        ConstantSegment(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        void encode(final LogEvent event, final Object[] state) {
+            appendBytes(state, bytes);
+        }
+    }
+
+    /**
+     * The output of a {@link LevelPatternConverter} only depends on the level of the event.
+     */
+    private static final class LevelSegment extends Segment {
+
+        private final PatternFormatter formatter;
+        private final Charset charset;
+        private final ConcurrentMap<Level, byte[]> encodedLevels = new ConcurrentHashMap<>();
+
+        LevelSegment(final PatternFormatter formatter, final Charset charset) {
+            this.formatter = formatter;
+            this.charset = charset;
+        }
+
+        @Override
+        void encode(final LogEvent event, final Object[] state) {
+            final Level level = event.getLevel();
+            byte[] bytes = level == null ? null : encodedLevels.get(level);
+            if (bytes == null) {
+                final StringBuilder text = (StringBuilder) state[TEXT];
+                text.setLength(0);
+                formatter.format(event, text);
+                if (level == null || encodedLevels.size() >= MAX_CACHED_LEVELS) {
+                    appendText(state, text);
+                    return;
+                }
+                bytes = text.toString().getBytes(charset);
+                encodedLevels.putIfAbsent(level, bytes);
+            }
+            appendBytes(state, bytes);
+        }
+    }
+
+    private static final class TextSegment extends Segment {
+
+        private final PatternFormatter[] formatters;
+        private final CompiledPatternFormatter compiledFormatter;
+
+        TextSegment(final PatternFormatter[] formatters, final boolean compiled) {
+            this.formatters = formatters;
+            this.compiledFormatter = compiled ? CompiledPatternFormatter.compile(formatters) : null;
+        }
+
+        @Override
+        void encode(final LogEvent event, final Object[] state) {
+            final StringBuilder text = (StringBuilder) state[TEXT];
+            text.setLength(0);
+            if (compiledFormatter != null) {
+                compiledFormatter.format(event, text);
+            } else {
+                for (final PatternFormatter formatter : formatters) {
+                    formatter.format(event, text);
+                }
+            }
+            appendText(state, text);
+        }
+    }
+}
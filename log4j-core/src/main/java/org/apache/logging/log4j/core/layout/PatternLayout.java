@@ -34,6 +34,7 @@ import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.impl.LocationAware;
+import org.apache.logging.log4j.core.pattern.CompiledPatternFormatter;
 import org.apache.logging.log4j.core.pattern.FormattingInfo;
 import org.apache.logging.log4j.core.pattern.LogEventPatternConverter;
 import org.apache.logging.log4j.core.pattern.PatternFormatter;
@@ -84,6 +85,7 @@ public final class PatternLayout extends AbstractStringLayout {
     private final String conversionPattern;
     private final PatternSelector patternSelector;
     private final Serializer eventSerializer;
+    private final Encoder<LogEvent> eventEncoder;
 
     /**
      * Constructs a PatternLayout using the supplied conversion pattern.
@@ -101,11 +103,12 @@ public final class PatternLayout extends AbstractStringLayout {
      *            If {@code "true"} (default) and {@link System#console()} is null, do not output ANSI escape codes
      * @param headerPattern header conversion pattern.
      * @param footerPattern footer conversion pattern.
+     * @param compiled whether the event pattern is compiled.
      */
     private PatternLayout(final Configuration config, final RegexReplacement replace, final String eventPattern,
             final PatternSelector patternSelector, final Charset charset, final boolean alwaysWriteExceptions,
             final boolean disableAnsi, final boolean noConsoleNoAnsi, final String headerPattern,
-            final String footerPattern) {
+            final String footerPattern, final boolean compiled) {
         super(config, charset,
                 newSerializerBuilder()
                         .setConfiguration(config)
@@ -136,7 +139,12 @@ public final class PatternLayout extends AbstractStringLayout {
                 .setNoConsoleNoAnsi(noConsoleNoAnsi)
                 .setPattern(eventPattern)
                 .setDefaultPattern(DEFAULT_CONVERSION_PATTERN)
+                .setCompiled(compiled)
+                .setCharset(charset)
                 .build();
+        this.eventEncoder = eventSerializer instanceof EncodingPatternSerializer
+                ? ((EncodingPatternSerializer) eventSerializer).encoder
+                : null;
     }
 
     public static SerializerBuilder newSerializerBuilder() {
@@ -222,6 +230,10 @@ public final class PatternLayout extends AbstractStringLayout {
 
     @Override
     public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        if (eventEncoder != null) {
+            eventEncoder.encode(event, destination);
+            return;
+        }
         final StringBuilder text = toText(eventSerializer, event, getStringBuilder());
         final Encoder<StringBuilder> encoder = getStringBuilderEncoder();
         encoder.encode(text, destination);
@@ -405,6 +417,77 @@ public final class PatternLayout extends AbstractStringLayout {
         }
     }
 
+    private static final class CompiledPatternSerializer implements PatternSerializer {
+
+        private final CompiledPatternFormatter formatter;
+
+        private CompiledPatternSerializer(final PatternFormatter[] formatters) {
+            this.formatter = CompiledPatternFormatter.compile(formatters);
+        }
+
+        @Override
+        public String toSerializable(final LogEvent event) {
+            final StringBuilder sb = getStringBuilder();
+            try {
+                return toSerializable(event, sb).toString();
+            } finally {
+                trimToMaxSize(sb);
+            }
+        }
+
+        @Override
+        public StringBuilder toSerializable(final LogEvent event, final StringBuilder buffer) {
+            formatter.format(event, buffer);
+            return buffer;
+        }
+
+        @Override
+        public boolean requiresLocation() {
+            return formatter.requiresLocation();
+        }
+
+        @Override
+        public String toString() {
+            return super.toString() + "[formatter=" + formatter + "]";
+        }
+    }
+
+    private static final class EncodingPatternSerializer implements PatternSerializer {
+
+        private final PatternSerializer delegate;
+        private final PatternEncoder encoder;
+
+        private EncodingPatternSerializer(final PatternSerializer delegate, final PatternEncoder encoder) {
+            this.delegate = delegate;
+            this.encoder = encoder;
+        }
+
+        @Override
+        public String toSerializable(final LogEvent event) {
+            return delegate.toSerializable(event);
+        }
+
+        @Override
+        public StringBuilder toSerializable(final LogEvent event, final StringBuilder buffer) {
+            return delegate.toSerializable(event, buffer);
+        }
+
+        @Override
+        public boolean requiresLocation() {
+            return delegate.requiresLocation();
+        }
+
+        @Override
+        public String toString() {
+            return super.toString() +
+                    "[delegate=" +
+                    delegate +
+                    ", encoder=" +
+                    encoder +
+                    "]";
+        }
+    }
+
     private static final class PatternSerializerWithReplacement implements Serializer, LocationAware {
 
         private final PatternSerializer delegate;
@@ -427,11 +510,8 @@ public final class PatternLayout extends AbstractStringLayout {
 
         @Override
         public StringBuilder toSerializable(final LogEvent event, final StringBuilder buf) {
-            StringBuilder buffer = delegate.toSerializable(event, buf);
-            String str = buffer.toString();
-            str = replace.format(str);
-            buffer.setLength(0);
-            buffer.append(str);
+            final StringBuilder buffer = delegate.toSerializable(event, buf);
+            replace.formatTo(buffer, 0);
             return buffer;
         }
 
@@ -461,6 +541,8 @@ public final class PatternLayout extends AbstractStringLayout {
         private boolean alwaysWriteExceptions;
         private boolean disableAnsi;
         private boolean noConsoleNoAnsi;
+        private boolean compiled;
+        private Charset charset;
 
         @Override
         public Serializer build() {
@@ -481,10 +563,19 @@ public final class PatternLayout extends AbstractStringLayout {
                             break;
                         }
                     }
-                    PatternSerializer serializer = hasFormattingInfo
+                    PatternSerializer serializer = compiled
+                            ? new CompiledPatternSerializer(formatters)
+                            : hasFormattingInfo
                             ? new PatternFormatterPatternSerializer(formatters)
                             : new NoFormatPatternSerializer(formatters);
-                    return replace == null ? serializer : new PatternSerializerWithReplacement(serializer, replace);
+                    if (replace != null) {
+                        return new PatternSerializerWithReplacement(serializer, replace);
+                    }
+                    if (charset != null && PatternEncoder.isSupported(charset)) {
+                        final PatternEncoder encoder = new PatternEncoder(formatters, compiled, charset);
+                        return new EncodingPatternSerializer(serializer, encoder);
+                    }
+                    return serializer;
                 } catch (final RuntimeException ex) {
                     throw new IllegalArgumentException("Cannot parse pattern '" + pattern + "'", ex);
                 }
@@ -532,6 +623,27 @@ public final class PatternLayout extends AbstractStringLayout {
             return this;
         }
 
+        /**
+         * @param compiled
+         *        If {@code true}, the pattern is compiled into a {@link CompiledPatternFormatter}.
+         * @since 2.21.0
+         */
+        public SerializerBuilder setCompiled(final boolean compiled) {
+            this.compiled = compiled;
+            return this;
+        }
+
+        /**
+         * @param charset
+         *        If set to a charset that encodes ASCII characters as single bytes, {@link PatternLayout#encode} writes
+         *        literals and levels as pre-encoded bytes.
+         * @since 2.21.0
+         */
+        public SerializerBuilder setCharset(final Charset charset) {
+            this.charset = charset;
+            return this;
+        }
+
     }
 
     private static final class PatternSelectorSerializer implements Serializer, LocationAware {
@@ -559,11 +671,8 @@ public final class PatternLayout extends AbstractStringLayout {
             for (PatternFormatter formatter : patternSelector.getFormatters(event)) {
                 formatter.format(event, buffer);
             }
-            if (replace != null) { // creates temporary objects
-                String str = buffer.toString();
-                str = replace.format(str);
-                buffer.setLength(0);
-                buffer.append(str);
+            if (replace != null) {
+                replace.formatTo(buffer, 0);
             }
             return buffer;
         }
@@ -656,6 +765,9 @@ public final class PatternLayout extends AbstractStringLayout {
         @PluginBuilderAttribute
         private String footer;
 
+        @PluginBuilderAttribute
+        private boolean compiled;
+
         private Builder() {
         }
 
@@ -760,11 +872,22 @@ public final class PatternLayout extends AbstractStringLayout {
             return this;
         }
 
+        /**
+         * @param compiled
+         *        If {@code "true"} (default is false), the pattern is compiled into a single formatter when the layout
+         *        is built, which formats events with fewer virtual calls.
+         * @since 2.21.0
+         */
+        public Builder withCompiled(final boolean compiled) {
+            this.compiled = compiled;
+            return this;
+        }
+
         @Override
         public PatternLayout build() {
             // should work with a null configuration
             return new PatternLayout(configuration, regexReplacement, pattern, patternSelector, charset,
-                alwaysWriteExceptions, disableAnsi, noConsoleNoAnsi, header, footer);
+                alwaysWriteExceptions, disableAnsi, noConsoleNoAnsi, header, footer, compiled);
         }
     }
 
@@ -25,6 +25,8 @@ import java.util.Objects;
 
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.BoundedObjectPool;
+import org.apache.logging.log4j.util.VirtualThreads;
 
 /**
  * Encoder for StringBuilders that uses ThreadLocals to avoid locking as much as possible.
@@ -43,6 +45,10 @@ public class StringBuilderEncoder implements Encoder<StringBuilder> {
      * instead of three times.
      */
     private final ThreadLocal<Object[]> threadLocal = new ThreadLocal<>();
+    /**
+     * Holds the same state for virtual threads, which would each keep their own copy in the ThreadLocal.
+     */
+    private final BoundedObjectPool<Object[]> pool = new BoundedObjectPool<>(this::createState);
     private final Charset charset;
     private final int charBufferSize;
     private final int byteBufferSize;
@@ -59,11 +65,23 @@ public class StringBuilderEncoder implements Encoder<StringBuilder> {
 
     @Override
     public void encode(final StringBuilder source, final ByteBufferDestination destination) {
+        if (VirtualThreads.isCurrentThreadVirtual()) {
+            final Object[] state = pool.acquire();
+            try {
+                encode(resetState(state), source, destination);
+            } finally {
+                pool.release(state);
+            }
+            return;
+        }
+        encode(getThreadLocalState(), source, destination);
+    }
+
+    private void encode(final Object[] state, final StringBuilder source, final ByteBufferDestination destination) {
         try {
-            final Object[] threadLocalState = getThreadLocalState();
-            final CharsetEncoder charsetEncoder = (CharsetEncoder) threadLocalState[0];
-            final CharBuffer charBuffer = (CharBuffer) threadLocalState[1];
-            final ByteBuffer byteBuffer = (ByteBuffer) threadLocalState[2];
+            final CharsetEncoder charsetEncoder = (CharsetEncoder) state[0];
+            final CharBuffer charBuffer = (CharBuffer) state[1];
+            final ByteBuffer byteBuffer = (ByteBuffer) state[2];
             TextEncoderHelper.encodeText(charsetEncoder, charBuffer, byteBuffer, source, destination);
         } catch (final Exception ex) {
             logEncodeTextException(ex, source);
@@ -74,21 +92,30 @@ public class StringBuilderEncoder implements Encoder<StringBuilder> {
     private Object[] getThreadLocalState() {
         Object[] threadLocalState = threadLocal.get();
         if (threadLocalState == null) {
-            threadLocalState = new Object[] {
-                    charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
-                            .onUnmappableCharacter(CodingErrorAction.REPLACE),
-                    CharBuffer.allocate(charBufferSize),
-                    ByteBuffer.allocate(byteBufferSize)
-            };
+            threadLocalState = createState();
             threadLocal.set(threadLocalState);
         } else {
-            ((CharsetEncoder) threadLocalState[0]).reset();
-            ((CharBuffer) threadLocalState[1]).clear();
-            ((ByteBuffer) threadLocalState[2]).clear();
+            resetState(threadLocalState);
         }
         return threadLocalState;
     }
 
+    private Object[] createState() {
+        return new Object[] {
+                charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE),
+                CharBuffer.allocate(charBufferSize),
+                ByteBuffer.allocate(byteBufferSize)
+        };
+    }
+
+    private static Object[] resetState(final Object[] state) {
+        ((CharsetEncoder) state[0]).reset();
+        ((CharBuffer) state[1]).clear();
+        ((ByteBuffer) state[2]).clear();
+        return state;
+    }
+
     private static void logEncodeTextException(final Exception ex, final StringBuilder text) {
         StatusLogger.getLogger().error("Recovering from StringBuilderEncoder.encode('{}') error: {}", text, ex, ex);
     }
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.layout.internal;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
+
+/**
+ * A {@link ByteBufferDestination} that never writes anywhere: draining grows the heap buffer instead, so that a
+ * complete encoded event can be collected before it is handed over to its actual destination in one piece.
+ * <p>
+ * Instances are not thread-safe and are meant to be reused (for instance, through a {@code ThreadLocal}).
+ * </p>
+ */
+public final class GrowableByteBufferDestination implements ByteBufferDestination {
+
+    private final int maxRetainedCapacity;
+
+    private ByteBuffer byteBuffer;
+
+    /**
+     * Creates a destination.
+     *
+     * @param initialCapacity the initial capacity of the buffer
+     * @param maxRetainedCapacity buffers grown beyond this capacity are shrunk back on {@link #clear()}
+     */
+    public GrowableByteBufferDestination(final int initialCapacity, final int maxRetainedCapacity) {
+        this.maxRetainedCapacity = Math.max(initialCapacity, maxRetainedCapacity);
+        this.byteBuffer = ByteBuffer.allocate(initialCapacity);
+    }
+
+    @Override
+    public ByteBuffer getByteBuffer() {
+        return byteBuffer;
+    }
+
+    @Override
+    public ByteBuffer drain(final ByteBuffer buf) {
+        if (buf != byteBuffer) {
+            return byteBuffer;
+        }
+        final int capacity = buf.capacity();
+        final int newCapacity = capacity > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : Math.max(capacity * 2, 64);
+        final ByteBuffer grown = ByteBuffer.allocate(newCapacity);
+        ((Buffer) buf).flip();
+        grown.put(buf);
+        byteBuffer = grown;
+        return grown;
+    }
+
+    @Override
+    public void writeBytes(final ByteBuffer data) {
+        ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+    }
+
+    @Override
+    public void writeBytes(final byte[] data, final int offset, final int length) {
+        ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+    }
+
+    /**
+     * Returns the array backing the buffer. Valid content starts at index 0 and ends at {@link #size()}.
+     *
+     * @return the backing array
+     */
+    public byte[] array() {
+        return byteBuffer.array();
+    }
+
+    /**
+     * Returns the number of bytes written since the last {@link #clear()}.
+     *
+     * @return the number of buffered bytes
+     */
+    public int size() {
+        return byteBuffer.position();
+    }
+
+    /**
+     * Discards the bytes written after the first {@code size} bytes.
+     *
+     * @param size the number of bytes to keep, at most {@link #size()}
+     */
+    public void truncate(final int size) {
+        ((Buffer) byteBuffer).position(size);
+    }
+
+    /**
+     * Discards the buffered bytes, shrinking the buffer if it has grown past the retained capacity.
+     */
+    public void clear() {
+        if (byteBuffer.capacity() > maxRetainedCapacity) {
+            byteBuffer = ByteBuffer.allocate(maxRetainedCapacity);
+        } else {
+            ((Buffer) byteBuffer).clear();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and append latencies of one Appender.
+ *
+ * @see MetricsRegistry#getAppenderMetrics(org.apache.logging.log4j.core.Appender)
+ * @since 2.21.0
+ */
+public final class AppenderMetrics {
+
+    private final String name;
+
+    private final LongAdder filtered = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder queueFull = new LongAdder();
+
+    private final LongAdder discarded = new LongAdder();
+
+    private final LatencyHistogram appendLatency = new LatencyHistogram();
+
+    AppenderMetrics(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name of the Appender.
+     *
+     * @return the name of the Appender.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a call of {@code Appender.append(LogEvent)}.
+     *
+     * @param nanos how long the call took.
+     */
+    public void recordAppend(final long nanos) {
+        appendLatency.record(nanos);
+    }
+
+    /**
+     * Records an event that was filtered out before reaching the Appender.
+     */
+    public void recordFiltered() {
+        filtered.increment();
+    }
+
+    /**
+     * Records an event that could not be appended because of an error.
+     */
+    public void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Records an event that found the queue of an asynchronous Appender full.
+     */
+    public void recordQueueFull() {
+        queueFull.increment();
+    }
+
+    /**
+     * Records an event that an asynchronous Appender discarded.
+     */
+    public void recordDiscarded() {
+        discarded.increment();
+    }
+
+    /**
+     * Returns the number of events passed to the Appender.
+     *
+     * @return the number of appended events.
+     */
+    public long getAppendCount() {
+        return appendLatency.getCount();
+    }
+
+    /**
+     * Returns the number of events filtered out before reaching the Appender by the filters and level of the
+     * Appender reference or by the filter of the Appender.
+     *
+     * @return the number of filtered events.
+     */
+    public long getFilteredCount() {
+        return filtered.sum();
+    }
+
+    /**
+     * Returns the number of events that failed because the Appender was not started or threw an exception.
+     *
+     * @return the number of errors.
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Returns the number of events that found the queue of an asynchronous Appender full.
+     *
+     * @return the number of queue full events.
+     */
+    public long getQueueFullCount() {
+        return queueFull.sum();
+    }
+
+    /**
+     * Returns the number of events an asynchronous Appender discarded.
+     *
+     * @return the number of discarded events.
+     */
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    /**
+     * Returns the durations of the calls to {@code Appender.append(LogEvent)}.
+     *
+     * @return the append latency histogram.
+     */
+    public LatencyHistogram getAppendLatency() {
+        return appendLatency;
+    }
+
+    /**
+     * Resets all counters and the latency histogram.
+     */
+    public void reset() {
+        filtered.reset();
+        errors.reset();
+        queueFull.reset();
+        discarded.reset();
+        appendLatency.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "AppenderMetrics[name=" + name + ", appended=" + getAppendCount() + ", filtered=" + getFilteredCount()
+                + ", errors=" + getErrorCount() + ", queueFull=" + getQueueFullCount() + ", discarded="
+                + getDiscardedCount() + ", appendLatency=" + appendLatency + "]";
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.appender.OutputStreamManager;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Holds the metrics of Appenders and OutputStreamManagers.
+ * <p>
+ * Metrics are disabled by default. They are enabled by setting the {@value #PROPERTY_ENABLE_APPENDER_METRICS}
+ * property to {@code true}, or by calling {@link #setEnabled(boolean)} before the configuration is started.
+ * Components only collect metrics if they were enabled when the component was created.
+ * </p>
+ * <p>
+ * Metrics belong to component instances and are released with them, so the counters of an Appender restart from
+ * zero after a reconfiguration.
+ * </p>
+ *
+ * @since 2.21.0
+ */
+public final class MetricsRegistry {
+
+    /**
+     * The property ({@value}) that enables metrics.
+     */
+    public static final String PROPERTY_ENABLE_APPENDER_METRICS = "log4j2.enableAppenderMetrics";
+
+    private static volatile boolean enabled = PropertiesUtil.getProperties()
+            .getBooleanProperty(PROPERTY_ENABLE_APPENDER_METRICS, false);
+
+    private static final Map<Appender, AppenderMetrics> APPENDERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final Map<OutputStreamManager, OutputStreamMetrics> MANAGERS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Returns whether metrics are collected by newly created components.
+     *
+     * @return {@code true} if metrics are enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables metrics for components created afterwards.
+     *
+     * @param enabled whether metrics are enabled.
+     */
+    public static void setEnabled(final boolean enabled) {
+        MetricsRegistry.enabled = enabled;
+    }
+
+    /**
+     * Returns the metrics of an Appender, creating them if metrics are enabled.
+     *
+     * @param appender the Appender.
+     * @return the metrics of the Appender, or {@code null} if metrics are disabled and were not collected for the
+     * Appender.
+     */
+    public static AppenderMetrics getAppenderMetrics(final Appender appender) {
+        synchronized (APPENDERS) {
+            AppenderMetrics metrics = APPENDERS.get(appender);
+            if (metrics == null && enabled) {
+                metrics = new AppenderMetrics(appender.getName());
+                APPENDERS.put(appender, metrics);
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * Returns the metrics of all live Appenders that collect metrics.
+     *
+     * @return a snapshot of the Appender metrics.
+     */
+    public static List<AppenderMetrics> getAppenderMetrics() {
+        synchronized (APPENDERS) {
+            return new ArrayList<>(APPENDERS.values());
+        }
+    }
+
+    /**
+     * Returns the metrics of an OutputStreamManager, creating them if metrics are enabled.
+     *
+     * @param manager the manager.
+     * @return the metrics of the manager, or {@code null} if metrics are disabled and were not collected for the
+     * manager.
+     */
+    public static OutputStreamMetrics getOutputStreamMetrics(final OutputStreamManager manager) {
+        synchronized (MANAGERS) {
+            OutputStreamMetrics metrics = MANAGERS.get(manager);
+            if (metrics == null && enabled) {
+                metrics = new OutputStreamMetrics(manager.getName());
+                MANAGERS.put(manager, metrics);
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * Returns the metrics of all live OutputStreamManagers that collect metrics.
+     *
+     * @return a snapshot of the OutputStreamManager metrics.
+     */
+    public static List<OutputStreamMetrics> getOutputStreamMetrics() {
+        synchronized (MANAGERS) {
+            return new ArrayList<>(MANAGERS.values());
+        }
+    }
+}
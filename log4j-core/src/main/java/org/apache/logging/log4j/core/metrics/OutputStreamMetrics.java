@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bytes written and write latencies of one {@code OutputStreamManager}.
+ *
+ * @see MetricsRegistry#getOutputStreamMetrics(org.apache.logging.log4j.core.appender.OutputStreamManager)
+ * @since 2.21.0
+ */
+public final class OutputStreamMetrics {
+
+    private final String name;
+
+    private final LongAdder bytesWritten = new LongAdder();
+
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+
+    OutputStreamMetrics(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name of the manager.
+     *
+     * @return the name of the manager.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a write to the destination of the manager.
+     *
+     * @param bytes the number of bytes written.
+     * @param nanos how long the write took.
+     */
+    public void recordWrite(final long bytes, final long nanos) {
+        bytesWritten.add(bytes);
+        writeLatency.record(nanos);
+    }
+
+    /**
+     * Returns the number of bytes written to the destination.
+     *
+     * @return the number of bytes written.
+     */
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    /**
+     * Returns the number of writes to the destination.
+     *
+     * @return the number of writes.
+     */
+    public long getWriteCount() {
+        return writeLatency.getCount();
+    }
+
+    /**
+     * Returns the durations of the writes to the destination.
+     *
+     * @return the write latency histogram.
+     */
+    public LatencyHistogram getWriteLatency() {
+        return writeLatency;
+    }
+
+    /**
+     * Resets the byte counter and the latency histogram.
+     */
+    public void reset() {
+        bytesWritten.reset();
+        writeLatency.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "OutputStreamMetrics[name=" + name + ", bytesWritten=" + getBytesWritten() + ", writeLatency="
+                + writeLatency + "]";
+    }
+}
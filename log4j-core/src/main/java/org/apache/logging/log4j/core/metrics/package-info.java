@@ -0,0 +1,23 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+/**
+ * Opt-in runtime metrics of Log4j 2 Appenders and their managers. Metrics are only collected when enabled with the
+ * {@code log4j2.enableAppenderMetrics} property or {@link org.apache.logging.log4j.core.metrics.MetricsRegistry#setEnabled(boolean)}.
+ *
+ * @since 2.21.0
+ */
+package org.apache.logging.log4j.core.metrics;
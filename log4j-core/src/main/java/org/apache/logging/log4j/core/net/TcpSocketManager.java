@@ -34,6 +34,7 @@ import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.appender.AppenderLoggingException;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
 import org.apache.logging.log4j.core.appender.OutputStreamManager;
+import org.apache.logging.log4j.core.layout.BinaryLayout;
 import org.apache.logging.log4j.core.util.Closer;
 import org.apache.logging.log4j.core.util.Log4jThread;
 import org.apache.logging.log4j.core.util.NullOutputStream;
@@ -230,6 +231,12 @@ public class TcpSocketManager extends AbstractSocketManager {
                         throw new AppenderLoggingException(
                                 String.format("Error sending to %s for %s", getName(), config), causeEx);
                     }
+                    if (layout instanceof BinaryLayout) {
+                        // the bytes refer to the string table of the previous connection
+                        throw new AppenderLoggingException(
+                                String.format("Dropped events encoded before reestablishing connection %s for %s",
+                                        getName(), config), causeEx);
+                    }
                     try {
                         writeAndFlush(bytes, offset, length, immediateFlush);
                     } catch (final IOException e) {
@@ -372,6 +379,7 @@ public class TcpSocketManager extends AbstractSocketManager {
             synchronized (owner) {
                 Closer.closeSilently(getOutputStream());
                 setOutputStream(newOS);
+                startBinaryStream(newOS);
                 socket = sock;
                 reconnector = null;
                 shutdown = true;
@@ -387,6 +395,22 @@ public class TcpSocketManager extends AbstractSocketManager {
         }
     }
 
+    /**
+     * Starts a new stream on a new connection if the layout is a {@link BinaryLayout}, whose records refer to a
+     * string table that only lasts as long as the stream: the header resets the table, and the records still
+     * buffered for the previous connection are dropped. Must be called while holding the lock on this manager.
+     */
+    private void startBinaryStream(final OutputStream os) {
+        if (layout instanceof BinaryLayout) {
+            if (byteBuffer.position() > 0) {
+                LOGGER.warn("Dropping {} bytes of events encoded for the previous connection of {}",
+                        byteBuffer.position(), getName());
+            }
+            byteBuffer.clear();
+            writeHeader(os);
+        }
+    }
+
     private Reconnector createReconnector() {
         final Reconnector recon = new Reconnector(this);
         recon.setDaemon(true);
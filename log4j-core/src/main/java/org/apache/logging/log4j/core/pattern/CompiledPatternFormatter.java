@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.Strings;
+
+/**
+ * Formats a log event with a pattern that was compiled into a single method handle when the layout was configured.
+ * <p>
+ * Formatting with a {@link PatternFormatter} array loops over the formatters and checks the field settings of each
+ * one for every event. A compiled pattern composes the converters into one method handle instead:
+ * </p>
+ * <ul>
+ * <li>adjacent literals and line separators without lookups are merged into a single constant string,</li>
+ * <li>each converter is bound to the {@code format} method of its own class,</li>
+ * <li>padding and truncation are only applied to the converters that declare them.</li>
+ * </ul>
+ * <p>
+ * The handle is held in an instance field, so the JIT does not treat it as a constant and does not inline the
+ * converters through it. What a compiled pattern saves is the loop and the field checks per event.
+ * </p>
+ * <p>
+ * The output is identical to the output of the formatters.
+ * </p>
+ *
+ * @since 2.21.0
+ */
+@PerformanceSensitive("allocation")
+public final class CompiledPatternFormatter {
+
+    private static final MethodType FORMAT_TYPE = MethodType.methodType(void.class, LogEvent.class,
+            StringBuilder.class);
+
+    private static final MethodHandle APPEND_LITERAL;
+
+    private static final MethodHandle FIELD_START;
+
+    private static final MethodHandle FORMAT_FIELD;
+
+    private static final MethodHandle FORMAT_CONVERTER;
+
+    static {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            APPEND_LITERAL = lookup.findStatic(CompiledPatternFormatter.class, "appendLiteral",
+                    FORMAT_TYPE.insertParameterTypes(0, String.class));
+            FIELD_START = lookup.findStatic(CompiledPatternFormatter.class, "fieldStart",
+                    FORMAT_TYPE.changeReturnType(int.class));
+            FORMAT_FIELD = lookup.findStatic(CompiledPatternFormatter.class, "formatField",
+                    FORMAT_TYPE.insertParameterTypes(0, FormattingInfo.class, int.class));
+            FORMAT_CONVERTER = lookup.findVirtual(LogEventPatternConverter.class, "format", FORMAT_TYPE);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final MethodHandle handle;
+
+    private final int size;
+
+    private final boolean requiresLocation;
+
+    private final String description;
+
+    private CompiledPatternFormatter(final MethodHandle handle, final int size, final boolean requiresLocation,
+            final String description) {
+        this.handle = handle;
+        this.size = size;
+        this.requiresLocation = requiresLocation;
+        this.description = description;
+    }
+
+    /**
+     * Compiles pattern formatters.
+     *
+     * @param formatters the formatters of a pattern.
+     * @return the compiled pattern.
+     */
+    public static CompiledPatternFormatter compile(final PatternFormatter[] formatters) {
+        final List<MethodHandle> steps = new ArrayList<>(formatters.length);
+        final List<Object> operands = new ArrayList<>(formatters.length);
+        final StringBuilder literal = new StringBuilder();
+        boolean requiresLocation = false;
+        for (final PatternFormatter formatter : formatters) {
+            requiresLocation |= formatter.requiresLocation();
+            final LogEventPatternConverter converter = formatter.getConverter();
+            final FormattingInfo info = formatter.getFormattingInfo() == FormattingInfo.getDefault()
+                    ? null
+                    : formatter.getFormattingInfo();
+            final String constant = info == null ? constantOf(converter) : null;
+            if (constant != null) {
+                literal.append(constant);
+                continue;
+            }
+            if (literal.length() > 0) {
+                steps.add(literalStep(literal.toString()));
+                operands.add(literal.toString());
+                literal.setLength(0);
+            }
+            steps.add(info == null ? converterStep(converter) : fieldStep(converter, info));
+            operands.add(formatter);
+        }
+        if (literal.length() > 0) {
+            steps.add(literalStep(literal.toString()));
+            operands.add(literal.toString());
+        }
+        MethodHandle handle = MethodHandles.dropArguments(
+                MethodHandles.constant(Object.class, null).asType(MethodType.methodType(void.class)), 0,
+                LogEvent.class, StringBuilder.class);
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            handle = MethodHandles.foldArguments(handle, steps.get(i));
+        }
+        return new CompiledPatternFormatter(handle, steps.size(), requiresLocation, operands.toString());
+    }
+
+    private static String constantOf(final LogEventPatternConverter converter) {
+        if (converter instanceof LiteralPatternConverter
+                && !((LiteralPatternConverter) converter).isSubstituted()) {
+            return ((LiteralPatternConverter) converter).getLiteral();
+        }
+        if (converter instanceof LineSeparatorPatternConverter) {
+            return Strings.LINE_SEPARATOR;
+        }
+        return null;
+    }
+
+    private static MethodHandle literalStep(final String literal) {
+        return MethodHandles.insertArguments(APPEND_LITERAL, 0, literal);
+    }
+
+    private static MethodHandle converterStep(final LogEventPatternConverter converter) {
+        MethodHandle format;
+        try {
+            // binds the method of the concrete class, so that the call does not need a type profile
+            format = MethodHandles.publicLookup().findVirtual(converter.getClass(), "format", FORMAT_TYPE);
+        } catch (final ReflectiveOperationException | SecurityException e) {
+            // the converter class is not public
+            format = FORMAT_CONVERTER;
+        }
+        return format.bindTo(converter).asType(FORMAT_TYPE);
+    }
+
+    private static MethodHandle fieldStep(final LogEventPatternConverter converter, final FormattingInfo info) {
+        // int start = buffer.length(); converter.format(event, buffer); info.format(start, buffer);
+        final MethodHandle format = MethodHandles.foldArguments(
+                MethodHandles.insertArguments(FORMAT_FIELD, 0, info),
+                MethodHandles.dropArguments(converterStep(converter), 0, int.class));
+        return MethodHandles.foldArguments(format, FIELD_START);
+    }
+
+    private static void appendLiteral(final String literal, final LogEvent event, final StringBuilder buffer) {
+        buffer.append(literal);
+    }
+
+    private static int fieldStart(final LogEvent event, final StringBuilder buffer) {
+        return buffer.length();
+    }
+
+    private static void formatField(final FormattingInfo info, final int start, final LogEvent event,
+            final StringBuilder buffer) {
+        info.format(start, buffer);
+    }
+
+    /**
+     * Formats an event.
+     *
+     * @param event the event.
+     * @param buffer the buffer to append to.
+     */
+    public void format(final LogEvent event, final StringBuilder buffer) {
+        try {
+            handle.invokeExact(event, buffer);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable t) {
+            // converters do not throw checked exceptions
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Returns whether one of the compiled converters requires location information.
+     *
+     * @return {@code true} if location information is required.
+     */
+    public boolean requiresLocation() {
+        return requiresLocation;
+    }
+
+    /**
+     * Returns the number of steps of the compiled pattern.
+     *
+     * @return the number of steps.
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "[steps=" + description + "]";
+    }
+}
@@ -71,8 +71,12 @@ public final class ExtendedThrowablePatternConverter extends ThrowablePatternCon
             if (len > 0 && !Character.isWhitespace(toAppendTo.charAt(len - 1))) {
                 toAppendTo.append(' ');
             }
+            final String suffix = getSuffix(event);
+            if (formatReference(event, throwable, proxy, suffix, toAppendTo)) {
+                return;
+            }
             proxy.formatExtendedStackTraceTo(toAppendTo, options.getIgnorePackages(),
-                    options.getTextRenderer(), getSuffix(event), options.getSeparator());
+                    options.getTextRenderer(), suffix, options.getSeparator());
         }
     }
 
@@ -56,6 +56,16 @@ public final class LiteralPatternConverter extends LogEventPatternConverter impl
         return literal != null && literal.contains("${");
     }
 
+    /**
+     * Returns whether the literal contains lookups that are resolved for each event.
+     *
+     * @return {@code true} if the output depends on the event.
+     * @since 2.21.0
+     */
+    public boolean isSubstituted() {
+        return substitute;
+    }
+
     /**
      * {@inheritDoc}
      */
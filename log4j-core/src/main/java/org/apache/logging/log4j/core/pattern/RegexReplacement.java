@@ -23,6 +23,7 @@ import org.apache.logging.log4j.core.Core;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.util.internal.ReusableRegex;
 import org.apache.logging.log4j.status.StatusLogger;
 
 /**
@@ -37,6 +38,8 @@ public final class RegexReplacement {
 
     private final String substitution;
 
+    private final ReusableRegex regex;
+
     /**
      * Private constructor.
      *
@@ -46,6 +49,7 @@ public final class RegexReplacement {
     private RegexReplacement(final Pattern pattern, final String substitution) {
         this.pattern = pattern;
         this.substitution = substitution;
+        this.regex = new ReusableRegex(pattern, substitution);
     }
 
     /**
@@ -54,7 +58,17 @@ public final class RegexReplacement {
      * @return the replacement String.
      */
     public String format(final String msg) {
-        return pattern.matcher(msg).replaceAll(substitution);
+        return regex.replaceAll(msg);
+    }
+
+    /**
+     * Performs the replacement on the end of a buffer without creating temporary objects.
+     * @param buffer The buffer to modify.
+     * @param start The index of the buffer at which the text to match against starts.
+     * @since 2.21.0
+     */
+    public void formatTo(final StringBuilder buffer, final int start) {
+        regex.replaceAll(buffer, start);
     }
 
     @Override
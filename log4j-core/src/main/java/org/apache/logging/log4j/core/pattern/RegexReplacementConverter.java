@@ -23,20 +23,37 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.internal.ReusableRegex;
+import org.apache.logging.log4j.util.BoundedObjectPool;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.StringBuilders;
+import org.apache.logging.log4j.util.VirtualThreads;
 
 /**
  * Replacement pattern converter.
  */
 @Plugin(name = "replace", category = PatternConverter.CATEGORY)
 @ConverterKeys({ "replace" })
+@PerformanceSensitive("allocation")
 public final class RegexReplacementConverter extends LogEventPatternConverter {
 
-    private final Pattern pattern;
-
-    private final String substitution;
+    private final ReusableRegex regex;
 
     private final List<PatternFormatter> formatters;
 
+    /**
+     * Buffers of platform threads to format the nested pattern into, or {@code null} if thread locals are disabled.
+     */
+    private final ThreadLocal<StringBuilder> threadLocalBuffers = Constants.ENABLE_THREADLOCALS
+            ? ThreadLocal.withInitial(StringBuilder::new)
+            : null;
+
+    /**
+     * Buffers of virtual threads, and of all threads if thread locals are disabled.
+     */
+    private final BoundedObjectPool<StringBuilder> buffers = new BoundedObjectPool<>(StringBuilder::new);
+
     /**
      * Construct the converter.
      * @param formatters The PatternFormatters to generate the text to manipulate.
@@ -46,8 +63,7 @@ public final class RegexReplacementConverter extends LogEventPatternConverter {
     private RegexReplacementConverter(final List<PatternFormatter> formatters,
                                       final Pattern pattern, final String substitution) {
         super("replace", "replace");
-        this.pattern = pattern;
-        this.substitution = substitution;
+        this.regex = new ReusableRegex(pattern, substitution);
         this.formatters = formatters;
     }
 
@@ -88,10 +104,32 @@ public final class RegexReplacementConverter extends LogEventPatternConverter {
      */
     @Override
     public void format(final LogEvent event, final StringBuilder toAppendTo) {
-        final StringBuilder buf = new StringBuilder();
-        for (final PatternFormatter formatter : formatters) {
-            formatter.format(event, buf);
+        if (threadLocalBuffers == null || VirtualThreads.isCurrentThreadVirtual()) {
+            final StringBuilder buffer = buffers.acquire();
+            try {
+                format(event, toAppendTo, buffer);
+            } finally {
+                buffers.release(buffer);
+            }
+            return;
+        }
+        format(event, toAppendTo, threadLocalBuffers.get());
+    }
+
+    private void format(final LogEvent event, final StringBuilder toAppendTo, final StringBuilder buffer) {
+        // the nested pattern does not see the preceding text, so throwable converters do not prepend a space
+        final int start = buffer.length();
+        try {
+            for (final PatternFormatter formatter : formatters) {
+                formatter.format(event, buffer);
+            }
+            regex.replaceAll(buffer, start);
+            toAppendTo.append(buffer, start, buffer.length());
+        } finally {
+            buffer.setLength(start);
+            if (start == 0) {
+                StringBuilders.trimToMaxSize(buffer, Constants.MAX_REUSABLE_MESSAGE_SIZE);
+            }
         }
-        toAppendTo.append(pattern.matcher(buf.toString()).replaceAll(substitution));
     }
 }
@@ -68,11 +68,15 @@ public final class RootThrowablePatternConverter extends ThrowablePatternConvert
                 super.format(event, toAppendTo);
                 return;
             }
-            final String trace = proxy.getCauseStackTraceAsString(options.getIgnorePackages(), options.getTextRenderer(), getSuffix(event), options.getSeparator());
+            final String suffix = getSuffix(event);
             final int len = toAppendTo.length();
             if (len > 0 && !Character.isWhitespace(toAppendTo.charAt(len - 1))) {
                 toAppendTo.append(' ');
             }
+            if (formatReference(event, throwable, proxy, suffix, toAppendTo)) {
+                return;
+            }
+            final String trace = proxy.getCauseStackTraceAsString(options.getIgnorePackages(), options.getTextRenderer(), suffix, options.getSeparator());
             if (!options.allLines() || !Strings.LINE_SEPARATOR.equals(options.getSeparator())) {
                 final StringBuilder sb = new StringBuilder();
                 final String[] array = trace.split(Strings.LINE_SEPARATOR);
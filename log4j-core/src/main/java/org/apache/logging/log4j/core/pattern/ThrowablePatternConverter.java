@@ -25,7 +25,9 @@ import java.util.List;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.impl.StackTraceDeduplicator;
 import org.apache.logging.log4j.core.impl.ThrowableFormatOptions;
+import org.apache.logging.log4j.core.impl.ThrowableProxy;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.apache.logging.log4j.core.util.StringBuilderWriter;
 import org.apache.logging.log4j.util.Strings;
@@ -134,7 +136,7 @@ public class ThrowablePatternConverter extends LogEventPatternConverter {
             formatSubShortOption(t, getSuffix(event), buffer);
         }
         else if (t != null && options.anyLines()) {
-            formatOption(t, getSuffix(event), buffer);
+            formatOption(event, t, getSuffix(event), buffer);
         }
     }
 
@@ -185,11 +187,15 @@ public class ThrowablePatternConverter extends LogEventPatternConverter {
         }
     }
 
-    private void formatOption(final Throwable throwable, final String suffix, final StringBuilder buffer) {
+    private void formatOption(final LogEvent event, final Throwable throwable, final String suffix,
+            final StringBuilder buffer) {
         final int len = buffer.length();
         if (len > 0 && !Character.isWhitespace(buffer.charAt(len - 1))) {
             buffer.append(' ');
         }
+        if (formatReference(event, throwable, null, suffix, buffer)) {
+            return;
+        }
         if (!options.allLines() || nonStandardLineSeparator || Strings.isNotBlank(suffix)) {
             final StringWriter w = new StringWriter();
             throwable.printStackTrace(new PrintWriter(w));
@@ -212,6 +218,42 @@ public class ThrowablePatternConverter extends LogEventPatternConverter {
         }
     }
 
+    /**
+     * Appends the stack hash of the throwable if repeated stack traces are deduplicated. A stack trace seen recently
+     * is replaced by its first line.
+     *
+     * @param event the event.
+     * @param throwable the throwable, or null to use the proxy.
+     * @param proxy the proxy of the throwable.
+     * @param suffix the suffix of each line.
+     * @param buffer the buffer to append to.
+     * @return true if the stack trace must not be rendered.
+     */
+    boolean formatReference(final LogEvent event, final Throwable throwable, final ThrowableProxy proxy,
+            final String suffix, final StringBuilder buffer) {
+        final StackTraceDeduplicator deduplicator = options.getDeduplicator();
+        if (deduplicator == null) {
+            return false;
+        }
+        final long signature = throwable != null
+                ? StackTraceDeduplicator.signature(throwable)
+                : StackTraceDeduplicator.signature(proxy);
+        final long count = deduplicator.record(signature, event.getTimeMillis());
+        StackTraceDeduplicator.formatReference(signature, count, buffer);
+        buffer.append(' ');
+        if (count == 1) {
+            return false;
+        }
+        buffer.append(throwable != null ? throwable.toString() : proxy.toString());
+        if (Strings.isNotBlank(suffix)) {
+            buffer.append(' ').append(suffix);
+        }
+        if (options.allLines() && !nonStandardLineSeparator) {
+            buffer.append(Strings.LINE_SEPARATOR);
+        }
+        return true;
+    }
+
     /**
      * This converter obviously handles throwables.
      *
@@ -30,6 +30,16 @@ public class CloseShieldOutputStream extends OutputStream {
         this.delegate = delegate;
     }
 
+    /**
+     * Returns the stream that this stream writes to.
+     *
+     * @return the delegate
+     * @since 2.21.0
+     */
+    public OutputStream getDelegate() {
+        return delegate;
+    }
+
     /**
      * Does nothing.
      */
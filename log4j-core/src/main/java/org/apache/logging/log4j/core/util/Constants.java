@@ -144,6 +144,19 @@ public final class Constants {
      */
     public static final int ENCODER_BYTE_BUFFER_SIZE = size("log4j.encoder.byteBufferSize", 8 * 1024);
 
+    /**
+     * Whether file, rolling file and direct console managers encode into direct ByteBuffers and write them to the
+     * {@link java.nio.channels.FileChannel} of the file with gathering writes, instead of copying them to the
+     * {@code OutputStream} through a heap array.
+     * <p>
+     * {@code False} by default. Enable by setting system property "log4j2.enableChannelOutput" to "true".
+     * </p>
+     *
+     * @since 2.21.0
+     */
+    public static final boolean ENABLE_CHANNEL_OUTPUT = PropertiesUtil.getProperties().getBooleanProperty(
+            "log4j2.enableChannelOutput", false);
+
 
     private static int size(final String property, final int defaultValue) {
         return PropertiesUtil.getProperties().getIntegerProperty(property, defaultValue);
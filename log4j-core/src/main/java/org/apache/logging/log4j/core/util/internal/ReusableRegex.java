@@ -0,0 +1,390 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.util.BoundedObjectPool;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.Strings;
+import org.apache.logging.log4j.util.VirtualThreads;
+
+/**
+ * Matches a regular expression against character sequences and replaces its matches in a {@link StringBuilder}
+ * without creating temporary objects.
+ * <p>
+ * Matchers are kept per thread and reset to the text, so that neither the text nor the matcher needs to be created
+ * for each call. The replacement string is parsed once. Before the regular expression is evaluated, the text is
+ * checked for the literal text that every match must start with, if there is one.
+ * </p>
+ */
+@PerformanceSensitive("allocation")
+public final class ReusableRegex {
+
+    /** Marks a literal replacement segment. */
+    private static final int LITERAL = -1;
+
+    /** Marks a named group replacement segment. */
+    private static final int NAMED_GROUP = -2;
+
+    private final Pattern pattern;
+
+    private final String replacement;
+
+    /**
+     * The text of each replacement segment: a literal or a group name.
+     */
+    private final String[] segmentTexts;
+
+    /**
+     * The group number of each replacement segment, {@link #LITERAL} or {@link #NAMED_GROUP}.
+     */
+    private final int[] segmentGroups;
+
+    /**
+     * The text every match starts with, or {@code null} if it is unknown.
+     */
+    private final String prefix;
+
+    /**
+     * Matchers of platform threads, or {@code null} if thread locals are disabled. Matching does not call code that
+     * could log, so a thread never uses its matcher twice at the same time.
+     */
+    private final ThreadLocal<Matcher> threadLocalMatchers;
+
+    /**
+     * Matchers of virtual threads, and of all threads if thread locals are disabled.
+     */
+    private final BoundedObjectPool<Matcher> matchers;
+
+    /**
+     * Creates a regular expression that is only used for matching.
+     *
+     * @param pattern the regular expression.
+     */
+    public ReusableRegex(final Pattern pattern) {
+        this(pattern, null);
+    }
+
+    /**
+     * Creates a regular expression that is used for matching and replacement.
+     *
+     * @param pattern the regular expression.
+     * @param replacement the replacement string, with the syntax of {@link Matcher#appendReplacement}.
+     */
+    public ReusableRegex(final Pattern pattern, final String replacement) {
+        this.pattern = pattern;
+        this.replacement = replacement;
+        this.threadLocalMatchers = Constants.ENABLE_THREADLOCALS
+                ? ThreadLocal.withInitial(() -> pattern.matcher(Strings.EMPTY))
+                : null;
+        this.matchers = new BoundedObjectPool<>(() -> pattern.matcher(Strings.EMPTY));
+        this.prefix = prefixOf(pattern);
+        final List<String> texts = new ArrayList<>();
+        final List<Integer> groups = new ArrayList<>();
+        if (replacement != null && parseReplacement(replacement, pattern.matcher(Strings.EMPTY).groupCount(), texts,
+                groups)) {
+            this.segmentTexts = texts.toArray(new String[0]);
+            this.segmentGroups = new int[groups.size()];
+            for (int i = 0; i < segmentGroups.length; i++) {
+                segmentGroups[i] = groups.get(i);
+            }
+        } else {
+            // the replacement is evaluated by the JDK, which reports its errors
+            this.segmentTexts = null;
+            this.segmentGroups = null;
+        }
+    }
+
+    /**
+     * Returns the regular expression.
+     *
+     * @return the regular expression.
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns the text every match starts with.
+     *
+     * @return the prefix, or {@code null} if it is unknown.
+     */
+    String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Tests whether the entire text matches the regular expression.
+     *
+     * @param text the text to match.
+     * @return {@code true} if the text matches.
+     * @see Matcher#matches()
+     */
+    public boolean matches(final CharSequence text) {
+        return matches(text, 0);
+    }
+
+    /**
+     * Tests whether the end of a text matches the regular expression.
+     *
+     * @param text the text to match.
+     * @param start the index of the text at which the text to match starts.
+     * @return {@code true} if the end of the text matches.
+     * @see Matcher#matches()
+     */
+    public boolean matches(final CharSequence text, final int start) {
+        if (prefix != null && !startsWith(text, start, prefix)) {
+            return false;
+        }
+        final Matcher matcher = acquire();
+        try {
+            // resetting is not free, and region() resets again
+            return (start == 0 ? matcher.reset(text) : matcher.reset(text).region(start, text.length())).matches();
+        } finally {
+            release(matcher);
+        }
+    }
+
+    /**
+     * Replaces every match in the end of a buffer with the replacement string.
+     *
+     * @param buffer the buffer to modify.
+     * @param start the index of the buffer at which the text to replace starts.
+     * @see Matcher#replaceAll(String)
+     */
+    public void replaceAll(final StringBuilder buffer, final int start) {
+        if (prefix != null && buffer.indexOf(prefix, start) < 0) {
+            return;
+        }
+        if (segmentTexts == null) {
+            final String text = pattern.matcher(buffer.substring(start)).replaceAll(replacement);
+            buffer.setLength(start);
+            buffer.append(text);
+            return;
+        }
+        final Matcher matcher = acquire();
+        try {
+            final int end = buffer.length();
+            // the matcher only reads up to end, so the result is appended after the text and moved to start afterwards
+            matcher.reset(buffer).region(start, end);
+            if (!matcher.find()) {
+                return;
+            }
+            int last = start;
+            do {
+                buffer.append(buffer, last, matcher.start());
+                appendReplacement(matcher, buffer);
+                last = matcher.end();
+            } while (matcher.find());
+            buffer.append(buffer, last, end);
+            buffer.delete(start, end);
+        } finally {
+            release(matcher);
+        }
+    }
+
+    /**
+     * Replaces every match in a string with the replacement string.
+     *
+     * @param text the text.
+     * @return the text with all matches replaced, the same instance if there is no match.
+     * @see Matcher#replaceAll(String)
+     */
+    public String replaceAll(final String text) {
+        if (prefix != null && !text.contains(prefix)) {
+            return text;
+        }
+        return pattern.matcher(text).replaceAll(replacement);
+    }
+
+    private void appendReplacement(final Matcher matcher, final StringBuilder buffer) {
+        for (int i = 0; i < segmentTexts.length; i++) {
+            final int group = segmentGroups[i];
+            if (group == LITERAL) {
+                buffer.append(segmentTexts[i]);
+            } else if (group == NAMED_GROUP) {
+                final int groupStart = matcher.start(segmentTexts[i]);
+                if (groupStart >= 0) {
+                    buffer.append(buffer, groupStart, matcher.end(segmentTexts[i]));
+                }
+            } else {
+                final int groupStart = matcher.start(group);
+                if (groupStart >= 0) {
+                    buffer.append(buffer, groupStart, matcher.end(group));
+                }
+            }
+        }
+    }
+
+    private Matcher acquire() {
+        if (threadLocalMatchers == null || VirtualThreads.isCurrentThreadVirtual()) {
+            return matchers.acquire();
+        }
+        return threadLocalMatchers.get();
+    }
+
+    private void release(final Matcher matcher) {
+        if (threadLocalMatchers == null || VirtualThreads.isCurrentThreadVirtual()) {
+            // a pooled matcher does not keep a reference to the text of another thread
+            matcher.reset(Strings.EMPTY);
+            matchers.release(matcher);
+        }
+    }
+
+    private static boolean startsWith(final CharSequence text, final int start, final String prefix) {
+        if (text.length() - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a replacement string like {@link Matcher#appendReplacement} does.
+     *
+     * @return {@code false} if the replacement string is invalid.
+     */
+    private static boolean parseReplacement(final String replacement, final int groupCount, final List<String> texts,
+            final List<Integer> groups) {
+        final StringBuilder literal = new StringBuilder();
+        int cursor = 0;
+        while (cursor < replacement.length()) {
+            final char c = replacement.charAt(cursor++);
+            if (c == '\\') {
+                if (cursor == replacement.length()) {
+                    return false;
+                }
+                literal.append(replacement.charAt(cursor++));
+            } else if (c == '$') {
+                if (cursor == replacement.length()) {
+                    return false;
+                }
+                if (literal.length() > 0) {
+                    texts.add(literal.toString());
+                    groups.add(LITERAL);
+                    literal.setLength(0);
+                }
+                if (replacement.charAt(cursor) == '{') {
+                    final int nameEnd = replacement.indexOf('}', ++cursor);
+                    if (nameEnd <= cursor || !isGroupName(replacement.substring(cursor, nameEnd))) {
+                        return false;
+                    }
+                    texts.add(replacement.substring(cursor, nameEnd));
+                    groups.add(NAMED_GROUP);
+                    cursor = nameEnd + 1;
+                } else {
+                    int group = replacement.charAt(cursor) - '0';
+                    if (group < 0 || group > 9) {
+                        return false;
+                    }
+                    cursor++;
+                    // the group number is as long as it refers to an existing group
+                    while (cursor < replacement.length()) {
+                        final int digit = replacement.charAt(cursor) - '0';
+                        if (digit < 0 || digit > 9 || group * 10 + digit > groupCount) {
+                            break;
+                        }
+                        group = group * 10 + digit;
+                        cursor++;
+                    }
+                    texts.add(null);
+                    groups.add(group);
+                }
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            texts.add(literal.toString());
+            groups.add(LITERAL);
+        }
+        return true;
+    }
+
+    private static boolean isGroupName(final String name) {
+        if (!isAsciiLetter(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (!isAsciiLetter(c) && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAsciiLetter(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * Returns the literal text that every match of the regular expression starts with. The expression is only
+     * analyzed as far as it is a sequence of plain or escaped characters, so this is {@code null} for many
+     * expressions that do have a prefix.
+     */
+    private static String prefixOf(final Pattern pattern) {
+        final String regex = pattern.pattern();
+        final int flags = pattern.flags();
+        if ((flags & (Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+            return null;
+        }
+        if ((flags & Pattern.LITERAL) != 0) {
+            return regex.isEmpty() ? null : regex;
+        }
+        if (regex.indexOf('|') >= 0) {
+            return null;
+        }
+        final StringBuilder prefix = new StringBuilder();
+        int i = regex.startsWith("^") ? 1 : 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            int next = i + 1;
+            if (c == '\\') {
+                if (next == regex.length() || Character.isLetterOrDigit(regex.charAt(next))) {
+                    // a character class, a back reference or a quotation
+                    break;
+                }
+                c = regex.charAt(next++);
+            } else if ("[](){}.*+?^$".indexOf(c) >= 0) {
+                break;
+            }
+            if (Character.isSurrogate(c)
+                    || (next < regex.length() && "*?{".indexOf(regex.charAt(next)) >= 0)) {
+                // an optional or repeated character
+                break;
+            }
+            prefix.append(c);
+            i = next;
+        }
+        return prefix.length() == 0 ? null : prefix.toString();
+    }
+
+    @Override
+    public String toString() {
+        return pattern.pattern();
+    }
+}
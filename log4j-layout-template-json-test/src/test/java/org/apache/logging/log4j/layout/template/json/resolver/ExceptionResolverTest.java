@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.resolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
+import org.apache.logging.log4j.layout.template.json.util.JsonReader;
+import org.junit.jupiter.api.Test;
+
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExceptionResolverTest {
+
+    @Test
+    void repeated_stack_traces_should_be_deduplicated() {
+
+        // Create the event template.
+        final String eventTemplate = writeJson(asMap(
+                "stackTrace", asMap(
+                        "$resolver", "exception",
+                        "field", "stackTrace",
+                        "stackTrace", asMap(
+                                "stringified", true,
+                                "deduplication", asMap("windowSeconds", 10))),
+                "stackHash", asMap(
+                        "$resolver", "exception",
+                        "field", "stackHash")));
+
+        // Create the layout.
+        final JsonTemplateLayout layout = JsonTemplateLayout
+                .newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setEventTemplate(eventTemplate)
+                .build();
+
+        // Serialize events with the same stack trace.
+        final long[] times = {1_000, 2_000, 3_000, 11_000};
+        final List<Map<String, Object>> results = new ArrayList<>();
+        for (int i = 0; i < times.length; i++) {
+            final LogEvent logEvent = Log4jLogEvent
+                    .newBuilder()
+                    .setTimeMillis(times[i])
+                    .setThrown(new IllegalStateException("failure " + i))
+                    .build();
+            @SuppressWarnings("unchecked")
+            final Map<String, Object> result =
+                    (Map<String, Object>) JsonReader.read(layout.toSerializable(logEvent));
+            results.add(result);
+        }
+
+        // Check the stack traces.
+        final Object stackHash = results.get(0).get("stackHash");
+        assertThat(stackHash).asString().hasSize(16);
+        assertThat(results).allSatisfy(result -> assertThat(result.get("stackHash")).isEqualTo(stackHash));
+        assertThat(results.get(0).get("stackTrace"))
+                .asString()
+                .startsWith("java.lang.IllegalStateException: failure 0");
+        assertThat(results.get(1).get("stackTrace"))
+                .isEqualTo("stackHash=" + stackHash + ", seen 2 times");
+        assertThat(results.get(2).get("stackTrace"))
+                .isEqualTo("stackHash=" + stackHash + ", seen 3 times");
+        // the window is over
+        assertThat(results.get(3).get("stackTrace"))
+                .asString()
+                .startsWith("java.lang.IllegalStateException: failure 3");
+
+    }
+
+}
@@ -24,9 +24,11 @@ import java.util.regex.PatternSyntaxException;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.StackTraceDeduplicator;
 import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
 import org.apache.logging.log4j.layout.template.json.JsonTemplateLayoutDefaults;
 import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
+import org.apache.logging.log4j.layout.template.json.util.Recycler;
 import org.apache.logging.log4j.status.StatusLogger;
 
 /**
@@ -41,11 +43,12 @@ import org.apache.logging.log4j.status.StatusLogger;
  *
  * <pre>
  * config              = field , [ stringified ] , [ stackTrace ]
- * field               = "field" -> ( "className" | "message" | "stackTrace" )
+ * field               = "field" -> ( "className" | "message" | "stackTrace" | "stackHash" )
  *
  * stackTrace          = "stackTrace" -> (
  *                         [ stringified ]
  *                       , [ elementTemplate ]
+ *                       , [ deduplication ]
  *                       )
  *
  * stringified         = "stringified" -> ( boolean | truncation )
@@ -59,6 +62,13 @@ import org.apache.logging.log4j.status.StatusLogger;
  * pointMatcherRegexes = "pointMatcherRegexes" -> string[]
  *
  * elementTemplate     = "elementTemplate" -> object
+ *
+ * deduplication       = "deduplication" -> ( boolean | (
+ *                         [ windowSeconds ]
+ *                       , [ maxSize ]
+ *                       ) )
+ * windowSeconds       = "windowSeconds" -> number
+ * maxSize             = "maxSize" -> number
  * </pre>
  *
  * <tt>stringified</tt> is set to <tt>false</tt> by default.
@@ -100,6 +110,14 @@ import org.apache.logging.log4j.status.StatusLogger;
  * <p>
  * See {@link StackTraceElementResolver}
  * for the list of available resolvers in a stack trace element template.
+ * <p>
+ * <tt>deduplication</tt> replaces stack traces that were already resolved
+ * within the last <tt>windowSeconds</tt> (defaults to 60) by the string
+ * <tt>stackHash=&lt;hash&gt;, seen &lt;count&gt; times</tt>, where the hash is a
+ * signature of the class names and stack trace elements of the exception and
+ * its causes. The last <tt>maxSize</tt> (defaults to 1024) signatures are
+ * remembered. The <tt>stackHash</tt> field resolves the same signature, so
+ * that repeated exceptions can be related to their first occurrence.
  *
  * <h3>Examples</h3>
  *
@@ -151,6 +169,22 @@ import org.apache.logging.log4j.status.StatusLogger;
  * }
  * </pre>
  *
+ * Resolve the stack trace into a string field, replacing the stack traces seen
+ * in the last 5 minutes by a reference:
+ *
+ * <pre>
+ *  {
+ *   "$resolver": "exception",
+ *   "field": "stackTrace",
+ *   "stackTrace": {
+ *     "stringified": true,
+ *     "deduplication": {
+ *       "windowSeconds": 300
+ *     }
+ *   }
+ * }
+ * </pre>
+ *
  * Resolve the stack trace into an object described by the provided stack trace
  * element template:
  *
@@ -218,6 +252,8 @@ public class ExceptionResolver implements EventResolver {
             return createMessageResolver();
         } else if ("stackTrace".equals(fieldName)) {
             return createStackTraceResolver(context, config);
+        } else if ("stackHash".equals(fieldName)) {
+            return createStackHashResolver(context);
         }
         throw new IllegalArgumentException("unknown field: " + config);
     }
@@ -253,9 +289,90 @@ public class ExceptionResolver implements EventResolver {
             return NULL_RESOLVER;
         }
         final boolean stringified = isStackTraceStringified(config);
-        return stringified
+        final EventResolver resolver = stringified
                 ? createStackTraceStringResolver(context, config)
                 : createStackTraceObjectResolver(context, config);
+        final StackTraceDeduplicator deduplicator = readDeduplicator(config);
+        return deduplicator == null
+                ? resolver
+                : createDeduplicatingResolver(context, resolver, deduplicator);
+    }
+
+    private static StackTraceDeduplicator readDeduplicator(
+            final TemplateResolverConfig config) {
+        final Object deduplication =
+                config.getObject(new String[]{"stackTrace", "deduplication"});
+        if (deduplication == null || Boolean.FALSE.equals(deduplication)) {
+            return null;
+        }
+        final Integer windowSeconds = config.getInteger(
+                new String[]{"stackTrace", "deduplication", "windowSeconds"});
+        final Integer maxSize = config.getInteger(
+                new String[]{"stackTrace", "deduplication", "maxSize"});
+        return new StackTraceDeduplicator(
+                maxSize != null ? maxSize : StackTraceDeduplicator.DEFAULT_MAX_SIZE,
+                windowSeconds != null ? windowSeconds : StackTraceDeduplicator.DEFAULT_WINDOW_SECONDS);
+    }
+
+    private EventResolver createDeduplicatingResolver(
+            final EventResolverContext context,
+            final EventResolver resolver,
+            final StackTraceDeduplicator deduplicator) {
+        final Recycler<StringBuilder> stringBuilderRecycler =
+                createStringBuilderRecycler(context);
+        return (final LogEvent logEvent, final JsonWriter jsonWriter) -> {
+            final Throwable exception = extractThrowable(logEvent);
+            if (exception == null) {
+                jsonWriter.writeNull();
+                return;
+            }
+            final long signature = StackTraceDeduplicator.signature(exception);
+            final long count = deduplicator.record(signature, logEvent.getTimeMillis());
+            if (count == 1) {
+                resolver.resolve(logEvent, jsonWriter);
+                return;
+            }
+            final StringBuilder stringBuilder = stringBuilderRecycler.acquire();
+            try {
+                stringBuilder.append("stackHash=");
+                StackTraceDeduplicator.formatSignature(signature, stringBuilder);
+                stringBuilder.append(", seen ").append(count).append(" times");
+                jsonWriter.writeString(stringBuilder);
+            } finally {
+                stringBuilderRecycler.release(stringBuilder);
+            }
+        };
+    }
+
+    private EventResolver createStackHashResolver(
+            final EventResolverContext context) {
+        final Recycler<StringBuilder> stringBuilderRecycler =
+                createStringBuilderRecycler(context);
+        return (final LogEvent logEvent, final JsonWriter jsonWriter) -> {
+            final Throwable exception = extractThrowable(logEvent);
+            if (exception == null) {
+                jsonWriter.writeNull();
+                return;
+            }
+            final StringBuilder stringBuilder = stringBuilderRecycler.acquire();
+            try {
+                StackTraceDeduplicator.formatSignature(
+                        StackTraceDeduplicator.signature(exception),
+                        stringBuilder);
+                jsonWriter.writeString(stringBuilder);
+            } finally {
+                stringBuilderRecycler.release(stringBuilder);
+            }
+        };
+    }
+
+    private static Recycler<StringBuilder> createStringBuilderRecycler(
+            final EventResolverContext context) {
+        return context
+                .getRecyclerFactory()
+                .create(
+                        StringBuilder::new,
+                        stringBuilder -> stringBuilder.setLength(0));
     }
 
     private static boolean isStackTraceStringified(
@@ -16,12 +16,16 @@
  */
 package org.apache.logging.log4j.mongodb4;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoException;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.result.InsertManyResult;
 import com.mongodb.client.result.InsertOneResult;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.appender.AppenderLoggingException;
@@ -101,6 +105,22 @@ public final class MongoDb4Connection extends AbstractNoSqlConnection<Document,
         }
     }
 
+    @Override
+    public void insertObjects(final NoSqlObject<Document>[] objects) {
+        try {
+            final List<Document> unwrapped = new ArrayList<>(objects.length);
+            for (final NoSqlObject<Document> object : objects) {
+                unwrapped.add(object.unwrap());
+            }
+            LOGGER.debug("Inserting {} BSON Documents", unwrapped.size());
+            final InsertManyResult insertManyResult = this.collection.insertMany(unwrapped);
+            LOGGER.debug("Insert MongoDb result {}", insertManyResult);
+        } catch (final MongoException e) {
+            throw new AppenderLoggingException("Failed to write log events to MongoDB due to error: " + e.getMessage(),
+                    e);
+        }
+    }
+
     @Override
     public String toString() {
         return String.format("Mongo4Connection [connectionString=%s, collection=%s, mongoClient=%s]", connectionString,
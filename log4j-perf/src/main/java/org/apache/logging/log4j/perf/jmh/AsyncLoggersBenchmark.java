@@ -28,6 +28,7 @@ import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -46,12 +47,21 @@ import static org.apache.logging.log4j.perf.util.BenchmarkMessageParams.*;
 // multiple threads (for example, 4 threads):
 // java -jar log4j-perf/target/benchmarks.jar ".*AsyncLoggersBenchmark.*" -f 1 -wi 10 -i 20 -t 4 -si true
 //
+// scaling of sharded ring buffers with the number of threads (repeat with -t 1, 4, 16, ...):
+// java -jar log4j-perf/target/benchmarks.jar ".*AsyncLoggersBenchmark.throughputSimple" -f 1 -wi 10 -i 20 -t 16 -si true -p shards=1,4,8
+//
 // Usage help:
 // java -jar log4j-perf/target/benchmarks.jar -help
 //
 @State(Scope.Thread)
 public class AsyncLoggersBenchmark {
 
+    /**
+     * Number of ring buffers (AsyncLogger.Shards).
+     */
+    @Param({"1", "4"})
+    public int shards;
+
     Logger logger;
 
     @Setup(Level.Trial)
@@ -60,6 +70,7 @@ public class AsyncLoggersBenchmark {
         System.setProperty("Log4jContextSelector", "org.apache.logging.log4j.core.async.AsyncLoggerContextSelector");
         System.setProperty("AsyncLogger.RingBufferSize", "262144");
         System.setProperty("AsyncLogger.WaitStrategy", "Yield");
+        System.setProperty("AsyncLogger.Shards", String.valueOf(shards));
         //System.setProperty("log4j2.enable.threadlocals", "true");
         //System.setProperty("log4j.format.msg.async", "true");
 
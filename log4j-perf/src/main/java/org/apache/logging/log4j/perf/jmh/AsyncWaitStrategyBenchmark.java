@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.TimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import org.apache.logging.log4j.core.async.AdaptiveWaitStrategy;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the wait strategies of the Async Logger ring buffer under bursty load: each invocation publishes a burst
+ * of events after an idle period and measures the time until the consumer has processed the whole burst.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*AsyncWaitStrategyBenchmark.*" -f 1 -wi 5 -i 10
+//
+// Compare the CPU time of the consumer thread (for example with -prof stack or top) together with the latency,
+// as spinning strategies buy their latency with a busy core.
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Thread)
+public class AsyncWaitStrategyBenchmark {
+
+    private static final int RING_BUFFER_SIZE = 64 * 1024;
+
+    @Param({"Timeout", "Block", "Sleep", "Yield", "BusySpin", "Adaptive"})
+    public String waitStrategy;
+
+    @Param({"1", "100"})
+    public int burstSize;
+
+    /**
+     * Idle time between bursts in microseconds.
+     */
+    @Param({"0", "100", "10000"})
+    public long idleMicros;
+
+    private Disruptor<long[]> disruptor;
+
+    private RingBuffer<long[]> ringBuffer;
+
+    private final Sequence processed = new Sequence();
+
+    @Setup(Level.Trial)
+    public void up() {
+        disruptor = new Disruptor<>(() -> new long[1], RING_BUFFER_SIZE,
+                new Log4jThreadFactory("AsyncWaitStrategyBenchmark", true, Thread.NORM_PRIORITY),
+                ProducerType.MULTI, createWaitStrategy(waitStrategy));
+        final EventHandler<long[]> handler = (event, sequence, endOfBatch) -> processed.set(sequence);
+        disruptor.handleEventsWith(handler);
+        ringBuffer = disruptor.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void down() {
+        disruptor.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void idle() {
+        if (idleMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(idleMicros));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long burstLatency() {
+        long sequence = -1;
+        for (int i = 0; i < burstSize; i++) {
+            sequence = ringBuffer.next();
+            ringBuffer.get(sequence)[0] = i;
+            ringBuffer.publish(sequence);
+        }
+        while (processed.get() < sequence) {
+            // wait for the consumer to catch up
+        }
+        return sequence;
+    }
+
+    private static WaitStrategy createWaitStrategy(final String name) {
+        switch (name) {
+            case "Block":
+                return new BlockingWaitStrategy();
+            case "Sleep":
+                return new SleepingWaitStrategy();
+            case "Yield":
+                return new YieldingWaitStrategy();
+            case "BusySpin":
+                return new BusySpinWaitStrategy();
+            case "Adaptive":
+                return new AdaptiveWaitStrategy(20_000L, 200_000L, 10L, TimeUnit.MILLISECONDS);
+            default:
+                return new TimeoutBlockingWaitStrategy(10L, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.NullConfiguration;
+import org.apache.logging.log4j.core.util.NameUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares resolving the LoggerConfig of Logger names with the LoggerConfig trie of the configuration against
+ * resolving them by successive substrings, and measures adding a LoggerConfig to a large configuration.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*LoggerConfigResolutionBenchmark.*" -f 1 -wi 5 -i 10
+//
+// Allocation rate:
+// java -jar log4j-perf/target/benchmarks.jar ".*LoggerConfigResolutionBenchmark.*" -f 1 -wi 5 -i 10 -prof gc
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoggerConfigResolutionBenchmark {
+
+    private static final int LOGGER_NAMES = 1024;
+
+    @Param({"100", "60000"})
+    public int loggerConfigCount;
+
+    private NullConfiguration configuration;
+    private Map<String, LoggerConfig> loggerConfigs;
+    private String[] loggerNames;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        configuration = new NullConfiguration();
+        for (int i = 0; i < loggerConfigCount; i++) {
+            final String name = randomName(random, 1 + random.nextInt(4));
+            configuration.addLogger(name, new LoggerConfig(name, Level.INFO, true));
+        }
+        loggerConfigs = configuration.getLoggers();
+        loggerNames = new String[LOGGER_NAMES];
+        for (int i = 0; i < LOGGER_NAMES; i++) {
+            loggerNames[i] = randomName(random, 3 + random.nextInt(4)) + ".SomeClass";
+        }
+    }
+
+    private static String randomName(final Random random, final int depth) {
+        final StringBuilder sb = new StringBuilder("org.example");
+        for (int i = 0; i < depth; i++) {
+            sb.append(".pkg").append(random.nextInt(16));
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public void getLoggerConfig(final Blackhole bh) {
+        for (final String loggerName : loggerNames) {
+            bh.consume(configuration.getLoggerConfig(loggerName));
+        }
+    }
+
+    @Benchmark
+    public void getLoggerConfigBySubNames(final Blackhole bh) {
+        for (final String loggerName : loggerNames) {
+            bh.consume(resolveBySubNames(loggerName));
+        }
+    }
+
+    /**
+     * Adding a LoggerConfig rebuilds the trie and the parents of all LoggerConfigs, as a reconfiguration does.
+     */
+    @Benchmark
+    public LoggerConfig addAndRemoveLogger() {
+        final LoggerConfig loggerConfig = new LoggerConfig("org.example.added", Level.DEBUG, true);
+        configuration.addLogger("org.example.added", loggerConfig);
+        configuration.removeLogger("org.example.added");
+        return loggerConfig;
+    }
+
+    private LoggerConfig resolveBySubNames(final String loggerName) {
+        LoggerConfig loggerConfig = loggerConfigs.get(loggerName);
+        if (loggerConfig != null) {
+            return loggerConfig;
+        }
+        String substr = loggerName;
+        while ((substr = NameUtil.getSubName(substr)) != null) {
+            loggerConfig = loggerConfigs.get(substr);
+            if (loggerConfig != null) {
+                return loggerConfig;
+            }
+        }
+        return configuration.getRootLogger();
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.perf.jmh;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.concurrent.TimeUnit;
 
@@ -24,6 +25,8 @@ import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.ThreadContext.ContextStack;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.SimpleMessage;
@@ -53,6 +56,8 @@ public class PatternLayoutBenchmark {
 
     final static String STR = "AB!(%087936DZYXQWEIOP$#^~-=/><nb"; // length=32
     final static LogEvent EVENT = createLogEvent();
+    // the thread name is set so that %t does not depend on the name of the benchmark method
+    final static LogEvent COMMON_EVENT = new Log4jLogEvent.Builder(EVENT).setThreadName("main").build();
     private static final String STRING_ISO8859_1 = "ISO-8859-1";
     private static final Charset CHARSET_ISO8859_1 = Charset.forName(STRING_ISO8859_1);
     private static final Charset CHARSET_DEFAULT = Charset.defaultCharset();
@@ -71,6 +76,39 @@ public class PatternLayoutBenchmark {
     private final PatternLayout PATTERN_M_EX = PatternLayout.createLayout("%m %ex%n", null, null, null, CHARSET_DEFAULT, false, true, null, null);
     private final PatternLayout PATTERN_M_D_EX = PatternLayout.createLayout("%d %m%ex%n", null, null, null, CHARSET_DEFAULT, false, true, null, null);
     private final PatternLayout PATTERN_M_C_D_EX = PatternLayout.createLayout("%d %c %m%ex%n", null, null, null, CHARSET_DEFAULT, false, true, null, null);
+    private final PatternLayout PATTERN_COMMON = PatternLayout.newBuilder().withPattern("%d %-5p [%t] %c{1.} - %m%n")
+            .withCharset(CHARSET_DEFAULT).withAlwaysWriteExceptions(false).build();
+    private final PatternLayout PATTERN_COMMON_COMPILED = PatternLayout.newBuilder().withPattern("%d %-5p [%t] %c{1.} - %m%n")
+            .withCharset(CHARSET_DEFAULT).withAlwaysWriteExceptions(false).withCompiled(true).build();
+    private final Destination destination = new Destination();
+
+    static class Destination implements ByteBufferDestination {
+        long count = 0;
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[256 * 1024]);
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            buf.flip();
+            count += buf.limit();
+            buf.clear();
+            return buf;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+        }
+    }
 
     private static LogEvent createLogEvent() {
         final Marker marker = null;
@@ -162,6 +200,36 @@ public class PatternLayoutBenchmark {
         return PATTERN_M_C_D_EX.toByteArray(EVENT);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public byte[] byteArrayCommon() {
+        return PATTERN_COMMON.toByteArray(COMMON_EVENT);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public byte[] byteArrayCommonCompiled() {
+        return PATTERN_COMMON_COMPILED.toByteArray(COMMON_EVENT);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long encodeCommon() {
+        PATTERN_COMMON.encode(COMMON_EVENT, destination);
+        return destination.count;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long encodeCommonCompiled() {
+        PATTERN_COMMON_COMPILED.encode(COMMON_EVENT, destination);
+        return destination.count;
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.SampleTime)
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.filter.RegexFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Tests the performance of regular expression replacement and filtering.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// single thread:
+// java -jar log4j-perf/target/benchmarks.jar ".*RegexReplacementBenchmark.*" -f 1 -wi 5 -i 10 -prof gc
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RegexReplacementBenchmark {
+
+    private static final LogEvent SECRET_EVENT = createLogEvent("login of user joe with password=secret succeeded");
+    private static final LogEvent PLAIN_EVENT = createLogEvent("login of user joe with a client certificate succeeded");
+
+    private final PatternLayout replaceLayout = PatternLayout.newBuilder()
+            .withPattern("%-5p %c - %replace{%m}{password=\\S+}{password=***}%n")
+            .withAlwaysWriteExceptions(false)
+            .build();
+    private Filter filter;
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    private static LogEvent createLogEvent(final String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("RegexReplacementBenchmark")
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(message))
+                .build();
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        filter = RegexFilter.createFilter("login of user \\w+ .*", null, false, Filter.Result.ACCEPT,
+                Filter.Result.DENY);
+    }
+
+    @Benchmark
+    public StringBuilder replaceMatch() {
+        buffer.setLength(0);
+        replaceLayout.serialize(SECRET_EVENT, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public StringBuilder replaceNoMatch() {
+        buffer.setLength(0);
+        replaceLayout.serialize(PLAIN_EVENT, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Filter.Result filterParameterized() {
+        // a new message each time, as a message caches its formatted text
+        final Message message = new ParameterizedMessage("login of user {} with {} succeeded", "joe", "a certificate");
+        return filter.filter(null, Level.INFO, null, message, null);
+    }
+}